@@ -0,0 +1,110 @@
+package com.spa.loadtest;
+
+import java.io.IOException;
+import java.net.ServerSocket;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Starts the backend jar on a free port against a fresh SQLite file in a temp directory,
+ * seeded by the synthetic data generator, and stops it again when the run is over.
+ */
+final class AppLauncher implements AutoCloseable {
+
+    private static final Duration STARTUP_TIMEOUT = Duration.ofMinutes(5);
+    
+    private final Process process;
+    private final Path workDir;
+    private final String baseUrl;
+    
+    private AppLauncher(Process process, Path workDir, String baseUrl) {
+        this.process = process;
+        this.workDir = workDir;
+        this.baseUrl = baseUrl;
+    }
+    
+    static AppLauncher start(LoadTestConfig config) throws IOException, InterruptedException {
+        if (!Files.isRegularFile(config.appJar)) {
+            throw new IllegalStateException("Backend jar not found: " + config.appJar.toAbsolutePath()
+                    + " (build it with mvn -f be/pom.xml package -DskipTests)");
+        }
+        Path workDir = Files.createTempDirectory("spa-loadtest-");
+        int port = freePort();
+        
+        List<String> command = new ArrayList<>();
+        command.add(Path.of(System.getProperty("java.home"), "bin", "java").toString());
+        command.add("-jar");
+        command.add(config.appJar.toAbsolutePath().toString());
+        command.add("--server.port=" + port);
+        command.add("--spring.datasource.url=jdbc:sqlite:" + workDir.resolve("spa.db"));
+        command.add("--file.upload-dir=" + workDir.resolve("uploads"));
+        command.add("--spring.profiles.active=synthetic,local-mail");
+        command.add("--spring.mail.port=" + freePort());
+        command.add("--data.synthetic.seed=" + config.seed);
+        command.add("--data.synthetic.customers=" + config.customers);
+        command.add("--logging.level.com.spa=INFO");
+        command.add("--spring.threads.virtual.enabled=" + config.virtualThreads);
+        
+        Path log = workDir.resolve("app.log");
+        Process process = new ProcessBuilder(command)
+                .directory(workDir.toFile())
+                .redirectErrorStream(true)
+                .redirectOutput(log.toFile())
+                .start();
+        System.out.println("Started backend (pid " + process.pid() + ") on port " + port
+                + " with " + (config.virtualThreads ? "virtual" : "platform") + " threads, log: " + log);
+        
+        AppLauncher launcher = new AppLauncher(process, workDir, "http://localhost:" + port + "/api");
+        launcher.awaitHealthy();
+        return launcher;
+    }
+    
+    String getBaseUrl() {
+        return baseUrl;
+    }
+    
+    private void awaitHealthy() throws InterruptedException {
+        HttpClient client = HttpClient.newHttpClient();
+        HttpRequest request = HttpRequest.newBuilder(URI.create(baseUrl + "/actuator/health"))
+                .timeout(Duration.ofSeconds(2))
+                .build();
+        long deadline = System.nanoTime() + STARTUP_TIMEOUT.toNanos();
+        while (System.nanoTime() < deadline) {
+            if (!process.isAlive()) {
+                throw new IllegalStateException("Backend exited with code " + process.exitValue()
+                        + ", see " + workDir.resolve("app.log"));
+            }
+            try {
+                if (client.send(request, HttpResponse.BodyHandlers.discarding()).statusCode() == 200) {
+                    return;
+                }
+            } catch (IOException e) {
+                // Not listening yet
+            }
+            Thread.sleep(500);
+        }
+        throw new IllegalStateException("Backend did not become healthy within " + STARTUP_TIMEOUT);
+    }
+    
+    private static int freePort() throws IOException {
+        try (ServerSocket socket = new ServerSocket(0)) {
+            return socket.getLocalPort();
+        }
+    }
+    
+    @Override
+    public void close() throws InterruptedException {
+        process.destroy();
+        if (!process.waitFor(30, TimeUnit.SECONDS)) {
+            process.destroyForcibly();
+        }
+    }
+}
@@ -0,0 +1,49 @@
+package com.spa.loadtest;
+
+import org.HdrHistogram.Histogram;
+import org.HdrHistogram.Recorder;
+
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Per-endpoint HdrHistogram recorders (microsecond resolution, up to 60 s) and error counters.
+ * Interval recorders let the warmup phase be discarded without pausing the clients.
+ */
+final class LatencyRecorder {
+
+    private static final long MAX_MICROS = TimeUnit.SECONDS.toMicros(60);
+    
+    private final Map<String, Recorder> recorders = new ConcurrentHashMap<>();
+    private final Map<String, LongAdder> errors = new ConcurrentHashMap<>();
+    
+    void record(String endpoint, long elapsedNanos, boolean error) {
+        long micros = Math.min(Math.max(1, TimeUnit.NANOSECONDS.toMicros(elapsedNanos)), MAX_MICROS);
+        recorders.computeIfAbsent(endpoint, e -> new Recorder(MAX_MICROS, 3)).recordValue(micros);
+        if (error) {
+            errors.computeIfAbsent(endpoint, e -> new LongAdder()).increment();
+        }
+    }
+    
+    // Drop everything recorded so far (end of warmup)
+    void reset() {
+        recorders.values().forEach(Recorder::getIntervalHistogram);
+        errors.values().forEach(LongAdder::reset);
+    }
+    
+    // Histograms and error counts since the last reset, by endpoint name
+    Map<String, Result> snapshot() {
+        Map<String, Result> results = new TreeMap<>();
+        recorders.forEach((endpoint, recorder) -> {
+            LongAdder errorCount = errors.get(endpoint);
+            results.put(endpoint, new Result(recorder.getIntervalHistogram(), errorCount != null ? errorCount.sum() : 0));
+        });
+        return results;
+    }
+    
+    record Result(Histogram histogram, long errors) {
+    }
+}
@@ -0,0 +1,125 @@
+package com.spa.loadtest;
+
+import com.fasterxml.jackson.databind.node.ObjectNode;
+
+import java.net.http.HttpClient;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Closed-loop load test: N virtual users, each on its own virtual thread, repeatedly pick a
+ * scenario from the weighted mix and pause for an exponentially distributed think time.
+ * Latencies recorded during warmup are discarded; the measured window goes to the report.
+ *
+ * Options: --users, --duration, --warmup (seconds), --think-time-ms, --mix browse=50,customer=20,...,
+ * --customers, --seed, --app-jar, --base-url (test an already running instance instead),
+ * --report, --baseline (earlier report to compare against), --label,
+ * --threads platform|virtual (request threads of the launched backend).
+ *
+ * Platform vs virtual threads on the catalog and booking paths:
+ *   --threads platform --mix browse=70,customer=30 --users 500 --label platform --report target/platform.json
+ *   --threads virtual --mix browse=70,customer=30 --users 500 --label virtual --baseline target/platform.json
+ * Requests rejected by the connection gate (503) count as errors in the report.
+ */
+public final class LoadTest {
+
+    private LoadTest() {
+    }
+    
+    public static void main(String[] args) throws Exception {
+        LoadTestConfig config = LoadTestConfig.parse(args);
+        AppLauncher launcher = config.baseUrl == null ? AppLauncher.start(config) : null;
+        try {
+            run(config, launcher != null ? launcher.getBaseUrl() : config.baseUrl);
+        } finally {
+            if (launcher != null) {
+                launcher.close();
+            }
+        }
+    }
+    
+    private static void run(LoadTestConfig config, String baseUrl) throws Exception {
+        LatencyRecorder recorder = new LatencyRecorder();
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            HttpClient http = HttpClient.newBuilder()
+                    .executor(executor)
+                    .version(HttpClient.Version.HTTP_1_1)
+                    .connectTimeout(Duration.ofSeconds(5))
+                    .build();
+            SpaClient client = new SpaClient(http, baseUrl, recorder, config.customers);
+            
+            String adminToken = client.login(SpaClient.ADMIN_USERNAME, SpaClient.ADMIN_PASSWORD);
+            if (adminToken == null) {
+                throw new IllegalStateException("Admin login failed against " + baseUrl);
+            }
+            client.loadCatalog(adminToken);
+            
+            Scenario[] table = weightedTable(config.mix);
+            long warmupEnd = System.nanoTime() + config.warmup.toNanos();
+            long end = warmupEnd + config.duration.toNanos();
+            
+            System.out.printf("Running %d users for %ds (+%ds warmup) against %s%n",
+                    config.users, config.duration.toSeconds(), config.warmup.toSeconds(), baseUrl);
+            List<Future<?>> users = new ArrayList<>();
+            for (int i = 0; i < config.users; i++) {
+                Random random = new Random(config.seed + i);
+                users.add(executor.submit(() -> runUser(client, adminToken, table, config, random, end)));
+            }
+            
+            TimeUnit.NANOSECONDS.sleep(Math.max(0, warmupEnd - System.nanoTime()));
+            recorder.reset();
+            Instant startedAt = Instant.now();
+            long measureStart = System.nanoTime();
+            for (Future<?> user : users) {
+                user.get();
+            }
+            double seconds = (System.nanoTime() - measureStart) / 1e9;
+            
+            Map<String, LatencyRecorder.Result> results = recorder.snapshot();
+            ReportWriter writer = new ReportWriter();
+            ObjectNode report = writer.build(config, startedAt, seconds, results);
+            writer.print(report, config.baseline);
+            writer.write(report, config.report);
+        }
+    }
+    
+    private static void runUser(SpaClient client, String adminToken, Scenario[] table, LoadTestConfig config,
+                                Random random, long end) {
+        String customerToken = client.login(client.randomCustomer(random), SpaClient.CUSTOMER_PASSWORD);
+        Scenario.Session session = new Scenario.Session(customerToken, adminToken);
+        while (System.nanoTime() < end) {
+            table[random.nextInt(table.length)].run(client, session, random);
+            if (config.thinkTimeMillis > 0) {
+                long pause = (long) (-Math.log(1 - random.nextDouble()) * config.thinkTimeMillis);
+                try {
+                    Thread.sleep(Math.min(pause, config.thinkTimeMillis * 10));
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+            }
+        }
+    }
+    
+    // Scenario per percent point of weight, so picking one is a single random index
+    private static Scenario[] weightedTable(Map<Scenario, Integer> mix) {
+        List<Scenario> table = new ArrayList<>();
+        mix.forEach((scenario, weight) -> {
+            for (int i = 0; i < weight; i++) {
+                table.add(scenario);
+            }
+        });
+        if (table.isEmpty()) {
+            throw new IllegalArgumentException("Traffic mix has no weight");
+        }
+        return table.toArray(new Scenario[0]);
+    }
+}
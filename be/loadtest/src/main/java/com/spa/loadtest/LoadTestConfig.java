@@ -0,0 +1,83 @@
+package com.spa.loadtest;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Command line options. Every option has a default, so a bare run works after building the backend.
+ */
+final class LoadTestConfig {
+
+    Path appJar = Path.of("../target/spa-backend-0.0.1-SNAPSHOT.jar");
+    String baseUrl;
+    int users = 100;
+    Duration warmup = Duration.ofSeconds(15);
+    Duration duration = Duration.ofSeconds(60);
+    long thinkTimeMillis = 250;
+    long seed = 42;
+    int customers = 10_000;
+    Map<Scenario, Integer> mix = defaultMix();
+    Path report = Path.of("target/loadtest-report.json");
+    Path baseline;
+    String label = "local";
+    boolean virtualThreads;
+    
+    static LoadTestConfig parse(String[] args) {
+        LoadTestConfig config = new LoadTestConfig();
+        for (int i = 0; i < args.length; i++) {
+            String name = args[i];
+            if (i + 1 >= args.length) {
+                throw new IllegalArgumentException("Missing value for " + name);
+            }
+            String value = args[++i];
+            switch (name) {
+                case "--app-jar" -> config.appJar = Path.of(value);
+                case "--base-url" -> config.baseUrl = value;
+                case "--users" -> config.users = Integer.parseInt(value);
+                case "--warmup" -> config.warmup = Duration.ofSeconds(Long.parseLong(value));
+                case "--duration" -> config.duration = Duration.ofSeconds(Long.parseLong(value));
+                case "--think-time-ms" -> config.thinkTimeMillis = Long.parseLong(value);
+                case "--seed" -> config.seed = Long.parseLong(value);
+                case "--customers" -> config.customers = Integer.parseInt(value);
+                case "--mix" -> config.mix = parseMix(value);
+                case "--report" -> config.report = Path.of(value);
+                case "--baseline" -> config.baseline = Path.of(value);
+                case "--label" -> config.label = value;
+                case "--threads" -> config.virtualThreads = parseThreads(value);
+                default -> throw new IllegalArgumentException("Unknown option " + name);
+            }
+        }
+        return config;
+    }
+    
+    // "platform" or "virtual" request threads in the launched backend
+    private static boolean parseThreads(String value) {
+        return switch (value) {
+            case "platform" -> false;
+            case "virtual" -> true;
+            default -> throw new IllegalArgumentException("--threads must be platform or virtual");
+        };
+    }
+    
+    // "browse=50,customer=20,login=10,guest=10,admin=10"
+    private static Map<Scenario, Integer> parseMix(String value) {
+        Map<Scenario, Integer> mix = new LinkedHashMap<>();
+        for (String part : value.split(",")) {
+            String[] pair = part.split("=");
+            mix.put(Scenario.valueOf(pair[0].trim().toUpperCase()), Integer.parseInt(pair[1].trim()));
+        }
+        return mix;
+    }
+    
+    private static Map<Scenario, Integer> defaultMix() {
+        Map<Scenario, Integer> mix = new LinkedHashMap<>();
+        mix.put(Scenario.BROWSE, 50);
+        mix.put(Scenario.CUSTOMER, 20);
+        mix.put(Scenario.LOGIN, 10);
+        mix.put(Scenario.GUEST, 10);
+        mix.put(Scenario.ADMIN, 10);
+        return mix;
+    }
+}
@@ -0,0 +1,112 @@
+package com.spa.loadtest;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import org.HdrHistogram.Histogram;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.Map;
+
+/**
+ * Writes the run report as JSON (stable keys, so reports from different builds can be diffed
+ * or fed to other tools) and prints a summary table, optionally compared to a baseline report.
+ * Each endpoint also carries its compressed HdrHistogram, so raw distributions can be merged later.
+ */
+final class ReportWriter {
+
+    private final ObjectMapper objectMapper = new ObjectMapper().enable(SerializationFeature.INDENT_OUTPUT);
+    
+    ObjectNode build(LoadTestConfig config, Instant startedAt, double seconds, Map<String, LatencyRecorder.Result> results) {
+        ObjectNode report = objectMapper.createObjectNode();
+        report.put("label", config.label);
+        report.put("startedAt", startedAt.toString());
+        report.put("durationSeconds", seconds);
+        report.put("threads", config.virtualThreads ? "virtual" : "platform");
+        report.put("users", config.users);
+        report.put("thinkTimeMillis", config.thinkTimeMillis);
+        report.put("seed", config.seed);
+        ObjectNode mix = report.putObject("mix");
+        config.mix.forEach((scenario, weight) -> mix.put(scenario.name().toLowerCase(), weight));
+        
+        long totalCount = 0;
+        long totalErrors = 0;
+        ObjectNode endpoints = report.putObject("endpoints");
+        for (Map.Entry<String, LatencyRecorder.Result> entry : results.entrySet()) {
+            Histogram histogram = entry.getValue().histogram();
+            long count = histogram.getTotalCount();
+            long errors = entry.getValue().errors();
+            totalCount += count;
+            totalErrors += errors;
+            
+            ObjectNode endpoint = endpoints.putObject(entry.getKey());
+            endpoint.put("count", count);
+            endpoint.put("errors", errors);
+            endpoint.put("errorRate", count > 0 ? (double) errors / count : 0);
+            endpoint.put("throughput", count / seconds);
+            endpoint.put("meanMs", histogram.getMean() / 1000);
+            endpoint.put("p50Ms", histogram.getValueAtPercentile(50) / 1000.0);
+            endpoint.put("p90Ms", histogram.getValueAtPercentile(90) / 1000.0);
+            endpoint.put("p99Ms", histogram.getValueAtPercentile(99) / 1000.0);
+            endpoint.put("p999Ms", histogram.getValueAtPercentile(99.9) / 1000.0);
+            endpoint.put("maxMs", histogram.getMaxValue() / 1000.0);
+            endpoint.put("histogram", encode(histogram));
+        }
+        
+        ObjectNode totals = report.putObject("totals");
+        totals.put("count", totalCount);
+        totals.put("errors", totalErrors);
+        totals.put("errorRate", totalCount > 0 ? (double) totalErrors / totalCount : 0);
+        totals.put("throughput", totalCount / seconds);
+        return report;
+    }
+    
+    void write(ObjectNode report, Path path) throws IOException {
+        Path parent = path.toAbsolutePath().getParent();
+        if (parent != null) {
+            Files.createDirectories(parent);
+        }
+        objectMapper.writeValue(path.toFile(), report);
+        System.out.println("Report written to " + path.toAbsolutePath());
+    }
+    
+    void print(ObjectNode report, Path baselinePath) throws IOException {
+        JsonNode baseline = baselinePath != null ? objectMapper.readTree(baselinePath.toFile()) : null;
+        System.out.printf("%n%-34s %9s %8s %9s %9s %9s %9s%n", "endpoint", "req/s", "err%", "p50 ms", "p99 ms", "max ms",
+                baseline != null ? "p99 diff" : "");
+        report.get("endpoints").fields().forEachRemaining(entry -> {
+            JsonNode endpoint = entry.getValue();
+            String diff = "";
+            if (baseline != null && baseline.path("endpoints").has(entry.getKey())) {
+                double before = baseline.path("endpoints").get(entry.getKey()).get("p99Ms").asDouble();
+                diff = before > 0 ? String.format("%+.1f%%", (endpoint.get("p99Ms").asDouble() - before) / before * 100) : "";
+            }
+            System.out.printf("%-34s %9.1f %8.2f %9.2f %9.2f %9.2f %9s%n", entry.getKey(),
+                    endpoint.get("throughput").asDouble(), endpoint.get("errorRate").asDouble() * 100,
+                    endpoint.get("p50Ms").asDouble(), endpoint.get("p99Ms").asDouble(), endpoint.get("maxMs").asDouble(), diff);
+        });
+        JsonNode totals = report.get("totals");
+        System.out.printf("%-34s %9.1f %8.2f%n", "TOTAL", totals.get("throughput").asDouble(),
+                totals.get("errorRate").asDouble() * 100);
+        if (baseline != null) {
+            double before = baseline.path("totals").path("throughput").asDouble();
+            if (before > 0) {
+                System.out.printf("Throughput vs baseline '%s': %+.1f%%%n", baseline.path("label").asText(),
+                        (totals.get("throughput").asDouble() - before) / before * 100);
+            }
+        }
+    }
+    
+    private static String encode(Histogram histogram) {
+        ByteBuffer buffer = ByteBuffer.allocate(histogram.getNeededByteBufferCapacity());
+        int length = histogram.encodeIntoCompressedByteBuffer(buffer);
+        return Base64.getEncoder().encodeToString(Arrays.copyOf(buffer.array(), length));
+    }
+}
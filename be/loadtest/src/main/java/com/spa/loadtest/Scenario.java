@@ -0,0 +1,87 @@
+package com.spa.loadtest;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Random;
+
+/**
+ * The user journeys in the traffic mix. Paths are as the backend maps them: the servlet
+ * context path is /api and the resource controllers are mapped under /api as well, while
+ * the auth controller is not.
+ */
+enum Scenario {
+    
+    // Anonymous-style catalog browsing (the API requires a token, so a customer session is used)
+    BROWSE {
+        @Override
+        void run(SpaClient client, Session session, Random random) {
+            client.get("GET /api/services", "/api/services", session.customerToken);
+            client.get("GET /api/services/categories", "/api/services/categories", session.customerToken);
+            client.get("GET /api/services/{id}", "/api/services/" + client.randomServiceId(random), session.customerToken);
+            client.get("GET /api/specialists", "/api/specialists", session.customerToken);
+            client.get("GET /api/blogs", "/api/blogs?page=" + random.nextInt(5) + "&size=10", session.customerToken);
+        }
+    },
+    
+    // A signed-in customer checking their bookings
+    CUSTOMER {
+        @Override
+        void run(SpaClient client, Session session, Random random) {
+            client.get("GET /api/bookings", "/api/bookings", session.customerToken);
+        }
+    },
+    
+    // A fresh login (BCrypt verification plus token issue)
+    LOGIN {
+        @Override
+        void run(SpaClient client, Session session, Random random) {
+            client.login(client.randomCustomer(random), SpaClient.CUSTOMER_PASSWORD);
+        }
+    },
+    
+    // A guest booking for a random service, specialist and slot in the next month
+    GUEST {
+        @Override
+        void run(SpaClient client, Session session, Random random) {
+            Map<String, Object> body = new LinkedHashMap<>();
+            body.put("serviceId", client.randomServiceId(random));
+            body.put("specialistId", client.randomSpecialistId(random));
+            body.put("bookingDate", LocalDate.now().plusDays(1 + random.nextInt(30)).toString());
+            body.put("bookingTime", LocalTime.of(9 + random.nextInt(11), random.nextBoolean() ? 0 : 30).toString());
+            body.put("customerName", "Load Guest " + random.nextInt(1_000_000));
+            body.put("customerEmail", "guest" + random.nextInt(1_000_000) + "@loadtest.spa");
+            body.put("customerPhone", "09" + String.format("%08d", random.nextInt(100_000_000)));
+            body.put("note", "load test");
+            client.post("POST /api/bookings/guest", "/api/bookings/guest", body, session.customerToken);
+        }
+    },
+    
+    // Admin dashboards: reports and the bulk booking listing used for exports
+    ADMIN {
+        @Override
+        void run(SpaClient client, Session session, Random random) {
+            LocalDate end = LocalDate.now();
+            LocalDate start = end.minusDays(30 + random.nextInt(335));
+            String range = "?startDate=" + start + "&endDate=" + end;
+            client.get("GET /api/admin/reports", "/api/admin/reports" + range + "&period=month", session.adminToken);
+            client.get("GET /api/admin/reports/revenue", "/api/admin/reports/revenue" + range, session.adminToken);
+            client.get("GET /api/admin/reports/bookings", "/api/admin/reports/bookings" + range, session.adminToken);
+            client.get("GET /api/admin/bookings", "/api/admin/bookings" + range, session.adminToken);
+        }
+    };
+    
+    abstract void run(SpaClient client, Session session, Random random);
+    
+    // Tokens held by one virtual user
+    static final class Session {
+        final String customerToken;
+        final String adminToken;
+        
+        Session(String customerToken, String adminToken) {
+            this.customerToken = customerToken;
+            this.adminToken = adminToken;
+        }
+    }
+}
@@ -0,0 +1,120 @@
+package com.spa.loadtest;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+/**
+ * Thin blocking HTTP client for the backend API. Blocking is cheap on virtual threads, and
+ * every call is timed into the LatencyRecorder under a stable endpoint name.
+ */
+final class SpaClient {
+
+    static final String CUSTOMER_PASSWORD = "password123";
+    static final String ADMIN_USERNAME = "admin@example.com";
+    static final String ADMIN_PASSWORD = "admin123";
+    
+    private static final Duration REQUEST_TIMEOUT = Duration.ofSeconds(30);
+    
+    private final HttpClient http;
+    private final String baseUrl;
+    private final LatencyRecorder recorder;
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final int customers;
+    private List<Long> serviceIds = List.of();
+    private List<Long> specialistIds = List.of();
+    
+    SpaClient(HttpClient http, String baseUrl, LatencyRecorder recorder, int customers) {
+        this.http = http;
+        this.baseUrl = baseUrl;
+        this.recorder = recorder;
+        this.customers = customers;
+    }
+    
+    // Load the ids used to build booking and detail requests
+    void loadCatalog(String token) {
+        serviceIds = ids(get("GET /api/services", "/api/services", token));
+        specialistIds = ids(get("GET /api/specialists", "/api/specialists", token));
+        if (serviceIds.isEmpty() || specialistIds.isEmpty()) {
+            throw new IllegalStateException("Catalog is empty; is the backend seeded?");
+        }
+    }
+    
+    // Returns the access token, or null if the login failed
+    String login(String username, String password) {
+        JsonNode response = post("POST /api/auth/login", "/auth/login",
+                Map.of("username", username, "password", password), null);
+        return response != null && response.hasNonNull("token") ? response.get("token").asText() : null;
+    }
+    
+    JsonNode get(String endpoint, String path, String token) {
+        return send(endpoint, request(path, token).GET().build());
+    }
+    
+    JsonNode post(String endpoint, String path, Object body, String token) {
+        try {
+            HttpRequest request = request(path, token)
+                    .header("Content-Type", "application/json")
+                    .POST(HttpRequest.BodyPublishers.ofByteArray(objectMapper.writeValueAsBytes(body)))
+                    .build();
+            return send(endpoint, request);
+        } catch (IOException e) {
+            throw new IllegalArgumentException("Could not serialize request body", e);
+        }
+    }
+    
+    String randomCustomer(Random random) {
+        return "customer" + (1 + random.nextInt(customers)) + "@synthetic.spa";
+    }
+    
+    long randomServiceId(Random random) {
+        return serviceIds.get(random.nextInt(serviceIds.size()));
+    }
+    
+    long randomSpecialistId(Random random) {
+        return specialistIds.get(random.nextInt(specialistIds.size()));
+    }
+    
+    private HttpRequest.Builder request(String path, String token) {
+        HttpRequest.Builder builder = HttpRequest.newBuilder(URI.create(baseUrl + path)).timeout(REQUEST_TIMEOUT);
+        if (token != null) {
+            builder.header("Authorization", "Bearer " + token);
+        }
+        return builder;
+    }
+    
+    // Errors are HTTP status >= 400, timeouts and connection failures; the body is parsed only on success
+    private JsonNode send(String endpoint, HttpRequest request) {
+        long start = System.nanoTime();
+        try {
+            HttpResponse<byte[]> response = http.send(request, HttpResponse.BodyHandlers.ofByteArray());
+            boolean error = response.statusCode() >= 400;
+            recorder.record(endpoint, System.nanoTime() - start, error);
+            return error || response.body().length == 0 ? null : objectMapper.readTree(response.body());
+        } catch (IOException e) {
+            recorder.record(endpoint, System.nanoTime() - start, true);
+            return null;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return null;
+        }
+    }
+    
+    private static List<Long> ids(JsonNode array) {
+        List<Long> ids = new ArrayList<>();
+        if (array != null && array.isArray()) {
+            array.forEach(node -> ids.add(node.get("id").asLong()));
+        }
+        return ids;
+    }
+}
@@ -0,0 +1,190 @@
+package com.spa.loadtest;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+
+import java.io.IOException;
+import java.net.ServerSocket;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures time to first successful request: from spawning the JVM until an admin login
+ * succeeds, which needs the web server, security and the database to be ready. Each run
+ * starts a fresh JVM against the same database, after one priming run that creates the
+ * schema and seed data, so runs measure a rollout restart rather than a first install.
+ *
+ * Options: --runs (default 5), --app-jar, --cds-archive (run the fast-startup build with
+ * AOT and the given AppCDS archive), --report, --baseline, --label.
+ *
+ *   fat jar:      --app-jar ../target/spa-backend-0.0.1-SNAPSHOT.jar --label fat --report target/startup-fat.json
+ *   fast-startup: --app-jar ../target/fast-startup/spa-backend-0.0.1-SNAPSHOT-app.jar
+ *                 --cds-archive ../target/fast-startup/app.jsa --label fast --baseline target/startup-fat.json
+ */
+public final class StartupBenchmark {
+
+    private static final Duration STARTUP_TIMEOUT = Duration.ofMinutes(3);
+    
+    private final HttpClient http = HttpClient.newBuilder().connectTimeout(Duration.ofSeconds(1)).build();
+    
+    private Path appJar = Path.of("../target/spa-backend-0.0.1-SNAPSHOT.jar");
+    private Path cdsArchive;
+    private int runs = 5;
+    private Path report = Path.of("target/startup-report.json");
+    private Path baseline;
+    private String label = "local";
+    
+    private StartupBenchmark() {
+    }
+    
+    public static void main(String[] args) throws Exception {
+        StartupBenchmark benchmark = new StartupBenchmark();
+        benchmark.parse(args);
+        benchmark.run();
+    }
+    
+    private void parse(String[] args) {
+        for (int i = 0; i < args.length; i++) {
+            String name = args[i];
+            if (i + 1 >= args.length) {
+                throw new IllegalArgumentException("Missing value for " + name);
+            }
+            String value = args[++i];
+            switch (name) {
+                case "--app-jar" -> appJar = Path.of(value);
+                case "--cds-archive" -> cdsArchive = Path.of(value);
+                case "--runs" -> runs = Integer.parseInt(value);
+                case "--report" -> report = Path.of(value);
+                case "--baseline" -> baseline = Path.of(value);
+                case "--label" -> label = value;
+                default -> throw new IllegalArgumentException("Unknown option " + name);
+            }
+        }
+        if (runs < 1) {
+            throw new IllegalArgumentException("--runs must be at least 1");
+        }
+    }
+    
+    private void run() throws Exception {
+        if (!Files.isRegularFile(appJar)) {
+            throw new IllegalStateException("Backend jar not found: " + appJar.toAbsolutePath());
+        }
+        Path workDir = Files.createTempDirectory("spa-startup-");
+        System.out.println("Priming database in " + workDir);
+        measure(workDir);
+        
+        long[] millis = new long[runs];
+        for (int i = 0; i < runs; i++) {
+            millis[i] = measure(workDir);
+            System.out.printf("run %d: %d ms%n", i + 1, millis[i]);
+        }
+        writeReport(millis);
+    }
+    
+    // Start the backend, poll login until it succeeds, stop the backend; returns elapsed millis
+    private long measure(Path workDir) throws IOException, InterruptedException {
+        int port = freePort();
+        List<String> command = new ArrayList<>();
+        command.add(Path.of(System.getProperty("java.home"), "bin", "java").toString());
+        if (cdsArchive != null) {
+            command.add("-XX:SharedArchiveFile=" + cdsArchive.toAbsolutePath());
+            command.add("-Dspring.aot.enabled=true");
+        }
+        command.add("-jar");
+        command.add(appJar.toAbsolutePath().toString());
+        command.add("--server.port=" + port);
+        command.add("--spring.datasource.url=jdbc:sqlite:" + workDir.resolve("spa.db"));
+        command.add("--file.upload-dir=" + workDir.resolve("uploads"));
+        
+        HttpRequest login = HttpRequest.newBuilder(URI.create("http://localhost:" + port + "/api/auth/login"))
+                .timeout(Duration.ofSeconds(5))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString("{\"username\":\"" + SpaClient.ADMIN_USERNAME
+                        + "\",\"password\":\"" + SpaClient.ADMIN_PASSWORD + "\"}"))
+                .build();
+        
+        long start = System.nanoTime();
+        Process process = new ProcessBuilder(command)
+                .directory(workDir.toFile())
+                .redirectErrorStream(true)
+                .redirectOutput(ProcessBuilder.Redirect.appendTo(workDir.resolve("app.log").toFile()))
+                .start();
+        try {
+            long deadline = start + STARTUP_TIMEOUT.toNanos();
+            while (System.nanoTime() < deadline) {
+                if (!process.isAlive()) {
+                    throw new IllegalStateException("Backend exited with code " + process.exitValue()
+                            + ", see " + workDir.resolve("app.log"));
+                }
+                try {
+                    if (http.send(login, HttpResponse.BodyHandlers.discarding()).statusCode() == 200) {
+                        return TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+                    }
+                } catch (IOException e) {
+                    // Not listening yet
+                }
+                Thread.sleep(10);
+            }
+            throw new IllegalStateException("Backend did not serve a request within " + STARTUP_TIMEOUT);
+        } finally {
+            process.destroy();
+            if (!process.waitFor(30, TimeUnit.SECONDS)) {
+                process.destroyForcibly();
+            }
+        }
+    }
+    
+    private void writeReport(long[] millis) throws IOException {
+        long[] sorted = millis.clone();
+        Arrays.sort(sorted);
+        ObjectMapper objectMapper = new ObjectMapper().enable(SerializationFeature.INDENT_OUTPUT);
+        ObjectNode result = objectMapper.createObjectNode();
+        result.put("label", label);
+        result.put("startedAt", Instant.now().toString());
+        result.put("appJar", appJar.getFileName().toString());
+        result.put("cds", cdsArchive != null);
+        result.put("javaVersion", System.getProperty("java.version"));
+        ArrayNode samples = result.putArray("timeToFirstRequestMs");
+        Arrays.stream(millis).forEach(samples::add);
+        result.put("minMs", sorted[0]);
+        result.put("medianMs", sorted[sorted.length / 2]);
+        result.put("maxMs", sorted[sorted.length - 1]);
+        
+        System.out.printf("%nTime to first successful request: min %d ms, median %d ms, max %d ms%n",
+                sorted[0], sorted[sorted.length / 2], sorted[sorted.length - 1]);
+        if (baseline != null) {
+            JsonNode before = objectMapper.readTree(baseline.toFile());
+            long beforeMedian = before.path("medianMs").asLong();
+            if (beforeMedian > 0) {
+                System.out.printf("Median vs baseline '%s' (%d ms): %+.1f%%%n", before.path("label").asText(), beforeMedian,
+                        (sorted[sorted.length / 2] - beforeMedian) * 100.0 / beforeMedian);
+            }
+        }
+        
+        Path parent = report.toAbsolutePath().getParent();
+        if (parent != null) {
+            Files.createDirectories(parent);
+        }
+        objectMapper.writeValue(report.toFile(), result);
+        System.out.println("Report written to " + report.toAbsolutePath());
+    }
+    
+    private static int freePort() throws IOException {
+        try (ServerSocket socket = new ServerSocket(0)) {
+            return socket.getLocalPort();
+        }
+    }
+}
@@ -0,0 +1,116 @@
+package com.spa.benchmark;
+
+import com.spa.model.Booking;
+import com.spa.model.Service;
+import com.spa.model.Specialist;
+import com.spa.model.Transaction;
+import com.spa.model.User;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Synthetic in-memory entities for the benchmarks. A fixed seed keeps every run identical.
+ */
+final class BenchmarkData {
+
+    static final long SEED = 42L;
+    static final LocalDate START = LocalDate.of(2024, 1, 1);
+    static final LocalDate END = LocalDate.of(2024, 12, 31);
+    
+    private static final String[] PAYMENT_METHODS = {"CASH", "CARD", "TRANSFER", "E_WALLET"};
+    
+    private BenchmarkData() {
+    }
+    
+    static List<Booking> bookings(int count) {
+        Random random = new Random(SEED);
+        List<User> customers = new ArrayList<>();
+        for (int i = 1; i <= 200; i++) {
+            customers.add(user((long) i, "Customer " + i));
+        }
+        List<Service> services = new ArrayList<>();
+        for (int i = 1; i <= 24; i++) {
+            Service service = new Service();
+            service.setId((long) i);
+            service.setName("Service " + i);
+            service.setPrice(200000.0 + 50000.0 * (i % 8));
+            service.setDuration(30 + 15 * (i % 6));
+            service.setActive(true);
+            services.add(service);
+        }
+        List<Specialist> specialists = new ArrayList<>();
+        for (int i = 1; i <= 12; i++) {
+            Specialist specialist = new Specialist();
+            specialist.setId((long) i);
+            specialist.setUser(user(1000L + i, "Specialist " + i));
+            specialist.setRole("Therapist");
+            specialist.setRating(4.0 + (i % 10) / 10.0);
+            specialists.add(specialist);
+        }
+        
+        int days = (int) (END.toEpochDay() - START.toEpochDay()) + 1;
+        List<Booking> bookings = new ArrayList<>(count);
+        for (int i = 1; i <= count; i++) {
+            Booking booking = new Booking();
+            booking.setId((long) i);
+            booking.setCustomer(customers.get(random.nextInt(customers.size())));
+            booking.setService(services.get(random.nextInt(services.size())));
+            booking.setSpecialist(specialists.get(random.nextInt(specialists.size())));
+            booking.setBookingDate(START.plusDays(random.nextInt(days)));
+            booking.setBookingTime(LocalTime.of(9 + random.nextInt(10), random.nextBoolean() ? 0 : 30));
+            booking.setStatus(status(random.nextInt(100)));
+            booking.setNote(random.nextInt(4) == 0 ? "Please prepare a quiet room" : null);
+            bookings.add(booking);
+        }
+        return bookings;
+    }
+    
+    // One payment per completed booking
+    static List<Transaction> transactions(List<Booking> bookings) {
+        Random random = new Random(SEED + 1);
+        List<Transaction> transactions = new ArrayList<>();
+        for (Booking booking : bookings) {
+            if (booking.getStatus() != Booking.BookingStatus.COMPLETED) {
+                continue;
+            }
+            Transaction transaction = new Transaction();
+            transaction.setId(booking.getId());
+            transaction.setBooking(booking);
+            transaction.setAmount(booking.getService().getPrice());
+            transaction.setPaymentMethod(PAYMENT_METHODS[random.nextInt(PAYMENT_METHODS.length)]);
+            transaction.setStatus(Transaction.TransactionStatus.COMPLETED);
+            transaction.setTransactionDate(booking.getBookingDate().atTime(booking.getBookingTime()));
+            transactions.add(transaction);
+        }
+        return transactions;
+    }
+    
+    private static User user(Long id, String name) {
+        User user = new User();
+        user.setId(id);
+        user.setUsername("user" + id + "@example.com");
+        user.setEmail("user" + id + "@example.com");
+        user.setFullName(name);
+        user.setPhone("09" + String.format("%08d", id));
+        user.setRole(User.Role.ROLE_CUSTOMER);
+        return user;
+    }
+    
+    // Roughly 55% completed, 20% confirmed, 10% pending, 15% cancelled
+    private static Booking.BookingStatus status(int roll) {
+        if (roll < 55) {
+            return Booking.BookingStatus.COMPLETED;
+        }
+        if (roll < 75) {
+            return Booking.BookingStatus.CONFIRMED;
+        }
+        if (roll < 85) {
+            return Booking.BookingStatus.PENDING;
+        }
+        return Booking.BookingStatus.CANCELLED;
+    }
+}
@@ -0,0 +1,157 @@
+package com.spa.benchmark;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.spa.dto.BlogPostDTO;
+import com.spa.dto.BlogPostSummaryDTO;
+import org.flywaydb.core.Flyway;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.SingleConnectionDataSource;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+// One page of GET /blogs: the full BlogPostDTO list the endpoint used to return (every column,
+// content included) against the BlogPostSummaryDTO projection it returns now. Each benchmark
+// reads the page from SQLite, maps it and writes the JSON body; the SQL is what Hibernate issues
+// for findByIsActiveOrderByPublishedAtDesc and findActiveSummaries. The payload counter reports
+// the size of one response body in bytes.
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class BlogListPayloadBenchmark {
+
+    private static final int POST_COUNT = 2000;
+    private static final String[] WORDS = {
+            "massage", "relaxing", "therapy", "skin", "facial", "aroma", "oil", "stone", "hot", "deep",
+            "tissue", "muscle", "tension", "stress", "sleep", "wellness", "spa", "treatment", "body", "scrub"};
+    
+    private static final String FULL_PAGE = "SELECT b.id, b.title, b.slug, b.excerpt, b.content, b.featured_image, "
+            + "b.featured_image_id, b.published_at, b.author, b.is_active, b.category_id, c.name "
+            + "FROM blog_posts b LEFT JOIN blog_categories c ON c.id = b.category_id "
+            + "WHERE b.is_active = 1 ORDER BY b.published_at DESC LIMIT ?";
+    private static final String SUMMARY_PAGE = "SELECT b.id, b.title, b.slug, b.excerpt, b.featured_image, "
+            + "b.published_at, b.author, b.is_active, b.category_id, c.name "
+            + "FROM blog_posts b LEFT JOIN blog_categories c ON c.id = b.category_id "
+            + "WHERE b.is_active = 1 ORDER BY b.published_at DESC LIMIT ?";
+    
+    @Param({"10", "50"})
+    private int pageSize;
+    
+    // Article length; list rows never need it, but the full page carries all of it
+    @Param({"150", "1500"})
+    private int contentWords;
+    
+    private Path dbFile;
+    private SingleConnectionDataSource dataSource;
+    private JdbcTemplate jdbcTemplate;
+    private ObjectMapper objectMapper;
+    
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    public static class Payload {
+        public long bytes;
+        
+        @Setup(Level.Iteration)
+        public void reset() {
+            bytes = 0;
+        }
+    }
+    
+    @Setup
+    public void setUp() throws Exception {
+        dbFile = Files.createTempFile("blog-list", ".db");
+        String url = "jdbc:sqlite:" + dbFile;
+        Flyway.configure().dataSource(url, null, null).load().migrate();
+        dataSource = new SingleConnectionDataSource(url, true);
+        jdbcTemplate = new JdbcTemplate(dataSource);
+        insertPosts(dataSource.getConnection());
+        objectMapper = Jackson2ObjectMapperBuilder.json().build();
+    }
+    
+    @TearDown
+    public void tearDown() throws Exception {
+        dataSource.destroy();
+        Files.deleteIfExists(dbFile);
+    }
+    
+    @Benchmark
+    public byte[] fullEntityPage(Payload payload) throws Exception {
+        List<BlogPostDTO> posts = jdbcTemplate.query(FULL_PAGE, (rs, row) -> new BlogPostDTO(
+                rs.getLong(1), rs.getString(2), rs.getString(3), rs.getString(4), rs.getString(5),
+                rs.getString(6), rs.getString(7), rs.getTimestamp(8).toLocalDateTime(), rs.getString(9),
+                rs.getBoolean(10), rs.getObject(11, Long.class), rs.getString(12)), pageSize);
+        byte[] body = objectMapper.writeValueAsBytes(posts);
+        payload.bytes = body.length;
+        return body;
+    }
+    
+    @Benchmark
+    public byte[] summaryPage(Payload payload) throws Exception {
+        List<BlogPostSummaryDTO> posts = jdbcTemplate.query(SUMMARY_PAGE, (rs, row) -> new BlogPostSummaryDTO(
+                rs.getLong(1), rs.getString(2), rs.getString(3), rs.getString(4), rs.getString(5),
+                rs.getTimestamp(6).toLocalDateTime(), rs.getString(7), rs.getBoolean(8),
+                rs.getObject(9, Long.class), rs.getString(10)), pageSize);
+        byte[] body = objectMapper.writeValueAsBytes(posts);
+        payload.bytes = body.length;
+        return body;
+    }
+    
+    private void insertPosts(Connection connection) throws Exception {
+        Random random = new Random(BenchmarkData.SEED);
+        LocalDateTime start = BenchmarkData.START.atStartOfDay();
+        connection.setAutoCommit(false);
+        try (PreparedStatement insert = connection.prepareStatement("INSERT INTO blog_categories "
+                + "(id, is_active, name, slug) VALUES (?, 1, ?, ?)")) {
+            for (int i = 1; i <= 5; i++) {
+                insert.setLong(1, i);
+                insert.setString(2, "Category " + i);
+                insert.setString(3, "category-" + i);
+                insert.addBatch();
+            }
+            insert.executeBatch();
+        }
+        try (PreparedStatement insert = connection.prepareStatement("INSERT INTO blog_posts "
+                + "(id, is_active, category_id, published_at, author, title, slug, excerpt, featured_image, content) "
+                + "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?)")) {
+            for (int i = 1; i <= POST_COUNT; i++) {
+                insert.setLong(1, i);
+                insert.setBoolean(2, random.nextInt(10) != 0);
+                insert.setLong(3, 1 + random.nextInt(5));
+                insert.setTimestamp(4, Timestamp.valueOf(start.plusMinutes(i * 7L)));
+                insert.setString(5, "Author " + random.nextInt(20));
+                insert.setString(6, text(random, 6));
+                insert.setString(7, "post-" + i);
+                insert.setString(8, text(random, 20));
+                insert.setString(9, "/uploads/blog/post-" + i + ".jpg");
+                insert.setString(10, "<p>" + text(random, contentWords) + "</p>");
+                insert.addBatch();
+            }
+            insert.executeBatch();
+        }
+        connection.commit();
+        connection.setAutoCommit(true);
+    }
+    
+    private static String text(Random random, int words) {
+        StringBuilder text = new StringBuilder();
+        for (int i = 0; i < words; i++) {
+            if (i > 0) {
+                text.append(' ');
+            }
+            text.append(WORDS[random.nextInt(WORDS.length)]);
+        }
+        return text.toString();
+    }
+}
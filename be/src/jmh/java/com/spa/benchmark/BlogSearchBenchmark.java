@@ -0,0 +1,132 @@
+package com.spa.benchmark;
+
+import com.spa.repository.BlogSearchRepository;
+import org.flywaydb.core.Flyway;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.SingleConnectionDataSource;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+// Blog search over 100k synthetic posts: the FTS5 index (BlogSearchRepository) against the
+// LIKE scan over title, excerpt and content it replaced. Posts are ~150 words of HTML.
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class BlogSearchBenchmark {
+
+    private static final String[] WORDS = {
+            "massage", "relaxing", "therapy", "skin", "facial", "aroma", "oil", "stone", "hot", "deep",
+            "tissue", "muscle", "tension", "stress", "sleep", "wellness", "spa", "treatment", "body", "scrub",
+            "sauna", "steam", "detox", "hydration", "serum", "mask", "cleanse", "glow", "balance", "breathing",
+            "posture", "shoulder", "neck", "back", "feet", "reflexology", "herbal", "tea", "ritual", "calm"};
+    // Each of these appears in about 3% of posts
+    private static final String[] RARE_WORDS = {"lymphatic", "drainage", "shiatsu", "ayurvedic", "cryotherapy"};
+    
+    @Param({"100000"})
+    private int postCount;
+    
+    // FTS query as BlogService builds it from user input; the LIKE pattern is its first term
+    @Param({"\"massage\"", "\"lymphatic\" \"drain\"*"})
+    private String matchQuery;
+    
+    private Path dbFile;
+    private SingleConnectionDataSource dataSource;
+    private JdbcTemplate jdbcTemplate;
+    private BlogSearchRepository blogSearchRepository;
+    private String likePattern;
+    
+    @Setup
+    public void setUp() throws Exception {
+        dbFile = Files.createTempFile("blog-search", ".db");
+        String url = "jdbc:sqlite:" + dbFile;
+        Flyway.configure().dataSource(url, null, null).load().migrate();
+        dataSource = new SingleConnectionDataSource(url, true);
+        jdbcTemplate = new JdbcTemplate(dataSource);
+        insertPosts(dataSource.getConnection());
+        blogSearchRepository = new BlogSearchRepository();
+        ReflectionTestUtils.setField(blogSearchRepository, "jdbcTemplate", jdbcTemplate);
+        likePattern = "%" + matchQuery.split("\"")[1] + "%";
+    }
+    
+    @TearDown
+    public void tearDown() throws Exception {
+        dataSource.destroy();
+        Files.deleteIfExists(dbFile);
+    }
+    
+    // First page of results with highlights, as GET /blogs/search returns it
+    @Benchmark
+    public List<BlogSearchRepository.SearchHit> ftsSearch() {
+        return blogSearchRepository.search(matchQuery, 10, 0);
+    }
+    
+    @Benchmark
+    public long ftsCount() {
+        return blogSearchRepository.count(matchQuery);
+    }
+    
+    // First page by LIKE, newest first: reads every active post until the page is filled and sorted
+    @Benchmark
+    public List<Long> likeSearch() {
+        return jdbcTemplate.queryForList("SELECT id FROM blog_posts WHERE is_active = 1 "
+                        + "AND (title LIKE ? OR excerpt LIKE ? OR content LIKE ?) ORDER BY published_at DESC LIMIT 10",
+                Long.class, likePattern, likePattern, likePattern);
+    }
+    
+    @Benchmark
+    public Long likeCount() {
+        return jdbcTemplate.queryForObject("SELECT COUNT(*) FROM blog_posts WHERE is_active = 1 "
+                        + "AND (title LIKE ? OR excerpt LIKE ? OR content LIKE ?)",
+                Long.class, likePattern, likePattern, likePattern);
+    }
+    
+    private void insertPosts(Connection connection) throws Exception {
+        Random random = new Random(BenchmarkData.SEED);
+        LocalDateTime start = BenchmarkData.START.atStartOfDay();
+        connection.setAutoCommit(false);
+        try (PreparedStatement insert = connection.prepareStatement("INSERT INTO blog_posts "
+                + "(id, is_active, published_at, author, title, slug, excerpt, content) VALUES (?, ?, ?, ?, ?, ?, ?, ?)")) {
+            for (int i = 1; i <= postCount; i++) {
+                insert.setLong(1, i);
+                insert.setBoolean(2, random.nextInt(10) != 0);
+                insert.setTimestamp(3, Timestamp.valueOf(start.plusMinutes(i * 7L)));
+                insert.setString(4, "Author " + random.nextInt(20));
+                insert.setString(5, text(random, 6));
+                insert.setString(6, "post-" + i);
+                insert.setString(7, text(random, 20));
+                insert.setString(8, "<p>" + text(random, 50) + "</p><p>" + text(random, 50) + "</p><p>" + text(random, 50) + "</p>");
+                insert.addBatch();
+                if (i % 1000 == 0) {
+                    insert.executeBatch();
+                }
+            }
+            insert.executeBatch();
+        }
+        connection.commit();
+        connection.setAutoCommit(true);
+    }
+    
+    private static String text(Random random, int words) {
+        StringBuilder text = new StringBuilder();
+        for (int i = 0; i < words; i++) {
+            if (i > 0) {
+                text.append(' ');
+            }
+            text.append(random.nextInt(1000) < 1 ? RARE_WORDS[random.nextInt(RARE_WORDS.length)] : WORDS[random.nextInt(WORDS.length)]);
+        }
+        return text.toString();
+    }
+}
@@ -0,0 +1,64 @@
+package com.spa.benchmark;
+
+import com.spa.dto.BookingDTO;
+import com.spa.model.Booking;
+import com.spa.repository.BookingRepository;
+import com.spa.repository.UserRepository;
+import com.spa.service.BookingService;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+// Booking entity -> DTO mapping, for a single entity and for user booking lists
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class BookingMappingBenchmark {
+
+    private static final MethodHandle CONVERT_TO_DTO;
+    
+    static {
+        try {
+            CONVERT_TO_DTO = MethodHandles.privateLookupIn(BookingService.class, MethodHandles.lookup())
+                    .findVirtual(BookingService.class, "convertToDTO", MethodType.methodType(BookingDTO.class, Booking.class));
+        } catch (ReflectiveOperationException e) {
+            throw new ExceptionInInitializerError(e);
+        }
+    }
+    
+    @Param({"10", "100", "1000"})
+    private int size;
+    
+    private BookingService bookingService;
+    private Booking booking;
+    
+    @Setup
+    public void setUp() {
+        List<Booking> bookings = BenchmarkData.bookings(size);
+        booking = bookings.get(0);
+        bookingService = new BookingService();
+        ReflectionTestUtils.setField(bookingService, "userRepository", Stubs.repository(UserRepository.class,
+                "findById", args -> Optional.of(booking.getCustomer())));
+        ReflectionTestUtils.setField(bookingService, "bookingRepository", Stubs.repository(BookingRepository.class,
+                "findByCustomerId", args -> bookings));
+    }
+    
+    @Benchmark
+    public BookingDTO convertToDTO() throws Throwable {
+        return (BookingDTO) CONVERT_TO_DTO.invokeExact(bookingService, booking);
+    }
+    
+    @Benchmark
+    public List<BookingDTO> getUserBookings() {
+        return bookingService.getUserBookings(booking.getCustomer().getId());
+    }
+}
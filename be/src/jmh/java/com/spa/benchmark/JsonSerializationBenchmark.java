@@ -0,0 +1,60 @@
+package com.spa.benchmark;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.spa.dto.BookingDTO;
+import com.spa.dto.ReportDTO;
+import com.spa.model.Booking;
+import com.spa.repository.BookingRepository;
+import com.spa.repository.UserRepository;
+import com.spa.service.BookingService;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+// Jackson serialization of API payloads, using the same ObjectMapper defaults as Spring MVC
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class JsonSerializationBenchmark {
+
+    @Param({"100", "1000"})
+    private int size;
+    
+    private ObjectMapper objectMapper;
+    private List<BookingDTO> bookings;
+    private ReportDTO report;
+    
+    @Setup
+    public void setUp() {
+        objectMapper = Jackson2ObjectMapperBuilder.json().build();
+        
+        List<Booking> entities = BenchmarkData.bookings(size);
+        BookingService bookingService = new BookingService();
+        ReflectionTestUtils.setField(bookingService, "userRepository", Stubs.repository(UserRepository.class,
+                "findById", args -> Optional.of(entities.get(0).getCustomer())));
+        ReflectionTestUtils.setField(bookingService, "bookingRepository", Stubs.repository(BookingRepository.class,
+                "findByCustomerId", args -> entities));
+        bookings = bookingService.getUserBookings(entities.get(0).getCustomer().getId());
+        
+        report = ReportBenchmark.reportService(entities)
+                .generateReport(BenchmarkData.START, BenchmarkData.END, "year");
+    }
+    
+    @Benchmark
+    public byte[] serializeBookings() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(bookings);
+    }
+    
+    @Benchmark
+    public byte[] serializeReport() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(report);
+    }
+}
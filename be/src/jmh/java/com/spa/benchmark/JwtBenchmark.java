@@ -0,0 +1,81 @@
+package com.spa.benchmark;
+
+import com.spa.security.JwtAuthenticationFilter;
+import com.spa.security.JwtTokenProvider;
+import jakarta.servlet.FilterChain;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.Base64;
+import java.util.concurrent.TimeUnit;
+
+// JWT generation/validation and the authentication filter that runs on every API request
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class JwtBenchmark {
+
+    private JwtTokenProvider tokenProvider;
+    private JwtAuthenticationFilter filter;
+    private UserDetails userDetails;
+    private String token;
+    private final FilterChain chain = (request, response) -> { };
+    
+    @Setup
+    public void setUp() {
+        byte[] secret = new byte[64];
+        for (int i = 0; i < secret.length; i++) {
+            secret[i] = (byte) (BenchmarkData.SEED + i * 31);
+        }
+        tokenProvider = new JwtTokenProvider();
+        ReflectionTestUtils.setField(tokenProvider, "jwtSecret", Base64.getEncoder().encodeToString(secret));
+        ReflectionTestUtils.setField(tokenProvider, "jwtExpiration", 86400000L);
+        ReflectionTestUtils.setField(tokenProvider, "refreshExpiration", 604800000L);
+        
+        userDetails = org.springframework.security.core.userdetails.User.withUsername("user1@example.com")
+                .password("{noop}password")
+                .roles("CUSTOMER")
+                .build();
+        token = tokenProvider.generateToken(userDetails);
+        filter = new JwtAuthenticationFilter(tokenProvider, username -> userDetails);
+    }
+    
+    @Benchmark
+    public String generateToken() {
+        return tokenProvider.generateToken(userDetails);
+    }
+    
+    @Benchmark
+    public boolean validateToken() {
+        return tokenProvider.isTokenValid(token, userDetails);
+    }
+    
+    @Benchmark
+    public MockHttpServletResponse filterAuthenticatedRequest() throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/bookings");
+        request.addHeader("Authorization", "Bearer " + token);
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        try {
+            filter.doFilter(request, response, chain);
+        } finally {
+            SecurityContextHolder.clearContext();
+        }
+        return response;
+    }
+    
+    // Baseline for the filter: no Authorization header, so only the request mocks are measured
+    @Benchmark
+    public MockHttpServletResponse filterAnonymousRequest() throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/services");
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        filter.doFilter(request, response, chain);
+        return response;
+    }
+}
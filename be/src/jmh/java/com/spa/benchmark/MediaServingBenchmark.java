@@ -0,0 +1,143 @@
+package com.spa.benchmark;
+
+import com.spa.controller.MediaController;
+import com.spa.service.ImageStorageService;
+import com.spa.util.ZeroCopyFileSender;
+import org.apache.catalina.Context;
+import org.apache.catalina.startup.Tomcat;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.util.FileSystemUtils;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.support.AnnotationConfigWebApplicationContext;
+import org.springframework.web.servlet.DispatcherServlet;
+import org.springframework.web.servlet.config.annotation.EnableWebMvc;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.util.HexFormat;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+// GET /media/{name} through embedded Tomcat (NIO connector) and Spring MVC: MediaController,
+// which hands the file to sendfile via ZeroCopyFileSender, against a controller that reads the
+// file into a byte array and returns it. Clients on 4 threads read each body to the end.
+// Add -prof gc to see the per-request heap allocation of the byte-array path.
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@Threads(4)
+@State(Scope.Benchmark)
+public class MediaServingBenchmark {
+
+    @Param({"65536", "1048576", "8388608"})
+    private int fileSize;
+    
+    private Path baseDir;
+    private Tomcat tomcat;
+    private AnnotationConfigWebApplicationContext context;
+    private HttpClient client;
+    private URI zeroCopyUri;
+    private URI byteArrayUri;
+    
+    @Setup
+    public void setUp() throws Exception {
+        baseDir = Files.createTempDirectory("media-bench");
+        Path uploads = baseDir.resolve("uploads");
+        byte[] content = new byte[fileSize];
+        new Random(BenchmarkData.SEED).nextBytes(content);
+        String id = HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(content));
+        Path file = uploads.resolve(id.substring(0, 2)).resolve(id + ".jpg");
+        Files.createDirectories(file.getParent());
+        Files.write(file, content);
+        
+        ImageStorageService imageStorageService = new ImageStorageService();
+        ReflectionTestUtils.setField(imageStorageService, "uploadDir", uploads.toString());
+        MediaController mediaController = new MediaController();
+        ReflectionTestUtils.setField(mediaController, "imageStorageService", imageStorageService);
+        ReflectionTestUtils.setField(mediaController, "fileSender", new ZeroCopyFileSender());
+        
+        context = new AnnotationConfigWebApplicationContext();
+        context.register(WebConfig.class);
+        context.addBeanFactoryPostProcessor(beanFactory -> {
+            beanFactory.registerSingleton("mediaController", mediaController);
+            beanFactory.registerSingleton("byteArrayMediaController", new ByteArrayMediaController(imageStorageService));
+        });
+        
+        tomcat = new Tomcat();
+        tomcat.setBaseDir(baseDir.resolve("tomcat").toString());
+        tomcat.setPort(0);
+        tomcat.getConnector();
+        // Same context path as server.servlet.context-path
+        Context servletContext = tomcat.addContext("/api", baseDir.toString());
+        Tomcat.addServlet(servletContext, "dispatcher", new DispatcherServlet(context)).setLoadOnStartup(1);
+        servletContext.addServletMappingDecoded("/", "dispatcher");
+        tomcat.start();
+        
+        String base = "http://localhost:" + tomcat.getConnector().getLocalPort() + "/api";
+        zeroCopyUri = URI.create(base + "/media/" + id + ".jpg");
+        byteArrayUri = URI.create(base + "/byte-array-media/" + id + ".jpg");
+        client = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build();
+    }
+    
+    @TearDown
+    public void tearDown() throws Exception {
+        tomcat.stop();
+        tomcat.destroy();
+        context.close();
+        FileSystemUtils.deleteRecursively(baseDir);
+    }
+    
+    @Benchmark
+    public long zeroCopy() throws Exception {
+        return get(zeroCopyUri);
+    }
+    
+    @Benchmark
+    public long byteArray() throws Exception {
+        return get(byteArrayUri);
+    }
+    
+    private long get(URI uri) throws Exception {
+        HttpResponse<Void> response = client.send(HttpRequest.newBuilder(uri).build(), HttpResponse.BodyHandlers.discarding());
+        if (response.statusCode() != 200) {
+            throw new IllegalStateException(uri + " returned " + response.statusCode());
+        }
+        return response.headers().firstValueAsLong("Content-Length").orElse(-1);
+    }
+    
+    @EnableWebMvc
+    static class WebConfig {
+    }
+    
+    // How media used to be served: the whole file is read into the heap for every request
+    @RestController
+    static class ByteArrayMediaController {
+
+        private final ImageStorageService imageStorageService;
+        
+        ByteArrayMediaController(ImageStorageService imageStorageService) {
+            this.imageStorageService = imageStorageService;
+        }
+        
+        @GetMapping("/byte-array-media/{fileName:.+}")
+        public ResponseEntity<byte[]> getMedia(@PathVariable String fileName) throws IOException {
+            Path file = imageStorageService.resolveMediaFile(fileName);
+            return ResponseEntity.ok()
+                    .contentType(MediaType.parseMediaType(ImageStorageService.getContentType(fileName)))
+                    .body(Files.readAllBytes(file));
+        }
+    }
+}
@@ -0,0 +1,48 @@
+package com.spa.benchmark;
+
+import com.spa.dto.ReportDTO;
+import com.spa.model.Booking;
+import com.spa.model.Transaction;
+import com.spa.repository.BookingRepository;
+import com.spa.repository.TransactionRepository;
+import com.spa.service.ReportService;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+// Report aggregation over a year of synthetic bookings and payments
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ReportBenchmark {
+
+    @Param({"1000", "100000"})
+    private int bookingCount;
+    
+    private ReportService reportService;
+    
+    @Setup
+    public void setUp() {
+        reportService = reportService(BenchmarkData.bookings(bookingCount));
+    }
+    
+    @Benchmark
+    public ReportDTO generateReport() {
+        return reportService.generateReport(BenchmarkData.START, BenchmarkData.END, "year");
+    }
+    
+    static ReportService reportService(List<Booking> bookings) {
+        List<Transaction> transactions = BenchmarkData.transactions(bookings);
+        ReportService reportService = new ReportService();
+        ReflectionTestUtils.setField(reportService, "bookingRepository", Stubs.repository(BookingRepository.class,
+                "findByBookingDateBetween", args -> bookings));
+        ReflectionTestUtils.setField(reportService, "transactionRepository", Stubs.repository(TransactionRepository.class,
+                "findByTransactionDateBetween", args -> transactions));
+        return reportService;
+    }
+}
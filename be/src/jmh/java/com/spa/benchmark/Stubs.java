@@ -0,0 +1,33 @@
+package com.spa.benchmark;
+
+import java.lang.reflect.Proxy;
+import java.util.function.Function;
+
+/**
+ * Minimal repository stand-ins so services can be benchmarked without a database.
+ */
+final class Stubs {
+
+    private Stubs() {
+    }
+    
+    // A repository whose only implemented method returns the given answer
+    @SuppressWarnings("unchecked")
+    static <T> T repository(Class<T> type, String methodName, Function<Object[], Object> answer) {
+        return (T) Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[] {type}, (proxy, method, args) -> {
+            if (method.getName().equals(methodName)) {
+                return answer.apply(args);
+            }
+            switch (method.getName()) {
+                case "toString":
+                    return type.getSimpleName() + " stub";
+                case "hashCode":
+                    return System.identityHashCode(proxy);
+                case "equals":
+                    return proxy == args[0];
+                default:
+                    throw new UnsupportedOperationException(type.getSimpleName() + "." + method.getName());
+            }
+        });
+    }
+}
@@ -189,7 +189,7 @@ public class DataInitializer {
         availability.add("Wednesday: 9:00-17:00");
         availability.add("Thursday: 9:00-17:00");
         availability.add("Friday: 9:00-17:00");
-        specialist.setAvailability(availability);
+        specialist.setAvailability(WeeklyAvailability.fromStrings(availability));
         
         specialistRepository.save(specialist);
         
@@ -221,7 +221,7 @@ public class DataInitializer {
             newAvailability.add("Monday: 9:00-17:00");
             newAvailability.add("Wednesday: 9:00-17:00");
             newAvailability.add("Friday: 9:00-17:00");
-            newSpecialist.setAvailability(newAvailability);
+            newSpecialist.setAvailability(WeeklyAvailability.fromStrings(newAvailability));
             
             specialistRepository.save(newSpecialist);
         }
@@ -0,0 +1,446 @@
+package com.spa;
+
+import com.spa.model.WeeklyAvailability;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Profile;
+import org.springframework.context.event.ContextRefreshedEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Component;
+
+import java.sql.Connection;
+import java.sql.Date;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Time;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.Calendar;
+import java.util.List;
+import java.util.Random;
+import java.util.TimeZone;
+
+/**
+ * Generates capacity-planning volumes of realistic data on top of DataInitializer's seed data.
+ * Enabled with the "synthetic" profile, e.g.
+ *   java -jar spa-backend.jar --spring.profiles.active=synthetic --data.synthetic.customers=100000
+ * Rows are inserted through one JDBC connection with batched prepared statements inside a
+ * single transaction, and every value comes from a fixed seed and a fixed anchor date (the "today"
+ * the data is generated around) so datasets are reproducible.
+ */
+@Component
+@Profile("synthetic")
+public class SyntheticDataGenerator {
+
+    private static final Logger logger = LoggerFactory.getLogger(SyntheticDataGenerator.class);
+    
+    private static final int BATCH_SIZE = 10_000;
+    private static final String MARKER_USERNAME = "customer1@synthetic.spa";
+    
+    // Same JDBC time zone as spring.jpa.properties.hibernate.jdbc.time_zone, so Hibernate reads the values back unchanged
+    private static final Calendar UTC = Calendar.getInstance(TimeZone.getTimeZone("UTC"));
+    
+    private static final String[] FIRST_NAMES = {"An", "Binh", "Chi", "Dung", "Giang", "Ha", "Hoa", "Hung", "Lan", "Linh",
+            "Mai", "Minh", "Nam", "Ngoc", "Phuong", "Quang", "Thao", "Trang", "Tuan", "Vy"};
+    private static final String[] LAST_NAMES = {"Nguyen", "Tran", "Le", "Pham", "Hoang", "Huynh", "Phan", "Vu", "Vo", "Dang"};
+    private static final String[] CATEGORY_NAMES = {"Facial Treatments", "Massage Therapies", "Body Treatments", "Nail Care",
+            "Hair Care", "Aromatherapy", "Hot Stone", "Wellness Packages", "Waxing", "Eye Care"};
+    private static final String[] SERVICE_WORDS = {"Signature", "Deluxe", "Express", "Herbal", "Hydrating", "Detox",
+            "Relaxing", "Revitalizing", "Deep", "Classic", "Golden", "Bamboo"};
+    private static final String[] BLOG_WORDS = {"skin", "massage", "relax", "stress", "wellness", "facial", "oil", "herbal",
+            "sleep", "routine", "hydration", "balance", "energy", "detox", "aroma", "care", "glow", "muscle", "tension", "calm"};
+    private static final String[] PAYMENT_METHODS = {"CASH", "CARD", "TRANSFER", "E_WALLET"};
+    private static final int[] PAYMENT_WEIGHTS = {25, 40, 20, 15};
+    
+    // Relative demand per half hour from 9:00 to 20:30: quiet mornings, afternoon and after-work peaks
+    private static final int[] SLOT_WEIGHTS = {3, 4, 5, 6, 6, 5, 5, 6, 8, 9, 10, 10, 9, 9, 10, 11, 11, 9, 7, 5, 3, 2, 1, 1};
+    
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    
+    @Autowired
+    private PasswordEncoder passwordEncoder;
+    
+    @Value("${data.synthetic.seed:42}")
+    private long seed;
+    
+    @Value("${data.synthetic.customers:10000}")
+    private int customerCount;
+    
+    @Value("${data.synthetic.specialists:50}")
+    private int specialistCount;
+    
+    @Value("${data.synthetic.categories:8}")
+    private int categoryCount;
+    
+    @Value("${data.synthetic.services-per-category:6}")
+    private int servicesPerCategory;
+    
+    @Value("${data.synthetic.years:2}")
+    private int years;
+    
+    @Value("${data.synthetic.bookings-per-day:150}")
+    private int bookingsPerDay;
+    
+    @Value("${data.synthetic.blog-posts:500}")
+    private int blogPostCount;
+    
+    // ISO date; bookings cover the years before it and the month after
+    @Value("${data.synthetic.anchor-date:2025-01-01}")
+    private String anchorDate;
+    
+    @EventListener(ContextRefreshedEvent.class)
+    public void generate() {
+        Integer existing = jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM users WHERE username = ?", Integer.class, MARKER_USERNAME);
+        if (existing != null && existing > 0) {
+            logger.info("Synthetic data already present, skipping generation");
+            return;
+        }
+        
+        long started = System.nanoTime();
+        long rows = jdbcTemplate.execute((ConnectionCallback<Long>) this::generate);
+        double seconds = (System.nanoTime() - started) / 1e9;
+        logger.info("Generated {} synthetic rows in {} s ({} rows/s)",
+                rows, String.format("%.1f", seconds), Math.round(rows / seconds));
+    }
+    
+    private long generate(Connection connection) throws SQLException {
+        Random random = new Random(seed);
+        boolean autoCommit = connection.getAutoCommit();
+        try (Statement statement = connection.createStatement()) {
+            // Bulk load only, and set before the transaction starts: the data is committed once at the end
+            statement.execute("PRAGMA synchronous = OFF");
+        }
+        connection.setAutoCommit(false);
+        try {
+            long rows = 0;
+            String password = passwordEncoder.encode("password123");
+            LocalDateTime now = LocalDate.parse(anchorDate).atStartOfDay();
+            
+            long firstCustomer = nextId(connection, "users");
+            rows += insertUsers(connection, firstCustomer, customerCount, "customer", "ROLE_CUSTOMER", password, now, random);
+            long firstStaff = firstCustomer + customerCount;
+            rows += insertUsers(connection, firstStaff, specialistCount, "specialist", "ROLE_STAFF", password, now, random);
+            
+            long firstSpecialist = nextId(connection, "specialists");
+            rows += insertSpecialists(connection, firstSpecialist, firstStaff, random);
+            
+            long firstCategory = nextId(connection, "service_categories");
+            long firstService = nextId(connection, "services");
+            double[] prices = new double[categoryCount * servicesPerCategory];
+            rows += insertCatalog(connection, firstCategory, firstService, prices, random);
+            
+            long firstBooking = nextId(connection, "bookings");
+            long firstTransaction = nextId(connection, "transactions");
+            rows += insertBookings(connection, firstBooking, firstTransaction, firstCustomer, firstSpecialist,
+                    firstService, prices, now, random);
+            
+            rows += insertBlogPosts(connection, nextId(connection, "blog_posts"), now, random);
+            
+            connection.commit();
+            return rows;
+        } catch (SQLException | RuntimeException e) {
+            connection.rollback();
+            throw e;
+        } finally {
+            connection.setAutoCommit(autoCommit);
+            try (Statement statement = connection.createStatement()) {
+                statement.execute("PRAGMA synchronous = FULL");
+            }
+        }
+    }
+    
+    private long insertUsers(Connection connection, long firstId, int count, String prefix, String role,
+                             String password, LocalDateTime now, Random random) throws SQLException {
+        String sql = "INSERT INTO users (id, username, password, email, full_name, phone, role, active, created_at, updated_at)"
+                + " VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+        try (PreparedStatement ps = connection.prepareStatement(sql)) {
+            for (int i = 1; i <= count; i++) {
+                String email = prefix + i + "@synthetic.spa";
+                Timestamp created = timestamp(now.minusDays(random.nextInt(365 * Math.max(1, years))));
+                ps.setLong(1, firstId + i - 1);
+                ps.setString(2, email);
+                ps.setString(3, password);
+                ps.setString(4, email);
+                ps.setString(5, LAST_NAMES[random.nextInt(LAST_NAMES.length)] + " " + FIRST_NAMES[random.nextInt(FIRST_NAMES.length)]);
+                ps.setString(6, "09" + String.format("%08d", random.nextInt(100_000_000)));
+                ps.setString(7, role);
+                ps.setBoolean(8, true);
+                ps.setTimestamp(9, created, UTC);
+                ps.setTimestamp(10, created, UTC);
+                addToBatch(ps, i);
+            }
+            ps.executeBatch();
+        }
+        logger.info("Inserted {} {} users", count, prefix);
+        return count;
+    }
+    
+    private long insertSpecialists(Connection connection, long firstId, long firstUser, Random random) throws SQLException {
+        List<WeeklyAvailability> shifts = List.of(
+                WeeklyAvailability.fromStrings(List.of("Monday: 9:00-17:00", "Tuesday: 9:00-17:00", "Wednesday: 9:00-17:00",
+                        "Thursday: 9:00-17:00", "Friday: 9:00-17:00")),
+                WeeklyAvailability.fromStrings(List.of("Wednesday: 12:00-21:00", "Thursday: 12:00-21:00", "Friday: 12:00-21:00",
+                        "Saturday: 9:00-21:00", "Sunday: 9:00-18:00")),
+                WeeklyAvailability.fromStrings(List.of("Monday: 13:00-21:00", "Tuesday: 13:00-21:00", "Saturday: 9:00-18:00",
+                        "Sunday: 9:00-18:00")));
+        String sql = "INSERT INTO specialists (id, user_id, role, experience, bio, specialties, rating, availability_bits)"
+                + " VALUES (?, ?, ?, ?, ?, ?, ?, ?)";
+        try (PreparedStatement ps = connection.prepareStatement(sql)) {
+            for (int i = 1; i <= specialistCount; i++) {
+                int experience = 1 + random.nextInt(15);
+                ps.setLong(1, firstId + i - 1);
+                ps.setLong(2, firstUser + i - 1);
+                ps.setString(3, experience >= 8 ? "Senior Therapist" : "Therapist");
+                ps.setString(4, experience + " years");
+                ps.setString(5, "Therapist specialising in " + CATEGORY_NAMES[i % CATEGORY_NAMES.length].toLowerCase());
+                ps.setString(6, CATEGORY_NAMES[i % CATEGORY_NAMES.length] + ", " + CATEGORY_NAMES[(i + 3) % CATEGORY_NAMES.length]);
+                ps.setDouble(7, Math.round((3.5 + random.nextDouble() * 1.5) * 10) / 10.0);
+                ps.setBytes(8, shifts.get(random.nextInt(shifts.size())).toBytes());
+                addToBatch(ps, i);
+            }
+            ps.executeBatch();
+        }
+        logger.info("Inserted {} specialists", specialistCount);
+        return specialistCount;
+    }
+    
+    private long insertCatalog(Connection connection, long firstCategory, long firstService, double[] prices,
+                               Random random) throws SQLException {
+        try (PreparedStatement categories = connection.prepareStatement(
+                "INSERT INTO service_categories (id, name, description) VALUES (?, ?, ?)");
+             PreparedStatement services = connection.prepareStatement(
+                     "INSERT INTO services (id, name, description, price, duration, category_id, active)"
+                             + " VALUES (?, ?, ?, ?, ?, ?, ?)")) {
+            int serviceIndex = 0;
+            for (int c = 0; c < categoryCount; c++) {
+                String categoryName = CATEGORY_NAMES[c % CATEGORY_NAMES.length] + (c >= CATEGORY_NAMES.length ? " " + (c + 1) : "");
+                categories.setLong(1, firstCategory + c);
+                categories.setString(2, categoryName);
+                categories.setString(3, "Synthetic category " + (c + 1));
+                categories.addBatch();
+                
+                for (int s = 0; s < servicesPerCategory; s++) {
+                    int duration = 30 + 15 * random.nextInt(6);
+                    // Prices roughly follow duration, in thousands of VND
+                    double price = Math.round(duration * (4 + random.nextDouble() * 4)) * 1000.0;
+                    prices[serviceIndex] = price;
+                    services.setLong(1, firstService + serviceIndex);
+                    services.setString(2, SERVICE_WORDS[random.nextInt(SERVICE_WORDS.length)] + " " + categoryName + " " + (s + 1));
+                    services.setString(3, "Synthetic service " + (serviceIndex + 1));
+                    services.setDouble(4, price);
+                    services.setInt(5, duration);
+                    services.setLong(6, firstCategory + c);
+                    services.setBoolean(7, random.nextInt(20) != 0);
+                    services.addBatch();
+                    serviceIndex++;
+                }
+            }
+            categories.executeBatch();
+            services.executeBatch();
+        }
+        logger.info("Inserted {} service categories and {} services", categoryCount, prices.length);
+        return categoryCount + prices.length;
+    }
+    
+    // Bookings for the past years plus the next month, with a payment for every completed booking
+    private long insertBookings(Connection connection, long firstBooking, long firstTransaction, long firstCustomer,
+                                long firstSpecialist, long firstService, double[] prices, LocalDateTime now,
+                                Random random) throws SQLException {
+        LocalDate today = now.toLocalDate();
+        LocalDate start = today.minusYears(years);
+        LocalDate end = today.plusMonths(1);
+        int slotTotal = 0;
+        for (int weight : SLOT_WEIGHTS) {
+            slotTotal += weight;
+        }
+        
+        String bookingSql = "INSERT INTO bookings (id, customer_id, specialist_id, service_id, booking_date, booking_time,"
+                + " status, note, created_at, updated_at) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+        String transactionSql = "INSERT INTO transactions (id, booking_id, amount, payment_method, status,"
+                + " transaction_date, reference_number) VALUES (?, ?, ?, ?, ?, ?, ?)";
+        long bookingId = firstBooking;
+        long transactionId = firstTransaction;
+        try (PreparedStatement bookings = connection.prepareStatement(bookingSql);
+             PreparedStatement transactions = connection.prepareStatement(transactionSql)) {
+            for (LocalDate date = start; date.isBefore(end); date = date.plusDays(1)) {
+                boolean weekend = date.getDayOfWeek() == DayOfWeek.SATURDAY || date.getDayOfWeek() == DayOfWeek.SUNDAY;
+                // Weekends are busier; December is peak season
+                double demand = (weekend ? 1.4 : 0.85) * (date.getMonthValue() == 12 ? 1.25 : 1.0);
+                int count = (int) Math.round(bookingsPerDay * demand * (0.8 + random.nextDouble() * 0.4));
+                boolean past = date.isBefore(today);
+                
+                for (int i = 0; i < count; i++) {
+                    int service = random.nextInt(prices.length);
+                    // Skewed towards low ids: a minority of regulars makes most bookings
+                    long customer = firstCustomer + (long) (customerCount * Math.pow(random.nextDouble(), 2.5));
+                    LocalTime time = pickSlot(random, slotTotal);
+                    String status = past ? pickPastStatus(random) : pickFutureStatus(random);
+                    Timestamp created = timestamp(date.atTime(time).minusDays(1 + random.nextInt(14)));
+                    
+                    bookings.setLong(1, bookingId);
+                    bookings.setLong(2, customer);
+                    bookings.setLong(3, firstSpecialist + random.nextInt(specialistCount));
+                    bookings.setLong(4, firstService + service);
+                    bookings.setDate(5, Date.valueOf(date), UTC);
+                    bookings.setTime(6, Time.valueOf(time), UTC);
+                    bookings.setString(7, status);
+                    if (random.nextInt(5) == 0) {
+                        bookings.setString(8, "Customer note " + bookingId);
+                    } else {
+                        bookings.setNull(8, Types.VARCHAR);
+                    }
+                    bookings.setTimestamp(9, created, UTC);
+                    bookings.setTimestamp(10, created, UTC);
+                    addToBatch(bookings, bookingId - firstBooking + 1);
+                    
+                    if ("COMPLETED".equals(status)) {
+                        transactions.setLong(1, transactionId);
+                        transactions.setLong(2, bookingId);
+                        transactions.setDouble(3, prices[service]);
+                        transactions.setString(4, pickPaymentMethod(random));
+                        transactions.setString(5, random.nextInt(100) == 0 ? "REFUNDED" : "COMPLETED");
+                        transactions.setTimestamp(6, timestamp(date.atTime(time).plusHours(1)), UTC);
+                        transactions.setString(7, "SYN" + transactionId);
+                        addToBatch(transactions, transactionId - firstTransaction + 1);
+                        transactionId++;
+                    }
+                    bookingId++;
+                }
+            }
+            bookings.executeBatch();
+            transactions.executeBatch();
+        }
+        logger.info("Inserted {} bookings and {} transactions", bookingId - firstBooking, transactionId - firstTransaction);
+        return (bookingId - firstBooking) + (transactionId - firstTransaction);
+    }
+    
+    private long insertBlogPosts(Connection connection, long firstId, LocalDateTime now, Random random) throws SQLException {
+        List<Long> categories = new ArrayList<>();
+        try (Statement statement = connection.createStatement();
+             ResultSet rs = statement.executeQuery("SELECT id FROM blog_categories")) {
+            while (rs.next()) {
+                categories.add(rs.getLong(1));
+            }
+        }
+        
+        String sql = "INSERT INTO blog_posts (id, title, slug, excerpt, content, published_at, author, is_active, category_id)"
+                + " VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?)";
+        try (PreparedStatement ps = connection.prepareStatement(sql)) {
+            for (int i = 1; i <= blogPostCount; i++) {
+                String title = capitalize(words(random, 3 + random.nextInt(5)));
+                ps.setLong(1, firstId + i - 1);
+                ps.setString(2, title);
+                ps.setString(3, "synthetic-" + i + "-" + title.toLowerCase().replace(' ', '-'));
+                ps.setString(4, capitalize(words(random, 15 + random.nextInt(10))) + ".");
+                ps.setString(5, paragraphs(random, 3 + random.nextInt(6)));
+                ps.setTimestamp(6, timestamp(now.minusDays(random.nextInt(365 * Math.max(1, years)))), UTC);
+                ps.setString(7, "Admin User");
+                ps.setBoolean(8, random.nextInt(10) != 0);
+                if (categories.isEmpty()) {
+                    ps.setNull(9, Types.BIGINT);
+                } else {
+                    ps.setLong(9, categories.get(random.nextInt(categories.size())));
+                }
+                addToBatch(ps, i);
+            }
+            ps.executeBatch();
+        }
+        logger.info("Inserted {} blog posts", blogPostCount);
+        return blogPostCount;
+    }
+    
+    private static void addToBatch(PreparedStatement ps, long row) throws SQLException {
+        ps.addBatch();
+        if (row % BATCH_SIZE == 0) {
+            ps.executeBatch();
+        }
+    }
+    
+    private static long nextId(Connection connection, String table) throws SQLException {
+        try (Statement statement = connection.createStatement();
+             ResultSet rs = statement.executeQuery("SELECT COALESCE(MAX(id), 0) FROM " + table)) {
+            rs.next();
+            return rs.getLong(1) + 1;
+        }
+    }
+    
+    private static Timestamp timestamp(LocalDateTime value) {
+        return Timestamp.valueOf(value);
+    }
+    
+    private static LocalTime pickSlot(Random random, int total) {
+        int roll = random.nextInt(total);
+        for (int slot = 0; slot < SLOT_WEIGHTS.length; slot++) {
+            roll -= SLOT_WEIGHTS[slot];
+            if (roll < 0) {
+                return LocalTime.of(9, 0).plusMinutes(30L * slot);
+            }
+        }
+        return LocalTime.of(20, 30);
+    }
+    
+    // Past: mostly completed, some cancellations, a few never closed out
+    private static String pickPastStatus(Random random) {
+        int roll = random.nextInt(100);
+        return roll < 80 ? "COMPLETED" : roll < 95 ? "CANCELLED" : "CONFIRMED";
+    }
+    
+    private static String pickFutureStatus(Random random) {
+        int roll = random.nextInt(100);
+        return roll < 60 ? "CONFIRMED" : roll < 95 ? "PENDING" : "CANCELLED";
+    }
+    
+    private static String pickPaymentMethod(Random random) {
+        int roll = random.nextInt(100);
+        for (int i = 0; i < PAYMENT_WEIGHTS.length; i++) {
+            roll -= PAYMENT_WEIGHTS[i];
+            if (roll < 0) {
+                return PAYMENT_METHODS[i];
+            }
+        }
+        return PAYMENT_METHODS[0];
+    }
+    
+    private static String words(Random random, int count) {
+        StringBuilder text = new StringBuilder();
+        for (int i = 0; i < count; i++) {
+            if (i > 0) {
+                text.append(' ');
+            }
+            text.append(BLOG_WORDS[random.nextInt(BLOG_WORDS.length)]);
+        }
+        return text.toString();
+    }
+    
+    private static String paragraphs(Random random, int count) {
+        StringBuilder text = new StringBuilder();
+        for (int p = 0; p < count; p++) {
+            if (p > 0) {
+                text.append("\n\n");
+            }
+            int sentences = 3 + random.nextInt(5);
+            for (int s = 0; s < sentences; s++) {
+                text.append(capitalize(words(random, 8 + random.nextInt(12)))).append(". ");
+            }
+        }
+        return text.toString().trim();
+    }
+    
+    private static String capitalize(String text) {
+        return text.isEmpty() ? text : Character.toUpperCase(text.charAt(0)) + text.substring(1);
+    }
+}
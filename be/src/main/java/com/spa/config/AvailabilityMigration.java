@@ -0,0 +1,139 @@
+package com.spa.config;
+
+import com.spa.model.DaySlots;
+import com.spa.model.WeeklyAvailability;
+import org.flywaydb.core.api.MigrationVersion;
+import org.flywaydb.core.api.migration.Context;
+import org.flywaydb.core.api.migration.JavaMigration;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.BinaryOperator;
+import java.util.function.Function;
+
+/**
+ * Flyway migration V1_4: copies the old string collection tables (specialist_availability,
+ * schedule_time_slots) into the bitset columns added by V1_3. Runs with the other migrations,
+ * before Hibernate validates the schema. Entries that do not parse (the strings were free-form)
+ * are logged and kept: the copied rows are deleted and the tables renamed to
+ * specialist_availability_legacy and schedule_time_slots_legacy, which then hold only what
+ * still has to be re-entered.
+ */
+@Component
+public class AvailabilityMigration implements JavaMigration {
+
+    private static final Logger logger = LoggerFactory.getLogger(AvailabilityMigration.class);
+    
+    @Override
+    public MigrationVersion getVersion() {
+        return MigrationVersion.fromVersion("1.4");
+    }
+    
+    @Override
+    public String getDescription() {
+        return "convert weekly availability";
+    }
+    
+    @Override
+    public Integer getChecksum() {
+        return null;
+    }
+    
+    @Override
+    public boolean canExecuteInTransaction() {
+        return true;
+    }
+    
+    @Override
+    public void migrate(Context context) throws SQLException {
+        Connection connection = context.getConnection();
+        
+        Conversion<WeeklyAvailability> availability = convert(connection,
+                "SELECT rowid, specialist_id, availability FROM specialist_availability ORDER BY rowid",
+                entry -> WeeklyAvailability.fromStrings(List.of(entry)), WeeklyAvailability::or, "specialist");
+        update(connection, "UPDATE specialists SET availability_bits = ? WHERE id = ?",
+                availability.values(), WeeklyAvailability::toBytes);
+        int keptAvailability = keepUnconverted(connection, "specialist_availability", availability.convertedRows());
+        
+        Conversion<DaySlots> timeSlots = convert(connection,
+                "SELECT rowid, schedule_id, time_slot FROM schedule_time_slots ORDER BY rowid",
+                slot -> DaySlots.fromStrings(List.of(slot)), DaySlots::or, "schedule");
+        update(connection, "UPDATE schedules SET time_slot_bits = ? WHERE id = ?",
+                timeSlots.values(), DaySlots::toBytes);
+        int keptTimeSlots = keepUnconverted(connection, "schedule_time_slots", timeSlots.convertedRows());
+        
+        logger.info("Migrated availability of {} specialists and time slots of {} schedules to bitsets",
+                availability.values().size(), timeSlots.values().size());
+        if (keptAvailability > 0 || keptTimeSlots > 0) {
+            logger.warn("Kept {} unparseable rows in specialist_availability_legacy and {} in schedule_time_slots_legacy "
+                    + "to be re-entered", keptAvailability, keptTimeSlots);
+        }
+    }
+    
+    // Parse each row on its own and merge the rows of the same owner; blank rows count as converted
+    private static <T> Conversion<T> convert(Connection connection, String sql, Function<String, T> parser,
+                                             BinaryOperator<T> merge, String owner) throws SQLException {
+        Map<Long, T> converted = new LinkedHashMap<>();
+        List<Long> convertedRows = new ArrayList<>();
+        try (Statement statement = connection.createStatement(); ResultSet rs = statement.executeQuery(sql)) {
+            while (rs.next()) {
+                long rowId = rs.getLong(1);
+                long id = rs.getLong(2);
+                String value = rs.getString(3);
+                if (value == null || value.isBlank()) {
+                    convertedRows.add(rowId);
+                    continue;
+                }
+                try {
+                    converted.merge(id, parser.apply(value), merge);
+                    convertedRows.add(rowId);
+                } catch (IllegalArgumentException e) {
+                    logger.warn("Keeping unparseable availability of {} {}: '{}' ({})", owner, id, value, e.getMessage());
+                }
+            }
+        }
+        return new Conversion<>(converted, convertedRows);
+    }
+    
+    // Delete the copied rows and rename the table to <table>_legacy; returns the rows left in it
+    private static int keepUnconverted(Connection connection, String table, List<Long> convertedRows) throws SQLException {
+        try (PreparedStatement statement = connection.prepareStatement("DELETE FROM " + table + " WHERE rowid = ?")) {
+            for (Long rowId : convertedRows) {
+                statement.setLong(1, rowId);
+                statement.addBatch();
+            }
+            statement.executeBatch();
+        }
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("ALTER TABLE " + table + " RENAME TO " + table + "_legacy");
+            try (ResultSet rs = statement.executeQuery("SELECT COUNT(*) FROM " + table + "_legacy")) {
+                return rs.next() ? rs.getInt(1) : 0;
+            }
+        }
+    }
+    
+    private static <T> void update(Connection connection, String sql, Map<Long, T> values,
+                                   Function<T, byte[]> toBytes) throws SQLException {
+        try (PreparedStatement statement = connection.prepareStatement(sql)) {
+            for (Map.Entry<Long, T> value : values.entrySet()) {
+                statement.setBytes(1, toBytes.apply(value.getValue()));
+                statement.setLong(2, value.getKey());
+                statement.addBatch();
+            }
+            statement.executeBatch();
+        }
+    }
+    
+    private record Conversion<T>(Map<Long, T> values, List<Long> convertedRows) {
+    }
+}
@@ -0,0 +1,22 @@
+
+package com.spa.config;
+
+import com.spa.dto.BlogPostDTO;
+import com.spa.util.TinyLfuCache;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+public class CacheConfig {
+
+    // Rendered blog posts by slug, for GET /blogs/slug/{slug}
+    @Bean
+    public TinyLfuCache<String, BlogPostDTO> blogPostCache(
+            @Value("${cache.blog-posts.max-size:500}") int maximumSize, MeterRegistry registry) {
+        TinyLfuCache<String, BlogPostDTO> cache = new TinyLfuCache<>(maximumSize);
+        cache.bindTo(registry, "blog-posts");
+        return cache;
+    }
+}
@@ -0,0 +1,51 @@
+package com.spa.config;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.spa.util.ConnectionGateFilter;
+import com.spa.util.IdempotencyFilter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.security.SecurityProperties;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.Set;
+import java.util.function.Predicate;
+
+/**
+ * Registers the connection gate ahead of the security filter chain, which already loads
+ * users from the database. Sized by connection-gate.*; read plus write permits should not
+ * exceed spring.datasource.hikari.maximum-pool-size. When the Idempotency-Key filter is
+ * enabled, the keyed POSTs it handles take their write permit there instead.
+ * <p>
+ * A write permit is held for the whole request, so the gate reads multipart bodies (image
+ * uploads) before taking one; otherwise a slow upload would hold the only write permit and
+ * every other write would get 503 once it had queued for queue-timeout-ms. Other request
+ * bodies are small JSON and are read under the permit.
+ */
+@Configuration
+@ConditionalOnProperty(name = "connection-gate.enabled", havingValue = "true", matchIfMissing = true)
+public class ConnectionGateConfig {
+
+    @Bean
+    public FilterRegistrationBean<ConnectionGateFilter> connectionGateFilter(
+            @Value("${connection-gate.read-permits:8}") int readPermits,
+            @Value("${connection-gate.write-permits:1}") int writePermits,
+            @Value("${connection-gate.max-queue:200}") int maxQueue,
+            @Value("${connection-gate.queue-timeout-ms:2000}") long queueTimeoutMillis,
+            @Value("${connection-gate.read-only-paths:/auth/login,/auth/refresh-token}") Set<String> readOnlyPaths,
+            ObjectProvider<FilterRegistrationBean<IdempotencyFilter>> idempotencyFilter,
+            ObjectMapper objectMapper,
+            MeterRegistry registry) {
+        FilterRegistrationBean<IdempotencyFilter> idempotency = idempotencyFilter.getIfAvailable();
+        Predicate<HttpServletRequest> deferredWrites = idempotency != null ? idempotency.getFilter()::handles : request -> false;
+        FilterRegistrationBean<ConnectionGateFilter> registration = new FilterRegistrationBean<>(new ConnectionGateFilter(
+                readPermits, writePermits, maxQueue, queueTimeoutMillis, readOnlyPaths, deferredWrites, objectMapper, registry));
+        registration.setOrder(SecurityProperties.DEFAULT_FILTER_ORDER - 1);
+        return registration;
+    }
+}
@@ -0,0 +1,43 @@
+package com.spa.config;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.spa.service.IdempotencyStore;
+import com.spa.util.IdempotencyFilter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.security.SecurityProperties;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.Set;
+
+/**
+ * Registers the Idempotency-Key filter right after the security filter chain, so that keys
+ * are scoped to the authenticated caller and unauthenticated requests never claim a key.
+ * Paths are matched within the servlet context, so they include the controllers' own /api prefix.
+ */
+@Configuration
+@ConditionalOnProperty(name = "idempotency.enabled", havingValue = "true", matchIfMissing = true)
+public class IdempotencyConfig {
+
+    @Bean
+    public FilterRegistrationBean<IdempotencyFilter> idempotencyFilter(
+            IdempotencyStore store,
+            @Value("${idempotency.paths:/api/bookings,/api/bookings/guest,/api/admin/transactions}") Set<String> paths,
+            @Value("${idempotency.wait-timeout-ms:10000}") long waitTimeoutMillis,
+            @Value("${connection-gate.queue-timeout-ms:2000}") long gateTimeoutMillis,
+            ObjectMapper objectMapper,
+            MeterRegistry registry) {
+        // A retry waits for the first request, which may itself wait that long for the write permit
+        if (waitTimeoutMillis <= gateTimeoutMillis) {
+            throw new IllegalStateException("idempotency.wait-timeout-ms (" + waitTimeoutMillis
+                    + ") must exceed connection-gate.queue-timeout-ms (" + gateTimeoutMillis + ")");
+        }
+        FilterRegistrationBean<IdempotencyFilter> registration = new FilterRegistrationBean<>(
+                new IdempotencyFilter(store, paths, waitTimeoutMillis, objectMapper, registry));
+        registration.setOrder(SecurityProperties.DEFAULT_FILTER_ORDER + 1);
+        return registration;
+    }
+}
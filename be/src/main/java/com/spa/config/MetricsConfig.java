@@ -0,0 +1,59 @@
+package com.spa.config;
+
+import com.spa.util.EndpointTimingInterceptor;
+import com.spa.util.MethodTimingInterceptor;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.aop.Advisor;
+import org.springframework.aop.support.DefaultPointcutAdvisor;
+import org.springframework.aop.support.annotation.AnnotationMatchingPointcut;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.data.repository.core.support.RepositoryFactoryBeanSupport;
+import org.springframework.stereotype.Service;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+/**
+ * Hot-path latency metrics, exported at /actuator/prometheus together with the Hibernate
+ * statistics and Hikari pool meters that Spring Boot binds automatically:
+ * spa.http.latency per endpoint, spa.service.latency per service method and
+ * spa.repository.latency per repository method.
+ */
+@Configuration
+public class MetricsConfig implements WebMvcConfigurer {
+
+    @Autowired
+    private EndpointTimingInterceptor endpointTimingInterceptor;
+    
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        registry.addInterceptor(endpointTimingInterceptor);
+    }
+    
+    // Times every public method of @Service beans
+    @Bean
+    public static Advisor serviceTimingAdvisor(ObjectProvider<MeterRegistry> registry) {
+        return new DefaultPointcutAdvisor(new AnnotationMatchingPointcut(Service.class, true),
+                new MethodTimingInterceptor(registry, "spa.service.latency", null));
+    }
+    
+    // Adds a timing interceptor to each Spring Data repository proxy, tagged with the repository name
+    @Bean
+    public static BeanPostProcessor repositoryTimingPostProcessor(ObjectProvider<MeterRegistry> registry) {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessBeforeInitialization(Object bean, String beanName) {
+                if (bean instanceof RepositoryFactoryBeanSupport<?, ?, ?> factoryBean) {
+                    factoryBean.addRepositoryFactoryCustomizer(factory -> factory.addRepositoryProxyPostProcessor(
+                            (proxyFactory, information) -> proxyFactory.addAdvice(new MethodTimingInterceptor(
+                                    registry, "spa.repository.latency",
+                                    information.getRepositoryInterface().getSimpleName()))));
+                }
+                return bean;
+            }
+        };
+    }
+}
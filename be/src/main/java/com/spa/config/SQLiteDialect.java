@@ -1,15 +1,22 @@
-
 package com.spa.config;
 
-import org.hibernate.community.dialect.SQLiteDialect;
-import org.springframework.context.annotation.Bean;
-import org.springframework.context.annotation.Configuration;
+import java.sql.Types;
+
+/**
+ * Community SQLite dialect that lets ddl-auto=validate accept the migrated schema. SQLite has a
+ * single INTEGER storage class and an id only autoincrements when declared exactly INTEGER PRIMARY
+ * KEY, so the migrations declare Long ids as integer while the entities map them to bigint.
+ */
+public class SQLiteDialect extends org.hibernate.community.dialect.SQLiteDialect {
 
-@Configuration
-public class SQLiteConfig {
+    @Override
+    public boolean equivalentTypes(int typeCode1, int typeCode2) {
+        return super.equivalentTypes(typeCode1, typeCode2)
+                || isInteger(typeCode1) && isInteger(typeCode2);
+    }
     
-    @Bean
-    public SQLiteDialect sqliteDialect() {
-        return new SQLiteDialect();
+    private static boolean isInteger(int typeCode) {
+        return typeCode == Types.TINYINT || typeCode == Types.SMALLINT
+                || typeCode == Types.INTEGER || typeCode == Types.BIGINT;
     }
 }
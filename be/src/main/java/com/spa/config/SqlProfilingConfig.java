@@ -0,0 +1,47 @@
+package com.spa.config;
+
+import com.spa.util.ProfilingDataSource;
+import com.spa.util.SqlBudgetInterceptor;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import javax.sql.DataSource;
+
+/**
+ * Slow-query log and per-request SQL budget, replacing global SQL debug/trace logging.
+ * Thresholds: sql.slow-query-threshold-ms and sql.request-statement-budget.
+ */
+@Configuration
+public class SqlProfilingConfig implements WebMvcConfigurer {
+
+    @Autowired
+    private SqlBudgetInterceptor sqlBudgetInterceptor;
+    
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        registry.addInterceptor(sqlBudgetInterceptor);
+    }
+    
+    // Wrap the application DataSource so every statement goes through the profiler
+    @Bean
+    public static BeanPostProcessor profilingDataSourcePostProcessor(Environment environment,
+                                                                     ObjectProvider<MeterRegistry> registry) {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (bean instanceof DataSource dataSource && !(bean instanceof ProfilingDataSource)) {
+                    long threshold = environment.getProperty("sql.slow-query-threshold-ms", Long.class, 200L);
+                    return new ProfilingDataSource(dataSource, threshold, registry);
+                }
+                return bean;
+            }
+        };
+    }
+}
@@ -3,7 +3,12 @@ package com.spa.controller;
 
 import com.spa.dto.BlogCategoryDTO;
 import com.spa.dto.BlogPostDTO;
+import com.spa.dto.BlogPostSummaryDTO;
+import com.spa.dto.BlogSearchPageDTO;
+import com.spa.exception.BadRequestException;
 import com.spa.service.BlogService;
+import com.spa.util.ConditionalResponseCache;
+import jakarta.servlet.http.HttpServletRequest;
 import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpStatus;
@@ -12,28 +17,63 @@ import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
 
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Supplier;
 
 @RestController
 @RequestMapping("/api")
 public class BlogController {
 
+    // Page parameters are part of the response cache key, so only these pages are cached;
+    // any other page is still served, just without a cache entry
+    private static final Set<Integer> CACHED_PAGE_SIZES = Set.of(10, 20, 50);
+    private static final int MAX_CACHED_PAGE = 500;
+    
     @Autowired
     private BlogService blogService;
     
+    @Autowired
+    private ConditionalResponseCache responseCache;
+    
     // Public blog endpoints
     @GetMapping("/blogs")
-    public ResponseEntity<List<BlogPostDTO>> getAllBlogs(
+    public ResponseEntity<byte[]> getAllBlogs(
             @RequestParam(required = false) Long categoryId,
             @RequestParam(defaultValue = "0") int page,
-            @RequestParam(defaultValue = "10") int size) {
-        List<BlogPostDTO> blogs = blogService.getAllBlogs(categoryId, page, size);
-        return new ResponseEntity<>(blogs, HttpStatus.OK);
+            @RequestParam(defaultValue = "10") int size,
+            HttpServletRequest request) {
+        if (page < 0 || size < 1) {
+            throw new BadRequestException("page must be at least 0 and size at least 1");
+        }
+        String resourceKey = "blogs-" + (categoryId != null ? categoryId : "all") + "-" + page + "-" + size;
+        long version = blogService.getPostsVersion();
+        Supplier<List<BlogPostSummaryDTO>> posts = () -> blogService.getAllBlogs(categoryId, page, size);
+        if (CACHED_PAGE_SIZES.contains(size) && page <= MAX_CACHED_PAGE) {
+            return responseCache.respond(request, resourceKey, version, posts);
+        }
+        return responseCache.respondUncached(request, resourceKey, version, posts);
     }
     
     @GetMapping("/blogs/featured")
-    public ResponseEntity<List<BlogPostDTO>> getFeaturedBlogs() {
-        List<BlogPostDTO> blogs = blogService.getFeaturedBlogs();
-        return new ResponseEntity<>(blogs, HttpStatus.OK);
+    public ResponseEntity<byte[]> getFeaturedBlogs(HttpServletRequest request) {
+        return responseCache.respond(request, "blogs-featured",
+                blogService.getPostsVersion(), blogService::getFeaturedBlogs);
+    }
+    
+    @GetMapping("/blogs/search")
+    public ResponseEntity<BlogSearchPageDTO> searchBlogs(
+            @RequestParam("q") String query,
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = "10") int size) {
+        BlogSearchPageDTO results = blogService.searchBlogs(query, page, size);
+        return new ResponseEntity<>(results, HttpStatus.OK);
+    }
+    
+    @GetMapping("/blogs/slug/{slug}")
+    public ResponseEntity<BlogPostDTO> getBlogBySlug(@PathVariable String slug) {
+        BlogPostDTO blog = blogService.getBlogBySlug(slug);
+        return new ResponseEntity<>(blog, HttpStatus.OK);
     }
     
     @GetMapping("/blogs/{id}")
@@ -51,8 +91,8 @@ public class BlogController {
     // Admin blog endpoints
     @PreAuthorize("hasRole('ADMIN')")
     @GetMapping("/admin/blogs")
-    public ResponseEntity<List<BlogPostDTO>> getAllBlogsAdmin() {
-        List<BlogPostDTO> blogs = blogService.getAllBlogsAdmin();
+    public ResponseEntity<List<BlogPostSummaryDTO>> getAllBlogsAdmin() {
+        List<BlogPostSummaryDTO> blogs = blogService.getAllBlogsAdmin();
         return new ResponseEntity<>(blogs, HttpStatus.OK);
     }
     
@@ -77,6 +117,19 @@ public class BlogController {
         return new ResponseEntity<>(HttpStatus.NO_CONTENT);
     }
     
+    @PreAuthorize("hasRole('ADMIN')")
+    @GetMapping("/admin/blogs/cache/stats")
+    public ResponseEntity<Map<String, Object>> getPostCacheStats() {
+        return new ResponseEntity<>(blogService.getPostCacheStats(), HttpStatus.OK);
+    }
+    
+    @PreAuthorize("hasRole('ADMIN')")
+    @PostMapping("/admin/blogs/search/rebuild")
+    public ResponseEntity<Void> rebuildSearchIndex() {
+        blogService.rebuildSearchIndex();
+        return new ResponseEntity<>(HttpStatus.NO_CONTENT);
+    }
+    
     // Blog category admin endpoints
     @PreAuthorize("hasRole('ADMIN')")
     @GetMapping("/admin/blogs/categories")
@@ -2,6 +2,8 @@
 package com.spa.controller;
 
 import com.spa.dto.BookingDTO;
+import com.spa.dto.BulkStatusUpdateRequest;
+import com.spa.service.BookingLifecycleService;
 import com.spa.service.BookingService;
 import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -24,6 +26,9 @@ public class BookingController {
     @Autowired
     private BookingService bookingService;
     
+    @Autowired
+    private BookingLifecycleService bookingLifecycleService;
+    
     // User bookings
     @PreAuthorize("hasAnyRole('CUSTOMER', 'ADMIN')")
     @GetMapping("/bookings")
@@ -132,6 +137,16 @@ public class BookingController {
         return new ResponseEntity<>(updatedBooking, HttpStatus.OK);
     }
     
+    // Change the status of many bookings at once
+    @PreAuthorize("hasRole('ADMIN')")
+    @PatchMapping("/admin/bookings/status")
+    public ResponseEntity<Map<String, Integer>> updateBookingStatuses(
+            @Valid @RequestBody BulkStatusUpdateRequest request) {
+        
+        int updated = bookingLifecycleService.updateStatuses(request.getIds(), request.getStatus());
+        return new ResponseEntity<>(Map.of("requested", request.getIds().size(), "updated", updated), HttpStatus.OK);
+    }
+    
     @PreAuthorize("hasRole('ADMIN')")
     @PatchMapping("/admin/bookings/{id}/cancel")
     public ResponseEntity<BookingDTO> cancelBooking(@PathVariable Long id) {
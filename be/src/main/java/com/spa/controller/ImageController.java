@@ -0,0 +1,49 @@
+package com.spa.controller;
+
+import com.spa.dto.ImageAssetDTO;
+import com.spa.service.AuthService;
+import com.spa.service.ImageStorageService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.multipart.MultipartFile;
+
+@RestController
+@RequestMapping("/api")
+public class ImageController {
+
+    @Autowired
+    private ImageStorageService imageStorageService;
+    
+    @Autowired
+    private AuthService authService;
+    
+    // Upload a profile image for the authenticated user
+    @PreAuthorize("hasAnyRole('CUSTOMER', 'STAFF', 'ADMIN')")
+    @PostMapping(value = "/users/me/profile-image", consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
+    public ResponseEntity<ImageAssetDTO> uploadProfileImage(@AuthenticationPrincipal UserDetails userDetails,
+                                                            @RequestParam("file") MultipartFile file) {
+        ImageAssetDTO image = authService.updateProfileImage(userDetails.getUsername(), file);
+        return new ResponseEntity<>(image, HttpStatus.CREATED);
+    }
+    
+    // Admin endpoints
+    @PreAuthorize("hasRole('ADMIN')")
+    @PostMapping(value = "/admin/images", consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
+    public ResponseEntity<ImageAssetDTO> uploadImage(@RequestParam("file") MultipartFile file) {
+        ImageAssetDTO image = imageStorageService.store(file);
+        return new ResponseEntity<>(image, HttpStatus.CREATED);
+    }
+    
+    @PreAuthorize("hasRole('ADMIN')")
+    @GetMapping("/admin/images/{id}")
+    public ResponseEntity<ImageAssetDTO> getImage(@PathVariable String id) {
+        ImageAssetDTO image = imageStorageService.getImage(id);
+        return new ResponseEntity<>(image, HttpStatus.OK);
+    }
+}
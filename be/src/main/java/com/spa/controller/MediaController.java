@@ -0,0 +1,30 @@
+package com.spa.controller;
+
+import com.spa.service.ImageStorageService;
+import com.spa.util.ZeroCopyFileSender;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.web.bind.annotation.*;
+
+import java.io.IOException;
+import java.nio.file.Path;
+
+@RestController
+@RequestMapping("/media")
+public class MediaController {
+
+    @Autowired
+    private ImageStorageService imageStorageService;
+    
+    @Autowired
+    private ZeroCopyFileSender fileSender;
+    
+    // Serve an uploaded image or variant; names are content hashes, so the bytes never change
+    @GetMapping("/{fileName:.+}")
+    public void getMedia(@PathVariable String fileName, HttpServletRequest request,
+                         HttpServletResponse response) throws IOException {
+        Path file = imageStorageService.resolveMediaFile(fileName);
+        fileSender.send(request, response, file, ImageStorageService.getContentType(fileName), "\"" + fileName + "\"");
+    }
+}
@@ -4,6 +4,8 @@ package com.spa.controller;
 import com.spa.dto.ServiceCategoryDTO;
 import com.spa.dto.ServiceDTO;
 import com.spa.service.ServiceService;
+import com.spa.util.ConditionalResponseCache;
+import jakarta.servlet.http.HttpServletRequest;
 import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpStatus;
@@ -20,11 +22,14 @@ public class ServiceController {
     @Autowired
     private ServiceService serviceService;
     
+    @Autowired
+    private ConditionalResponseCache responseCache;
+    
     // Public endpoints
     @GetMapping("/services")
-    public ResponseEntity<List<ServiceDTO>> getAllServices() {
-        List<ServiceDTO> services = serviceService.getAllServices();
-        return new ResponseEntity<>(services, HttpStatus.OK);
+    public ResponseEntity<byte[]> getAllServices(HttpServletRequest request) {
+        return responseCache.respond(request, "services",
+                serviceService.getServicesVersion(), serviceService::getAllServices);
     }
     
     @GetMapping("/services/featured")
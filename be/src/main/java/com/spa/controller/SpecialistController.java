@@ -4,13 +4,18 @@ package com.spa.controller;
 import com.spa.dto.SpecialistDTO;
 import com.spa.model.Specialist;
 import com.spa.service.SpecialistService;
+import com.spa.util.ConditionalResponseCache;
+import jakarta.servlet.http.HttpServletRequest;
 import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
 
+import java.time.DayOfWeek;
+import java.time.LocalTime;
 import java.util.List;
 
 @RestController
@@ -20,11 +25,14 @@ public class SpecialistController {
     @Autowired
     private SpecialistService specialistService;
     
+    @Autowired
+    private ConditionalResponseCache responseCache;
+    
     // Public endpoints
     @GetMapping("/specialists")
-    public ResponseEntity<List<SpecialistDTO>> getAllSpecialists() {
-        List<SpecialistDTO> specialists = specialistService.getAllSpecialists();
-        return new ResponseEntity<>(specialists, HttpStatus.OK);
+    public ResponseEntity<byte[]> getAllSpecialists(HttpServletRequest request) {
+        return responseCache.respond(request, "specialists",
+                specialistService.getSpecialistsVersion(), specialistService::getAllSpecialists);
     }
     
     @GetMapping("/specialists/featured")
@@ -33,6 +41,12 @@ public class SpecialistController {
         return new ResponseEntity<>(specialists, HttpStatus.OK);
     }
     
+    @GetMapping("/specialists/search")
+    public ResponseEntity<List<SpecialistDTO>> searchSpecialists(@RequestParam("q") String query) {
+        List<SpecialistDTO> specialists = specialistService.searchSpecialists(query);
+        return new ResponseEntity<>(specialists, HttpStatus.OK);
+    }
+    
     @GetMapping("/specialists/{id}")
     public ResponseEntity<SpecialistDTO> getSpecialistById(@PathVariable Long id) {
         SpecialistDTO specialist = specialistService.getSpecialistById(id);
@@ -68,6 +82,16 @@ public class SpecialistController {
         return new ResponseEntity<>(HttpStatus.NO_CONTENT);
     }
     
+    // Specialists free for the whole window, e.g. ?day=TUESDAY&from=14:00&to=15:30
+    @GetMapping("/specialists/available")
+    public ResponseEntity<List<SpecialistDTO>> getAvailableSpecialists(
+            @RequestParam DayOfWeek day,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.TIME) LocalTime from,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.TIME) LocalTime to) {
+        List<SpecialistDTO> specialists = specialistService.getAvailableSpecialists(day, from, to);
+        return new ResponseEntity<>(specialists, HttpStatus.OK);
+    }
+    
     // Specialist schedule endpoint
     @GetMapping("/specialists/schedule/{id}")
     public ResponseEntity<List<String>> getSpecialistAvailability(@PathVariable Long id) {
@@ -0,0 +1,84 @@
+package com.spa.controller;
+
+import com.spa.dto.BookingDTO;
+import com.spa.dto.WaitlistEntryDTO;
+import com.spa.service.WaitlistService;
+import jakarta.validation.Valid;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+
+@RestController
+@RequestMapping("/api")
+public class WaitlistController {
+
+    @Autowired
+    private WaitlistService waitlistService;
+    
+    // Join the waitlist for a service, optionally with a specific specialist
+    @PreAuthorize("hasAnyRole('CUSTOMER', 'ADMIN')")
+    @PostMapping("/waitlist")
+    public ResponseEntity<WaitlistEntryDTO> joinWaitlist(
+            @AuthenticationPrincipal UserDetails userDetails,
+            @Valid @RequestBody WaitlistEntryDTO request) {
+        WaitlistEntryDTO entry = waitlistService.join(userDetails.getUsername(), request);
+        return new ResponseEntity<>(entry, HttpStatus.CREATED);
+    }
+    
+    // Waitlist entries of the authenticated user, including open offers
+    @PreAuthorize("hasAnyRole('CUSTOMER', 'ADMIN')")
+    @GetMapping("/waitlist")
+    public ResponseEntity<List<WaitlistEntryDTO>> getUserEntries(@AuthenticationPrincipal UserDetails userDetails) {
+        List<WaitlistEntryDTO> entries = waitlistService.getUserEntries(userDetails.getUsername());
+        return new ResponseEntity<>(entries, HttpStatus.OK);
+    }
+    
+    // Leave the waitlist
+    @PreAuthorize("hasAnyRole('CUSTOMER', 'ADMIN')")
+    @DeleteMapping("/waitlist/{id}")
+    public ResponseEntity<WaitlistEntryDTO> leaveWaitlist(
+            @AuthenticationPrincipal UserDetails userDetails,
+            @PathVariable Long id) {
+        WaitlistEntryDTO entry = waitlistService.leave(id, userDetails.getUsername(), isAdmin(userDetails));
+        return new ResponseEntity<>(entry, HttpStatus.OK);
+    }
+    
+    // Accept an offered slot; creates the booking
+    @PreAuthorize("hasAnyRole('CUSTOMER', 'ADMIN')")
+    @PostMapping("/waitlist/{id}/accept")
+    public ResponseEntity<BookingDTO> acceptOffer(
+            @AuthenticationPrincipal UserDetails userDetails,
+            @PathVariable Long id) {
+        BookingDTO booking = waitlistService.accept(id, userDetails.getUsername(), isAdmin(userDetails));
+        return new ResponseEntity<>(booking, HttpStatus.CREATED);
+    }
+    
+    // Decline an offered slot and keep waiting
+    @PreAuthorize("hasAnyRole('CUSTOMER', 'ADMIN')")
+    @PostMapping("/waitlist/{id}/decline")
+    public ResponseEntity<WaitlistEntryDTO> declineOffer(
+            @AuthenticationPrincipal UserDetails userDetails,
+            @PathVariable Long id) {
+        WaitlistEntryDTO entry = waitlistService.decline(id, userDetails.getUsername(), isAdmin(userDetails));
+        return new ResponseEntity<>(entry, HttpStatus.OK);
+    }
+    
+    // Admin: all waiting entries and open offers
+    @PreAuthorize("hasRole('ADMIN')")
+    @GetMapping("/admin/waitlist")
+    public ResponseEntity<List<WaitlistEntryDTO>> getOpenEntries() {
+        List<WaitlistEntryDTO> entries = waitlistService.getOpenEntries();
+        return new ResponseEntity<>(entries, HttpStatus.OK);
+    }
+    
+    private static boolean isAdmin(UserDetails userDetails) {
+        return userDetails.getAuthorities().stream()
+                .anyMatch(a -> a.getAuthority().equals("ROLE_ADMIN"));
+    }
+}
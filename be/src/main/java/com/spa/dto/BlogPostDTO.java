@@ -17,6 +17,7 @@ public class BlogPostDTO {
     private String excerpt;
     private String content;
     private String featuredImage;
+    private String featuredImageId;
     private LocalDateTime publishedAt;
     private String author;
     private boolean isActive;
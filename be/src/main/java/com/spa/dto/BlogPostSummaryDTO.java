@@ -0,0 +1,25 @@
+
+package com.spa.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+// List view of a blog post; never carries the article content
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BlogPostSummaryDTO {
+    private Long id;
+    private String title;
+    private String slug;
+    private String excerpt;
+    private String featuredImage;
+    private LocalDateTime publishedAt;
+    private String author;
+    private boolean isActive;
+    private Long categoryId;
+    private String categoryName;
+}
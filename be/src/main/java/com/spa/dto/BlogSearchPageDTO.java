@@ -0,0 +1,19 @@
+
+package com.spa.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BlogSearchPageDTO {
+    private String query;
+    private int page;
+    private int size;
+    private long total;
+    private List<BlogSearchResultDTO> results;
+}
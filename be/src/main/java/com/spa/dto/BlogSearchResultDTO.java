@@ -0,0 +1,24 @@
+
+package com.spa.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BlogSearchResultDTO {
+    private Long id;
+    private String title;
+    private String titleHighlight;
+    private String slug;
+    private String excerpt;
+    private String snippet;
+    private String featuredImage;
+    private LocalDateTime publishedAt;
+    private String categoryName;
+    private double score;
+}
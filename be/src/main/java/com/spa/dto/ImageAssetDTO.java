@@ -0,0 +1,21 @@
+package com.spa.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.Map;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ImageAssetDTO {
+    private String id;
+    private String url;
+    private String contentType;
+    private long size;
+    private Integer width;
+    private Integer height;
+    private String originalFilename;
+    private Map<Integer, String> variants;
+}
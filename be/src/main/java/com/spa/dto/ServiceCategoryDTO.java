@@ -13,5 +13,6 @@ public class ServiceCategoryDTO {
     private String name;
     private String description;
     private String image;
+    private String imageId;
     private int serviceCount;
 }
@@ -17,5 +17,8 @@ public class ServiceDTO {
     private Long categoryId;
     private String categoryName;
     private String image;
+    private String imageId;
     private boolean active;
+    private Double featuredWeight;
+    private Boolean featuredPinned;
 }
@@ -1,6 +1,8 @@
 
 package com.spa.dto;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.spa.model.WeeklyAvailability;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
@@ -25,4 +27,8 @@ public class SpecialistDTO {
     private String status;
     private Set<String> availability;
     private Long userId;
+    
+    // Parsed availability for in-memory free/busy checks; not serialized
+    @JsonIgnore
+    private WeeklyAvailability availabilitySlots;
 }
@@ -0,0 +1,37 @@
+package com.spa.dto;
+
+import jakarta.validation.constraints.NotNull;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class WaitlistEntryDTO {
+    private Long id;
+    private Long customerId;
+    private String customer;
+    @NotNull
+    private Long serviceId;
+    private String service;
+    // Null means any specialist
+    private Long specialistId;
+    private String specialist;
+    @NotNull
+    private LocalDate dateFrom;
+    @NotNull
+    private LocalDate dateTo;
+    private String status;
+    private Long offerSpecialistId;
+    private String offerSpecialist;
+    private LocalDate offerDate;
+    private LocalTime offerTime;
+    private LocalDateTime offerExpiresAt;
+    private Long bookingId;
+    private LocalDateTime createdAt;
+}
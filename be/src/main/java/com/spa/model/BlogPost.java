@@ -32,6 +32,10 @@ public class BlogPost {
     
     private String featuredImage;
     
+    // Content-hash id of an uploaded image; featuredImage then holds its media URL
+    @Column(length = 64)
+    private String featuredImageId;
+    
     private LocalDateTime publishedAt;
     
     @Column(nullable = false)
@@ -52,6 +52,6 @@ public class Booking {
     private LocalDateTime updatedAt;
     
     public enum BookingStatus {
-        PENDING, CONFIRMED, COMPLETED, CANCELLED
+        PENDING, CONFIRMED, COMPLETED, CANCELLED, NO_SHOW
     }
 }
@@ -0,0 +1,98 @@
+
+package com.spa.model;
+
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.Set;
+
+/**
+ * Immutable set of the 96 quarter-hour slots in a single day, stored as two longs.
+ * Accepts "9:00" (a single slot) or "9:00-10:30" (a range) strings.
+ */
+public final class DaySlots {
+
+    private static final int WORDS = 2;
+    
+    public static final DaySlots NONE = new DaySlots(new long[WORDS]);
+    
+    private final long[] words;
+    
+    private DaySlots(long[] words) {
+        this.words = words;
+    }
+    
+    public static DaySlots fromStrings(Collection<String> slots) {
+        if (slots == null || slots.isEmpty()) {
+            return NONE;
+        }
+        long[] words = new long[WORDS];
+        for (String slot : slots) {
+            String value = slot.trim();
+            String range = value.contains("-") ? value : value + "-" + plusSlot(value, slot);
+            int[] minutes = WeeklyAvailability.parseRange(range, slot);
+            WeeklyAvailability.setRange(words,
+                    minutes[0] / WeeklyAvailability.SLOT_MINUTES,
+                    (minutes[1] + WeeklyAvailability.SLOT_MINUTES - 1) / WeeklyAvailability.SLOT_MINUTES);
+        }
+        return new DaySlots(words);
+    }
+    
+    public Set<String> toStrings() {
+        Set<String> slots = new LinkedHashSet<>();
+        String ranges = WeeklyAvailability.formatRanges(words, 0);
+        if (!ranges.isEmpty()) {
+            slots.addAll(Arrays.asList(ranges.split(", ")));
+        }
+        return slots;
+    }
+    
+    public DaySlots or(DaySlots other) {
+        return new DaySlots(new long[] {words[0] | other.words[0], words[1] | other.words[1]});
+    }
+    
+    public boolean contains(int slot) {
+        return WeeklyAvailability.isSet(words, slot);
+    }
+    
+    public byte[] toBytes() {
+        return ByteBuffer.allocate(WORDS * Long.BYTES).putLong(words[0]).putLong(words[1]).array();
+    }
+    
+    public static DaySlots fromBytes(byte[] bytes) {
+        if (bytes == null || bytes.length == 0) {
+            return NONE;
+        }
+        if (bytes.length != WORDS * Long.BYTES) {
+            throw new IllegalArgumentException("Invalid time slot bitset length: " + bytes.length);
+        }
+        ByteBuffer buffer = ByteBuffer.wrap(bytes);
+        return new DaySlots(new long[] {buffer.getLong(), buffer.getLong()});
+    }
+    
+    // "9:00" -> "9:15", the end of the single slot starting at that time
+    private static String plusSlot(String start, String source) {
+        String[] parts = start.split(":");
+        if (parts.length != 2) {
+            throw new IllegalArgumentException("Invalid time slot: " + source);
+        }
+        int minutes;
+        try {
+            minutes = Integer.parseInt(parts[0]) * 60 + Integer.parseInt(parts[1]) + WeeklyAvailability.SLOT_MINUTES;
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Invalid time slot: " + source);
+        }
+        return (minutes / 60) + ":" + String.format("%02d", minutes % 60);
+    }
+    
+    @Override
+    public boolean equals(Object o) {
+        return this == o || (o instanceof DaySlots other && Arrays.equals(words, other.words));
+    }
+    
+    @Override
+    public int hashCode() {
+        return Arrays.hashCode(words);
+    }
+}
@@ -0,0 +1,20 @@
+
+package com.spa.model;
+
+import jakarta.persistence.AttributeConverter;
+import jakarta.persistence.Converter;
+
+// Stores DaySlots as a 16-byte blob
+@Converter
+public class DaySlotsConverter implements AttributeConverter<DaySlots, byte[]> {
+
+    @Override
+    public byte[] convertToDatabaseColumn(DaySlots slots) {
+        return slots != null ? slots.toBytes() : null;
+    }
+    
+    @Override
+    public DaySlots convertToEntityAttribute(byte[] bytes) {
+        return DaySlots.fromBytes(bytes);
+    }
+}
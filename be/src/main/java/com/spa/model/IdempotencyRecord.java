@@ -0,0 +1,42 @@
+package com.spa.model;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+// The stored response of a request sent with an Idempotency-Key header, replayed to retries
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Entity
+@Table(name = "idempotency_keys")
+public class IdempotencyRecord {
+    // SHA-256 of the caller, method, path and key
+    @Id
+    @Column(length = 64)
+    private String keyHash;
+    
+    // SHA-256 of the request body; a retry must send the same body
+    @Column(length = 64, nullable = false)
+    private String requestHash;
+    
+    @Column(nullable = false)
+    private Integer statusCode;
+    
+    private String contentType;
+    
+    @Column(columnDefinition = "TEXT")
+    private String responseBody;
+    
+    @Column(nullable = false)
+    private LocalDateTime createdAt;
+    
+    @Column(nullable = false)
+    private LocalDateTime expiresAt;
+}
@@ -0,0 +1,40 @@
+package com.spa.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Entity
+@Table(name = "image_assets")
+public class ImageAsset {
+
+    // SHA-256 of the file content, hex encoded
+    @Id
+    @Column(length = 64)
+    private String id;
+    
+    @Column(nullable = false)
+    private String contentType;
+    
+    @Column(nullable = false)
+    private String extension;
+    
+    private long size;
+    
+    private Integer width;
+    
+    private Integer height;
+    
+    private String originalFilename;
+    
+    // Comma separated widths of the resized variants generated so far
+    private String variants;
+    
+    private LocalDateTime createdAt;
+}
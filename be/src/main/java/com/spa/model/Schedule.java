@@ -7,7 +7,6 @@ import lombok.Data;
 import lombok.NoArgsConstructor;
 
 import java.time.LocalDate;
-import java.util.Set;
 
 @Data
 @NoArgsConstructor
@@ -26,11 +25,10 @@ public class Schedule {
     
     private LocalDate date;
     
-    @ElementCollection
-    @CollectionTable(name = "schedule_time_slots", 
-                    joinColumns = @JoinColumn(name = "schedule_id"))
-    @Column(name = "time_slot")
-    private Set<String> timeSlots;
+    // Quarter-hour slots of the day as a 96-bit bitset
+    @Convert(converter = DaySlotsConverter.class)
+    @Column(name = "time_slot_bits")
+    private DaySlots timeSlots = DaySlots.NONE;
     
     @Enumerated(EnumType.STRING)
     private ScheduleStatus status = ScheduleStatus.AVAILABLE;
@@ -36,5 +36,13 @@ public class Service {
     
     private String image;
     
+    // Content-hash id of an uploaded image; image then holds its media URL
+    @Column(length = 64)
+    private String imageId;
+    
     private boolean active = true;
+    
+    private Double featuredWeight;  // relative weight on the homepage, null = default
+    
+    private Boolean featuredPinned;  // always shown on the homepage when true
 }
@@ -25,4 +25,8 @@ public class ServiceCategory {
     private String description;
     
     private String image;
+    
+    // Content-hash id of an uploaded image; image then holds its media URL
+    @Column(length = 64)
+    private String imageId;
 }
@@ -6,8 +6,6 @@ import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 
-import java.util.Set;
-
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
@@ -34,9 +32,8 @@ public class Specialist {
     
     private Double rating;
     
-    @ElementCollection
-    @CollectionTable(name = "specialist_availability", 
-                    joinColumns = @JoinColumn(name = "specialist_id"))
-    @Column(name = "availability")
-    private Set<String> availability;
+    // Weekly availability as a 7 x 96 quarter-hour bitset
+    @Convert(converter = WeeklyAvailabilityConverter.class)
+    @Column(name = "availability_bits")
+    private WeeklyAvailability availability = WeeklyAvailability.NONE;
 }
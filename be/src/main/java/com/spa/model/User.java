@@ -48,6 +48,10 @@ public class User {
     
     private String profileImage;
     
+    // Content-hash id of an uploaded image; profileImage then holds its media URL
+    @Column(length = 64)
+    private String profileImageId;
+    
     private boolean active = true;
     
     @CreationTimestamp
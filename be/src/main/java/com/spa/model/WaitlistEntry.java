@@ -0,0 +1,74 @@
+package com.spa.model;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.JoinColumn;
+import jakarta.persistence.ManyToOne;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+
+// A customer's interest in a service with a specialist (or any specialist) within a date window
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Entity
+@Table(name = "waitlist_entries")
+public class WaitlistEntry {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+    
+    @ManyToOne
+    @JoinColumn(name = "customer_id", nullable = false)
+    private User customer;
+    
+    @ManyToOne
+    @JoinColumn(name = "service_id", nullable = false)
+    private Service service;
+    
+    // Null means any specialist
+    @ManyToOne
+    @JoinColumn(name = "specialist_id")
+    private Specialist specialist;
+    
+    @Column(nullable = false)
+    private LocalDate dateFrom;
+    
+    @Column(nullable = false)
+    private LocalDate dateTo;
+    
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private WaitlistStatus status = WaitlistStatus.WAITING;
+    
+    // Slot currently offered to the customer, while status is OFFERED
+    @ManyToOne
+    @JoinColumn(name = "offer_specialist_id")
+    private Specialist offerSpecialist;
+    
+    private LocalDate offerDate;
+    
+    private LocalTime offerTime;
+    
+    private LocalDateTime offerExpiresAt;
+    
+    // Booking created when the customer accepted an offer
+    private Long bookingId;
+    
+    private LocalDateTime createdAt;
+    
+    public enum WaitlistStatus {
+        WAITING, OFFERED, BOOKED, EXPIRED, CANCELLED
+    }
+}
@@ -0,0 +1,253 @@
+
+package com.spa.model;
+
+import java.nio.ByteBuffer;
+import java.time.DayOfWeek;
+import java.time.LocalTime;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.Locale;
+import java.util.Set;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Immutable weekly availability as a bitset of 7 days x 96 quarter-hour slots (Monday first).
+ * Converts to and from the "Monday: 9:00-17:00" strings used by the API.
+ */
+public final class WeeklyAvailability {
+
+    public static final int SLOT_MINUTES = 15;
+    public static final int SLOTS_PER_DAY = 24 * 60 / SLOT_MINUTES;
+    public static final int DAYS = 7;
+    
+    private static final int SLOTS = DAYS * SLOTS_PER_DAY;
+    private static final int WORDS = (SLOTS + 63) / 64;
+    
+    private static final Pattern ENTRY = Pattern.compile("^\\s*([A-Za-z]+)\\s*:?\\s*(.+)$");
+    private static final Pattern RANGE = Pattern.compile("^\\s*(\\d{1,2}):(\\d{2})\\s*-\\s*(\\d{1,2}):(\\d{2})\\s*$");
+    
+    public static final WeeklyAvailability NONE = new WeeklyAvailability(new long[WORDS]);
+    
+    private final long[] words;
+    
+    private WeeklyAvailability(long[] words) {
+        this.words = words;
+    }
+    
+    // Parse entries like "Monday: 9:00-17:00" or "Tue 9:00-12:00, 13:00-18:00"
+    public static WeeklyAvailability fromStrings(Collection<String> entries) {
+        if (entries == null || entries.isEmpty()) {
+            return NONE;
+        }
+        long[] words = new long[WORDS];
+        for (String entry : entries) {
+            Matcher matcher = ENTRY.matcher(entry);
+            if (!matcher.matches()) {
+                throw new IllegalArgumentException("Invalid availability: " + entry);
+            }
+            int dayOffset = dayIndex(parseDay(matcher.group(1))) * SLOTS_PER_DAY;
+            for (String range : matcher.group(2).split(",")) {
+                int[] minutes = parseRange(range, entry);
+                // Only quarter hours that are fully inside the range count as available
+                int from = (minutes[0] + SLOT_MINUTES - 1) / SLOT_MINUTES;
+                int to = minutes[1] / SLOT_MINUTES;
+                setRange(words, dayOffset + from, dayOffset + to);
+            }
+        }
+        return new WeeklyAvailability(words);
+    }
+    
+    // One "Monday: 9:00-12:00, 13:00-17:00" string per day with availability
+    public Set<String> toStrings() {
+        Set<String> entries = new LinkedHashSet<>();
+        for (int day = 0; day < DAYS; day++) {
+            String ranges = formatRanges(words, day * SLOTS_PER_DAY);
+            if (!ranges.isEmpty()) {
+                entries.add(displayName(DayOfWeek.of(day + 1)) + ": " + ranges);
+            }
+        }
+        return entries;
+    }
+    
+    // Mask covering [from, to) on the given day, rounded outwards to whole slots
+    public static WeeklyAvailability window(DayOfWeek day, LocalTime from, LocalTime to) {
+        int start = minuteOfDay(from) / SLOT_MINUTES;
+        int end = to.equals(LocalTime.MIDNIGHT) ? SLOTS_PER_DAY : (minuteOfDay(to) + SLOT_MINUTES - 1) / SLOT_MINUTES;
+        if (end <= start) {
+            throw new IllegalArgumentException("Time window must end after it starts");
+        }
+        long[] words = new long[WORDS];
+        int dayOffset = dayIndex(day) * SLOTS_PER_DAY;
+        setRange(words, dayOffset + start, dayOffset + end);
+        return new WeeklyAvailability(words);
+    }
+    
+    // True if every slot in the given availability is also available here
+    public boolean containsAll(WeeklyAvailability required) {
+        for (int i = 0; i < WORDS; i++) {
+            if ((words[i] & required.words[i]) != required.words[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+    
+    public boolean isFree(DayOfWeek day, LocalTime from, LocalTime to) {
+        return containsAll(window(day, from, to));
+    }
+    
+    public WeeklyAvailability and(WeeklyAvailability other) {
+        long[] result = new long[WORDS];
+        for (int i = 0; i < WORDS; i++) {
+            result[i] = words[i] & other.words[i];
+        }
+        return new WeeklyAvailability(result);
+    }
+    
+    public WeeklyAvailability or(WeeklyAvailability other) {
+        long[] result = new long[WORDS];
+        for (int i = 0; i < WORDS; i++) {
+            result[i] = words[i] | other.words[i];
+        }
+        return new WeeklyAvailability(result);
+    }
+    
+    public boolean isEmpty() {
+        for (long word : words) {
+            if (word != 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+    
+    public byte[] toBytes() {
+        ByteBuffer buffer = ByteBuffer.allocate(WORDS * Long.BYTES);
+        for (long word : words) {
+            buffer.putLong(word);
+        }
+        return buffer.array();
+    }
+    
+    public static WeeklyAvailability fromBytes(byte[] bytes) {
+        if (bytes == null || bytes.length == 0) {
+            return NONE;
+        }
+        if (bytes.length != WORDS * Long.BYTES) {
+            throw new IllegalArgumentException("Invalid availability bitset length: " + bytes.length);
+        }
+        ByteBuffer buffer = ByteBuffer.wrap(bytes);
+        long[] words = new long[WORDS];
+        for (int i = 0; i < WORDS; i++) {
+            words[i] = buffer.getLong();
+        }
+        return new WeeklyAvailability(words);
+    }
+    
+    @Override
+    public boolean equals(Object o) {
+        return this == o || (o instanceof WeeklyAvailability other && Arrays.equals(words, other.words));
+    }
+    
+    @Override
+    public int hashCode() {
+        return Arrays.hashCode(words);
+    }
+    
+    @Override
+    public String toString() {
+        return String.join("; ", toStrings());
+    }
+    
+    // Helpers shared with DaySlots
+    
+    static void setRange(long[] words, int from, int to) {
+        for (int word = from >>> 6; from < to; word++) {
+            int end = Math.min(to, (word + 1) << 6);
+            words[word] |= rangeMask(from, end);
+            from = end;
+        }
+    }
+    
+    static boolean isSet(long[] words, int slot) {
+        return (words[slot >>> 6] & (1L << (slot & 63))) != 0;
+    }
+    
+    static String formatRanges(long[] words, int offset) {
+        StringBuilder ranges = new StringBuilder();
+        int slot = 0;
+        while (slot < SLOTS_PER_DAY) {
+            if (!isSet(words, offset + slot)) {
+                slot++;
+                continue;
+            }
+            int start = slot;
+            while (slot < SLOTS_PER_DAY && isSet(words, offset + slot)) {
+                slot++;
+            }
+            if (ranges.length() > 0) {
+                ranges.append(", ");
+            }
+            ranges.append(formatMinutes(start * SLOT_MINUTES)).append('-').append(formatMinutes(slot * SLOT_MINUTES));
+        }
+        return ranges.toString();
+    }
+    
+    static int[] parseRange(String range, String source) {
+        Matcher matcher = RANGE.matcher(range);
+        if (!matcher.matches()) {
+            throw new IllegalArgumentException("Invalid time range: " + source);
+        }
+        int from = toMinutes(matcher.group(1), matcher.group(2), source);
+        int to = toMinutes(matcher.group(3), matcher.group(4), source);
+        if (to <= from) {
+            throw new IllegalArgumentException("Time range must end after it starts: " + source);
+        }
+        return new int[] {from, to};
+    }
+    
+    static int minuteOfDay(LocalTime time) {
+        return time.getHour() * 60 + time.getMinute();
+    }
+    
+    private static long rangeMask(int from, int to) {
+        long mask = -1L << (from & 63);
+        int last = (to - 1) & 63;
+        return mask & (-1L >>> (63 - last));
+    }
+    
+    private static int toMinutes(String hours, String minutes, String source) {
+        int h = Integer.parseInt(hours);
+        int m = Integer.parseInt(minutes);
+        if (m > 59 || h > 24 || (h == 24 && m > 0)) {
+            throw new IllegalArgumentException("Invalid time: " + source);
+        }
+        return h * 60 + m;
+    }
+    
+    private static String formatMinutes(int minutes) {
+        return (minutes / 60) + ":" + String.format("%02d", minutes % 60);
+    }
+    
+    private static int dayIndex(DayOfWeek day) {
+        return day.getValue() - 1;
+    }
+    
+    private static DayOfWeek parseDay(String name) {
+        String lower = name.toLowerCase(Locale.ROOT);
+        for (DayOfWeek day : DayOfWeek.values()) {
+            String full = day.name().toLowerCase(Locale.ROOT);
+            if (full.equals(lower) || (lower.length() >= 3 && full.startsWith(lower))) {
+                return day;
+            }
+        }
+        throw new IllegalArgumentException("Invalid day of week: " + name);
+    }
+    
+    private static String displayName(DayOfWeek day) {
+        String name = day.name();
+        return name.charAt(0) + name.substring(1).toLowerCase(Locale.ROOT);
+    }
+}
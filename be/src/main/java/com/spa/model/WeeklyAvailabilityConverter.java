@@ -0,0 +1,20 @@
+
+package com.spa.model;
+
+import jakarta.persistence.AttributeConverter;
+import jakarta.persistence.Converter;
+
+// Stores WeeklyAvailability as an 88-byte blob
+@Converter
+public class WeeklyAvailabilityConverter implements AttributeConverter<WeeklyAvailability, byte[]> {
+
+    @Override
+    public byte[] convertToDatabaseColumn(WeeklyAvailability availability) {
+        return availability != null ? availability.toBytes() : null;
+    }
+    
+    @Override
+    public WeeklyAvailability convertToEntityAttribute(byte[] bytes) {
+        return WeeklyAvailability.fromBytes(bytes);
+    }
+}
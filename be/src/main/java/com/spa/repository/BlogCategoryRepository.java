@@ -4,6 +4,7 @@ package com.spa.repository;
 import com.spa.model.BlogCategory;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.util.List;
@@ -17,5 +18,12 @@ public interface BlogCategoryRepository extends JpaRepository<BlogCategory, Long
     @Query("SELECT c FROM BlogCategory c LEFT JOIN c.posts p GROUP BY c.id ORDER BY COUNT(p.id) DESC")
     List<BlogCategory> findAllOrderByPostCountDesc();
     
+    // Categories with their post counts in a single aggregate query
+    @Query("SELECT c, COUNT(p) FROM BlogCategory c LEFT JOIN c.posts p GROUP BY c")
+    List<Object[]> findAllWithPostCount();
+    
+    @Query("SELECT c, COUNT(p) FROM BlogCategory c LEFT JOIN c.posts p WHERE c.isActive = :isActive GROUP BY c")
+    List<Object[]> findByIsActiveWithPostCount(@Param("isActive") boolean isActive);
+    
     boolean existsBySlug(String slug);
 }
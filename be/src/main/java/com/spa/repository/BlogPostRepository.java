@@ -1,6 +1,7 @@
 
 package com.spa.repository;
 
+import com.spa.dto.BlogPostSummaryDTO;
 import com.spa.model.BlogPost;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
@@ -9,6 +10,7 @@ import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -26,4 +28,21 @@ public interface BlogPostRepository extends JpaRepository<BlogPost, Long> {
     List<BlogPost> findLatestPosts(Pageable pageable);
     
     long countByCategoryId(Long categoryId);
+    
+    // Summary projections for list endpoints; these never select the content column
+    String SUMMARY_SELECT = "SELECT new com.spa.dto.BlogPostSummaryDTO("
+            + "b.id, b.title, b.slug, b.excerpt, b.featuredImage, b.publishedAt, b.author, b.isActive, c.id, c.name) "
+            + "FROM BlogPost b LEFT JOIN b.category c ";
+    
+    @Query(SUMMARY_SELECT + "WHERE b.isActive = true ORDER BY b.publishedAt DESC")
+    List<BlogPostSummaryDTO> findActiveSummaries(Pageable pageable);
+    
+    @Query(SUMMARY_SELECT + "WHERE b.isActive = true AND c.id = :categoryId ORDER BY b.publishedAt DESC")
+    List<BlogPostSummaryDTO> findActiveSummariesByCategoryId(@Param("categoryId") Long categoryId, Pageable pageable);
+    
+    @Query(SUMMARY_SELECT + "ORDER BY b.publishedAt DESC")
+    List<BlogPostSummaryDTO> findAllSummaries();
+    
+    @Query(SUMMARY_SELECT + "WHERE b.id IN :ids")
+    List<BlogPostSummaryDTO> findSummariesByIdIn(@Param("ids") Collection<Long> ids);
 }
@@ -0,0 +1,109 @@
+
+package com.spa.repository;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+import org.springframework.web.util.HtmlUtils;
+
+import java.util.List;
+import java.util.regex.Pattern;
+
+/**
+ * Full-text index over blog post title, excerpt and content, backed by the SQLite FTS5
+ * external-content table blog_posts_fts (migration V1_2). Index rows are keyed by the blog
+ * post id and kept in sync with blog_posts by triggers.
+ *
+ * Highlights and snippets are returned as HTML: the matched text is escaped and only the
+ * <mark> tags around matches are markup, so post content cannot inject HTML into results.
+ */
+@Repository
+public class BlogSearchRepository {
+
+    // Match delimiters passed to highlight() and snippet(); control characters that cannot occur in post text
+    private static final String MATCH_START = "\u0002";
+    private static final String MATCH_END = "\u0003";
+    
+    // Complete tags, and tags cut off at the start or end of a snippet
+    private static final Pattern TAG = Pattern.compile("<[^<>]*>|^[^<]*>|<[^>]*$");
+    
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    
+    // Rebuild the whole index from the blog_posts table
+    public void rebuild() {
+        jdbcTemplate.update("INSERT INTO blog_posts_fts(blog_posts_fts) VALUES ('rebuild')");
+    }
+    
+    // Active posts matching the FTS query, best BM25 score first (title > excerpt > content).
+    // CROSS JOIN keeps the FTS table as the outer loop: otherwise SQLite may scan blog_posts through
+    // idx_blog_posts_active_published and evaluate the MATCH once per post (seconds at 100k posts).
+    public List<SearchHit> search(String matchQuery, int limit, int offset) {
+        return jdbcTemplate.query(
+                "SELECT blog_posts_fts.rowid, "
+                        + "highlight(blog_posts_fts, 0, ?, ?) AS title_highlight, "
+                        + "snippet(blog_posts_fts, 2, ?, ?, '...', 24) AS content_snippet, "
+                        + "bm25(blog_posts_fts, 10.0, 4.0, 1.0) AS score "
+                        + "FROM blog_posts_fts CROSS JOIN blog_posts p ON p.id = blog_posts_fts.rowid "
+                        + "WHERE blog_posts_fts MATCH ? AND p.is_active = 1 "
+                        + "ORDER BY score LIMIT ? OFFSET ?",
+                (rs, rowNum) -> new SearchHit(
+                        rs.getLong(1),
+                        toHtml(rs.getString(2)),
+                        toHtml(textOf(rs.getString(3))),
+                        rs.getDouble(4)),
+                MATCH_START, MATCH_END, MATCH_START, MATCH_END, matchQuery, limit, offset);
+    }
+    
+    public long count(String matchQuery) {
+        Long total = jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM blog_posts_fts CROSS JOIN blog_posts p ON p.id = blog_posts_fts.rowid "
+                        + "WHERE blog_posts_fts MATCH ? AND p.is_active = 1",
+                Long.class, matchQuery);
+        return total != null ? total : 0;
+    }
+    
+    // Plain text of a fragment of post HTML: tags removed, entities decoded
+    static String textOf(String html) {
+        if (html == null) {
+            return null;
+        }
+        return HtmlUtils.htmlUnescape(TAG.matcher(html).replaceAll(" ")).replaceAll("\\s+", " ").trim();
+    }
+    
+    // Escape delimited text and turn the match delimiters into <mark> tags; a delimiter lost
+    // with a stripped tag leaves an unbalanced pair, so marks are opened and closed explicitly
+    static String toHtml(String delimited) {
+        if (delimited == null) {
+            return null;
+        }
+        StringBuilder html = new StringBuilder(delimited.length() + 32);
+        boolean open = false;
+        int from = 0;
+        for (int i = 0; i <= delimited.length(); i++) {
+            char c = i < delimited.length() ? delimited.charAt(i) : MATCH_END.charAt(0);
+            if (c != MATCH_START.charAt(0) && c != MATCH_END.charAt(0)) {
+                continue;
+            }
+            html.append(HtmlUtils.htmlEscape(delimited.substring(from, i)));
+            from = i + 1;
+            boolean start = c == MATCH_START.charAt(0);
+            if (start != open) {
+                html.append(start ? "<mark>" : "</mark>");
+                open = start;
+            }
+        }
+        return html.toString();
+    }
+    
+    @Data
+    @AllArgsConstructor
+    public static class SearchHit {
+        private Long postId;
+        private String titleHighlight;
+        private String snippet;
+        private double score;
+    }
+}
@@ -2,15 +2,60 @@
 package com.spa.repository;
 
 import com.spa.model.Booking;
+import com.spa.model.Transaction;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.Collection;
 import java.util.List;
 
 @Repository
 public interface BookingRepository extends JpaRepository<Booking, Long> {
     List<Booking> findByBookingDateBetween(LocalDate startDate, LocalDate endDate);
-    List<Booking> findByUserId(Long userId);
-    List<Booking> findByStatus(String status);
+    
+    // A customer's bookings (idx_bookings_customer_date)
+    List<Booking> findByCustomerId(Long customerId);
+    
+    // Bookings in a status (idx_bookings_status_date)
+    List<Booking> findByStatus(Booking.BookingStatus status);
+    
+    // Bookings in a status from the given day on (idx_bookings_status_date)
+    List<Booking> findByStatusAndBookingDateGreaterThanEqual(Booking.BookingStatus status, LocalDate date);
+    
+    // Whether a specialist's slot is held by a booking in one of the statuses (idx_bookings_booking_date)
+    boolean existsBySpecialistIdAndBookingDateAndBookingTimeAndStatusIn(Long specialistId, LocalDate date, LocalTime time,
+                                                                      Collection<Booking.BookingStatus> statuses);
+    
+    // Bookings in a status whose start is at or before the cutoff, in id order after afterId (idx_bookings_status_date)
+    @Query("SELECT b FROM Booking b WHERE b.status = :status "
+            + "AND (b.bookingDate < :date OR (b.bookingDate = :date AND b.bookingTime <= :time)) "
+            + "AND b.id > :afterId ORDER BY b.id")
+    List<Booking> findStartedBefore(@Param("status") Booking.BookingStatus status, @Param("date") LocalDate date,
+                                    @Param("time") LocalTime time, @Param("afterId") Long afterId, Pageable pageable);
+    
+    // Bookings in a status created before createdBefore or starting at or before the cutoff, in id order after afterId
+    @Query("SELECT b FROM Booking b WHERE b.status = :status "
+            + "AND (b.createdAt < :createdBefore OR b.bookingDate < :date OR (b.bookingDate = :date AND b.bookingTime <= :time)) "
+            + "AND b.id > :afterId ORDER BY b.id")
+    List<Booking> findStale(@Param("status") Booking.BookingStatus status, @Param("createdBefore") LocalDateTime createdBefore,
+                            @Param("date") LocalDate date, @Param("time") LocalTime time, @Param("afterId") Long afterId,
+                            Pageable pageable);
+    
+    // Ids among the given bookings that have a transaction in the status
+    @Query("SELECT t.booking.id FROM Transaction t WHERE t.booking.id IN :ids AND t.status = :status")
+    List<Long> findBookingIdsWithTransaction(@Param("ids") Collection<Long> ids,
+                                             @Param("status") Transaction.TransactionStatus status);
+    
+    // Set-based status change; rows already in the status are left alone
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE Booking b SET b.status = :status, b.updatedAt = :now WHERE b.id IN :ids AND b.status <> :status")
+    int updateStatus(@Param("ids") Collection<Long> ids, @Param("status") Booking.BookingStatus status,
+                     @Param("now") LocalDateTime now);
 }
@@ -0,0 +1,20 @@
+package com.spa.repository;
+
+import com.spa.model.OutboxMessage;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Repository
+public interface OutboxMessageRepository extends JpaRepository<OutboxMessage, Long> {
+    // Messages in the status whose next attempt is due, oldest first
+    @Query("SELECT m FROM OutboxMessage m WHERE m.status = :status AND m.nextAttemptAt <= :now ORDER BY m.id")
+    List<OutboxMessage> findDue(@Param("status") OutboxMessage.Status status, @Param("now") LocalDateTime now, Pageable pageable);
+    
+    long countByStatus(OutboxMessage.Status status);
+}
@@ -10,7 +10,7 @@ import java.util.List;
 
 @Repository
 public interface ServiceCategoryRepository extends JpaRepository<ServiceCategory, Long> {
-    // Add a method to get categories with service counts
-    @Query("SELECT sc, COUNT(s) FROM ServiceCategory sc LEFT JOIN sc.services s GROUP BY sc.id")
+    // Categories with their service counts in a single aggregate query
+    @Query("SELECT sc, COUNT(s) FROM ServiceCategory sc LEFT JOIN Service s ON s.category = sc GROUP BY sc")
     List<Object[]> findAllWithServiceCount();
 }
@@ -5,11 +5,11 @@ import com.spa.model.Transaction;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.stereotype.Repository;
 
-import java.time.LocalDate;
+import java.time.LocalDateTime;
 import java.util.List;
 
 @Repository
 public interface TransactionRepository extends JpaRepository<Transaction, Long> {
-    List<Transaction> findByDateBetween(LocalDate startDate, LocalDate endDate);
-    List<Transaction> findByUserId(Long userId);
+    // Transactions in a time range, both ends inclusive (idx_transactions_date)
+    List<Transaction> findByTransactionDateBetween(LocalDateTime start, LocalDateTime end);
 }
@@ -0,0 +1,20 @@
+package com.spa.repository;
+
+import com.spa.model.WaitlistEntry;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface WaitlistEntryRepository extends JpaRepository<WaitlistEntry, Long> {
+    List<WaitlistEntry> findByCustomerIdOrderByIdDesc(Long customerId);
+    
+    // Open entries (idx_waitlist_status_date_to)
+    List<WaitlistEntry> findByStatusInOrderById(Collection<WaitlistEntry.WaitlistStatus> statuses);
+    
+    // Waiting entries whose window has passed (idx_waitlist_status_date_to)
+    List<WaitlistEntry> findByStatusAndDateToBefore(WaitlistEntry.WaitlistStatus status, LocalDate date);
+}
@@ -3,6 +3,7 @@ package com.spa.service;
 
 import com.spa.dto.AuthRequest;
 import com.spa.dto.AuthResponse;
+import com.spa.dto.ImageAssetDTO;
 import com.spa.dto.RegisterRequest;
 import com.spa.exception.ResourceNotFoundException;
 import com.spa.model.User;
@@ -16,6 +17,7 @@ import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.web.multipart.MultipartFile;
 
 @Service
 @RequiredArgsConstructor
@@ -26,6 +28,7 @@ public class AuthService {
     private final JwtTokenProvider jwtTokenProvider;
     private final AuthenticationManager authenticationManager;
     private final UserDetailsService userDetailsService;
+    private final ImageStorageService imageStorageService;
 
     @Transactional
     public AuthResponse register(RegisterRequest request) {
@@ -111,4 +114,16 @@ public class AuthService {
         }
         throw new IllegalArgumentException("Invalid refresh token");
     }
+
+    // Store an uploaded profile image and point the user at it by content hash
+    @Transactional
+    public ImageAssetDTO updateProfileImage(String username, MultipartFile file) {
+        User user = userRepository.findByUsername(username)
+                .orElseThrow(() -> new ResourceNotFoundException("User not found: " + username));
+        ImageAssetDTO image = imageStorageService.store(file);
+        user.setProfileImageId(image.getId());
+        user.setProfileImage(image.getUrl());
+        userRepository.save(user);
+        return image;
+    }
 }
@@ -3,19 +3,36 @@ package com.spa.service;
 
 import com.spa.dto.BlogCategoryDTO;
 import com.spa.dto.BlogPostDTO;
+import com.spa.dto.BlogPostSummaryDTO;
+import com.spa.dto.BlogSearchPageDTO;
+import com.spa.dto.BlogSearchResultDTO;
 import com.spa.exception.ResourceNotFoundException;
 import com.spa.model.BlogCategory;
 import com.spa.model.BlogPost;
 import com.spa.repository.BlogCategoryRepository;
 import com.spa.repository.BlogPostRepository;
+import com.spa.repository.BlogSearchRepository;
+import com.spa.util.AfterCommit;
+import com.spa.util.TinyLfuCache;
+import com.spa.util.DomainEvent;
+import com.spa.util.DomainEventBus;
+import jakarta.annotation.PostConstruct;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.stream.Collectors;
 
 @Service
@@ -27,6 +44,34 @@ public class BlogService {
     @Autowired
     private BlogCategoryRepository blogCategoryRepository;
     
+    @Autowired
+    private BlogSearchRepository blogSearchRepository;
+    
+    @Autowired
+    private DomainEventBus domainEventBus;
+    
+    @Autowired
+    private CatalogSnapshotHolder catalogSnapshotHolder;
+    
+    @Autowired
+    private TinyLfuCache<String, BlogPostDTO> blogPostCache;
+    
+    @Autowired
+    private ImageStorageService imageStorageService;
+    
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+    
+    private TransactionTemplate refreshTransaction;
+    
+    // Bumped after every committed post or category write, for conditional GETs on post lists
+    private final AtomicLong postsVersion = new AtomicLong();
+    
+    @PostConstruct
+    public void init() {
+        refreshTransaction = AfterCommit.readOnlyTransaction(transactionManager);
+    }
+    
     // Convert BlogPost to BlogPostDTO
     private BlogPostDTO convertToDTO(BlogPost blogPost) {
         BlogPostDTO dto = new BlogPostDTO();
@@ -36,6 +81,7 @@ public class BlogService {
         dto.setExcerpt(blogPost.getExcerpt());
         dto.setContent(blogPost.getContent());
         dto.setFeaturedImage(blogPost.getFeaturedImage());
+        dto.setFeaturedImageId(blogPost.getFeaturedImageId());
         dto.setPublishedAt(blogPost.getPublishedAt());
         dto.setAuthor(blogPost.getAuthor());
         dto.setActive(blogPost.isActive());
@@ -49,51 +95,60 @@ public class BlogService {
     }
     
     // Convert BlogCategory to BlogCategoryDTO
-    private BlogCategoryDTO convertToDTO(BlogCategory blogCategory) {
+    private BlogCategoryDTO convertToDTO(BlogCategory blogCategory, long postsCount) {
         BlogCategoryDTO dto = new BlogCategoryDTO();
         dto.setId(blogCategory.getId());
         dto.setName(blogCategory.getName());
         dto.setSlug(blogCategory.getSlug());
         dto.setDescription(blogCategory.getDescription());
         dto.setActive(blogCategory.isActive());
-        
-        // Count posts for this category
-        int postsCount = 0;
-        if (blogCategory.getPosts() != null) {
-            postsCount = blogCategory.getPosts().size();
-        }
-        dto.setPostsCount(postsCount);
-        
+        dto.setPostsCount((int) postsCount);
         return dto;
     }
     
-    // Get all blogs (public API)
-    public List<BlogPostDTO> getAllBlogs(Long categoryId, int page, int size) {
+    // Convert a [category, postsCount] row from the aggregate queries to DTO
+    private BlogCategoryDTO convertToCategoryDTO(Object[] row) {
+        return convertToDTO((BlogCategory) row[0], ((Number) row[1]).longValue());
+    }
+    
+    // Version of the public post lists
+    public long getPostsVersion() {
+        return postsVersion.get();
+    }
+    
+    // Once the current transaction has committed, bump the posts version and evict cached posts
+    // (the given slugs, or every cached post when none are given)
+    private void postsChanged(String... slugs) {
+        AfterCommit.run(() -> {
+            // Bump first so that a concurrent getBlogBySlug that read old data will not cache it
+            postsVersion.incrementAndGet();
+            if (slugs.length == 0) {
+                blogPostCache.invalidateAll();
+            }
+            for (String slug : slugs) {
+                blogPostCache.invalidate(slug);
+            }
+        });
+    }
+    
+    // Get all blogs (public API, summaries without content)
+    public List<BlogPostSummaryDTO> getAllBlogs(Long categoryId, int page, int size) {
         Pageable pageable = PageRequest.of(page, size);
         
         if (categoryId != null) {
-            return blogPostRepository.findByCategoryIdAndIsActiveOrderByPublishedAtDesc(categoryId, true, pageable)
-                    .stream()
-                    .map(this::convertToDTO)
-                    .collect(Collectors.toList());
+            return blogPostRepository.findActiveSummariesByCategoryId(categoryId, pageable);
         } else {
-            return blogPostRepository.findByIsActiveOrderByPublishedAtDesc(true, pageable)
-                    .stream()
-                    .map(this::convertToDTO)
-                    .collect(Collectors.toList());
+            return blogPostRepository.findActiveSummaries(pageable);
         }
     }
     
-    // Get featured blogs
-    public List<BlogPostDTO> getFeaturedBlogs() {
+    // Get featured blogs (summaries without content)
+    public List<BlogPostSummaryDTO> getFeaturedBlogs() {
         Pageable pageable = PageRequest.of(0, 4); // Get top 4 latest
-        return blogPostRepository.findLatestPosts(pageable)
-                .stream()
-                .map(this::convertToDTO)
-                .collect(Collectors.toList());
+        return blogPostRepository.findActiveSummaries(pageable);
     }
     
-    // Get blog by ID
+    // Get blog by ID (full detail including content)
     public BlogPostDTO getBlogById(Long id) {
         BlogPost blogPost = blogPostRepository.findById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("Blog post not found with id: " + id));
@@ -101,20 +156,122 @@ public class BlogService {
         return convertToDTO(blogPost);
     }
     
-    // Get all categories
-    public List<BlogCategoryDTO> getAllCategories() {
-        return blogCategoryRepository.findByIsActive(true)
+    // Full-text search over active posts, best match first
+    @Transactional(readOnly = true)
+    public BlogSearchPageDTO searchBlogs(String query, int page, int size) {
+        int safePage = Math.max(page, 0);
+        int safeSize = Math.min(Math.max(size, 1), 50);
+        String matchQuery = toMatchQuery(query);
+        if (matchQuery == null) {
+            return new BlogSearchPageDTO(query, safePage, safeSize, 0, List.of());
+        }
+        
+        List<BlogSearchRepository.SearchHit> hits = blogSearchRepository.search(matchQuery, safeSize, safePage * safeSize);
+        if (hits.isEmpty()) {
+            return new BlogSearchPageDTO(query, safePage, safeSize, safePage == 0 ? 0 : blogSearchRepository.count(matchQuery), List.of());
+        }
+        Map<Long, BlogPostSummaryDTO> posts = blogPostRepository.findSummariesByIdIn(
+                        hits.stream().map(BlogSearchRepository.SearchHit::getPostId).collect(Collectors.toList()))
                 .stream()
+                .collect(Collectors.toMap(BlogPostSummaryDTO::getId, Function.identity()));
+        
+        List<BlogSearchResultDTO> results = new ArrayList<>();
+        for (BlogSearchRepository.SearchHit hit : hits) {
+            BlogPostSummaryDTO post = posts.get(hit.getPostId());
+            if (post == null) {
+                continue;
+            }
+            BlogSearchResultDTO result = new BlogSearchResultDTO();
+            result.setId(post.getId());
+            result.setTitle(post.getTitle());
+            result.setTitleHighlight(hit.getTitleHighlight());
+            result.setSlug(post.getSlug());
+            result.setExcerpt(post.getExcerpt());
+            result.setSnippet(hit.getSnippet());
+            result.setFeaturedImage(post.getFeaturedImage());
+            result.setPublishedAt(post.getPublishedAt());
+            result.setCategoryName(post.getCategoryName());
+            result.setScore(-hit.getScore()); // bm25() is lower-is-better
+            results.add(result);
+        }
+        
+        long total = hits.size() < safeSize && safePage == 0 ? hits.size() : blogSearchRepository.count(matchQuery);
+        return new BlogSearchPageDTO(query, safePage, safeSize, total, results);
+    }
+    
+    // Turn free text into an FTS5 query: every word must match, the last one as a prefix
+    private String toMatchQuery(String query) {
+        if (query == null) {
+            return null;
+        }
+        List<String> terms = new ArrayList<>();
+        for (String token : query.split("[^\\p{L}\\p{N}]+")) {
+            if (!token.isEmpty() && terms.size() < 16) {
+                terms.add("\"" + token + "\"");
+            }
+        }
+        if (terms.isEmpty()) {
+            return null;
+        }
+        int last = terms.size() - 1;
+        terms.set(last, terms.get(last) + "*");
+        return String.join(" ", terms);
+    }
+    
+    // Admin: Rebuild the search index from the blog_posts table
+    @Transactional
+    public void rebuildSearchIndex() {
+        blogSearchRepository.rebuild();
+    }
+    
+    // Get an active blog post by slug, served from the hot-article cache
+    public BlogPostDTO getBlogBySlug(String slug) {
+        BlogPostDTO cached = blogPostCache.get(slug);
+        if (cached != null) {
+            return cached;
+        }
+        
+        long version = postsVersion.get();
+        BlogPostDTO blogPost = blogPostRepository.findBySlug(slug)
+                .filter(BlogPost::isActive)
                 .map(this::convertToDTO)
-                .collect(Collectors.toList());
+                .orElseThrow(() -> new ResourceNotFoundException("Blog post not found with slug: " + slug));
+        // A write that committed meanwhile has bumped the version before invalidating; checking
+        // under the cache lock means the stale post is either rejected here or evicted by it
+        blogPostCache.putIf(slug, blogPost, () -> postsVersion.get() == version);
+        return blogPost;
     }
     
-    // Admin: Get all blogs (with non-active)
-    public List<BlogPostDTO> getAllBlogsAdmin() {
-        return blogPostRepository.findAll()
+    // Admin: Hit ratio and size of the hot-article cache
+    public Map<String, Object> getPostCacheStats() {
+        return blogPostCache.stats();
+    }
+    
+    // Get all categories (served from the catalog snapshot)
+    public List<BlogCategoryDTO> getAllCategories() {
+        return catalogSnapshotHolder.get().getBlogCategories();
+    }
+    
+    // Rebuild the blog category section of the catalog snapshot
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional(readOnly = true)
+    public synchronized void refreshCatalog() {
+        List<BlogCategoryDTO> categories = blogCategoryRepository.findByIsActiveWithPostCount(true)
                 .stream()
-                .map(this::convertToDTO)
+                .map(this::convertToCategoryDTO)
                 .collect(Collectors.toList());
+        
+        catalogSnapshotHolder.update(snapshot -> snapshot.withBlogCategories(categories));
+    }
+    
+    // Once the current transaction has committed, rebuild the blog category section of the catalog
+    private void catalogChanged() {
+        AfterCommit.run(() -> refreshTransaction.executeWithoutResult(status -> refreshCatalog()));
+    }
+    
+    // Admin: Get all blogs (with non-active, summaries without content)
+    public List<BlogPostSummaryDTO> getAllBlogsAdmin() {
+        return blogPostRepository.findAllSummaries();
     }
     
     // Admin: Create a blog post
@@ -125,7 +282,8 @@ public class BlogService {
         blogPost.setSlug(blogDTO.getSlug());
         blogPost.setExcerpt(blogDTO.getExcerpt());
         blogPost.setContent(blogDTO.getContent());
-        blogPost.setFeaturedImage(blogDTO.getFeaturedImage());
+        blogPost.setFeaturedImageId(blogDTO.getFeaturedImageId());
+        blogPost.setFeaturedImage(imageStorageService.resolveImageUrl(blogDTO.getFeaturedImageId(), blogDTO.getFeaturedImage()));
         blogPost.setActive(blogDTO.isActive());
         blogPost.setAuthor(blogDTO.getAuthor());
         
@@ -142,6 +300,9 @@ public class BlogService {
         }
         
         blogPost = blogPostRepository.save(blogPost);
+        catalogChanged();
+        postsChanged(blogPost.getSlug());
+        domainEventBus.publish(DomainEvent.of(DomainEvent.Type.BLOG_POST_CHANGED, blogPost.getId()));
         return convertToDTO(blogPost);
     }
     
@@ -151,11 +312,14 @@ public class BlogService {
         BlogPost blogPost = blogPostRepository.findById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("Blog post not found with id: " + id));
         
+        String previousSlug = blogPost.getSlug();
+        
         blogPost.setTitle(blogDTO.getTitle());
         blogPost.setSlug(blogDTO.getSlug());
         blogPost.setExcerpt(blogDTO.getExcerpt());
         blogPost.setContent(blogDTO.getContent());
-        blogPost.setFeaturedImage(blogDTO.getFeaturedImage());
+        blogPost.setFeaturedImageId(blogDTO.getFeaturedImageId());
+        blogPost.setFeaturedImage(imageStorageService.resolveImageUrl(blogDTO.getFeaturedImageId(), blogDTO.getFeaturedImage()));
         blogPost.setActive(blogDTO.isActive());
         blogPost.setAuthor(blogDTO.getAuthor());
         
@@ -175,23 +339,28 @@ public class BlogService {
         }
         
         blogPost = blogPostRepository.save(blogPost);
+        catalogChanged();
+        postsChanged(previousSlug, blogPost.getSlug());
+        domainEventBus.publish(DomainEvent.of(DomainEvent.Type.BLOG_POST_CHANGED, blogPost.getId()));
         return convertToDTO(blogPost);
     }
     
     // Admin: Delete a blog post
     @Transactional
     public void deleteBlog(Long id) {
-        if (!blogPostRepository.existsById(id)) {
-            throw new ResourceNotFoundException("Blog post not found with id: " + id);
-        }
-        blogPostRepository.deleteById(id);
+        BlogPost blogPost = blogPostRepository.findById(id)
+                .orElseThrow(() -> new ResourceNotFoundException("Blog post not found with id: " + id));
+        blogPostRepository.delete(blogPost);
+        catalogChanged();
+        postsChanged(blogPost.getSlug());
+        domainEventBus.publish(DomainEvent.of(DomainEvent.Type.BLOG_POST_DELETED, blogPost.getId()));
     }
     
     // Admin: Get all categories with stats
     public List<BlogCategoryDTO> getAllCategoriesWithStats() {
-        return blogCategoryRepository.findAll()
+        return blogCategoryRepository.findAllWithPostCount()
                 .stream()
-                .map(this::convertToDTO)
+                .map(this::convertToCategoryDTO)
                 .collect(Collectors.toList());
     }
     
@@ -209,7 +378,10 @@ public class BlogService {
         category.setActive(categoryDTO.isActive());
         
         category = blogCategoryRepository.save(category);
-        return convertToDTO(category);
+        catalogChanged();
+        postsChanged();
+        domainEventBus.publish(DomainEvent.of(DomainEvent.Type.BLOG_CATEGORY_CHANGED, category.getId()));
+        return convertToDTO(category, 0);
     }
     
     // Admin: Update a category
@@ -230,7 +402,10 @@ public class BlogService {
         category.setActive(categoryDTO.isActive());
         
         category = blogCategoryRepository.save(category);
-        return convertToDTO(category);
+        catalogChanged();
+        postsChanged();
+        domainEventBus.publish(DomainEvent.of(DomainEvent.Type.BLOG_CATEGORY_CHANGED, category.getId()));
+        return convertToDTO(category, blogPostRepository.countByCategoryId(id));
     }
     
     // Admin: Delete a category
@@ -240,10 +415,13 @@ public class BlogService {
                 .orElseThrow(() -> new ResourceNotFoundException("Category not found with id: " + id));
         
         // Check if category has blog posts
-        if (category.getPosts() != null && !category.getPosts().isEmpty()) {
+        if (blogPostRepository.countByCategoryId(id) > 0) {
             throw new RuntimeException("Cannot delete category that has blog posts");
         }
         
         blogCategoryRepository.delete(category);
+        catalogChanged();
+        postsChanged();
+        domainEventBus.publish(DomainEvent.of(DomainEvent.Type.BLOG_CATEGORY_CHANGED, id));
     }
 }
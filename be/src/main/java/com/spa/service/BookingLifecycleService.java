@@ -0,0 +1,240 @@
+package com.spa.service;
+
+import com.spa.exception.BadRequestException;
+import com.spa.model.Booking;
+import com.spa.model.Transaction;
+import com.spa.repository.BookingRepository;
+import com.spa.util.DomainEvent;
+import com.spa.util.DomainEventBus;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+/**
+ * Booking status changes in bulk. A scheduled run completes confirmed bookings that have
+ * finished, marks no-shows and expires stale pending bookings; admins can change the
+ * status of many bookings in one request.
+ *
+ * Work is split into chunks of booking-lifecycle.chunk-size bookings. Each chunk is one
+ * short transaction with one UPDATE per target status, and the run pauses between chunks,
+ * so the SQLite write lock is never held for long. As with single-booking changes,
+ * customers are emailed and a domain event is published for every changed booking.
+ */
+@Service
+public class BookingLifecycleService {
+
+    private static final Logger logger = LoggerFactory.getLogger(BookingLifecycleService.class);
+    
+    @Autowired
+    private BookingRepository bookingRepository;
+    
+    @Autowired
+    private BookingNotificationService bookingNotificationService;
+    
+    @Autowired
+    private DomainEventBus domainEventBus;
+    
+    @Autowired
+    private MeterRegistry registry;
+    
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+    
+    @Value("${booking-lifecycle.enabled:true}")
+    private boolean enabled;
+    
+    // Confirmed bookings are completed this long after they started
+    @Value("${booking-lifecycle.complete-after:2h}")
+    private Duration completeAfter;
+    
+    // Whether finished confirmed bookings without a completed payment become NO_SHOW instead
+    @Value("${booking-lifecycle.no-show-without-payment:false}")
+    private boolean noShowWithoutPayment;
+    
+    // Pending bookings are cancelled when unconfirmed this long after creation, or once they start
+    @Value("${booking-lifecycle.pending-ttl:48h}")
+    private Duration pendingTtl;
+    
+    @Value("${booking-lifecycle.chunk-size:200}")
+    private int chunkSize;
+    
+    @Value("${booking-lifecycle.chunk-pause-ms:50}")
+    private long chunkPauseMillis;
+    
+    @Value("${booking-lifecycle.max-bulk-size:1000}")
+    private int maxBulkSize;
+    
+    private TransactionTemplate transactionTemplate;
+    private Timer runTimer;
+    
+    @PostConstruct
+    public void registerMeters() {
+        transactionTemplate = new TransactionTemplate(transactionManager);
+        runTimer = Timer.builder("spa.bookings.lifecycle.run").register(registry);
+    }
+    
+    // Apply the lifecycle rules to every booking they match
+    @Scheduled(cron = "${booking-lifecycle.cron:0 */15 * * * *}")
+    public void run() {
+        if (!enabled) {
+            return;
+        }
+        long start = System.nanoTime();
+        Map<Booking.BookingStatus, Integer> changed = new EnumMap<>(Booking.BookingStatus.class);
+        
+        LocalDateTime finishedBefore = LocalDateTime.now().minus(completeAfter);
+        sweep((afterId, page) -> bookingRepository.findStartedBefore(Booking.BookingStatus.CONFIRMED,
+                        finishedBefore.toLocalDate(), finishedBefore.toLocalTime(), afterId, page),
+                this::finishedStatuses, changed);
+        
+        LocalDateTime now = LocalDateTime.now();
+        sweep((afterId, page) -> bookingRepository.findStale(Booking.BookingStatus.PENDING,
+                        now.minus(pendingTtl), now.toLocalDate(), now.toLocalTime(), afterId, page),
+                bookings -> Map.of(Booking.BookingStatus.CANCELLED, bookings), changed);
+        
+        runTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        for (Booking.BookingStatus status : List.of(Booking.BookingStatus.COMPLETED,
+                Booking.BookingStatus.NO_SHOW, Booking.BookingStatus.CANCELLED)) {
+            rowsPerRun(status).record(changed.getOrDefault(status, 0));
+        }
+        if (!changed.isEmpty()) {
+            logger.info("Booking lifecycle run changed {} in {} ms", changed,
+                    TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+        }
+    }
+    
+    // Set the status of many bookings at once; unknown ids are ignored. Returns the rows changed.
+    public int updateStatuses(List<Long> ids, String status) {
+        Booking.BookingStatus newStatus;
+        try {
+            newStatus = Booking.BookingStatus.valueOf(status.toUpperCase());
+        } catch (IllegalArgumentException e) {
+            throw new BadRequestException("Invalid status: " + status);
+        }
+        Set<Long> distinct = new LinkedHashSet<>(ids);
+        if (distinct.size() > maxBulkSize) {
+            throw new BadRequestException("At most " + maxBulkSize + " bookings can be updated at once");
+        }
+        
+        List<Long> remaining = new ArrayList<>(distinct);
+        int changed = 0;
+        for (int from = 0; from < remaining.size(); from += chunkSize) {
+            List<Long> chunk = remaining.subList(from, Math.min(from + chunkSize, remaining.size()));
+            changed += transactionTemplate.execute(tx ->
+                    apply(bookingRepository.findAllById(chunk), newStatus, LocalDateTime.now()));
+        }
+        registry.counter("spa.bookings.lifecycle.changed", "status", newStatus.name(), "source", "admin").increment(changed);
+        return changed;
+    }
+    
+    // Move the bookings matched by a query, chunk by chunk in id order
+    private void sweep(ChunkQuery query, Function<List<Booking>, Map<Booking.BookingStatus, List<Booking>>> targets,
+                       Map<Booking.BookingStatus, Integer> changed) {
+        long afterId = 0;
+        while (true) {
+            long chunkAfterId = afterId;
+            ChunkResult result = transactionTemplate.execute(tx -> {
+                List<Booking> bookings = query.find(chunkAfterId, PageRequest.of(0, chunkSize));
+                Map<Booking.BookingStatus, Integer> counts = new EnumMap<>(Booking.BookingStatus.class);
+                if (bookings.isEmpty()) {
+                    return new ChunkResult(0, chunkAfterId, counts);
+                }
+                LocalDateTime now = LocalDateTime.now();
+                targets.apply(bookings).forEach((status, group) -> counts.put(status, apply(group, status, now)));
+                return new ChunkResult(bookings.size(), bookings.get(bookings.size() - 1).getId(), counts);
+            });
+            result.changed().forEach((status, count) -> {
+                changed.merge(status, count, Integer::sum);
+                registry.counter("spa.bookings.lifecycle.changed", "status", status.name(), "source", "schedule").increment(count);
+            });
+            if (result.selected() < chunkSize) {
+                return;
+            }
+            afterId = result.lastId();
+            pause();
+        }
+    }
+    
+    private Map<Booking.BookingStatus, List<Booking>> finishedStatuses(List<Booking> bookings) {
+        if (!noShowWithoutPayment) {
+            return Map.of(Booking.BookingStatus.COMPLETED, bookings);
+        }
+        Set<Long> paid = new HashSet<>(bookingRepository.findBookingIdsWithTransaction(ids(bookings),
+                Transaction.TransactionStatus.COMPLETED));
+        List<Booking> completed = new ArrayList<>();
+        List<Booking> noShows = new ArrayList<>();
+        for (Booking booking : bookings) {
+            (paid.contains(booking.getId()) ? completed : noShows).add(booking);
+        }
+        return Map.of(Booking.BookingStatus.COMPLETED, completed, Booking.BookingStatus.NO_SHOW, noShows);
+    }
+    
+    // One UPDATE for the bookings not yet in the status, then the per-booking email and event
+    private int apply(List<Booking> bookings, Booking.BookingStatus status, LocalDateTime now) {
+        List<Booking> changing = bookings.stream().filter(booking -> booking.getStatus() != status).toList();
+        if (changing.isEmpty()) {
+            return 0;
+        }
+        int changed = bookingRepository.updateStatus(ids(changing), status, now);
+        for (Booking booking : changing) {
+            Booking.BookingStatus previousStatus = booking.getStatus();
+            booking.setStatus(status);
+            bookingNotificationService.bookingStatusChanged(booking, previousStatus);
+            domainEventBus.publish(DomainEvent.of(DomainEvent.Type.BOOKING_STATUS_CHANGED, booking.getId(), status.name()));
+        }
+        return changed;
+    }
+    
+    // Let other writers take the database lock between chunks
+    private void pause() {
+        if (chunkPauseMillis <= 0) {
+            return;
+        }
+        try {
+            Thread.sleep(chunkPauseMillis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+    
+    private DistributionSummary rowsPerRun(Booking.BookingStatus status) {
+        return DistributionSummary.builder("spa.bookings.lifecycle.run.rows")
+                .tag("status", status.name())
+                .register(registry);
+    }
+    
+    private static List<Long> ids(List<Booking> bookings) {
+        return bookings.stream().map(Booking::getId).toList();
+    }
+    
+    @FunctionalInterface
+    private interface ChunkQuery {
+        List<Booking> find(long afterId, Pageable page);
+    }
+    
+    private record ChunkResult(int selected, long lastId, Map<Booking.BookingStatus, Integer> changed) {
+    }
+}
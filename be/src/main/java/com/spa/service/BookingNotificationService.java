@@ -0,0 +1,132 @@
+package com.spa.service;
+
+import com.spa.model.Booking;
+import com.spa.model.OutboxMessage;
+import com.spa.model.User;
+import com.spa.model.WaitlistEntry;
+import com.spa.repository.OutboxMessageRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.Locale;
+
+/**
+ * Booking emails. Messages are only written to the mail_outbox table, inside the caller's
+ * transaction, so an email exists exactly when its booking change commits; OutboxDispatcher
+ * sends them in the background.
+ */
+@Service
+public class BookingNotificationService {
+
+    public static final String BOOKING_CREATED = "BOOKING_CREATED";
+    public static final String BOOKING_STATUS_CHANGED = "BOOKING_STATUS_CHANGED";
+    public static final String BOOKING_REMINDER = "BOOKING_REMINDER";
+    public static final String WAITLIST_OFFER = "WAITLIST_OFFER";
+    
+    private static final DateTimeFormatter DATE_FORMAT = DateTimeFormatter.ofPattern("EEEE, d MMMM yyyy", Locale.ENGLISH);
+    private static final DateTimeFormatter TIME_FORMAT = DateTimeFormatter.ofPattern("HH:mm");
+    
+    @Autowired
+    private OutboxMessageRepository outboxMessageRepository;
+    
+    // Queue the confirmation email for a new booking
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void bookingCreated(Booking booking) {
+        enqueue(booking, BOOKING_CREATED, "We received your booking",
+                "Thank you for booking with us. Your appointment is pending confirmation.\n\n" + details(booking));
+    }
+    
+    // Queue a status update email; no-op when the status did not change
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void bookingStatusChanged(Booking booking, Booking.BookingStatus previousStatus) {
+        if (booking.getStatus() == previousStatus) {
+            return;
+        }
+        String status = describe(booking.getStatus());
+        enqueue(booking, BOOKING_STATUS_CHANGED, "Your booking is " + status,
+                "The status of your appointment changed from " + describe(previousStatus)
+                        + " to " + status + ".\n\n" + details(booking));
+    }
+    
+    // Queue a reminder for an upcoming appointment, leadTime before it starts
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void bookingReminder(Booking booking, Duration leadTime) {
+        long hours = leadTime.toHours();
+        String when = hours == 24 ? "tomorrow"
+                : hours % 24 == 0 ? "in " + hours / 24 + " days"
+                : "in " + hours + (hours == 1 ? " hour" : " hours");
+        enqueue(booking, BOOKING_REMINDER, "Reminder: your appointment is " + when,
+                "This is a reminder of your upcoming appointment.\n\n" + details(booking));
+    }
+    
+    // Queue the email offering a freed slot to a waitlisted customer
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void waitlistOffer(WaitlistEntry entry) {
+        StringBuilder details = new StringBuilder();
+        details.append("Service: ").append(entry.getService().getName()).append('\n');
+        if (entry.getOfferSpecialist().getUser() != null) {
+            details.append("Specialist: ").append(entry.getOfferSpecialist().getUser().getFullName()).append('\n');
+        }
+        details.append("Date: ").append(DATE_FORMAT.format(entry.getOfferDate())).append('\n');
+        details.append("Time: ").append(TIME_FORMAT.format(entry.getOfferTime())).append('\n');
+        details.append("Waitlist reference: #").append(entry.getId()).append('\n');
+        enqueue(entry.getCustomer(), null, WAITLIST_OFFER, "A slot you were waiting for is available",
+                "An appointment matching your waitlist request has become available and is held for you until "
+                        + TIME_FORMAT.format(entry.getOfferExpiresAt()) + " on "
+                        + DATE_FORMAT.format(entry.getOfferExpiresAt()) + ".\n\n" + details);
+    }
+    
+    private void enqueue(Booking booking, String type, String subject, String body) {
+        enqueue(booking.getCustomer(), booking.getId(), type, subject, body);
+    }
+    
+    private void enqueue(User customer, Long bookingId, String type, String subject, String body) {
+        String email = customer != null ? customer.getEmail() : null;
+        if (email == null || email.isBlank()) {
+            return;
+        }
+        LocalDateTime now = LocalDateTime.now();
+        OutboxMessage message = new OutboxMessage();
+        message.setRecipient(email);
+        message.setSubject(subject);
+        message.setBody(greeting(customer) + body);
+        message.setType(type);
+        message.setBookingId(bookingId);
+        message.setStatus(OutboxMessage.Status.PENDING);
+        message.setNextAttemptAt(now);
+        message.setCreatedAt(now);
+        outboxMessageRepository.save(message);
+    }
+    
+    private static String describe(Booking.BookingStatus status) {
+        return status == Booking.BookingStatus.NO_SHOW ? "marked as missed" : status.name().toLowerCase();
+    }
+    
+    private static String greeting(User customer) {
+        String name = customer.getFullName();
+        return (name != null && !name.isBlank() ? "Dear " + name : "Hello") + ",\n\n";
+    }
+    
+    private static String details(Booking booking) {
+        StringBuilder details = new StringBuilder();
+        if (booking.getService() != null) {
+            details.append("Service: ").append(booking.getService().getName()).append('\n');
+        }
+        if (booking.getSpecialist() != null && booking.getSpecialist().getUser() != null) {
+            details.append("Specialist: ").append(booking.getSpecialist().getUser().getFullName()).append('\n');
+        }
+        if (booking.getBookingDate() != null) {
+            details.append("Date: ").append(DATE_FORMAT.format(booking.getBookingDate())).append('\n');
+        }
+        if (booking.getBookingTime() != null) {
+            details.append("Time: ").append(TIME_FORMAT.format(booking.getBookingTime())).append('\n');
+        }
+        details.append("Booking reference: #").append(booking.getId()).append('\n');
+        return details.toString();
+    }
+}
@@ -11,6 +11,8 @@ import com.spa.repository.BookingRepository;
 import com.spa.repository.ServiceRepository;
 import com.spa.repository.SpecialistRepository;
 import com.spa.repository.UserRepository;
+import com.spa.util.DomainEvent;
+import com.spa.util.DomainEventBus;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
@@ -34,6 +36,12 @@ public class BookingService {
     @Autowired
     private SpecialistRepository specialistRepository;
     
+    @Autowired
+    private BookingNotificationService bookingNotificationService;
+    
+    @Autowired
+    private DomainEventBus domainEventBus;
+    
     // Convert Booking entity to DTO
     private BookingDTO convertToDTO(Booking booking) {
         BookingDTO dto = new BookingDTO();
@@ -70,7 +78,7 @@ public class BookingService {
         User user = userRepository.findById(userId)
                 .orElseThrow(() -> new ResourceNotFoundException("User not found with id: " + userId));
         
-        List<Booking> bookings = bookingRepository.findByUserId(userId);
+        List<Booking> bookings = bookingRepository.findByCustomerId(userId);
         
         return bookings.stream()
                 .map(this::convertToDTO)
@@ -118,6 +126,8 @@ public class BookingService {
         booking.setNote(bookingDTO.getNote());
         
         booking = bookingRepository.save(booking);
+        bookingNotificationService.bookingCreated(booking);
+        domainEventBus.publish(DomainEvent.of(DomainEvent.Type.BOOKING_CREATED, booking.getId()));
         return convertToDTO(booking);
     }
     
@@ -158,6 +168,8 @@ public class BookingService {
         booking.setNote(bookingDTO.getNote());
         
         booking = bookingRepository.save(booking);
+        bookingNotificationService.bookingCreated(booking);
+        domainEventBus.publish(DomainEvent.of(DomainEvent.Type.BOOKING_CREATED, booking.getId()));
         return convertToDTO(booking);
     }
     
@@ -169,8 +181,11 @@ public class BookingService {
         
         try {
             Booking.BookingStatus newStatus = Booking.BookingStatus.valueOf(status.toUpperCase());
+            Booking.BookingStatus previousStatus = booking.getStatus();
             booking.setStatus(newStatus);
             booking = bookingRepository.save(booking);
+            bookingNotificationService.bookingStatusChanged(booking, previousStatus);
+            domainEventBus.publish(DomainEvent.of(DomainEvent.Type.BOOKING_STATUS_CHANGED, booking.getId(), newStatus.name()));
             return convertToDTO(booking);
         } catch (IllegalArgumentException e) {
             throw new IllegalArgumentException("Invalid status: " + status);
@@ -183,8 +198,11 @@ public class BookingService {
         Booking booking = bookingRepository.findById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("Booking not found with id: " + id));
         
+        Booking.BookingStatus previousStatus = booking.getStatus();
         booking.setStatus(Booking.BookingStatus.CANCELLED);
         booking = bookingRepository.save(booking);
+        bookingNotificationService.bookingStatusChanged(booking, previousStatus);
+        domainEventBus.publish(DomainEvent.of(DomainEvent.Type.BOOKING_STATUS_CHANGED, booking.getId(), booking.getStatus().name()));
         return convertToDTO(booking);
     }
     
@@ -200,7 +218,7 @@ public class BookingService {
     public List<BookingDTO> getBookingsByStatus(String status) {
         try {
             Booking.BookingStatus bookingStatus = Booking.BookingStatus.valueOf(status.toUpperCase());
-            List<Booking> bookings = bookingRepository.findByStatus(status);
+            List<Booking> bookings = bookingRepository.findByStatus(bookingStatus);
             return bookings.stream()
                     .map(this::convertToDTO)
                     .collect(Collectors.toList());
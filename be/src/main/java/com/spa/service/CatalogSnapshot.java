@@ -0,0 +1,90 @@
+
+package com.spa.service;
+
+import com.spa.dto.BlogCategoryDTO;
+import com.spa.dto.ServiceCategoryDTO;
+import com.spa.dto.ServiceDTO;
+import com.spa.dto.SpecialistDTO;
+import lombok.Getter;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * Immutable, versioned view of the public catalog. A new instance is published by
+ * {@link CatalogSnapshotHolder} each time an admin write changes one of its sections.
+ */
+@Getter
+public final class CatalogSnapshot {
+
+    static final CatalogSnapshot EMPTY = new CatalogSnapshot(0, 0, 0, 0, List.of(), List.of(), List.of(), List.of(), List.of());
+    
+    private final long version;
+    
+    // Version at which each section last changed, used for per-resource ETags
+    private final long servicesVersion;
+    private final long specialistsVersion;
+    private final long blogCategoriesVersion;
+    
+    private final List<ServiceDTO> services;
+    private final List<ServiceCategoryDTO> serviceCategories;
+    private final List<SpecialistDTO> specialists;
+    private final List<SpecialistDTO> featuredSpecialists;
+    private final List<BlogCategoryDTO> blogCategories;
+    
+    private final Map<Long, ServiceDTO> servicesById;
+    private final Map<Long, ServiceCategoryDTO> serviceCategoriesById;
+    private final Map<Long, SpecialistDTO> specialistsById;
+    
+    private CatalogSnapshot(long version,
+                            long servicesVersion,
+                            long specialistsVersion,
+                            long blogCategoriesVersion,
+                            List<ServiceDTO> services,
+                            List<ServiceCategoryDTO> serviceCategories,
+                            List<SpecialistDTO> specialists,
+                            List<SpecialistDTO> featuredSpecialists,
+                            List<BlogCategoryDTO> blogCategories) {
+        this.version = version;
+        this.servicesVersion = servicesVersion;
+        this.specialistsVersion = specialistsVersion;
+        this.blogCategoriesVersion = blogCategoriesVersion;
+        this.services = List.copyOf(services);
+        this.serviceCategories = List.copyOf(serviceCategories);
+        this.specialists = List.copyOf(specialists);
+        this.featuredSpecialists = List.copyOf(featuredSpecialists);
+        this.blogCategories = List.copyOf(blogCategories);
+        this.servicesById = index(this.services, ServiceDTO::getId);
+        this.serviceCategoriesById = index(this.serviceCategories, ServiceCategoryDTO::getId);
+        this.specialistsById = index(this.specialists, SpecialistDTO::getId);
+    }
+    
+    // Copy with the service section replaced
+    CatalogSnapshot withServices(List<ServiceDTO> services, List<ServiceCategoryDTO> serviceCategories) {
+        return new CatalogSnapshot(version + 1, version + 1, specialistsVersion, blogCategoriesVersion,
+                services, serviceCategories, specialists, featuredSpecialists, blogCategories);
+    }
+    
+    // Copy with the specialist section replaced
+    CatalogSnapshot withSpecialists(List<SpecialistDTO> specialists, List<SpecialistDTO> featuredSpecialists) {
+        return new CatalogSnapshot(version + 1, servicesVersion, version + 1, blogCategoriesVersion,
+                services, serviceCategories, specialists, featuredSpecialists, blogCategories);
+    }
+    
+    // Copy with the blog category section replaced
+    CatalogSnapshot withBlogCategories(List<BlogCategoryDTO> blogCategories) {
+        return new CatalogSnapshot(version + 1, servicesVersion, specialistsVersion, version + 1,
+                services, serviceCategories, specialists, featuredSpecialists, blogCategories);
+    }
+    
+    private static <T> Map<Long, T> index(List<T> items, Function<T, Long> idGetter) {
+        Map<Long, T> map = new LinkedHashMap<>();
+        for (T item : items) {
+            map.put(idGetter.apply(item), item);
+        }
+        return Collections.unmodifiableMap(map);
+    }
+}
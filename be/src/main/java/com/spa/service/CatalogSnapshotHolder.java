@@ -0,0 +1,23 @@
+
+package com.spa.service;
+
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.UnaryOperator;
+
+@Component
+public class CatalogSnapshotHolder {
+
+    private final AtomicReference<CatalogSnapshot> current = new AtomicReference<>(CatalogSnapshot.EMPTY);
+    
+    // Current snapshot (a single volatile read)
+    public CatalogSnapshot get() {
+        return current.get();
+    }
+    
+    // Atomically publish a new snapshot derived from the current one
+    CatalogSnapshot update(UnaryOperator<CatalogSnapshot> change) {
+        return current.updateAndGet(change);
+    }
+}
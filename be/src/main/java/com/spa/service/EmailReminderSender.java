@@ -0,0 +1,20 @@
+package com.spa.service;
+
+import com.spa.model.Booking;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+// Sends reminders by email through the mail outbox
+@Component
+public class EmailReminderSender implements ReminderSender {
+
+    @Autowired
+    private BookingNotificationService bookingNotificationService;
+    
+    @Override
+    public void send(Booking booking, Duration leadTime) {
+        bookingNotificationService.bookingReminder(booking, leadTime);
+    }
+}
@@ -0,0 +1,167 @@
+
+package com.spa.service;
+
+import com.spa.dto.ServiceDTO;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * In-memory sampler for the homepage featured services: pinned services first, then
+ * weighted random picks drawn in O(1) from an alias table over the active catalog.
+ */
+@Component
+public class FeaturedServiceSampler {
+
+    public static final int FEATURED_COUNT = 4;
+    
+    private static final double DEFAULT_WEIGHT = 1.0;
+    
+    private volatile Snapshot snapshot = Snapshot.EMPTY;
+    
+    // Rebuild the snapshot from the current active services
+    public void reload(List<ServiceDTO> activeServices) {
+        List<ServiceDTO> pinned = new ArrayList<>();
+        List<ServiceDTO> pool = new ArrayList<>();
+        List<Double> weights = new ArrayList<>();
+        
+        for (ServiceDTO service : activeServices) {
+            if (Boolean.TRUE.equals(service.getFeaturedPinned())) {
+                pinned.add(service);
+                continue;
+            }
+            double weight = service.getFeaturedWeight() != null ? service.getFeaturedWeight() : DEFAULT_WEIGHT;
+            if (weight > 0) {
+                pool.add(service);
+                weights.add(weight);
+            }
+        }
+        
+        snapshot = new Snapshot(
+                pinned.toArray(new ServiceDTO[0]),
+                pool.toArray(new ServiceDTO[0]),
+                weights.stream().mapToDouble(Double::doubleValue).toArray());
+    }
+    
+    // Get up to FEATURED_COUNT services: pinned first, then weighted random picks
+    public List<ServiceDTO> sample() {
+        Snapshot current = snapshot;
+        List<ServiceDTO> result = new ArrayList<>(FEATURED_COUNT);
+        
+        for (int i = 0; i < current.pinned.length && result.size() < FEATURED_COUNT; i++) {
+            result.add(current.pinned[i]);
+        }
+        
+        int needed = Math.min(FEATURED_COUNT - result.size(), current.pool.length);
+        if (needed <= 0) {
+            return result;
+        }
+        if (needed == current.pool.length) {
+            for (ServiceDTO service : current.pool) {
+                result.add(service);
+            }
+            return result;
+        }
+        
+        // Draw distinct entries; retries are rare since FEATURED_COUNT is tiny compared to the pool
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        int[] picked = new int[needed];
+        int count = 0;
+        int attempts = 0;
+        while (count < needed) {
+            int index = current.draw(random);
+            if (!contains(picked, count, index)) {
+                picked[count++] = index;
+            } else if (++attempts > needed * 16) {
+                // Heavily skewed weights: fall back to the next unpicked entry
+                index = nextUnpicked(picked, count, index, current.pool.length);
+                picked[count++] = index;
+            }
+        }
+        for (int index : picked) {
+            result.add(current.pool[index]);
+        }
+        return result;
+    }
+    
+    private static boolean contains(int[] values, int length, int value) {
+        for (int i = 0; i < length; i++) {
+            if (values[i] == value) {
+                return true;
+            }
+        }
+        return false;
+    }
+    
+    private static int nextUnpicked(int[] picked, int count, int start, int size) {
+        int index = start;
+        do {
+            index = (index + 1) % size;
+        } while (contains(picked, count, index));
+        return index;
+    }
+    
+    // Immutable sampling state; built once per catalog change (Vose's alias method)
+    private static final class Snapshot {
+        static final Snapshot EMPTY = new Snapshot(new ServiceDTO[0], new ServiceDTO[0], new double[0]);
+        
+        final ServiceDTO[] pinned;
+        final ServiceDTO[] pool;
+        final double[] probability;
+        final int[] alias;
+        
+        Snapshot(ServiceDTO[] pinned, ServiceDTO[] pool, double[] weights) {
+            this.pinned = pinned;
+            this.pool = pool;
+            int n = weights.length;
+            this.probability = new double[n];
+            this.alias = new int[n];
+            if (n == 0) {
+                return;
+            }
+            
+            double total = 0;
+            for (double weight : weights) {
+                total += weight;
+            }
+            double[] scaled = new double[n];
+            int[] small = new int[n];
+            int[] large = new int[n];
+            int smallCount = 0;
+            int largeCount = 0;
+            for (int i = 0; i < n; i++) {
+                scaled[i] = weights[i] * n / total;
+                if (scaled[i] < 1.0) {
+                    small[smallCount++] = i;
+                } else {
+                    large[largeCount++] = i;
+                }
+            }
+            while (smallCount > 0 && largeCount > 0) {
+                int less = small[--smallCount];
+                int more = large[--largeCount];
+                probability[less] = scaled[less];
+                alias[less] = more;
+                scaled[more] = scaled[more] + scaled[less] - 1.0;
+                if (scaled[more] < 1.0) {
+                    small[smallCount++] = more;
+                } else {
+                    large[largeCount++] = more;
+                }
+            }
+            while (largeCount > 0) {
+                probability[large[--largeCount]] = 1.0;
+            }
+            while (smallCount > 0) {
+                probability[small[--smallCount]] = 1.0;
+            }
+        }
+        
+        int draw(ThreadLocalRandom random) {
+            int column = random.nextInt(pool.length);
+            return random.nextDouble() < probability[column] ? column : alias[column];
+        }
+    }
+}
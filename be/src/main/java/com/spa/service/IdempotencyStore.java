@@ -0,0 +1,127 @@
+package com.spa.service;
+
+import com.spa.model.IdempotencyRecord;
+import com.spa.repository.IdempotencyRecordRepository;
+import com.spa.util.TinyLfuCache;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Responses of requests sent with an Idempotency-Key, kept for idempotency.ttl. Completed
+ * responses are persisted in idempotency_keys, with the recently used ones in an in-memory
+ * hot cache; requests still executing are tracked in memory so that a concurrent retry
+ * waits for the first result instead of executing again.
+ */
+@Service
+public class IdempotencyStore {
+
+    private static final Logger logger = LoggerFactory.getLogger(IdempotencyStore.class);
+    
+    @Autowired
+    private IdempotencyRecordRepository idempotencyRecordRepository;
+    
+    @Autowired
+    private MeterRegistry registry;
+    
+    @Value("${idempotency.ttl:24h}")
+    private Duration ttl;
+    
+    @Value("${idempotency.hot-cache-size:10000}")
+    private int hotCacheSize;
+    
+    private final Map<String, CompletableFuture<IdempotencyRecord>> inFlight = new ConcurrentHashMap<>();
+    private TinyLfuCache<String, IdempotencyRecord> hot;
+    
+    @PostConstruct
+    public void init() {
+        hot = new TinyLfuCache<>(hotCacheSize);
+        Gauge.builder("spa.idempotency.in_flight", inFlight, Map::size).register(registry);
+        Gauge.builder("spa.idempotency.hot", this, store -> store.hot.size()).register(registry);
+    }
+    
+    // Completed, unexpired response for the key, or null
+    public IdempotencyRecord find(String keyHash) {
+        LocalDateTime now = LocalDateTime.now();
+        IdempotencyRecord record = hot.get(keyHash);
+        if (record == null) {
+            record = idempotencyRecordRepository.findById(keyHash).orElse(null);
+            if (record == null) {
+                return null;
+            }
+            hot.put(keyHash, record);
+        }
+        if (!record.getExpiresAt().isAfter(now)) {
+            hot.invalidate(keyHash);
+            return null;
+        }
+        return record;
+    }
+    
+    // Claim the key for execution. Returns null when the caller now owns the key and must
+    // execute the request, otherwise a future of the owner's response (null if it failed).
+    public CompletableFuture<IdempotencyRecord> claim(String keyHash) {
+        CompletableFuture<IdempotencyRecord> mine = new CompletableFuture<>();
+        CompletableFuture<IdempotencyRecord> owner = inFlight.putIfAbsent(keyHash, mine);
+        if (owner != null) {
+            return owner;
+        }
+        // The previous owner may have completed between the caller's find and this claim
+        IdempotencyRecord record = find(keyHash);
+        if (record != null) {
+            inFlight.remove(keyHash, mine);
+            mine.complete(record);
+            return mine;
+        }
+        return null;
+    }
+    
+    // Store the owner's response and hand it to any waiting retries
+    public IdempotencyRecord complete(String keyHash, String requestHash, int statusCode, String contentType, String body) {
+        LocalDateTime now = LocalDateTime.now();
+        IdempotencyRecord record = new IdempotencyRecord(keyHash, requestHash, statusCode, contentType, body, now, now.plus(ttl));
+        try {
+            idempotencyRecordRepository.save(record);
+        } catch (RuntimeException e) {
+            // Retries within this process are still answered from the hot cache
+            logger.warn("Failed to persist idempotency key {}", keyHash, e);
+        }
+        hot.put(keyHash, record);
+        CompletableFuture<IdempotencyRecord> owner = inFlight.remove(keyHash);
+        if (owner != null) {
+            owner.complete(record);
+        }
+        return record;
+    }
+    
+    // The owner produced no storable response; waiting retries may claim the key again
+    public void release(String keyHash) {
+        CompletableFuture<IdempotencyRecord> owner = inFlight.remove(keyHash);
+        if (owner != null) {
+            owner.complete(null);
+        }
+    }
+    
+    // Delete expired keys
+    @Scheduled(cron = "${idempotency.purge-cron:0 17 * * * *}")
+    @Transactional
+    public void purgeExpired() {
+        int deleted = idempotencyRecordRepository.deleteExpired(LocalDateTime.now());
+        if (deleted > 0) {
+            logger.info("Purged {} expired idempotency keys", deleted);
+        }
+    }
+}
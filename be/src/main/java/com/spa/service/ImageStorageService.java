@@ -0,0 +1,389 @@
+package com.spa.service;
+
+import com.spa.dto.ImageAssetDTO;
+import com.spa.exception.BadRequestException;
+import com.spa.exception.ResourceNotFoundException;
+import com.spa.model.ImageAsset;
+import com.spa.repository.ImageAssetRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Service;
+import org.springframework.web.multipart.MultipartFile;
+
+import javax.imageio.ImageIO;
+import javax.imageio.ImageReadParam;
+import javax.imageio.ImageReader;
+import javax.imageio.stream.ImageInputStream;
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.LocalDateTime;
+import java.util.HexFormat;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Content-addressed image storage. Uploads are streamed to a temp file through a FileChannel
+ * while hashed, then atomically moved to {uploadDir}/{ab}/{sha256}.{ext}; identical content is
+ * stored once. Resized variants are written next to the original on a bounded worker pool.
+ */
+@Service
+public class ImageStorageService {
+
+    private static final Logger logger = LoggerFactory.getLogger(ImageStorageService.class);
+    
+    public static final String MEDIA_PATH = "/api/media/";
+    
+    private static final int[] VARIANT_WIDTHS = {320, 960};
+    private static final int BUFFER_SIZE = 64 * 1024;
+    private static final Pattern IMAGE_ID = Pattern.compile("^[0-9a-f]{64}$");
+    private static final Pattern MEDIA_NAME = Pattern.compile("^([0-9a-f]{64})(?:-(\\d{1,4}))?\\.(jpg|png|gif|webp)$");
+    private static final Map<String, String> CONTENT_TYPES = Map.of(
+            "jpg", "image/jpeg",
+            "png", "image/png",
+            "gif", "image/gif",
+            "webp", "image/webp");
+    
+    @Autowired
+    private ImageAssetRepository imageAssetRepository;
+    
+    @Autowired
+    @Qualifier("imageVariantExecutor")
+    private ThreadPoolTaskExecutor imageVariantExecutor;
+    
+    @Value("${file.upload-dir:./uploads}")
+    private String uploadDir;
+    
+    // Store an uploaded image, reusing the existing asset when the content is already known
+    public ImageAssetDTO store(MultipartFile file) {
+        if (file.isEmpty()) {
+            throw new BadRequestException("Uploaded file is empty");
+        }
+        
+        Path root = getRoot();
+        Path temp;
+        try {
+            Path tempDir = Files.createDirectories(root.resolve("tmp"));
+            temp = Files.createTempFile(tempDir, "upload-", ".part");
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not create upload temp file", e);
+        }
+        
+        try {
+            MessageDigest digest = sha256();
+            ByteBuffer head = ByteBuffer.allocate(16);
+            long size = 0;
+            try (InputStream in = file.getInputStream();
+                 ReadableByteChannel source = Channels.newChannel(in);
+                 FileChannel target = FileChannel.open(temp, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+                ByteBuffer buffer = ByteBuffer.allocateDirect(BUFFER_SIZE);
+                while (source.read(buffer) != -1) {
+                    buffer.flip();
+                    // Keep the first bytes for content sniffing
+                    for (int i = buffer.position(); head.hasRemaining() && i < buffer.limit(); i++) {
+                        head.put(buffer.get(i));
+                    }
+                    digest.update(buffer.duplicate());
+                    while (buffer.hasRemaining()) {
+                        size += target.write(buffer);
+                    }
+                    buffer.clear();
+                }
+                target.force(true);
+            }
+            
+            String[] type = detectType(head.flip());
+            if (type == null) {
+                throw new BadRequestException("Unsupported image type, expected JPEG, PNG, GIF or WebP");
+            }
+            String id = HexFormat.of().formatHex(digest.digest());
+            
+            ImageAsset existing = imageAssetRepository.findById(id).orElse(null);
+            Path stored = getPath(id, type[1]);
+            if (existing != null && Files.exists(stored)) {
+                return convertToDTO(existing);
+            }
+            
+            Files.createDirectories(stored.getParent());
+            moveAtomically(temp, stored);
+            
+            ImageAsset asset = new ImageAsset();
+            asset.setId(id);
+            asset.setContentType(type[0]);
+            asset.setExtension(type[1]);
+            asset.setSize(size);
+            asset.setOriginalFilename(file.getOriginalFilename());
+            asset.setCreatedAt(LocalDateTime.now());
+            readDimensions(stored, asset);
+            asset = imageAssetRepository.save(asset);
+            
+            scheduleVariants(asset);
+            return convertToDTO(asset);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not store uploaded image", e);
+        } finally {
+            try {
+                Files.deleteIfExists(temp);
+            } catch (IOException e) {
+                logger.warn("Could not delete upload temp file {}", temp, e);
+            }
+        }
+    }
+    
+    // Get image metadata by content-hash id
+    public ImageAssetDTO getImage(String id) {
+        return convertToDTO(findAsset(id));
+    }
+    
+    // Public URL to store on an entity that references an image by id; falls back to a
+    // hand-entered URL when no id is given
+    public String resolveImageUrl(String imageId, String fallbackUrl) {
+        if (imageId == null || imageId.isBlank()) {
+            return fallbackUrl;
+        }
+        return getUrl(findAsset(imageId), 0);
+    }
+    
+    // Location of a stored original (width 0) or variant on disk
+    public Path getPath(String id, String extension, int width) {
+        return getPath(width > 0 ? id + "-" + width : id, extension);
+    }
+    
+    // Resolve a public media name ({sha256}[-{width}].{ext}) to its file without touching the database
+    public Path resolveMediaFile(String fileName) {
+        Matcher matcher = MEDIA_NAME.matcher(fileName);
+        if (!matcher.matches()) {
+            throw new ResourceNotFoundException("Media not found: " + fileName);
+        }
+        int width = matcher.group(2) != null ? Integer.parseInt(matcher.group(2)) : 0;
+        Path path = getPath(matcher.group(1), matcher.group(3), width);
+        if (!Files.isRegularFile(path)) {
+            throw new ResourceNotFoundException("Media not found: " + fileName);
+        }
+        return path;
+    }
+    
+    public static String getContentType(String fileName) {
+        String extension = fileName.substring(fileName.lastIndexOf('.') + 1);
+        return CONTENT_TYPES.getOrDefault(extension, "application/octet-stream");
+    }
+    
+    public static boolean isImageId(String id) {
+        return id != null && IMAGE_ID.matcher(id).matches();
+    }
+    
+    private ImageAsset findAsset(String id) {
+        if (!isImageId(id)) {
+            throw new BadRequestException("Invalid image id: " + id);
+        }
+        return imageAssetRepository.findById(id)
+                .orElseThrow(() -> new ResourceNotFoundException("Image not found with id: " + id));
+    }
+    
+    private Path getPath(String id, String extension) {
+        return getRoot().resolve(id.substring(0, 2)).resolve(id + "." + extension);
+    }
+    
+    private Path getRoot() {
+        return Paths.get(uploadDir).toAbsolutePath().normalize();
+    }
+    
+    private String getUrl(ImageAsset asset, int width) {
+        String name = width > 0 ? asset.getId() + "-" + width : asset.getId();
+        return MEDIA_PATH + name + "." + asset.getExtension();
+    }
+    
+    private ImageAssetDTO convertToDTO(ImageAsset asset) {
+        ImageAssetDTO dto = new ImageAssetDTO();
+        dto.setId(asset.getId());
+        dto.setUrl(getUrl(asset, 0));
+        dto.setContentType(asset.getContentType());
+        dto.setSize(asset.getSize());
+        dto.setWidth(asset.getWidth());
+        dto.setHeight(asset.getHeight());
+        dto.setOriginalFilename(asset.getOriginalFilename());
+        Map<Integer, String> variants = new LinkedHashMap<>();
+        if (asset.getVariants() != null && !asset.getVariants().isBlank()) {
+            for (String width : asset.getVariants().split(",")) {
+                variants.put(Integer.parseInt(width), getUrl(asset, Integer.parseInt(width)));
+            }
+        }
+        dto.setVariants(variants);
+        return dto;
+    }
+    
+    // Queue resized variants for images wider than the variant widths
+    private void scheduleVariants(ImageAsset asset) {
+        if (asset.getWidth() == null) {
+            return;
+        }
+        String id = asset.getId();
+        String extension = asset.getExtension();
+        int width = asset.getWidth();
+        imageVariantExecutor.execute(() -> {
+            try {
+                String generated = generateVariants(id, extension, width);
+                if (!generated.isEmpty()) {
+                    imageAssetRepository.findById(id).ifPresent(stored -> {
+                        stored.setVariants(generated);
+                        imageAssetRepository.save(stored);
+                    });
+                }
+            } catch (Exception e) {
+                logger.warn("Could not generate variants for image {}", id, e);
+            }
+        });
+    }
+    
+    private String generateVariants(String id, String extension, int originalWidth) throws IOException {
+        StringBuilder generated = new StringBuilder();
+        Path original = getPath(id, extension);
+        for (int width : VARIANT_WIDTHS) {
+            if (width >= originalWidth) {
+                continue;
+            }
+            Path target = getPath(id, extension, width);
+            if (!Files.exists(target)) {
+                BufferedImage source = readSubsampled(original, width);
+                if (source == null) {
+                    return generated.toString();
+                }
+                writeAtomically(resize(source, width, "jpg".equals(extension)), extension, target);
+            }
+            if (generated.length() > 0) {
+                generated.append(',');
+            }
+            generated.append(width);
+        }
+        return generated.toString();
+    }
+    
+    // Decode with source subsampling so large photos are never fully expanded on the heap
+    private BufferedImage readSubsampled(Path file, int targetWidth) throws IOException {
+        try (ImageInputStream input = ImageIO.createImageInputStream(file.toFile())) {
+            Iterator<ImageReader> readers = ImageIO.getImageReaders(input);
+            if (!readers.hasNext()) {
+                return null;
+            }
+            ImageReader reader = readers.next();
+            try {
+                reader.setInput(input, true, true);
+                int step = Math.max(1, reader.getWidth(0) / (targetWidth * 2));
+                ImageReadParam param = reader.getDefaultReadParam();
+                param.setSourceSubsampling(step, step, 0, 0);
+                return reader.read(0, param);
+            } finally {
+                reader.dispose();
+            }
+        }
+    }
+    
+    private BufferedImage resize(BufferedImage source, int width, boolean opaque) {
+        int height = Math.max(1, Math.round(source.getHeight() * (width / (float) source.getWidth())));
+        BufferedImage resized = new BufferedImage(width, height,
+                opaque ? BufferedImage.TYPE_INT_RGB : BufferedImage.TYPE_INT_ARGB);
+        Graphics2D graphics = resized.createGraphics();
+        try {
+            graphics.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+            graphics.setRenderingHint(RenderingHints.KEY_RENDERING, RenderingHints.VALUE_RENDER_QUALITY);
+            graphics.drawImage(source, 0, 0, width, height, null);
+        } finally {
+            graphics.dispose();
+        }
+        return resized;
+    }
+    
+    private void writeAtomically(BufferedImage image, String extension, Path target) throws IOException {
+        Path temp = Files.createTempFile(Files.createDirectories(getRoot().resolve("tmp")), "variant-", ".part");
+        try {
+            try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.WRITE);
+                 OutputStream out = Channels.newOutputStream(channel)) {
+                if (!ImageIO.write(image, "jpg".equals(extension) ? "jpeg" : extension, out)) {
+                    throw new IOException("No image writer for " + extension);
+                }
+                out.flush();
+                channel.force(true);
+            }
+            moveAtomically(temp, target);
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+    }
+    
+    private void moveAtomically(Path source, Path target) throws IOException {
+        try {
+            Files.move(source, target, StandardCopyOption.ATOMIC_MOVE);
+        } catch (AtomicMoveNotSupportedException e) {
+            Files.move(source, target, StandardCopyOption.REPLACE_EXISTING);
+        }
+    }
+    
+    // Read only the image header for the dimensions
+    private void readDimensions(Path file, ImageAsset asset) {
+        try (ImageInputStream input = ImageIO.createImageInputStream(file.toFile())) {
+            Iterator<ImageReader> readers = ImageIO.getImageReaders(input);
+            if (!readers.hasNext()) {
+                return;
+            }
+            ImageReader reader = readers.next();
+            try {
+                reader.setInput(input, true, true);
+                asset.setWidth(reader.getWidth(0));
+                asset.setHeight(reader.getHeight(0));
+            } finally {
+                reader.dispose();
+            }
+        } catch (IOException e) {
+            logger.warn("Could not read dimensions of image {}", asset.getId(), e);
+        }
+    }
+    
+    // Content type and extension from the file signature, or null if not a supported image
+    private static String[] detectType(ByteBuffer head) {
+        byte[] b = new byte[head.remaining()];
+        head.get(b);
+        String extension = null;
+        if (b.length >= 3 && (b[0] & 0xFF) == 0xFF && (b[1] & 0xFF) == 0xD8 && (b[2] & 0xFF) == 0xFF) {
+            extension = "jpg";
+        } else if (b.length >= 8 && (b[0] & 0xFF) == 0x89 && b[1] == 'P' && b[2] == 'N' && b[3] == 'G') {
+            extension = "png";
+        } else if (b.length >= 6 && b[0] == 'G' && b[1] == 'I' && b[2] == 'F' && b[3] == '8') {
+            extension = "gif";
+        } else if (b.length >= 12 && b[0] == 'R' && b[1] == 'I' && b[2] == 'F' && b[3] == 'F'
+                && b[8] == 'W' && b[9] == 'E' && b[10] == 'B' && b[11] == 'P') {
+            extension = "webp";
+        }
+        return extension != null ? new String[] {CONTENT_TYPES.get(extension), extension} : null;
+    }
+    
+    private static MessageDigest sha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+}
@@ -0,0 +1,204 @@
+package com.spa.service;
+
+import com.spa.model.OutboxMessage;
+import com.spa.repository.OutboxMessageRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.mail.MessagingException;
+import jakarta.mail.internet.MimeMessage;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.mail.MailException;
+import org.springframework.mail.MailSendException;
+import org.springframework.mail.javamail.JavaMailSender;
+import org.springframework.mail.javamail.MimeMessageHelper;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Drains the mail outbox in the background. Each batch of due messages goes out over a
+ * single SMTP connection (JavaMailSender sends an array of messages on one transport).
+ * Failed messages are retried with exponential backoff and jitter, and marked FAILED after
+ * mail.outbox.max-attempts. Metrics: spa.mail.sent, spa.mail.retried, spa.mail.failed,
+ * spa.mail.batch (send time per batch) and spa.mail.outbox.pending.
+ */
+@Component
+@ConditionalOnProperty(name = "mail.outbox.enabled", havingValue = "true", matchIfMissing = true)
+public class OutboxDispatcher {
+
+    private static final Logger logger = LoggerFactory.getLogger(OutboxDispatcher.class);
+    
+    private static final int MAX_ERROR_LENGTH = 1000;
+    
+    @Autowired
+    private OutboxMessageRepository outboxMessageRepository;
+    
+    @Autowired
+    private JavaMailSender mailSender;
+    
+    @Autowired
+    private MeterRegistry registry;
+    
+    @Value("${mail.from:no-reply@spa.example.com}")
+    private String from;
+    
+    @Value("${mail.outbox.batch-size:50}")
+    private int batchSize;
+    
+    @Value("${mail.outbox.max-attempts:8}")
+    private int maxAttempts;
+    
+    @Value("${mail.outbox.backoff-initial-ms:5000}")
+    private long backoffInitialMillis;
+    
+    @Value("${mail.outbox.backoff-max-ms:3600000}")
+    private long backoffMaxMillis;
+    
+    private final AtomicLong pending = new AtomicLong();
+    
+    private Counter sent;
+    private Counter retried;
+    private Counter failed;
+    private Timer batchTimer;
+    
+    @PostConstruct
+    public void registerMeters() {
+        sent = registry.counter("spa.mail.sent");
+        retried = registry.counter("spa.mail.retried");
+        failed = registry.counter("spa.mail.failed");
+        batchTimer = Timer.builder("spa.mail.batch")
+                .publishPercentiles(0.5, 0.95, 0.99)
+                .register(registry);
+        Gauge.builder("spa.mail.outbox.pending", pending, AtomicLong::get).register(registry);
+    }
+    
+    // Send due messages until the backlog is drained or a batch comes back short
+    @Scheduled(fixedDelayString = "${mail.outbox.poll-interval-ms:1000}")
+    public void dispatch() {
+        int processed;
+        do {
+            List<OutboxMessage> batch = outboxMessageRepository.findDue(OutboxMessage.Status.PENDING, LocalDateTime.now(),
+                    PageRequest.of(0, batchSize));
+            processed = batch.size();
+            if (processed > 0) {
+                sendBatch(batch);
+            }
+        } while (processed == batchSize);
+        pending.set(outboxMessageRepository.countByStatus(OutboxMessage.Status.PENDING));
+    }
+    
+    private void sendBatch(List<OutboxMessage> batch) {
+        Map<MimeMessage, OutboxMessage> byMime = new IdentityHashMap<>();
+        List<MimeMessage> mimeMessages = new ArrayList<>(batch.size());
+        for (OutboxMessage message : batch) {
+            try {
+                MimeMessage mimeMessage = toMimeMessage(message);
+                byMime.put(mimeMessage, message);
+                mimeMessages.add(mimeMessage);
+            } catch (MessagingException e) {
+                // Malformed address or content; retrying cannot help
+                markFailed(message, e);
+            }
+        }
+        
+        Map<Object, Exception> failures = Map.of();
+        if (!mimeMessages.isEmpty()) {
+            long start = System.nanoTime();
+            try {
+                mailSender.send(mimeMessages.toArray(new MimeMessage[0]));
+            } catch (MailSendException e) {
+                failures = e.getFailedMessages();
+                if (failures.isEmpty()) {
+                    failures = allFailed(mimeMessages, e);
+                }
+            } catch (MailException e) {
+                failures = allFailed(mimeMessages, e);
+            }
+            batchTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+        
+        LocalDateTime now = LocalDateTime.now();
+        for (Map.Entry<MimeMessage, OutboxMessage> entry : byMime.entrySet()) {
+            OutboxMessage message = entry.getValue();
+            Exception failure = failures.get(entry.getKey());
+            if (failure == null) {
+                message.setStatus(OutboxMessage.Status.SENT);
+                message.setAttempts(message.getAttempts() + 1);
+                message.setSentAt(now);
+                message.setLastError(null);
+                sent.increment();
+            } else {
+                scheduleRetry(message, failure, now);
+            }
+        }
+        outboxMessageRepository.saveAll(batch);
+        if (!failures.isEmpty()) {
+            logger.warn("Mail batch: {} of {} messages failed, first error: {}",
+                    failures.size(), mimeMessages.size(), failures.values().iterator().next().getMessage());
+        }
+    }
+    
+    private MimeMessage toMimeMessage(OutboxMessage message) throws MessagingException {
+        MimeMessage mimeMessage = mailSender.createMimeMessage();
+        MimeMessageHelper helper = new MimeMessageHelper(mimeMessage, "UTF-8");
+        helper.setFrom(from);
+        helper.setTo(message.getRecipient());
+        helper.setSubject(message.getSubject());
+        helper.setText(message.getBody());
+        mimeMessage.setHeader("X-Outbox-Id", String.valueOf(message.getId()));
+        return mimeMessage;
+    }
+    
+    // Exponential backoff with jitter: the delay doubles per attempt, capped, and is
+    // spread over [delay / 2, delay] so a recovering SMTP server is not hit all at once
+    private void scheduleRetry(OutboxMessage message, Exception failure, LocalDateTime now) {
+        int attempts = message.getAttempts() + 1;
+        message.setAttempts(attempts);
+        if (attempts >= maxAttempts) {
+            markFailed(message, failure);
+            return;
+        }
+        long delay = Math.min(backoffMaxMillis, backoffInitialMillis << Math.min(attempts - 1, 30));
+        delay = delay / 2 + ThreadLocalRandom.current().nextLong(delay / 2 + 1);
+        message.setNextAttemptAt(now.plusNanos(delay * 1_000_000));
+        message.setLastError(truncate(failure.getMessage()));
+        retried.increment();
+    }
+    
+    private void markFailed(OutboxMessage message, Exception failure) {
+        message.setStatus(OutboxMessage.Status.FAILED);
+        message.setLastError(truncate(failure.getMessage()));
+        failed.increment();
+        logger.error("Giving up on {} email {} to {} after {} attempts: {}", message.getType(), message.getId(),
+                message.getRecipient(), message.getAttempts(), failure.getMessage());
+    }
+    
+    private static Map<Object, Exception> allFailed(List<MimeMessage> mimeMessages, Exception e) {
+        Map<Object, Exception> failures = new IdentityHashMap<>();
+        mimeMessages.forEach(mimeMessage -> failures.put(mimeMessage, e));
+        return failures;
+    }
+    
+    private static String truncate(String error) {
+        if (error == null) {
+            return null;
+        }
+        return error.length() > MAX_ERROR_LENGTH ? error.substring(0, MAX_ERROR_LENGTH) : error;
+    }
+}
@@ -0,0 +1,260 @@
+package com.spa.service;
+
+import com.spa.model.Booking;
+import com.spa.repository.BookingRepository;
+import com.spa.util.DomainEvent;
+import com.spa.util.DomainEventListener;
+import com.spa.util.HierarchicalTimingWheel;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Appointment reminders (reminders.lead-times before each confirmed booking) driven by a
+ * hierarchical timing wheel instead of polling the bookings table. The wheel is loaded
+ * with upcoming confirmed bookings at startup and kept current from booking events.
+ *
+ * Every tick hands the due reminders to all ReminderSenders and advances the persisted
+ * watermark in one transaction. On restart the wheel starts at the watermark: reminders
+ * already sent are before it and are not scheduled again, and reminders that fell due
+ * while the application was down fire on the first tick (unless the appointment has
+ * already started).
+ */
+@Service
+@ConditionalOnProperty(name = "reminders.enabled", havingValue = "true", matchIfMissing = true)
+public class ReminderScheduler implements DomainEventListener {
+
+    private static final Logger logger = LoggerFactory.getLogger(ReminderScheduler.class);
+    
+    @Autowired
+    private BookingRepository bookingRepository;
+    
+    @Autowired
+    private List<ReminderSender> senders;
+    
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    
+    @Autowired
+    private MeterRegistry registry;
+    
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+    
+    @Value("${reminders.lead-times:24h,2h}")
+    private List<Duration> leadTimes;
+    
+    @Value("${reminders.tick-ms:10000}")
+    private long tickMillis;
+    
+    private final ZoneId zone = ZoneId.systemDefault();
+    private final ScheduledExecutorService ticker = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "reminder-wheel");
+        thread.setDaemon(true);
+        return thread;
+    });
+    
+    // Guarded by this
+    private HierarchicalTimingWheel<Reminder> wheel;
+    private final Map<Long, List<HierarchicalTimingWheel.Entry<Reminder>>> entriesByBooking = new HashMap<>();
+    // Reminders whose send transaction failed; retried on the next tick
+    private final List<Reminder> retry = new ArrayList<>();
+    
+    private TransactionTemplate transactionTemplate;
+    private Counter sent;
+    private volatile long watermark;
+    
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        transactionTemplate = new TransactionTemplate(transactionManager);
+        sent = registry.counter("spa.reminders.sent");
+        Gauge.builder("spa.reminders.scheduled", this, ReminderScheduler::scheduledCount).register(registry);
+        Gauge.builder("spa.reminders.watermark.lag", this, s -> (System.currentTimeMillis() - s.watermark) / 1000.0)
+                .baseUnit("seconds")
+                .register(registry);
+        
+        watermark = readWatermark();
+        reload();
+        ticker.scheduleWithFixedDelay(this::tick, tickMillis, tickMillis, TimeUnit.MILLISECONDS);
+    }
+    
+    @PreDestroy
+    public void stop() {
+        ticker.shutdown();
+    }
+    
+    @Override
+    public String getName() {
+        return "reminders";
+    }
+    
+    // Reschedule the reminders of every booking that changed
+    @Override
+    public void onEvents(List<DomainEvent> events) {
+        for (DomainEvent event : events) {
+            if (event.type() == DomainEvent.Type.BOOKING_CREATED || event.type() == DomainEvent.Type.BOOKING_STATUS_CHANGED) {
+                Booking booking = bookingRepository.findById(event.entityId()).orElse(null);
+                synchronized (this) {
+                    // Not started yet; the initial load reads the booking from the database
+                    if (wheel == null) {
+                        continue;
+                    }
+                    cancel(event.entityId());
+                    if (booking != null) {
+                        schedule(booking);
+                    }
+                }
+            }
+        }
+    }
+    
+    // Missed booking events: rebuild the wheel from the database
+    @Override
+    public void onOverflow() {
+        reload();
+    }
+    
+    private void reload() {
+        // Bookings that started before the watermark cannot have unsent reminders
+        LocalDate from = LocalDateTime.ofInstant(Instant.ofEpochMilli(watermark), zone).toLocalDate();
+        List<Booking> bookings = bookingRepository.findByStatusAndBookingDateGreaterThanEqual(Booking.BookingStatus.CONFIRMED, from);
+        synchronized (this) {
+            wheel = new HierarchicalTimingWheel<>(tickMillis, watermark);
+            entriesByBooking.clear();
+            bookings.forEach(this::schedule);
+            logger.info("Reminder wheel loaded with {} reminders for {} bookings, watermark {}",
+                    wheel.size(), entriesByBooking.size(), Instant.ofEpochMilli(watermark));
+        }
+    }
+    
+    private void schedule(Booking booking) {
+        Long start = startMillis(booking);
+        if (booking.getStatus() != Booking.BookingStatus.CONFIRMED || start == null) {
+            return;
+        }
+        for (Duration leadTime : leadTimes) {
+            // Null when the reminder time is already behind the wheel, i.e. sent or too late
+            HierarchicalTimingWheel.Entry<Reminder> entry =
+                    wheel.add(start - leadTime.toMillis(), new Reminder(booking.getId(), leadTime));
+            if (entry != null) {
+                entriesByBooking.computeIfAbsent(booking.getId(), id -> new ArrayList<>(leadTimes.size())).add(entry);
+            }
+        }
+    }
+    
+    private void cancel(Long bookingId) {
+        List<HierarchicalTimingWheel.Entry<Reminder>> entries = entriesByBooking.remove(bookingId);
+        if (entries != null) {
+            entries.forEach(wheel::cancel);
+        }
+    }
+    
+    private void tick() {
+        try {
+            long now = System.currentTimeMillis();
+            List<Reminder> due;
+            long newWatermark;
+            synchronized (this) {
+                due = new ArrayList<>(retry);
+                retry.clear();
+                wheel.advanceTo(now, entry -> {
+                    Reminder reminder = entry.getPayload();
+                    due.add(reminder);
+                    List<HierarchicalTimingWheel.Entry<Reminder>> entries = entriesByBooking.get(reminder.bookingId());
+                    if (entries != null) {
+                        entries.remove(entry);
+                        if (entries.isEmpty()) {
+                            entriesByBooking.remove(reminder.bookingId());
+                        }
+                    }
+                });
+                newWatermark = wheel.getCurrentTimeMillis();
+            }
+            deliver(due, newWatermark, now);
+        } catch (RuntimeException e) {
+            logger.error("Reminder tick failed", e);
+        }
+    }
+    
+    // Send the due reminders and advance the watermark atomically; on failure keep them for the next tick
+    private void deliver(List<Reminder> due, long newWatermark, long now) {
+        try {
+            int delivered = transactionTemplate.execute(status -> {
+                int count = 0;
+                for (Reminder reminder : due) {
+                    Booking booking = bookingRepository.findById(reminder.bookingId()).orElse(null);
+                    Long start = booking != null ? startMillis(booking) : null;
+                    // Recheck: the booking may have changed after the reminder was scheduled
+                    if (start == null || booking.getStatus() != Booking.BookingStatus.CONFIRMED || start <= now) {
+                        continue;
+                    }
+                    for (ReminderSender sender : senders) {
+                        sender.send(booking, reminder.leadTime());
+                    }
+                    count++;
+                }
+                writeWatermark(newWatermark);
+                return count;
+            });
+            watermark = newWatermark;
+            sent.increment(delivered);
+            if (delivered > 0) {
+                logger.debug("Sent {} appointment reminders", delivered);
+            }
+        } catch (RuntimeException e) {
+            synchronized (this) {
+                retry.addAll(due);
+            }
+            logger.warn("Sending {} reminders failed, retrying on the next tick: {}", due.size(), e.getMessage());
+        }
+    }
+    
+    private Long startMillis(Booking booking) {
+        if (booking.getBookingDate() == null || booking.getBookingTime() == null) {
+            return null;
+        }
+        return LocalDateTime.of(booking.getBookingDate(), booking.getBookingTime()).atZone(zone).toInstant().toEpochMilli();
+    }
+    
+    private long readWatermark() {
+        List<Long> rows = jdbcTemplate.queryForList("SELECT sent_until FROM reminder_watermark WHERE id = 1", Long.class);
+        return rows.isEmpty() ? System.currentTimeMillis() : rows.get(0);
+    }
+    
+    private void writeWatermark(long sentUntil) {
+        jdbcTemplate.update("INSERT INTO reminder_watermark (id, sent_until) VALUES (1, ?) "
+                + "ON CONFLICT(id) DO UPDATE SET sent_until = excluded.sent_until", sentUntil);
+    }
+    
+    private synchronized int scheduledCount() {
+        return wheel != null ? wheel.size() : 0;
+    }
+    
+    private record Reminder(long bookingId, Duration leadTime) {
+    }
+}
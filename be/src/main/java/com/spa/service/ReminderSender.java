@@ -0,0 +1,17 @@
+package com.spa.service;
+
+import com.spa.model.Booking;
+
+import java.time.Duration;
+
+/**
+ * Delivery channel for appointment reminders; every bean implementing it receives each
+ * reminder. Senders run inside the transaction that advances the reminder watermark, so
+ * a sender that only writes to the database (like the email outbox) delivers exactly once
+ * across restarts, while one that calls an external service directly (e.g. an SMS API)
+ * gets at-least-once delivery.
+ */
+public interface ReminderSender {
+
+    void send(Booking booking, Duration leadTime);
+}
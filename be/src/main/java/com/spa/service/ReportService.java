@@ -10,6 +10,7 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 
 import java.time.LocalDate;
+import java.time.LocalTime;
 import java.util.*;
 import java.util.stream.Collectors;
 
@@ -24,7 +25,8 @@ public class ReportService {
     
     public ReportDTO generateReport(LocalDate startDate, LocalDate endDate, String period) {
         List<Booking> bookings = bookingRepository.findByBookingDateBetween(startDate, endDate);
-        List<Transaction> transactions = transactionRepository.findByDateBetween(startDate, endDate);
+        List<Transaction> transactions = transactionRepository.findByTransactionDateBetween(
+                startDate.atStartOfDay(), endDate.atTime(LocalTime.MAX));
         
         double totalRevenue = transactions.stream()
                 .mapToDouble(Transaction::getAmount)
@@ -32,10 +34,10 @@ public class ReportService {
         
         int totalBookings = bookings.size();
         int completedBookings = (int) bookings.stream()
-                .filter(b -> "COMPLETED".equals(b.getStatus()))
+                .filter(b -> b.getStatus() == Booking.BookingStatus.COMPLETED)
                 .count();
         int cancelledBookings = (int) bookings.stream()
-                .filter(b -> "CANCELLED".equals(b.getStatus()))
+                .filter(b -> b.getStatus() == Booking.BookingStatus.CANCELLED)
                 .count();
         
         double completionRate = totalBookings > 0 
@@ -64,7 +66,7 @@ public class ReportService {
         // Bookings by status
         Map<String, Integer> statusCount = new HashMap<>();
         bookings.forEach(booking -> {
-            String status = booking.getStatus();
+            String status = booking.getStatus().name();
             statusCount.put(status, statusCount.getOrDefault(status, 0) + 1);
         });
         
@@ -80,7 +82,7 @@ public class ReportService {
         // Daily revenue
         Map<LocalDate, Double> dailyRevenueMap = new HashMap<>();
         transactions.forEach(transaction -> {
-            LocalDate date = transaction.getDate();
+            LocalDate date = transaction.getTransactionDate().toLocalDate();
             dailyRevenueMap.put(date, dailyRevenueMap.getOrDefault(date, 0.0) + transaction.getAmount());
         });
         
@@ -121,7 +123,8 @@ public class ReportService {
     }
     
     public Map<String, Object> getRevenueReport(LocalDate startDate, LocalDate endDate) {
-        List<Transaction> transactions = transactionRepository.findByDateBetween(startDate, endDate);
+        List<Transaction> transactions = transactionRepository.findByTransactionDateBetween(
+                startDate.atStartOfDay(), endDate.atTime(LocalTime.MAX));
         
         double totalRevenue = transactions.stream()
                 .mapToDouble(Transaction::getAmount)
@@ -158,7 +161,7 @@ public class ReportService {
         // Group by status
         Map<String, Long> byStatus = bookings.stream()
                 .collect(Collectors.groupingBy(
-                    Booking::getStatus,
+                    booking -> booking.getStatus().name(),
                     Collectors.counting()
                 ));
                 
@@ -8,9 +8,17 @@ import com.spa.model.Service;
 import com.spa.model.ServiceCategory;
 import com.spa.repository.ServiceCategoryRepository;
 import com.spa.repository.ServiceRepository;
+import com.spa.util.AfterCommit;
+import com.spa.util.DomainEvent;
+import com.spa.util.DomainEventBus;
+import jakarta.annotation.PostConstruct;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.util.List;
 import java.util.stream.Collectors;
@@ -24,6 +32,28 @@ public class ServiceService {
     @Autowired
     private ServiceCategoryRepository categoryRepository;
     
+    @Autowired
+    private DomainEventBus domainEventBus;
+    
+    @Autowired
+    private FeaturedServiceSampler featuredServiceSampler;
+    
+    @Autowired
+    private CatalogSnapshotHolder catalogSnapshotHolder;
+    
+    @Autowired
+    private ImageStorageService imageStorageService;
+    
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+    
+    private TransactionTemplate refreshTransaction;
+    
+    @PostConstruct
+    public void init() {
+        refreshTransaction = AfterCommit.readOnlyTransaction(transactionManager);
+    }
+    
     // Convert Service entity to DTO
     private ServiceDTO convertToDTO(Service service) {
         ServiceDTO dto = new ServiceDTO();
@@ -33,7 +63,10 @@ public class ServiceService {
         dto.setPrice(service.getPrice());
         dto.setDuration(service.getDuration());
         dto.setImage(service.getImage());
+        dto.setImageId(service.getImageId());
         dto.setActive(service.isActive());
+        dto.setFeaturedWeight(service.getFeaturedWeight());
+        dto.setFeaturedPinned(service.getFeaturedPinned());
         
         if (service.getCategory() != null) {
             dto.setCategoryId(service.getCategory().getId());
@@ -44,53 +77,78 @@ public class ServiceService {
     }
     
     // Convert category entity to DTO
-    private ServiceCategoryDTO convertToCategoryDTO(ServiceCategory category) {
+    private ServiceCategoryDTO convertToCategoryDTO(ServiceCategory category, long serviceCount) {
         ServiceCategoryDTO dto = new ServiceCategoryDTO();
         dto.setId(category.getId());
         dto.setName(category.getName());
         dto.setDescription(category.getDescription());
         dto.setImage(category.getImage());
-        
-        // Count services in this category
-        long serviceCount = serviceRepository.countByCategoryId(category.getId());
+        dto.setImageId(category.getImageId());
         dto.setServiceCount((int) serviceCount);
-        
         return dto;
     }
     
-    // Get all services
+    // Convert a [category, serviceCount] row from the aggregate queries to DTO
+    private ServiceCategoryDTO convertToCategoryDTO(Object[] row) {
+        return convertToCategoryDTO((ServiceCategory) row[0], ((Number) row[1]).longValue());
+    }
+    
+    // Get all services (served from the catalog snapshot)
     public List<ServiceDTO> getAllServices() {
-        return serviceRepository.findByActiveTrue().stream()
-                .map(this::convertToDTO)
-                .collect(Collectors.toList());
+        return catalogSnapshotHolder.get().getServices();
     }
     
-    // Get featured services
+    // Version of the public service list, for conditional GETs
+    public long getServicesVersion() {
+        return catalogSnapshotHolder.get().getServicesVersion();
+    }
+    
+    // Get featured services (served from memory, see FeaturedServiceSampler)
     public List<ServiceDTO> getFeaturedServices() {
-        return serviceRepository.findFeaturedServices().stream()
+        return featuredServiceSampler.sample();
+    }
+    
+    // Rebuild the service section of the catalog snapshot and the featured sampler
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional(readOnly = true)
+    public synchronized void refreshCatalog() {
+        List<ServiceDTO> services = serviceRepository.findByActiveTrue().stream()
                 .map(this::convertToDTO)
                 .collect(Collectors.toList());
+        List<ServiceCategoryDTO> categories = categoryRepository.findAllWithServiceCount().stream()
+                .map(this::convertToCategoryDTO)
+                .collect(Collectors.toList());
+        
+        catalogSnapshotHolder.update(snapshot -> snapshot.withServices(services, categories));
+        featuredServiceSampler.reload(services);
     }
     
-    // Get service by ID
+    // Once the current transaction has committed, rebuild the catalog and the featured sampler
+    private void catalogChanged() {
+        AfterCommit.run(() -> refreshTransaction.executeWithoutResult(status -> refreshCatalog()));
+    }
+    
+    // Get active service by ID
     public ServiceDTO getServiceById(Long id) {
-        Service service = serviceRepository.findById(id)
-                .orElseThrow(() -> new ResourceNotFoundException("Service not found with id: " + id));
-        return convertToDTO(service);
+        ServiceDTO service = catalogSnapshotHolder.get().getServicesById().get(id);
+        if (service == null) {
+            throw new ResourceNotFoundException("Service not found with id: " + id);
+        }
+        return service;
     }
     
-    // Get all service categories
+    // Get all service categories (served from the catalog snapshot)
     public List<ServiceCategoryDTO> getAllCategories() {
-        return categoryRepository.findAll().stream()
-                .map(this::convertToCategoryDTO)
-                .collect(Collectors.toList());
+        return catalogSnapshotHolder.get().getServiceCategories();
     }
     
     // Get category by ID
     public ServiceCategoryDTO getCategoryById(Long id) {
-        ServiceCategory category = categoryRepository.findById(id)
-                .orElseThrow(() -> new ResourceNotFoundException("Category not found with id: " + id));
-        return convertToCategoryDTO(category);
+        ServiceCategoryDTO category = catalogSnapshotHolder.get().getServiceCategoriesById().get(id);
+        if (category == null) {
+            throw new ResourceNotFoundException("Category not found with id: " + id);
+        }
+        return category;
     }
     
     // Admin: Get all services (including inactive)
@@ -108,8 +166,11 @@ public class ServiceService {
         service.setDescription(serviceDTO.getDescription());
         service.setPrice(serviceDTO.getPrice());
         service.setDuration(serviceDTO.getDuration());
-        service.setImage(serviceDTO.getImage());
+        service.setImageId(serviceDTO.getImageId());
+        service.setImage(imageStorageService.resolveImageUrl(serviceDTO.getImageId(), serviceDTO.getImage()));
         service.setActive(serviceDTO.isActive());
+        service.setFeaturedWeight(serviceDTO.getFeaturedWeight());
+        service.setFeaturedPinned(serviceDTO.getFeaturedPinned());
         
         if (serviceDTO.getCategoryId() != null) {
             ServiceCategory category = categoryRepository.findById(serviceDTO.getCategoryId())
@@ -118,6 +179,8 @@ public class ServiceService {
         }
         
         service = serviceRepository.save(service);
+        catalogChanged();
+        domainEventBus.publish(DomainEvent.of(DomainEvent.Type.SERVICE_CHANGED, service.getId()));
         return convertToDTO(service);
     }
     
@@ -131,8 +194,11 @@ public class ServiceService {
         service.setDescription(serviceDTO.getDescription());
         service.setPrice(serviceDTO.getPrice());
         service.setDuration(serviceDTO.getDuration());
-        service.setImage(serviceDTO.getImage());
+        service.setImageId(serviceDTO.getImageId());
+        service.setImage(imageStorageService.resolveImageUrl(serviceDTO.getImageId(), serviceDTO.getImage()));
         service.setActive(serviceDTO.isActive());
+        service.setFeaturedWeight(serviceDTO.getFeaturedWeight());
+        service.setFeaturedPinned(serviceDTO.getFeaturedPinned());
         
         if (serviceDTO.getCategoryId() != null) {
             ServiceCategory category = categoryRepository.findById(serviceDTO.getCategoryId())
@@ -143,6 +209,8 @@ public class ServiceService {
         }
         
         service = serviceRepository.save(service);
+        catalogChanged();
+        domainEventBus.publish(DomainEvent.of(DomainEvent.Type.SERVICE_CHANGED, service.getId()));
         return convertToDTO(service);
     }
     
@@ -153,6 +221,8 @@ public class ServiceService {
             throw new ResourceNotFoundException("Service not found with id: " + id);
         }
         serviceRepository.deleteById(id);
+        catalogChanged();
+        domainEventBus.publish(DomainEvent.of(DomainEvent.Type.SERVICE_DELETED, id));
     }
     
     // Admin: Create a category
@@ -161,10 +231,13 @@ public class ServiceService {
         ServiceCategory category = new ServiceCategory();
         category.setName(categoryDTO.getName());
         category.setDescription(categoryDTO.getDescription());
-        category.setImage(categoryDTO.getImage());
+        category.setImageId(categoryDTO.getImageId());
+        category.setImage(imageStorageService.resolveImageUrl(categoryDTO.getImageId(), categoryDTO.getImage()));
         
         category = categoryRepository.save(category);
-        return convertToCategoryDTO(category);
+        catalogChanged();
+        domainEventBus.publish(DomainEvent.of(DomainEvent.Type.SERVICE_CATEGORY_CHANGED, category.getId()));
+        return convertToCategoryDTO(category, 0);
     }
     
     // Admin: Update a category
@@ -175,10 +248,13 @@ public class ServiceService {
         
         category.setName(categoryDTO.getName());
         category.setDescription(categoryDTO.getDescription());
-        category.setImage(categoryDTO.getImage());
+        category.setImageId(categoryDTO.getImageId());
+        category.setImage(imageStorageService.resolveImageUrl(categoryDTO.getImageId(), categoryDTO.getImage()));
         
         category = categoryRepository.save(category);
-        return convertToCategoryDTO(category);
+        catalogChanged();
+        domainEventBus.publish(DomainEvent.of(DomainEvent.Type.SERVICE_CATEGORY_CHANGED, category.getId()));
+        return convertToCategoryDTO(category, serviceRepository.countByCategoryId(id));
     }
     
     // Admin: Delete a category
@@ -194,5 +270,7 @@ public class ServiceService {
         }
         
         categoryRepository.delete(category);
+        catalogChanged();
+        domainEventBus.publish(DomainEvent.of(DomainEvent.Type.SERVICE_CATEGORY_CHANGED, id));
     }
 }
@@ -0,0 +1,161 @@
+
+package com.spa.service;
+
+import com.spa.dto.SpecialistDTO;
+import org.springframework.stereotype.Component;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.regex.Pattern;
+
+/**
+ * In-memory inverted index from normalized tokens of a specialist's specialties, role and
+ * name to specialist ids. Multi-term queries intersect the posting lists, smallest first;
+ * the last term also matches as a prefix so that "mass" finds "massage".
+ */
+@Component
+public class SpecialistSearchIndex {
+
+    private static final Pattern TOKEN_SEPARATOR = Pattern.compile("[^\\p{L}\\p{N}]+");
+    private static final Pattern COMBINING_MARKS = Pattern.compile("\\p{M}+");
+    
+    private final NavigableMap<String, TreeSet<Long>> postings = new TreeMap<>();
+    private final Map<Long, Set<String>> tokensById = new HashMap<>();
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    
+    // Replace the whole index
+    public void rebuild(Collection<SpecialistDTO> specialists) {
+        lock.writeLock().lock();
+        try {
+            postings.clear();
+            tokensById.clear();
+            for (SpecialistDTO specialist : specialists) {
+                add(specialist);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+    
+    // Add or re-index a single specialist
+    public void update(SpecialistDTO specialist) {
+        lock.writeLock().lock();
+        try {
+            removeTokens(specialist.getId());
+            add(specialist);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+    
+    public void remove(Long specialistId) {
+        lock.writeLock().lock();
+        try {
+            removeTokens(specialistId);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+    
+    // Ids of specialists matching every query term, in ascending id order
+    public List<Long> search(String query) {
+        List<String> terms = new ArrayList<>(tokenize(query));
+        if (terms.isEmpty()) {
+            return List.of();
+        }
+        
+        lock.readLock().lock();
+        try {
+            List<Set<Long>> lists = new ArrayList<>(terms.size());
+            for (int i = 0; i < terms.size(); i++) {
+                boolean prefix = i == terms.size() - 1;
+                Set<Long> list = prefix ? prefixPostings(terms.get(i)) : postings.get(terms.get(i));
+                if (list == null || list.isEmpty()) {
+                    return List.of();
+                }
+                lists.add(list);
+            }
+            
+            lists.sort((a, b) -> Integer.compare(a.size(), b.size()));
+            List<Long> result = new ArrayList<>();
+            outer:
+            for (Long id : lists.get(0)) {
+                for (int i = 1; i < lists.size(); i++) {
+                    if (!lists.get(i).contains(id)) {
+                        continue outer;
+                    }
+                }
+                result.add(id);
+            }
+            return result;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+    
+    // Lower-case, accent-free tokens, so Vietnamese input matches with or without diacritics
+    static Set<String> tokenize(String text) {
+        Set<String> tokens = new LinkedHashSet<>();
+        if (text == null || text.isBlank()) {
+            return tokens;
+        }
+        String normalized = Normalizer.normalize(text.toLowerCase(), Normalizer.Form.NFD);
+        normalized = COMBINING_MARKS.matcher(normalized).replaceAll("").replace('\u0111', 'd');
+        for (String token : TOKEN_SEPARATOR.split(normalized)) {
+            if (!token.isEmpty()) {
+                tokens.add(token);
+            }
+        }
+        return tokens;
+    }
+    
+    private Set<Long> prefixPostings(String prefix) {
+        NavigableMap<String, TreeSet<Long>> matches = postings.subMap(prefix, true, prefix + Character.MAX_VALUE, false);
+        if (matches.size() == 1) {
+            return matches.firstEntry().getValue();
+        }
+        Set<Long> merged = new TreeSet<>();
+        for (Set<Long> ids : matches.values()) {
+            merged.addAll(ids);
+        }
+        return merged;
+    }
+    
+    private void add(SpecialistDTO specialist) {
+        Set<String> tokens = new LinkedHashSet<>();
+        tokens.addAll(tokenize(specialist.getSpecialties()));
+        tokens.addAll(tokenize(specialist.getRole()));
+        tokens.addAll(tokenize(specialist.getName()));
+        for (String token : tokens) {
+            postings.computeIfAbsent(token, key -> new TreeSet<>()).add(specialist.getId());
+        }
+        tokensById.put(specialist.getId(), tokens);
+    }
+    
+    private void removeTokens(Long specialistId) {
+        Set<String> tokens = tokensById.remove(specialistId);
+        if (tokens == null) {
+            return;
+        }
+        for (String token : tokens) {
+            TreeSet<Long> ids = postings.get(token);
+            if (ids != null) {
+                ids.remove(specialistId);
+                if (ids.isEmpty()) {
+                    postings.remove(token);
+                }
+            }
+        }
+    }
+}
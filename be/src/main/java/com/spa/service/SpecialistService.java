@@ -2,15 +2,32 @@
 package com.spa.service;
 
 import com.spa.dto.SpecialistDTO;
+import com.spa.exception.BadRequestException;
 import com.spa.exception.ResourceNotFoundException;
 import com.spa.model.Specialist;
 import com.spa.model.User;
+import com.spa.model.WeeklyAvailability;
 import com.spa.repository.SpecialistRepository;
 import com.spa.repository.UserRepository;
+import com.spa.util.AfterCommit;
+import com.spa.util.DomainEvent;
+import com.spa.util.DomainEventBus;
+import jakarta.annotation.PostConstruct;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import java.time.DayOfWeek;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.stream.Collectors;
 
 @Service
@@ -22,6 +39,25 @@ public class SpecialistService {
     @Autowired
     private UserRepository userRepository;
     
+    @Autowired
+    private DomainEventBus domainEventBus;
+    
+    @Autowired
+    private CatalogSnapshotHolder catalogSnapshotHolder;
+    
+    @Autowired
+    private SpecialistSearchIndex specialistSearchIndex;
+    
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+    
+    private TransactionTemplate refreshTransaction;
+    
+    @PostConstruct
+    public void init() {
+        refreshTransaction = AfterCommit.readOnlyTransaction(transactionManager);
+    }
+    
     // Convert entity to DTO
     private SpecialistDTO convertToDTO(Specialist specialist) {
         SpecialistDTO dto = new SpecialistDTO();
@@ -35,7 +71,10 @@ public class SpecialistService {
         dto.setSpecialties(specialist.getSpecialties());
         dto.setRating(specialist.getRating());
         dto.setUserId(specialist.getUser().getId());
-        dto.setAvailability(specialist.getAvailability());
+        WeeklyAvailability availability = specialist.getAvailability() != null
+                ? specialist.getAvailability() : WeeklyAvailability.NONE;
+        dto.setAvailability(availability.toStrings());
+        dto.setAvailabilitySlots(availability);
         // Set status based on user account status
         dto.setStatus(specialist.getUser().isEnabled() ? "active" : "inactive");
         return dto;
@@ -50,32 +89,86 @@ public class SpecialistService {
         specialist.setBio(dto.getBio());
         specialist.setSpecialties(dto.getSpecialties());
         specialist.setRating(dto.getRating() != null ? dto.getRating() : 0.0);
-        specialist.setAvailability(dto.getAvailability());
+        specialist.setAvailability(parseAvailability(dto.getAvailability()));
         return specialist;
     }
     
-    // Get all specialists (basic info)
+    private WeeklyAvailability parseAvailability(Collection<String> availability) {
+        try {
+            return WeeklyAvailability.fromStrings(availability);
+        } catch (IllegalArgumentException e) {
+            throw new BadRequestException(e.getMessage() + " (expected e.g. \"Monday: 9:00-17:00\")");
+        }
+    }
+    
+    // Get all specialists (served from the catalog snapshot)
     public List<SpecialistDTO> getAllSpecialists() {
-        return specialistRepository.findAll().stream()
-                .map(this::convertToDTO)
-                .collect(Collectors.toList());
+        return catalogSnapshotHolder.get().getSpecialists();
+    }
+    
+    // Version of the public specialist list, for conditional GETs
+    public long getSpecialistsVersion() {
+        return catalogSnapshotHolder.get().getSpecialistsVersion();
     }
     
-    // Get featured specialists
+    // Get featured specialists (served from the catalog snapshot)
     public List<SpecialistDTO> getFeaturedSpecialists() {
-        // Logic to get featured specialists (e.g., highest rated)
-        return specialistRepository.findAll().stream()
-                .sorted((s1, s2) -> Double.compare(s2.getRating(), s1.getRating()))
-                .limit(4)  // Get top 4
-                .map(this::convertToDTO)
-                .collect(Collectors.toList());
+        return catalogSnapshotHolder.get().getFeaturedSpecialists();
     }
     
     // Get specialist by ID
     public SpecialistDTO getSpecialistById(Long id) {
-        Specialist specialist = specialistRepository.findById(id)
-                .orElseThrow(() -> new ResourceNotFoundException("Specialist not found with id: " + id));
-        return convertToDTO(specialist);
+        SpecialistDTO specialist = catalogSnapshotHolder.get().getSpecialistsById().get(id);
+        if (specialist == null) {
+            throw new ResourceNotFoundException("Specialist not found with id: " + id);
+        }
+        return specialist;
+    }
+    
+    // Search specialists by specialty, role or name; every term must match
+    public List<SpecialistDTO> searchSpecialists(String query) {
+        Map<Long, SpecialistDTO> specialists = catalogSnapshotHolder.get().getSpecialistsById();
+        return specialistSearchIndex.search(query).stream()
+                .map(specialists::get)
+                .filter(Objects::nonNull)
+                .collect(Collectors.toList());
+    }
+    
+    // Build the search index from all specialists on startup
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional(readOnly = true)
+    public void initSearchIndex() {
+        specialistSearchIndex.rebuild(specialistRepository.findAll().stream()
+                .map(this::convertToDTO)
+                .collect(Collectors.toList()));
+    }
+    
+    // Rebuild the specialist section of the catalog snapshot
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional(readOnly = true)
+    public synchronized void refreshCatalog() {
+        List<SpecialistDTO> specialists = specialistRepository.findAll().stream()
+                .map(this::convertToDTO)
+                .collect(Collectors.toList());
+        
+        // Featured specialists are the highest rated
+        List<SpecialistDTO> featured = specialists.stream()
+                .sorted((s1, s2) -> Double.compare(
+                        s2.getRating() != null ? s2.getRating() : 0.0,
+                        s1.getRating() != null ? s1.getRating() : 0.0))
+                .limit(4)  // Get top 4
+                .collect(Collectors.toList());
+        
+        catalogSnapshotHolder.update(snapshot -> snapshot.withSpecialists(specialists, featured));
+    }
+    
+    // Once the current transaction has committed, apply the change to the search index and
+    // rebuild the specialist section of the catalog
+    private void catalogChanged(Runnable indexChange) {
+        AfterCommit.run(() -> {
+            indexChange.run();
+            refreshTransaction.executeWithoutResult(status -> refreshCatalog());
+        });
     }
     
     // Get all specialists with detailed info (for admin)
@@ -86,6 +179,7 @@ public class SpecialistService {
     }
     
     // Create a new specialist
+    @Transactional
     public SpecialistDTO createSpecialist(SpecialistDTO specialistDTO) {
         // Find or create user
         User user;
@@ -104,10 +198,14 @@ public class SpecialistService {
         
         Specialist specialist = convertToEntity(specialistDTO, user);
         specialist = specialistRepository.save(specialist);
-        return convertToDTO(specialist);
+        SpecialistDTO saved = convertToDTO(specialist);
+        catalogChanged(() -> specialistSearchIndex.update(saved));
+        domainEventBus.publish(DomainEvent.of(DomainEvent.Type.SPECIALIST_CHANGED, saved.getId()));
+        return saved;
     }
     
     // Update an existing specialist
+    @Transactional
     public SpecialistDTO updateSpecialist(Long id, SpecialistDTO specialistDTO) {
         Specialist specialist = specialistRepository.findById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("Specialist not found with id: " + id));
@@ -128,24 +226,37 @@ public class SpecialistService {
             specialist.setRating(specialistDTO.getRating());
         }
         if (specialistDTO.getAvailability() != null) {
-            specialist.setAvailability(specialistDTO.getAvailability());
+            specialist.setAvailability(parseAvailability(specialistDTO.getAvailability()));
         }
         
         specialist = specialistRepository.save(specialist);
-        return convertToDTO(specialist);
+        SpecialistDTO saved = convertToDTO(specialist);
+        catalogChanged(() -> specialistSearchIndex.update(saved));
+        domainEventBus.publish(DomainEvent.of(DomainEvent.Type.SPECIALIST_CHANGED, saved.getId()));
+        return saved;
     }
     
     // Delete a specialist
+    @Transactional
     public void deleteSpecialist(Long id) {
         Specialist specialist = specialistRepository.findById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("Specialist not found with id: " + id));
         specialistRepository.delete(specialist);
+        catalogChanged(() -> specialistSearchIndex.remove(id));
+        domainEventBus.publish(DomainEvent.of(DomainEvent.Type.SPECIALIST_DELETED, id));
     }
     
     // Get specialist availability
     public List<String> getSpecialistAvailability(Long id) {
-        Specialist specialist = specialistRepository.findById(id)
-                .orElseThrow(() -> new ResourceNotFoundException("Specialist not found with id: " + id));
-        return specialist.getAvailability().stream().collect(Collectors.toList());
+        return new ArrayList<>(getSpecialistById(id).getAvailability());
+    }
+    
+    // Get specialists whose weekly availability covers the whole window, e.g. Tuesday 14:00-15:30
+    public List<SpecialistDTO> getAvailableSpecialists(DayOfWeek day, LocalTime from, LocalTime to) {
+        WeeklyAvailability window = WeeklyAvailability.window(day, from, to);
+        return catalogSnapshotHolder.get().getSpecialists().stream()
+                .filter(specialist -> specialist.getAvailabilitySlots() != null
+                        && specialist.getAvailabilitySlots().containsAll(window))
+                .collect(Collectors.toList());
     }
 }
@@ -0,0 +1,117 @@
+package com.spa.service;
+
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDate;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+
+/**
+ * In-memory index of waiting waitlist entries by specialist and day, so a freed slot is
+ * matched without touching the database. The candidates for a slot are the entries for
+ * its specialist plus the any-specialist entries, each bucket kept in entry id order so
+ * the longest-waiting customer is offered the slot first.
+ */
+@Component
+public class WaitlistIndex {
+
+    // Bucket key for entries that accept any specialist
+    private static final long ANY_SPECIALIST = 0L;
+    
+    private final Map<Long, Map<LocalDate, TreeMap<Long, Waiter>>> bySpecialist = new HashMap<>();
+    private final Map<Long, Waiter> byId = new HashMap<>();
+    
+    public synchronized void clear() {
+        bySpecialist.clear();
+        byId.clear();
+    }
+    
+    // Index an entry under every day of its window
+    public synchronized void add(Waiter waiter) {
+        removeEntry(waiter.entryId());
+        Map<LocalDate, TreeMap<Long, Waiter>> days = bySpecialist.computeIfAbsent(key(waiter.specialistId()), k -> new HashMap<>());
+        for (LocalDate day = waiter.dateFrom(); !day.isAfter(waiter.dateTo()); day = day.plusDays(1)) {
+            days.computeIfAbsent(day, d -> new TreeMap<>()).put(waiter.entryId(), waiter);
+        }
+        byId.put(waiter.entryId(), waiter);
+    }
+    
+    public synchronized boolean remove(long entryId) {
+        return removeEntry(entryId);
+    }
+    
+    // Remove and return the longest-waiting entry eligible for the slot, or null if there is none.
+    // Entries of the customer who freed the slot and entries already offered it are skipped.
+    public synchronized Waiter claim(long specialistId, long serviceId, LocalDate day, Long excludedCustomerId, Set<Long> excludedEntries) {
+        Waiter specific = first(specialistId, serviceId, day, excludedCustomerId, excludedEntries);
+        Waiter any = first(ANY_SPECIALIST, serviceId, day, excludedCustomerId, excludedEntries);
+        Waiter match = specific == null ? any
+                : any == null ? specific
+                : specific.entryId() < any.entryId() ? specific : any;
+        if (match != null) {
+            removeEntry(match.entryId());
+        }
+        return match;
+    }
+    
+    // Drop the days before the given day; entries whose whole window has passed leave the index
+    public synchronized void removeDaysBefore(LocalDate day) {
+        for (Map<LocalDate, TreeMap<Long, Waiter>> days : bySpecialist.values()) {
+            days.keySet().removeIf(d -> d.isBefore(day));
+        }
+        bySpecialist.values().removeIf(Map::isEmpty);
+        byId.values().removeIf(waiter -> waiter.dateTo().isBefore(day));
+    }
+    
+    public synchronized int size() {
+        return byId.size();
+    }
+    
+    private Waiter first(long key, long serviceId, LocalDate day, Long excludedCustomerId, Set<Long> excludedEntries) {
+        Map<LocalDate, TreeMap<Long, Waiter>> days = bySpecialist.get(key);
+        TreeMap<Long, Waiter> bucket = days != null ? days.get(day) : null;
+        if (bucket == null) {
+            return null;
+        }
+        for (Waiter waiter : bucket.values()) {
+            if (waiter.serviceId() == serviceId
+                    && (excludedCustomerId == null || waiter.customerId() != excludedCustomerId)
+                    && !excludedEntries.contains(waiter.entryId())) {
+                return waiter;
+            }
+        }
+        return null;
+    }
+    
+    private boolean removeEntry(long entryId) {
+        Waiter waiter = byId.remove(entryId);
+        if (waiter == null) {
+            return false;
+        }
+        long key = key(waiter.specialistId());
+        Map<LocalDate, TreeMap<Long, Waiter>> days = bySpecialist.get(key);
+        if (days == null) {
+            return true;
+        }
+        for (LocalDate day = waiter.dateFrom(); !day.isAfter(waiter.dateTo()); day = day.plusDays(1)) {
+            TreeMap<Long, Waiter> bucket = days.get(day);
+            if (bucket != null && bucket.remove(entryId) != null && bucket.isEmpty()) {
+                days.remove(day);
+            }
+        }
+        if (days.isEmpty()) {
+            bySpecialist.remove(key);
+        }
+        return true;
+    }
+    
+    private static long key(Long specialistId) {
+        return specialistId != null ? specialistId : ANY_SPECIALIST;
+    }
+    
+    // A waiting entry; specialistId is null for any specialist
+    public record Waiter(long entryId, long customerId, long serviceId, Long specialistId, LocalDate dateFrom, LocalDate dateTo) {
+    }
+}
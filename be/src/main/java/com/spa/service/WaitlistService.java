@@ -0,0 +1,543 @@
+package com.spa.service;
+
+import com.spa.dto.BookingDTO;
+import com.spa.dto.WaitlistEntryDTO;
+import com.spa.exception.BadRequestException;
+import com.spa.exception.ResourceNotFoundException;
+import com.spa.model.Booking;
+import com.spa.model.Specialist;
+import com.spa.model.User;
+import com.spa.model.WaitlistEntry;
+import com.spa.repository.BookingRepository;
+import com.spa.repository.ServiceRepository;
+import com.spa.repository.SpecialistRepository;
+import com.spa.repository.UserRepository;
+import com.spa.repository.WaitlistEntryRepository;
+import com.spa.util.DomainEvent;
+import com.spa.util.DomainEventListener;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.security.access.AccessDeniedException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * Waitlist for fully booked slots. When a booking is cancelled the freed slot is matched
+ * against the in-memory WaitlistIndex and offered to the longest-waiting eligible customer:
+ * same service, the slot's specialist or any specialist, and the slot's day inside the
+ * entry's window. The offer holds the slot for waitlist.offer-ttl; when it expires or is
+ * declined the slot cascades to the next eligible customer. Within one run of the
+ * application an entry is never offered the same slot twice and the customer who freed the
+ * slot is skipped; that history is kept in memory only, so after a restart a slot's cascade
+ * resumes knowing just the entry that holds its open offer.
+ *
+ * An expired offer closes its entry (the customer did not respond); a declined offer puts
+ * the entry back on the waitlist for other slots.
+ */
+@Service
+public class WaitlistService implements DomainEventListener {
+
+    private static final Logger logger = LoggerFactory.getLogger(WaitlistService.class);
+    
+    private static final List<Booking.BookingStatus> HOLDING_STATUSES =
+            List.of(Booking.BookingStatus.PENDING, Booking.BookingStatus.CONFIRMED);
+    
+    @Autowired
+    private WaitlistEntryRepository waitlistEntryRepository;
+    
+    @Autowired
+    private UserRepository userRepository;
+    
+    @Autowired
+    private ServiceRepository serviceRepository;
+    
+    @Autowired
+    private SpecialistRepository specialistRepository;
+    
+    @Autowired
+    private BookingRepository bookingRepository;
+    
+    @Autowired
+    private BookingService bookingService;
+    
+    @Autowired
+    private BookingNotificationService bookingNotificationService;
+    
+    @Autowired
+    private WaitlistIndex index;
+    
+    @Autowired
+    private MeterRegistry registry;
+    
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+    
+    @Value("${waitlist.offer-ttl:30m}")
+    private Duration offerTtl;
+    
+    @Value("${waitlist.max-window-days:31}")
+    private int maxWindowDays;
+    
+    private final ScheduledExecutorService expiries = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "waitlist-expiry");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private final Map<Long, ScheduledFuture<?>> expiryTasks = new ConcurrentHashMap<>();
+    // Freed slots whose offers are still cascading
+    private final Map<Slot, SlotOffers> slots = new ConcurrentHashMap<>();
+    
+    private TransactionTemplate transactionTemplate;
+    private Timer matchTimer;
+    private Counter offered;
+    private Counter accepted;
+    private Counter declined;
+    private Counter expired;
+    
+    @PostConstruct
+    public void init() {
+        transactionTemplate = new TransactionTemplate(transactionManager);
+        matchTimer = Timer.builder("spa.waitlist.match").publishPercentiles(0.5, 0.99).register(registry);
+        offered = registry.counter("spa.waitlist.offers", "outcome", "offered");
+        accepted = registry.counter("spa.waitlist.offers", "outcome", "accepted");
+        declined = registry.counter("spa.waitlist.offers", "outcome", "declined");
+        expired = registry.counter("spa.waitlist.offers", "outcome", "expired");
+        Gauge.builder("spa.waitlist.waiting", index, WaitlistIndex::size).register(registry);
+    }
+    
+    // Load waiting entries into the index and resume the expiry of open offers; earlier offers
+    // of the same slot and the customer who freed it are not persisted, so they are not skipped
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        LocalDate today = LocalDate.now();
+        int waiting = 0;
+        int offers = 0;
+        for (WaitlistEntry entry : waitlistEntryRepository.findByStatusInOrderById(
+                List.of(WaitlistEntry.WaitlistStatus.WAITING, WaitlistEntry.WaitlistStatus.OFFERED))) {
+            if (entry.getStatus() == WaitlistEntry.WaitlistStatus.WAITING) {
+                if (!entry.getDateTo().isBefore(today)) {
+                    index.add(waiter(entry));
+                    waiting++;
+                }
+            } else {
+                SlotOffers state = slots.computeIfAbsent(slotOf(entry), slot -> new SlotOffers(null));
+                state.offered.add(entry.getId());
+                state.outstanding = entry.getId();
+                scheduleExpiry(entry);
+                offers++;
+            }
+        }
+        logger.info("Waitlist loaded with {} waiting entries and {} open offers", waiting, offers);
+    }
+    
+    @PreDestroy
+    public void stop() {
+        expiries.shutdownNow();
+    }
+    
+    @Override
+    public String getName() {
+        return "waitlist";
+    }
+    
+    // Offer every slot freed by a cancellation
+    @Override
+    public void onEvents(List<DomainEvent> events) {
+        for (DomainEvent event : events) {
+            if (event.type() == DomainEvent.Type.BOOKING_STATUS_CHANGED
+                    && Booking.BookingStatus.CANCELLED.name().equals(event.detail())) {
+                try {
+                    slotFreed(event.entityId());
+                } catch (RuntimeException e) {
+                    logger.error("Failed to offer the slot of cancelled booking {}", event.entityId(), e);
+                }
+            }
+        }
+    }
+    
+    // Cancellations in the missed events are not offered; waiters keep their place for the next one
+    @Override
+    public void onOverflow() {
+        logger.warn("Waitlist missed booking events; slots freed meanwhile were not offered");
+    }
+    
+    // Join the waitlist
+    public WaitlistEntryDTO join(String username, WaitlistEntryDTO request) {
+        User customer = findUser(username);
+        LocalDate today = LocalDate.now();
+        if (request.getDateFrom().isAfter(request.getDateTo())) {
+            throw new BadRequestException("dateFrom must not be after dateTo");
+        }
+        if (request.getDateTo().isBefore(today)) {
+            throw new BadRequestException("The date window is in the past");
+        }
+        LocalDate from = request.getDateFrom().isBefore(today) ? today : request.getDateFrom();
+        if (ChronoUnit.DAYS.between(from, request.getDateTo()) >= maxWindowDays) {
+            throw new BadRequestException("The date window must not exceed " + maxWindowDays + " days");
+        }
+        
+        WaitlistEntry entry = new WaitlistEntry();
+        entry.setCustomer(customer);
+        entry.setService(serviceRepository.findById(request.getServiceId())
+                .orElseThrow(() -> new ResourceNotFoundException("Service not found with id: " + request.getServiceId())));
+        if (request.getSpecialistId() != null) {
+            entry.setSpecialist(specialistRepository.findById(request.getSpecialistId())
+                    .orElseThrow(() -> new ResourceNotFoundException("Specialist not found with id: " + request.getSpecialistId())));
+        }
+        entry.setDateFrom(from);
+        entry.setDateTo(request.getDateTo());
+        entry.setStatus(WaitlistEntry.WaitlistStatus.WAITING);
+        entry.setCreatedAt(LocalDateTime.now());
+        
+        entry = waitlistEntryRepository.save(entry);
+        index.add(waiter(entry));
+        return convertToDTO(entry);
+    }
+    
+    // Get the entries of a customer, newest first
+    public List<WaitlistEntryDTO> getUserEntries(String username) {
+        User customer = findUser(username);
+        return waitlistEntryRepository.findByCustomerIdOrderByIdDesc(customer.getId()).stream()
+                .map(this::convertToDTO)
+                .collect(Collectors.toList());
+    }
+    
+    // Get all waiting entries and open offers
+    public List<WaitlistEntryDTO> getOpenEntries() {
+        return waitlistEntryRepository.findByStatusInOrderById(
+                        List.of(WaitlistEntry.WaitlistStatus.WAITING, WaitlistEntry.WaitlistStatus.OFFERED)).stream()
+                .map(this::convertToDTO)
+                .collect(Collectors.toList());
+    }
+    
+    // Leave the waitlist; an open offer passes to the next customer
+    public WaitlistEntryDTO leave(Long id, String username, boolean admin) {
+        WaitlistEntry entry = findEntry(id, username, admin);
+        WaitlistEntry.WaitlistStatus previousStatus = entry.getStatus();
+        if (previousStatus != WaitlistEntry.WaitlistStatus.WAITING && previousStatus != WaitlistEntry.WaitlistStatus.OFFERED) {
+            throw new BadRequestException("Waitlist entry is already " + previousStatus.name().toLowerCase());
+        }
+        entry.setStatus(WaitlistEntry.WaitlistStatus.CANCELLED);
+        entry = waitlistEntryRepository.save(entry);
+        
+        index.remove(id);
+        if (previousStatus == WaitlistEntry.WaitlistStatus.OFFERED) {
+            cancelExpiry(id);
+            passOn(slotOf(entry), id);
+        }
+        return convertToDTO(entry);
+    }
+    
+    // Accept an open offer: book the slot for the customer
+    public BookingDTO accept(Long id, String username, boolean admin) {
+        WaitlistEntry entry = findEntry(id, username, admin);
+        if (entry.getStatus() != WaitlistEntry.WaitlistStatus.OFFERED) {
+            throw new BadRequestException("Waitlist entry has no open offer");
+        }
+        if (!entry.getOfferExpiresAt().isAfter(LocalDateTime.now())) {
+            throw new BadRequestException("The offer has expired");
+        }
+        Slot slot = slotOf(entry);
+        if (isTaken(slot)) {
+            // Booked directly by someone else since the offer was made
+            returnToWaitlist(id);
+            cancelExpiry(id);
+            slots.remove(slot);
+            throw new BadRequestException("The offered slot is no longer available");
+        }
+        
+        BookingDTO booking = transactionTemplate.execute(status -> {
+            WaitlistEntry current = waitlistEntryRepository.findById(id)
+                    .orElseThrow(() -> new ResourceNotFoundException("Waitlist entry not found with id: " + id));
+            if (current.getStatus() != WaitlistEntry.WaitlistStatus.OFFERED) {
+                throw new BadRequestException("Waitlist entry has no open offer");
+            }
+            BookingDTO request = new BookingDTO();
+            request.setCustomerId(current.getCustomer().getId());
+            request.setServiceId(slot.serviceId());
+            request.setSpecialistId(slot.specialistId());
+            request.setBookingDate(slot.date());
+            request.setBookingTime(slot.time());
+            request.setNote("Booked from waitlist #" + id);
+            BookingDTO created = bookingService.createBooking(request);
+            
+            current.setStatus(WaitlistEntry.WaitlistStatus.BOOKED);
+            current.setBookingId(created.getId());
+            waitlistEntryRepository.save(current);
+            return created;
+        });
+        cancelExpiry(id);
+        slots.remove(slot);
+        accepted.increment();
+        return booking;
+    }
+    
+    // Decline an open offer: the entry keeps waiting for other slots and the slot passes on
+    public WaitlistEntryDTO decline(Long id, String username, boolean admin) {
+        WaitlistEntry entry = findEntry(id, username, admin);
+        if (entry.getStatus() != WaitlistEntry.WaitlistStatus.OFFERED) {
+            throw new BadRequestException("Waitlist entry has no open offer");
+        }
+        Slot slot = slotOf(entry);
+        entry = returnToWaitlist(id);
+        cancelExpiry(id);
+        declined.increment();
+        passOn(slot, id);
+        return convertToDTO(entry);
+    }
+    
+    // Close the entries whose window has passed without an offer
+    @Scheduled(cron = "${waitlist.purge-cron:0 5 0 * * *}")
+    public void purgePastWindows() {
+        LocalDate today = LocalDate.now();
+        List<WaitlistEntry> past = waitlistEntryRepository.findByStatusAndDateToBefore(WaitlistEntry.WaitlistStatus.WAITING, today);
+        past.forEach(entry -> entry.setStatus(WaitlistEntry.WaitlistStatus.EXPIRED));
+        waitlistEntryRepository.saveAll(past);
+        index.removeDaysBefore(today);
+        slots.keySet().removeIf(slot -> slot.date().isBefore(today));
+        if (!past.isEmpty()) {
+            logger.info("Closed {} waitlist entries whose window has passed", past.size());
+        }
+    }
+    
+    private void slotFreed(Long bookingId) {
+        Booking booking = bookingRepository.findById(bookingId).orElse(null);
+        if (booking == null || booking.getStatus() != Booking.BookingStatus.CANCELLED
+                || booking.getSpecialist() == null || booking.getService() == null
+                || booking.getBookingDate() == null || booking.getBookingTime() == null) {
+            return;
+        }
+        Slot slot = new Slot(booking.getSpecialist().getId(), booking.getService().getId(),
+                booking.getBookingDate(), booking.getBookingTime());
+        Long freedBy = booking.getCustomer() != null ? booking.getCustomer().getId() : null;
+        slots.putIfAbsent(slot, new SlotOffers(freedBy));
+        offerNext(slot);
+    }
+    
+    // The customer holding the slot's offer let it go; offer it to the next one
+    private void passOn(Slot slot, Long entryId) {
+        SlotOffers state = slots.computeIfAbsent(slot, s -> new SlotOffers(null));
+        synchronized (state) {
+            state.offered.add(entryId);
+            if (Objects.equals(state.outstanding, entryId)) {
+                state.outstanding = null;
+            }
+        }
+        offerNext(slot);
+    }
+    
+    private void offerNext(Slot slot) {
+        SlotOffers state = slots.get(slot);
+        if (state == null) {
+            return;
+        }
+        synchronized (state) {
+            if (state.outstanding != null) {
+                return;
+            }
+            if (!slot.start().isAfter(LocalDateTime.now()) || isTaken(slot)) {
+                slots.remove(slot);
+                return;
+            }
+            while (true) {
+                long started = System.nanoTime();
+                WaitlistIndex.Waiter waiter = index.claim(slot.specialistId(), slot.serviceId(), slot.date(), state.freedBy, state.offered);
+                matchTimer.record(System.nanoTime() - started, TimeUnit.NANOSECONDS);
+                if (waiter == null) {
+                    slots.remove(slot);
+                    return;
+                }
+                state.offered.add(waiter.entryId());
+                
+                WaitlistEntry entry;
+                try {
+                    entry = transactionTemplate.execute(status -> makeOffer(waiter.entryId(), slot));
+                } catch (RuntimeException e) {
+                    index.add(waiter);
+                    slots.remove(slot);
+                    throw e;
+                }
+                if (entry != null) {
+                    state.outstanding = entry.getId();
+                    scheduleExpiry(entry);
+                    offered.increment();
+                    logger.debug("Offered {} to waitlist entry {}", slot, entry.getId());
+                    return;
+                }
+                // The entry left the waitlist since it was indexed; try the next one
+            }
+        }
+    }
+    
+    // Null when the entry is no longer waiting
+    private WaitlistEntry makeOffer(Long entryId, Slot slot) {
+        WaitlistEntry entry = waitlistEntryRepository.findById(entryId).orElse(null);
+        if (entry == null || entry.getStatus() != WaitlistEntry.WaitlistStatus.WAITING) {
+            return null;
+        }
+        Specialist specialist = specialistRepository.findById(slot.specialistId())
+                .orElseThrow(() -> new ResourceNotFoundException("Specialist not found with id: " + slot.specialistId()));
+        entry.setStatus(WaitlistEntry.WaitlistStatus.OFFERED);
+        entry.setOfferSpecialist(specialist);
+        entry.setOfferDate(slot.date());
+        entry.setOfferTime(slot.time());
+        entry.setOfferExpiresAt(LocalDateTime.now().plus(offerTtl));
+        entry = waitlistEntryRepository.save(entry);
+        bookingNotificationService.waitlistOffer(entry);
+        return entry;
+    }
+    
+    private WaitlistEntry returnToWaitlist(Long id) {
+        WaitlistEntry entry = waitlistEntryRepository.findById(id)
+                .orElseThrow(() -> new ResourceNotFoundException("Waitlist entry not found with id: " + id));
+        entry.setStatus(WaitlistEntry.WaitlistStatus.WAITING);
+        entry.setOfferSpecialist(null);
+        entry.setOfferDate(null);
+        entry.setOfferTime(null);
+        entry.setOfferExpiresAt(null);
+        entry = waitlistEntryRepository.save(entry);
+        if (!entry.getDateTo().isBefore(LocalDate.now())) {
+            index.add(waiter(entry));
+        }
+        return entry;
+    }
+    
+    private void scheduleExpiry(WaitlistEntry entry) {
+        long delay = Math.max(0, Duration.between(LocalDateTime.now(), entry.getOfferExpiresAt()).toMillis());
+        Long id = entry.getId();
+        expiryTasks.put(id, expiries.schedule(() -> expire(id), delay, TimeUnit.MILLISECONDS));
+    }
+    
+    private void cancelExpiry(Long id) {
+        ScheduledFuture<?> task = expiryTasks.remove(id);
+        if (task != null) {
+            task.cancel(false);
+        }
+    }
+    
+    private void expire(Long id) {
+        expiryTasks.remove(id);
+        try {
+            WaitlistEntry entry = transactionTemplate.execute(status -> {
+                WaitlistEntry current = waitlistEntryRepository.findById(id).orElse(null);
+                if (current == null || current.getStatus() != WaitlistEntry.WaitlistStatus.OFFERED
+                        || current.getOfferExpiresAt().isAfter(LocalDateTime.now())) {
+                    return null;
+                }
+                current.setStatus(WaitlistEntry.WaitlistStatus.EXPIRED);
+                return waitlistEntryRepository.save(current);
+            });
+            if (entry != null) {
+                expired.increment();
+                passOn(slotOf(entry), id);
+            }
+        } catch (RuntimeException e) {
+            logger.error("Failed to expire the offer of waitlist entry {}", id, e);
+        }
+    }
+    
+    private boolean isTaken(Slot slot) {
+        return bookingRepository.existsBySpecialistIdAndBookingDateAndBookingTimeAndStatusIn(
+                slot.specialistId(), slot.date(), slot.time(), HOLDING_STATUSES);
+    }
+    
+    private User findUser(String username) {
+        return userRepository.findByUsername(username)
+                .orElseThrow(() -> new ResourceNotFoundException("User not found with username: " + username));
+    }
+    
+    private WaitlistEntry findEntry(Long id, String username, boolean admin) {
+        WaitlistEntry entry = waitlistEntryRepository.findById(id)
+                .orElseThrow(() -> new ResourceNotFoundException("Waitlist entry not found with id: " + id));
+        if (!admin && !entry.getCustomer().getUsername().equals(username)) {
+            throw new AccessDeniedException("Waitlist entry belongs to another customer");
+        }
+        return entry;
+    }
+    
+    private static WaitlistIndex.Waiter waiter(WaitlistEntry entry) {
+        return new WaitlistIndex.Waiter(entry.getId(), entry.getCustomer().getId(), entry.getService().getId(),
+                entry.getSpecialist() != null ? entry.getSpecialist().getId() : null,
+                entry.getDateFrom(), entry.getDateTo());
+    }
+    
+    private static Slot slotOf(WaitlistEntry entry) {
+        return new Slot(entry.getOfferSpecialist().getId(), entry.getService().getId(), entry.getOfferDate(), entry.getOfferTime());
+    }
+    
+    // Convert WaitlistEntry entity to DTO
+    private WaitlistEntryDTO convertToDTO(WaitlistEntry entry) {
+        WaitlistEntryDTO dto = new WaitlistEntryDTO();
+        dto.setId(entry.getId());
+        dto.setCustomerId(entry.getCustomer().getId());
+        dto.setCustomer(entry.getCustomer().getFullName());
+        dto.setServiceId(entry.getService().getId());
+        dto.setService(entry.getService().getName());
+        if (entry.getSpecialist() != null) {
+            dto.setSpecialistId(entry.getSpecialist().getId());
+            dto.setSpecialist(entry.getSpecialist().getUser().getFullName());
+        }
+        dto.setDateFrom(entry.getDateFrom());
+        dto.setDateTo(entry.getDateTo());
+        dto.setStatus(entry.getStatus().name());
+        if (entry.getOfferSpecialist() != null) {
+            dto.setOfferSpecialistId(entry.getOfferSpecialist().getId());
+            dto.setOfferSpecialist(entry.getOfferSpecialist().getUser().getFullName());
+        }
+        dto.setOfferDate(entry.getOfferDate());
+        dto.setOfferTime(entry.getOfferTime());
+        dto.setOfferExpiresAt(entry.getOfferExpiresAt());
+        dto.setBookingId(entry.getBookingId());
+        dto.setCreatedAt(entry.getCreatedAt());
+        return dto;
+    }
+    
+    // A bookable slot of a specialist for a service
+    private record Slot(long specialistId, long serviceId, LocalDate date, LocalTime time) {
+        LocalDateTime start() {
+            return LocalDateTime.of(date, time);
+        }
+    }
+    
+    // Offer state of a freed slot; guarded by its own monitor
+    private static final class SlotOffers {
+        // Customer who freed the slot; not offered it back
+        final Long freedBy;
+        // Entries already offered the slot
+        final Set<Long> offered = ConcurrentHashMap.newKeySet();
+        // Entry currently holding the offer
+        Long outstanding;
+        
+        SlotOffers(Long freedBy) {
+            this.freedBy = freedBy;
+        }
+    }
+}
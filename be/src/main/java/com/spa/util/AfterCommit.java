@@ -0,0 +1,42 @@
+package com.spa.util;
+
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Work that must only happen once the surrounding transaction has committed, such as
+ * refreshing in-memory views of the data it changed. Running it earlier would publish
+ * uncommitted (possibly rolled back) state and keep the write transaction open longer.
+ */
+public final class AfterCommit {
+
+    private AfterCommit() {
+    }
+    
+    // Run the task once the current transaction has committed (never on rollback),
+    // or right away when no transaction is active
+    public static void run(Runnable task) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            task.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                task.run();
+            }
+        });
+    }
+    
+    // Read-only transaction for tasks passed to run(): the committed transaction is still bound
+    // to the thread at that point, so reads need a new transaction of their own
+    public static TransactionTemplate readOnlyTransaction(PlatformTransactionManager transactionManager) {
+        TransactionTemplate template = new TransactionTemplate(transactionManager);
+        template.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        template.setReadOnly(true);
+        return template;
+    }
+}
@@ -0,0 +1,146 @@
+
+package com.spa.util;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Component;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.function.Supplier;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Serves versioned JSON resources with strong ETags. The serialized (and gzipped) body is
+ * cached per resource version, so a 200 is a byte-array write and a matching
+ * {@code If-None-Match} is answered with 304 without serialization or database access.
+ * Bodies are kept in a TinyLfuCache, so keys built from request parameters cannot grow it
+ * without bound or flush out the popular resources.
+ */
+@Component
+public class ConditionalResponseCache {
+
+    // Distinguishes versions across restarts, since version counters start from zero
+    private final String epoch = Long.toString(System.currentTimeMillis(), 36);
+    
+    @Autowired
+    private ObjectMapper objectMapper;
+    
+    @Autowired
+    private MeterRegistry registry;
+    
+    @Value("${cache.response-bodies.max-size:1024}")
+    private int maximumSize;
+    
+    private TinyLfuCache<String, CachedBody> bodies;
+    
+    @PostConstruct
+    public void init() {
+        bodies = new TinyLfuCache<>(maximumSize);
+        bodies.bindTo(registry, "response-bodies");
+    }
+    
+    // Respond with the cached body for the given resource version, or 304 if the client has it
+    public ResponseEntity<byte[]> respond(HttpServletRequest request, String resourceKey, long version,
+                                         Supplier<?> bodySupplier) {
+        return respond(request, resourceKey, version, bodySupplier, true);
+    }
+    
+    // Same ETag handling, but the body is serialized for this response only; for resources
+    // requested too rarely to be worth a cache entry
+    public ResponseEntity<byte[]> respondUncached(HttpServletRequest request, String resourceKey, long version,
+                                                  Supplier<?> bodySupplier) {
+        return respond(request, resourceKey, version, bodySupplier, false);
+    }
+    
+    private ResponseEntity<byte[]> respond(HttpServletRequest request, String resourceKey, long version,
+                                           Supplier<?> bodySupplier, boolean store) {
+        String etag = "\"" + resourceKey + "-" + epoch + "-" + version + "\"";
+        String gzipEtag = "\"" + resourceKey + "-" + epoch + "-" + version + "-gz\"";
+        boolean gzip = acceptsGzip(request);
+        String responseEtag = gzip ? gzipEtag : etag;
+        
+        String ifNoneMatch = request.getHeader(HttpHeaders.IF_NONE_MATCH);
+        if (ifNoneMatch != null && matches(ifNoneMatch, etag, gzipEtag)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED)
+                    .eTag(responseEtag)
+                    .cacheControl(CacheControl.noCache())
+                    .varyBy(HttpHeaders.ACCEPT_ENCODING)
+                    .build();
+        }
+        
+        CachedBody body = store ? bodies.get(resourceKey) : null;
+        if (body == null || body.version != version) {
+            body = serialize(version, bodySupplier.get());
+            if (store) {
+                bodies.put(resourceKey, body);
+            }
+        }
+        
+        ResponseEntity.BodyBuilder builder = ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_JSON)
+                .eTag(responseEtag)
+                .cacheControl(CacheControl.noCache())
+                .varyBy(HttpHeaders.ACCEPT_ENCODING);
+        if (gzip) {
+            return builder.header(HttpHeaders.CONTENT_ENCODING, "gzip").body(body.gzipped);
+        }
+        return builder.body(body.plain);
+    }
+    
+    private CachedBody serialize(long version, Object value) {
+        try {
+            byte[] plain = objectMapper.writeValueAsBytes(value);
+            ByteArrayOutputStream out = new ByteArrayOutputStream(plain.length / 4 + 64);
+            try (GZIPOutputStream gzipStream = new GZIPOutputStream(out)) {
+                gzipStream.write(plain);
+            }
+            return new CachedBody(version, plain, out.toByteArray());
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Could not serialize response body", e);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+    
+    private static boolean acceptsGzip(HttpServletRequest request) {
+        String acceptEncoding = request.getHeader(HttpHeaders.ACCEPT_ENCODING);
+        return acceptEncoding != null && acceptEncoding.contains("gzip");
+    }
+    
+    private static boolean matches(String ifNoneMatch, String etag, String gzipEtag) {
+        for (String candidate : ifNoneMatch.split(",")) {
+            String value = candidate.trim();
+            if (value.startsWith("W/")) {
+                value = value.substring(2);
+            }
+            if (value.equals("*") || value.equals(etag) || value.equals(gzipEtag)) {
+                return true;
+            }
+        }
+        return false;
+    }
+    
+    private static final class CachedBody {
+        final long version;
+        final byte[] plain;
+        final byte[] gzipped;
+        
+        CachedBody(long version, byte[] plain, byte[] gzipped) {
+            this.version = version;
+            this.plain = plain;
+            this.gzipped = gzipped;
+        }
+    }
+}
@@ -0,0 +1,197 @@
+package com.spa.util;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.spa.exception.ErrorResponse;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.util.Locale;
+import java.util.Set;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Predicate;
+
+/**
+ * Admission control in front of the connection pool. With virtual threads Tomcat no longer
+ * caps concurrency, so without a gate every request would queue inside Hikari and on the
+ * SQLite file lock. Reads and writes take permits from separate fair semaphores (SQLite
+ * has a single writer, so writes get few permits and never starve reads). A request waits
+ * at most the queue timeout, and is rejected at once with 503 and Retry-After when its
+ * queue is already full.
+ * <p>
+ * Writes selected by the deferred-write predicate (POSTs carrying an Idempotency-Key) pass
+ * the gate without a permit: IdempotencyFilter first checks the key, so a retry of a request
+ * that is still running waits for its result instead of queueing behind it for the write
+ * permit. Only the request that goes on to execute takes the permit, through
+ * {@link #writeGated(HttpServletRequest, FilterChain)}.
+ */
+public class ConnectionGateFilter extends OncePerRequestFilter {
+
+    private static final Logger logger = LoggerFactory.getLogger(ConnectionGateFilter.class);
+    
+    private static final Set<String> READ_METHODS = Set.of("GET", "HEAD");
+    // Set on requests that passed without a permit; holds the gate that must admit their write
+    private static final String DEFERRED_WRITE = ConnectionGateFilter.class.getName() + ".DEFERRED_WRITE";
+    
+    private final Lane readLane;
+    private final Lane writeLane;
+    private final Set<String> readOnlyPaths;
+    private final Predicate<HttpServletRequest> deferredWrites;
+    private final long queueTimeoutMillis;
+    private final ObjectMapper objectMapper;
+    
+    public ConnectionGateFilter(int readPermits, int writePermits, int maxQueue, long queueTimeoutMillis,
+                                Set<String> readOnlyPaths, Predicate<HttpServletRequest> deferredWrites,
+                                ObjectMapper objectMapper, MeterRegistry registry) {
+        this.readLane = new Lane("read", readPermits, maxQueue, registry);
+        this.writeLane = new Lane("write", writePermits, maxQueue, registry);
+        this.queueTimeoutMillis = queueTimeoutMillis;
+        this.readOnlyPaths = readOnlyPaths;
+        this.deferredWrites = deferredWrites;
+        this.objectMapper = objectMapper;
+    }
+    
+    // The chain behind a write permit, for a request the gate let through without one;
+    // any other request already holds its permit and gets the chain unchanged
+    public static FilterChain writeGated(HttpServletRequest request, FilterChain chain) {
+        if (request.getAttribute(DEFERRED_WRITE) instanceof ConnectionGateFilter gate) {
+            request.removeAttribute(DEFERRED_WRITE);
+            return (gatedRequest, gatedResponse) -> gate.admit(gate.writeLane,
+                    (HttpServletRequest) gatedRequest, (HttpServletResponse) gatedResponse, chain);
+        }
+        return chain;
+    }
+    
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        if (isRead(request)) {
+            admit(readLane, request, response, filterChain);
+        } else if (deferredWrites.test(request)) {
+            request.setAttribute(DEFERRED_WRITE, this);
+            filterChain.doFilter(request, response);
+        } else {
+            readMultipartBody(request);
+            admit(writeLane, request, response, filterChain);
+        }
+    }
+    
+    // Uploads are received before the write permit is taken, so a slow client cannot hold the
+    // single write lane while its body trickles in. The container spools the parts to disk
+    // and keeps them for the multipart resolver.
+    private void readMultipartBody(HttpServletRequest request) throws IOException {
+        String contentType = request.getContentType();
+        if (contentType == null || !contentType.toLowerCase(Locale.ROOT).startsWith("multipart/")) {
+            return;
+        }
+        try {
+            request.getParts();
+        } catch (ServletException | IllegalStateException e) {
+            // Not a valid or allowed upload; the multipart resolver reports it the same way later
+            logger.debug("Could not read multipart body of {} {}", request.getMethod(), request.getRequestURI(), e);
+        }
+    }
+    
+    private void admit(Lane lane, HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        if (lane.semaphore.getQueueLength() >= lane.maxQueue) {
+            lane.queueFull.increment();
+            reject(request, response, lane);
+            return;
+        }
+        
+        long start = System.nanoTime();
+        boolean acquired;
+        try {
+            acquired = lane.semaphore.tryAcquire(queueTimeoutMillis, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            acquired = false;
+        }
+        lane.waitTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        if (!acquired) {
+            lane.timedOut.increment();
+            reject(request, response, lane);
+            return;
+        }
+        
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            lane.semaphore.release();
+        }
+    }
+    
+    // Static files, actuator probes and CORS preflights never touch the database
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        String path = request.getServletPath();
+        return "OPTIONS".equals(request.getMethod())
+                || path.startsWith("/media/")
+                || path.startsWith("/actuator/");
+    }
+    
+    private boolean isRead(HttpServletRequest request) {
+        return READ_METHODS.contains(request.getMethod()) || readOnlyPaths.contains(request.getServletPath());
+    }
+    
+    private void reject(HttpServletRequest request, HttpServletResponse response, Lane lane) throws IOException {
+        logger.debug("Connection gate rejected {} {} ({} lane saturated)", request.getMethod(), request.getRequestURI(), lane.name);
+        ErrorResponse error = ErrorResponse.builder()
+                .status(HttpStatus.SERVICE_UNAVAILABLE.value())
+                .timestamp(LocalDateTime.now())
+                .message("Server is busy, please retry shortly")
+                .path("uri=" + request.getRequestURI())
+                .build();
+        response.setStatus(HttpStatus.SERVICE_UNAVAILABLE.value());
+        response.setHeader("Retry-After", "1");
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        objectMapper.writeValue(response.getOutputStream(), error);
+    }
+    
+    private static final class Lane {
+        final String name;
+        final Semaphore semaphore;
+        final int maxQueue;
+        final Timer waitTimer;
+        final Counter queueFull;
+        final Counter timedOut;
+        
+        Lane(String name, int permits, int maxQueue, MeterRegistry registry) {
+            this.name = name;
+            this.semaphore = new Semaphore(permits, true);
+            this.maxQueue = maxQueue;
+            this.waitTimer = Timer.builder("spa.gate.wait")
+                    .tag("lane", name)
+                    .publishPercentiles(0.5, 0.95, 0.99)
+                    .register(registry);
+            this.queueFull = Counter.builder("spa.gate.rejected")
+                    .tag("lane", name)
+                    .tag("reason", "queue_full")
+                    .register(registry);
+            this.timedOut = Counter.builder("spa.gate.rejected")
+                    .tag("lane", name)
+                    .tag("reason", "timeout")
+                    .register(registry);
+            Gauge.builder("spa.gate.active", semaphore, s -> permits - s.availablePermits())
+                    .tag("lane", name)
+                    .register(registry);
+            Gauge.builder("spa.gate.queued", semaphore, Semaphore::getQueueLength)
+                    .tag("lane", name)
+                    .register(registry);
+        }
+    }
+}
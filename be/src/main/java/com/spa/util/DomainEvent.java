@@ -0,0 +1,34 @@
+package com.spa.util;
+
+/**
+ * A committed change to a domain entity. Events carry ids only; listeners load whatever
+ * state they need, so an event is never stale with respect to the database.
+ *
+ * @param type      what changed
+ * @param entityId  id of the changed entity
+ * @param detail    optional extra information, e.g. the new booking status
+ * @param timestamp epoch millis at which the change was published
+ */
+public record DomainEvent(Type type, Long entityId, String detail, long timestamp) {
+    
+    public static DomainEvent of(Type type, Long entityId) {
+        return new DomainEvent(type, entityId, null, System.currentTimeMillis());
+    }
+    
+    public static DomainEvent of(Type type, Long entityId, String detail) {
+        return new DomainEvent(type, entityId, detail, System.currentTimeMillis());
+    }
+    
+    public enum Type {
+        BOOKING_CREATED,
+        BOOKING_STATUS_CHANGED,
+        SERVICE_CHANGED,
+        SERVICE_DELETED,
+        SERVICE_CATEGORY_CHANGED,
+        SPECIALIST_CHANGED,
+        SPECIALIST_DELETED,
+        BLOG_POST_CHANGED,
+        BLOG_POST_DELETED,
+        BLOG_CATEGORY_CHANGED
+    }
+}
@@ -0,0 +1,273 @@
+package com.spa.util;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.ContextRefreshedEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.locks.LockSupport;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * In-process domain event bus. Events published inside a transaction are held until it
+ * commits (and dropped on rollback), so listeners only ever see committed changes and
+ * never run inside the write transaction.
+ *
+ * Events go into a bounded ring buffer shared by all listeners. Each listener has its own
+ * thread and read sequence and drains the ring in batches. A publisher that finds the ring
+ * full waits up to events.publish-timeout-ms for the slowest listener; every listener still
+ * holding the slot after that is overrun: its sequence jumps half the ring ahead, the skipped
+ * events are lost for it alone and it is told to resync through onOverflow(). Publishers are
+ * therefore never blocked for long by a stuck listener.
+ *
+ * Listeners are started once the context is refreshed and see events published from then
+ * on; they build their initial state from the database themselves.
+ *
+ * Metrics: spa.events.published, spa.events.publish.wait, and per listener spa.events.lag,
+ * spa.events.batch, spa.events.batch.size, spa.events.overruns and spa.events.errors.
+ */
+@Component
+public class DomainEventBus {
+
+    private static final Logger logger = LoggerFactory.getLogger(DomainEventBus.class);
+    
+    private static final long IDLE_PARK_NANOS = TimeUnit.MILLISECONDS.toNanos(50);
+    private static final long FULL_PARK_NANOS = TimeUnit.MICROSECONDS.toNanos(100);
+    
+    @Autowired
+    private ObjectProvider<DomainEventListener> listeners;
+    
+    @Autowired
+    private MeterRegistry registry;
+    
+    @Value("${events.buffer-size:4096}")
+    private int bufferSize;
+    
+    @Value("${events.max-batch:256}")
+    private int maxBatch;
+    
+    @Value("${events.publish-timeout-ms:20}")
+    private long publishTimeoutMillis;
+    
+    private AtomicReferenceArray<DomainEvent> ring;
+    private int mask;
+    // Sequence of the last published event; -1 when empty
+    private final AtomicLong cursor = new AtomicLong(-1);
+    private final ReentrantLock publishLock = new ReentrantLock();
+    private final List<Consumer> consumers = new CopyOnWriteArrayList<>();
+    private volatile boolean running;
+    
+    private Counter published;
+    private Timer publishWait;
+    
+    @PostConstruct
+    public void init() {
+        int capacity = Integer.highestOneBit(Math.max(2, bufferSize - 1)) << 1;
+        ring = new AtomicReferenceArray<>(capacity);
+        mask = capacity - 1;
+        published = registry.counter("spa.events.published");
+        publishWait = registry.timer("spa.events.publish.wait");
+    }
+    
+    // Listeners are looked up only now, so they may themselves depend on the bus
+    @EventListener(ContextRefreshedEvent.class)
+    public void start() {
+        if (running) {
+            return;
+        }
+        running = true;
+        publishLock.lock();
+        try {
+            listeners.orderedStream().forEach(listener -> {
+                Consumer consumer = new Consumer(listener, cursor.get() + 1);
+                consumers.add(consumer);
+                consumer.thread.start();
+            });
+        } finally {
+            publishLock.unlock();
+        }
+        logger.info("Domain event bus started with {} slots and {} listeners", ring.length(), consumers.size());
+    }
+    
+    // Stop after the listeners have drained what was already published
+    @PreDestroy
+    public void stop() throws InterruptedException {
+        running = false;
+        for (Consumer consumer : consumers) {
+            LockSupport.unpark(consumer.thread);
+            consumer.thread.join(TimeUnit.SECONDS.toMillis(5));
+        }
+    }
+    
+    // Publish once the current transaction commits, or right away outside a transaction
+    public void publish(DomainEvent event) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            publishNow(event);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                publishNow(event);
+            }
+        });
+    }
+    
+    private void publishNow(DomainEvent event) {
+        publishLock.lock();
+        try {
+            long next = cursor.get() + 1;
+            awaitCapacity(next);
+            ring.set((int) next & mask, event);
+            cursor.set(next);
+        } finally {
+            publishLock.unlock();
+        }
+        published.increment();
+        for (Consumer consumer : consumers) {
+            LockSupport.unpark(consumer.thread);
+        }
+    }
+    
+    // Writing sequence next reuses the slot of next - capacity, which every listener must have read
+    private void awaitCapacity(long next) {
+        long wrapPoint = next - ring.length();
+        if (minSequence() > wrapPoint) {
+            return;
+        }
+        long start = System.nanoTime();
+        long deadline = start + TimeUnit.MILLISECONDS.toNanos(publishTimeoutMillis);
+        while (minSequence() <= wrapPoint && System.nanoTime() < deadline) {
+            LockSupport.parkNanos(FULL_PARK_NANOS);
+        }
+        publishWait.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        if (minSequence() > wrapPoint) {
+            return;
+        }
+        // Skip the listeners still holding the slot ahead by half the ring, so the next
+        // publishes do not wait again; listeners that caught up keep their position
+        for (Consumer consumer : consumers) {
+            consumer.overrunTo(wrapPoint, next - ring.length() / 2);
+        }
+    }
+    
+    private long minSequence() {
+        long min = Long.MAX_VALUE;
+        for (Consumer consumer : consumers) {
+            min = Math.min(min, consumer.sequence.get());
+        }
+        return min;
+    }
+    
+    private final class Consumer implements Runnable {
+        final DomainEventListener listener;
+        final Thread thread;
+        // Next sequence to read
+        final AtomicLong sequence = new AtomicLong();
+        final Counter overruns;
+        final Counter errors;
+        final Timer batchTimer;
+        final DistributionSummary batchSize;
+        
+        Consumer(DomainEventListener listener, long firstSequence) {
+            this.listener = listener;
+            this.sequence.set(firstSequence);
+            this.thread = new Thread(this, "events-" + listener.getName());
+            this.thread.setDaemon(true);
+            this.overruns = Counter.builder("spa.events.overruns").tag("listener", listener.getName()).register(registry);
+            this.errors = Counter.builder("spa.events.errors").tag("listener", listener.getName()).register(registry);
+            this.batchTimer = Timer.builder("spa.events.batch").tag("listener", listener.getName()).register(registry);
+            this.batchSize = DistributionSummary.builder("spa.events.batch.size")
+                    .tag("listener", listener.getName())
+                    .register(registry);
+            Gauge.builder("spa.events.lag", this, c -> cursor.get() + 1 - c.sequence.get())
+                    .tag("listener", listener.getName())
+                    .register(registry);
+        }
+        
+        // Called by the publisher when a listener blocks the slot it needs; moves this
+        // listener to minimum only if it is itself still at or before that slot
+        void overrunTo(long wrapPoint, long minimum) {
+            long current;
+            while ((current = sequence.get()) <= wrapPoint) {
+                if (sequence.compareAndSet(current, minimum)) {
+                    overruns.increment(minimum - current);
+                    return;
+                }
+            }
+        }
+        
+        @Override
+        public void run() {
+            DomainEvent[] buffer = new DomainEvent[maxBatch];
+            long expected = sequence.get();
+            while (true) {
+                long start = sequence.get();
+                if (start != expected) {
+                    // Overrun while idle or handling the previous batch
+                    resync();
+                    expected = start;
+                }
+                long available = cursor.get();
+                if (available < start) {
+                    if (!running) {
+                        return;
+                    }
+                    LockSupport.parkNanos(IDLE_PARK_NANOS);
+                    continue;
+                }
+                
+                int count = (int) Math.min(available - start + 1, maxBatch);
+                for (int i = 0; i < count; i++) {
+                    buffer[i] = ring.get((int) (start + i) & mask);
+                }
+                // A failed CAS means the publisher overran us while we copied: the copy may
+                // hold overwritten slots, so drop it (the resync happens at the top of the loop)
+                if (!sequence.compareAndSet(start, start + count)) {
+                    continue;
+                }
+                expected = start + count;
+                
+                long batchStart = System.nanoTime();
+                try {
+                    listener.onEvents(Arrays.asList(Arrays.copyOf(buffer, count)));
+                } catch (RuntimeException e) {
+                    errors.increment();
+                    logger.error("Event listener {} failed on a batch of {} events", listener.getName(), count, e);
+                }
+                batchTimer.record(System.nanoTime() - batchStart, TimeUnit.NANOSECONDS);
+                batchSize.record(count);
+                Arrays.fill(buffer, 0, count, null);
+            }
+        }
+        
+        private void resync() {
+            logger.warn("Event listener {} fell behind by more than {} events, resyncing", listener.getName(), ring.length());
+            try {
+                listener.onOverflow();
+            } catch (RuntimeException e) {
+                errors.increment();
+                logger.error("Event listener {} failed to resync", listener.getName(), e);
+            }
+        }
+    }
+}
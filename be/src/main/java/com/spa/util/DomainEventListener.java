@@ -0,0 +1,21 @@
+package com.spa.util;
+
+import java.util.List;
+
+/**
+ * Consumer of committed domain events. Every bean implementing this interface gets its own
+ * thread on the DomainEventBus and receives events in publication order, in batches.
+ */
+public interface DomainEventListener {
+
+    // Name used in thread names and metric tags
+    String getName();
+    
+    // Handle a batch of events; exceptions are logged and the batch is skipped
+    void onEvents(List<DomainEvent> events);
+    
+    // Called when the listener fell so far behind that events were dropped for it;
+    // derived state should be rebuilt from the database
+    default void onOverflow() {
+    }
+}
@@ -0,0 +1,75 @@
+package com.spa.util;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.HandlerInterceptor;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.lang.reflect.Method;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Per-endpoint latency timers (spa.http.latency) tagged by controller method, URI pattern and
+ * status class. Timers are cached per handler method and the start time is kept in a per-thread
+ * slot rather than a request attribute, so recording a request does not allocate.
+ */
+@Component
+public class EndpointTimingInterceptor implements HandlerInterceptor {
+
+    public static final String METRIC_NAME = "spa.http.latency";
+    
+    private static final String[] OUTCOMES = {"UNKNOWN", "INFORMATIONAL", "SUCCESS", "REDIRECTION", "CLIENT_ERROR", "SERVER_ERROR"};
+    
+    private static final ThreadLocal<long[]> START = ThreadLocal.withInitial(() -> new long[1]);
+    
+    @Autowired
+    private MeterRegistry registry;
+    
+    // One timer per status class, indexed by status / 100
+    private final ConcurrentHashMap<Method, Timer[]> timers = new ConcurrentHashMap<>();
+    
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        if (handler instanceof HandlerMethod) {
+            START.get()[0] = System.nanoTime();
+        }
+        return true;
+    }
+    
+    @Override
+    public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler, Exception ex) {
+        if (!(handler instanceof HandlerMethod handlerMethod)) {
+            return;
+        }
+        long elapsed = System.nanoTime() - START.get()[0];
+        int status = ex != null && response.getStatus() < 400 ? 500 : response.getStatus();
+        int outcome = status >= 100 && status < 600 ? status / 100 : 0;
+        
+        Timer[] byOutcome = timers.get(handlerMethod.getMethod());
+        if (byOutcome == null) {
+            byOutcome = timers.computeIfAbsent(handlerMethod.getMethod(), m -> new Timer[OUTCOMES.length]);
+        }
+        Timer timer = byOutcome[outcome];
+        if (timer == null) {
+            timer = createTimer(request, handlerMethod, outcome);
+            byOutcome[outcome] = timer;
+        }
+        timer.record(elapsed, TimeUnit.NANOSECONDS);
+    }
+    
+    // Registering twice is harmless: the registry returns the existing meter
+    private Timer createTimer(HttpServletRequest request, HandlerMethod handlerMethod, int outcome) {
+        Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        return MethodTimingInterceptor.latencyTimer(registry, METRIC_NAME,
+                "endpoint", handlerMethod.getBeanType().getSimpleName() + "." + handlerMethod.getMethod().getName(),
+                "method", request.getMethod(),
+                "uri", pattern != null ? pattern.toString() : "UNKNOWN",
+                "outcome", OUTCOMES[outcome]);
+    }
+}
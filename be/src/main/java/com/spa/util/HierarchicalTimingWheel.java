@@ -0,0 +1,143 @@
+package com.spa.util;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * Hierarchical timing wheel: LEVELS wheels of SLOTS slots, where a slot of level n spans
+ * SLOTS^n ticks. Adding and cancelling are O(1); an entry is moved down one level at a
+ * time as its deadline approaches, so each entry is touched at most LEVELS times however
+ * far ahead it is. Deadlines beyond the top wheel wait in an overflow list.
+ *
+ * Not thread-safe; the owner serializes access.
+ *
+ * @param <T> payload of an entry
+ */
+public class HierarchicalTimingWheel<T> {
+
+    private static final int SLOT_BITS = 6;
+    private static final int SLOTS = 1 << SLOT_BITS;
+    private static final int SLOT_MASK = SLOTS - 1;
+    private static final int LEVELS = 5;
+    
+    private final long tickMillis;
+    private final long originMillis;
+    private final List<List<ArrayDeque<Entry<T>>>> wheels = new ArrayList<>(LEVELS);
+    private final ArrayDeque<Entry<T>> overflow = new ArrayDeque<>();
+    private long currentTick;
+    private int size;
+    
+    public HierarchicalTimingWheel(long tickMillis, long startMillis) {
+        this.tickMillis = tickMillis;
+        this.originMillis = startMillis;
+        for (int level = 0; level < LEVELS; level++) {
+            List<ArrayDeque<Entry<T>>> slots = new ArrayList<>(SLOTS);
+            for (int slot = 0; slot < SLOTS; slot++) {
+                slots.add(new ArrayDeque<>());
+            }
+            wheels.add(slots);
+        }
+    }
+    
+    // Schedule payload at the given time; returns null when it is already due
+    public Entry<T> add(long deadlineMillis, T payload) {
+        // Round up, so an entry never fires before its deadline
+        long tick = Math.max(0, -Math.floorDiv(originMillis - deadlineMillis, tickMillis));
+        if (tick <= currentTick) {
+            return null;
+        }
+        Entry<T> entry = new Entry<>(tick, deadlineMillis, payload);
+        place(entry);
+        size++;
+        return entry;
+    }
+    
+    // Advance to the given time, handing every entry due by then to the consumer
+    public void advanceTo(long nowMillis, Consumer<Entry<T>> expired) {
+        long target = Math.floorDiv(nowMillis - originMillis, tickMillis);
+        while (currentTick < target) {
+            currentTick++;
+            // Cascade from the top so entries can land in lower slots cascaded in the same tick
+            for (int level = LEVELS - 1; level >= 1; level--) {
+                if ((currentTick & ((1L << (SLOT_BITS * level)) - 1)) == 0) {
+                    cascade(wheels.get(level).get((int) (currentTick >>> (SLOT_BITS * level)) & SLOT_MASK));
+                }
+            }
+            if ((currentTick & ((1L << (SLOT_BITS * LEVELS)) - 1)) == 0) {
+                cascade(overflow);
+            }
+            ArrayDeque<Entry<T>> due = wheels.get(0).get((int) currentTick & SLOT_MASK);
+            Entry<T> entry;
+            while ((entry = due.poll()) != null) {
+                if (!entry.cancelled) {
+                    entry.expired = true;
+                    size--;
+                    expired.accept(entry);
+                }
+            }
+        }
+    }
+    
+    // Time up to which every due entry has been handed out
+    public long getCurrentTimeMillis() {
+        return originMillis + currentTick * tickMillis;
+    }
+    
+    // Number of scheduled, not cancelled entries
+    public int size() {
+        return size;
+    }
+    
+    // Cancel a scheduled entry; entries that already expired or were cancelled are left alone
+    public void cancel(Entry<T> entry) {
+        if (entry != null && !entry.cancelled && !entry.expired) {
+            entry.cancelled = true;
+            size--;
+        }
+    }
+    
+    private void place(Entry<T> entry) {
+        long delta = entry.tick - currentTick;
+        for (int level = 0; level < LEVELS; level++) {
+            if (delta < 1L << (SLOT_BITS * (level + 1))) {
+                wheels.get(level).get((int) (entry.tick >>> (SLOT_BITS * level)) & SLOT_MASK).add(entry);
+                return;
+            }
+        }
+        overflow.add(entry);
+    }
+    
+    private void cascade(ArrayDeque<Entry<T>> slot) {
+        int count = slot.size();
+        for (int i = 0; i < count; i++) {
+            Entry<T> entry = slot.poll();
+            if (!entry.cancelled) {
+                place(entry);
+            }
+        }
+    }
+    
+    public static final class Entry<T> {
+        private final long tick;
+        private final long deadlineMillis;
+        private final T payload;
+        private boolean cancelled;
+        private boolean expired;
+        
+        Entry(long tick, long deadlineMillis, T payload) {
+            this.tick = tick;
+            this.deadlineMillis = deadlineMillis;
+            this.payload = payload;
+        }
+        
+        public long getDeadlineMillis() {
+            return deadlineMillis;
+        }
+        
+        public T getPayload() {
+            return payload;
+        }
+    }
+}
@@ -0,0 +1,269 @@
+package com.spa.util;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.spa.exception.ErrorResponse;
+import com.spa.model.IdempotencyRecord;
+import com.spa.service.IdempotencyStore;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ReadListener;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.ServletInputStream;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletRequestWrapper;
+import jakarta.servlet.http.HttpServletResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.util.ContentCachingResponseWrapper;
+import org.springframework.web.util.UrlPathHelper;
+
+import java.io.BufferedReader;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.LocalDateTime;
+import java.util.HexFormat;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Idempotency-Key support for POSTs that create records. The first request with a key
+ * executes and its 2xx response is stored; a retry with the same key (from the same caller,
+ * to the same path) gets the stored response back, marked with Idempotent-Replayed, instead
+ * of creating a duplicate. A retry that arrives while the first request is still executing
+ * waits for its result. Reusing a key with a different body is rejected with 422. Error
+ * responses are not stored, so a request that failed can be retried with the same key.
+ * Keyed requests pass ConnectionGateFilter without a permit; the request that executes takes
+ * the write permit here, so retries never queue behind the request they are waiting for.
+ */
+public class IdempotencyFilter extends OncePerRequestFilter {
+
+    private static final Logger logger = LoggerFactory.getLogger(IdempotencyFilter.class);
+    
+    public static final String HEADER = "Idempotency-Key";
+    public static final String REPLAYED_HEADER = "Idempotent-Replayed";
+    
+    private static final int MAX_KEY_LENGTH = 255;
+    
+    private static final UrlPathHelper PATH_HELPER = new UrlPathHelper();
+    
+    private final IdempotencyStore store;
+    private final Set<String> paths;
+    private final long waitTimeoutMillis;
+    private final ObjectMapper objectMapper;
+    private final MeterRegistry registry;
+    
+    public IdempotencyFilter(IdempotencyStore store, Set<String> paths, long waitTimeoutMillis,
+                             ObjectMapper objectMapper, MeterRegistry registry) {
+        this.store = store;
+        this.paths = paths;
+        this.waitTimeoutMillis = waitTimeoutMillis;
+        this.objectMapper = objectMapper;
+        this.registry = registry;
+    }
+    
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        String key = request.getHeader(HEADER);
+        if (key == null) {
+            filterChain.doFilter(request, response);
+            return;
+        }
+        if (key.isBlank() || key.length() > MAX_KEY_LENGTH) {
+            reject(request, response, HttpStatus.BAD_REQUEST, HEADER + " must be 1 to " + MAX_KEY_LENGTH + " characters");
+            return;
+        }
+        
+        CachedBodyRequest cachedRequest = new CachedBodyRequest(request);
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        String caller = authentication != null ? authentication.getName() : "";
+        String keyHash = sha256((caller + '\n' + request.getMethod() + '\n' + path(request) + '\n' + key)
+                .getBytes(StandardCharsets.UTF_8));
+        String requestHash = sha256(cachedRequest.body);
+        
+        IdempotencyRecord record = store.find(keyHash);
+        if (record != null) {
+            replay(request, response, record, requestHash, "replayed");
+            return;
+        }
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(waitTimeoutMillis);
+        while (true) {
+            CompletableFuture<IdempotencyRecord> owner = store.claim(keyHash);
+            if (owner == null) {
+                execute(cachedRequest, response, filterChain, keyHash, requestHash);
+                return;
+            }
+            try {
+                record = owner.get(Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS);
+            } catch (TimeoutException e) {
+                count("in_progress");
+                response.setHeader("Retry-After", "1");
+                reject(request, response, HttpStatus.CONFLICT, "A request with this " + HEADER + " is still being processed");
+                return;
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new ServletException(e);
+            } catch (ExecutionException e) {
+                throw new ServletException(e.getCause());
+            }
+            if (record != null) {
+                replay(request, response, record, requestHash, "coalesced");
+                return;
+            }
+            // The first request failed; claim the key and execute this one
+        }
+    }
+    
+    // Whether the request's key is checked here, i.e. it is a keyed POST to one of the paths
+    public boolean handles(HttpServletRequest request) {
+        return request.getHeader(HEADER) != null && !shouldNotFilter(request);
+    }
+    
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !"POST".equals(request.getMethod()) || !paths.contains(path(request));
+    }
+    
+    // Request path without the context path, e.g. /api/bookings for POST /api/api/bookings
+    private static String path(HttpServletRequest request) {
+        return PATH_HELPER.getPathWithinApplication(request);
+    }
+    
+    private void execute(CachedBodyRequest request, HttpServletResponse response, FilterChain filterChain,
+                         String keyHash, String requestHash) throws ServletException, IOException {
+        ContentCachingResponseWrapper wrapper = new ContentCachingResponseWrapper(response);
+        boolean stored = false;
+        try {
+            ConnectionGateFilter.writeGated(request, filterChain).doFilter(request, wrapper);
+            int status = wrapper.getStatus();
+            if (status >= 200 && status < 300) {
+                store.complete(keyHash, requestHash, status, wrapper.getContentType(),
+                        new String(wrapper.getContentAsByteArray(), StandardCharsets.UTF_8));
+                stored = true;
+            }
+            count(stored ? "executed" : "failed");
+        } finally {
+            if (!stored) {
+                store.release(keyHash);
+            }
+            wrapper.copyBodyToResponse();
+        }
+    }
+    
+    private void replay(HttpServletRequest request, HttpServletResponse response, IdempotencyRecord record,
+                        String requestHash, String outcome) throws IOException {
+        if (!record.getRequestHash().equals(requestHash)) {
+            count("mismatch");
+            reject(request, response, HttpStatus.UNPROCESSABLE_ENTITY, HEADER + " was already used with a different request");
+            return;
+        }
+        count(outcome);
+        logger.debug("Replaying stored response for {} {}", request.getMethod(), request.getRequestURI());
+        response.setStatus(record.getStatusCode());
+        response.setHeader(REPLAYED_HEADER, "true");
+        if (record.getContentType() != null) {
+            response.setContentType(record.getContentType());
+        }
+        if (record.getResponseBody() != null) {
+            byte[] body = record.getResponseBody().getBytes(StandardCharsets.UTF_8);
+            response.setContentLength(body.length);
+            response.getOutputStream().write(body);
+        }
+    }
+    
+    private void reject(HttpServletRequest request, HttpServletResponse response, HttpStatus status, String message)
+            throws IOException {
+        ErrorResponse error = ErrorResponse.builder()
+                .status(status.value())
+                .timestamp(LocalDateTime.now())
+                .message(message)
+                .path("uri=" + request.getRequestURI())
+                .build();
+        response.setStatus(status.value());
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        objectMapper.writeValue(response.getOutputStream(), error);
+    }
+    
+    private void count(String outcome) {
+        registry.counter("spa.idempotency.requests", "outcome", outcome).increment();
+    }
+    
+    private static String sha256(byte[] data) {
+        try {
+            return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(data));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+    
+    // Reads the body up front so it can be hashed and still be read by the controller
+    private static final class CachedBodyRequest extends HttpServletRequestWrapper {
+        final byte[] body;
+        
+        CachedBodyRequest(HttpServletRequest request) throws IOException {
+            super(request);
+            this.body = request.getInputStream().readAllBytes();
+        }
+        
+        @Override
+        public ServletInputStream getInputStream() {
+            ByteArrayInputStream input = new ByteArrayInputStream(body);
+            return new ServletInputStream() {
+                @Override
+                public boolean isFinished() {
+                    return input.available() == 0;
+                }
+                
+                @Override
+                public boolean isReady() {
+                    return true;
+                }
+                
+                @Override
+                public void setReadListener(ReadListener listener) {
+                    throw new UnsupportedOperationException();
+                }
+                
+                @Override
+                public int read() {
+                    return input.read();
+                }
+                
+                @Override
+                public int read(byte[] b, int off, int len) {
+                    return input.read(b, off, len);
+                }
+            };
+        }
+        
+        @Override
+        public BufferedReader getReader() {
+            String encoding = getCharacterEncoding();
+            return new BufferedReader(new InputStreamReader(getInputStream(),
+                    encoding != null ? Charset.forName(encoding) : StandardCharsets.UTF_8));
+        }
+        
+        @Override
+        public int getContentLength() {
+            return body.length;
+        }
+        
+        @Override
+        public long getContentLengthLong() {
+            return body.length;
+        }
+    }
+}
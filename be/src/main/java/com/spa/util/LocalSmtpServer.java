@@ -0,0 +1,179 @@
+package com.spa.util;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Component;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.net.SocketException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Minimal in-process SMTP server for development and load tests (profile "local-mail").
+ * It accepts every message on spring.mail.port, logs the recipients and subject, and keeps
+ * the most recent messages in memory, so the outbox can be exercised end to end without
+ * a real mail server. Recipients in the .invalid domain are rejected with 550, so that
+ * per-message failures can be exercised too. Not an SMTP implementation beyond what
+ * JavaMail needs.
+ */
+@Component
+@Profile("local-mail")
+public class LocalSmtpServer {
+
+    private static final Logger logger = LoggerFactory.getLogger(LocalSmtpServer.class);
+    
+    private static final int MAX_KEPT_MESSAGES = 1000;
+    // Reserved top-level domain (RFC 2606); recipients there are refused like unknown mailboxes
+    private static final String REJECTED_DOMAIN = ".invalid";
+    
+    @Value("${spring.mail.port:2525}")
+    private int port;
+    
+    private final ConcurrentLinkedDeque<ReceivedMessage> received = new ConcurrentLinkedDeque<>();
+    private final ExecutorService sessions = Executors.newCachedThreadPool(runnable -> {
+        Thread thread = new Thread(runnable, "local-smtp");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private ServerSocket serverSocket;
+    
+    @PostConstruct
+    public void start() throws IOException {
+        serverSocket = new ServerSocket(port, 50, InetAddress.getLoopbackAddress());
+        sessions.execute(this::acceptLoop);
+        logger.info("Local SMTP server listening on port {}", port);
+    }
+    
+    @PreDestroy
+    public void stop() throws IOException {
+        serverSocket.close();
+        sessions.shutdownNow();
+    }
+    
+    // Most recent messages, oldest first
+    public List<ReceivedMessage> getReceived() {
+        return new ArrayList<>(received);
+    }
+    
+    private void acceptLoop() {
+        while (!serverSocket.isClosed()) {
+            try {
+                Socket socket = serverSocket.accept();
+                sessions.execute(() -> handle(socket));
+            } catch (SocketException e) {
+                return;
+            } catch (IOException e) {
+                logger.warn("Local SMTP accept failed: {}", e.getMessage());
+            }
+        }
+    }
+    
+    private void handle(Socket socket) {
+        try (socket;
+             BufferedReader in = new BufferedReader(new InputStreamReader(socket.getInputStream(), StandardCharsets.UTF_8));
+             OutputStream out = socket.getOutputStream()) {
+            reply(out, "220 localhost ESMTP local");
+            String from = null;
+            List<String> recipients = new ArrayList<>();
+            String line;
+            while ((line = in.readLine()) != null) {
+                String command = line.length() >= 4 ? line.substring(0, 4).toUpperCase() : line.toUpperCase();
+                switch (command) {
+                    case "EHLO", "HELO" -> reply(out, "250 localhost");
+                    case "MAIL" -> {
+                        from = address(line);
+                        recipients.clear();
+                        reply(out, "250 OK");
+                    }
+                    case "RCPT" -> {
+                        String recipient = address(line);
+                        if (recipient.endsWith(REJECTED_DOMAIN)) {
+                            reply(out, "550 No such user: " + recipient);
+                        } else {
+                            recipients.add(recipient);
+                            reply(out, "250 OK");
+                        }
+                    }
+                    case "DATA" -> {
+                        reply(out, "354 End data with <CR><LF>.<CR><LF>");
+                        String data = readData(in);
+                        store(new ReceivedMessage(from, List.copyOf(recipients), subject(data), data));
+                        reply(out, "250 OK queued");
+                    }
+                    case "RSET" -> {
+                        from = null;
+                        recipients.clear();
+                        reply(out, "250 OK");
+                    }
+                    case "NOOP" -> reply(out, "250 OK");
+                    case "QUIT" -> {
+                        reply(out, "221 Bye");
+                        return;
+                    }
+                    default -> reply(out, "502 Command not implemented");
+                }
+            }
+        } catch (IOException e) {
+            logger.debug("Local SMTP session ended: {}", e.getMessage());
+        }
+    }
+    
+    private void store(ReceivedMessage message) {
+        received.addLast(message);
+        while (received.size() > MAX_KEPT_MESSAGES) {
+            received.pollFirst();
+        }
+        logger.info("Local SMTP received mail to {}: {}", message.recipients(), message.subject());
+    }
+    
+    // Message lines up to the lone "."; leading dots are unstuffed
+    private static String readData(BufferedReader in) throws IOException {
+        StringBuilder data = new StringBuilder();
+        String line;
+        while ((line = in.readLine()) != null && !line.equals(".")) {
+            data.append(line.startsWith("..") ? line.substring(1) : line).append("\r\n");
+        }
+        return data.toString();
+    }
+    
+    private static String address(String line) {
+        int start = line.indexOf('<');
+        int end = line.indexOf('>', start + 1);
+        return start >= 0 && end > start ? line.substring(start + 1, end) : line.substring(line.indexOf(':') + 1).trim();
+    }
+    
+    private static String subject(String data) {
+        for (String header : data.split("\r\n")) {
+            if (header.isEmpty()) {
+                break;
+            }
+            if (header.regionMatches(true, 0, "Subject:", 0, 8)) {
+                return header.substring(8).trim();
+            }
+        }
+        return "";
+    }
+    
+    private static void reply(OutputStream out, String line) throws IOException {
+        out.write((line + "\r\n").getBytes(StandardCharsets.UTF_8));
+        out.flush();
+    }
+    
+    public record ReceivedMessage(String from, List<String> recipients, String subject, String data) {
+    }
+}
@@ -0,0 +1,59 @@
+package com.spa.util;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.aopalliance.intercept.MethodInterceptor;
+import org.aopalliance.intercept.MethodInvocation;
+import org.springframework.beans.factory.ObjectProvider;
+
+import java.lang.reflect.Method;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Records one latency timer per invoked method. Timers are created on first use and cached
+ * by Method, so steady-state recording is a map lookup and a nanoTime delta with no allocation.
+ */
+public class MethodTimingInterceptor implements MethodInterceptor {
+
+    private final ObjectProvider<MeterRegistry> registry;
+    private final String metricName;
+    private final String typeName;
+    private final ConcurrentHashMap<Method, Timer> timers = new ConcurrentHashMap<>();
+    
+    // typeName is the tag for the owning type; null uses the method's declaring class
+    public MethodTimingInterceptor(ObjectProvider<MeterRegistry> registry, String metricName, String typeName) {
+        this.registry = registry;
+        this.metricName = metricName;
+        this.typeName = typeName;
+    }
+    
+    @Override
+    public Object invoke(MethodInvocation invocation) throws Throwable {
+        long start = System.nanoTime();
+        try {
+            return invocation.proceed();
+        } finally {
+            getTimer(invocation.getMethod()).record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+    }
+    
+    private Timer getTimer(Method method) {
+        Timer timer = timers.get(method);
+        if (timer == null) {
+            timer = timers.computeIfAbsent(method, m -> latencyTimer(registry.getObject(), metricName,
+                    "class", typeName != null ? typeName : m.getDeclaringClass().getSimpleName(),
+                    "method", m.getName()));
+        }
+        return timer;
+    }
+    
+    // Timer publishing p50/p95/p99 plus Prometheus histogram buckets
+    public static Timer latencyTimer(MeterRegistry registry, String name, String... tags) {
+        return Timer.builder(name)
+                .tags(tags)
+                .publishPercentiles(0.5, 0.95, 0.99)
+                .publishPercentileHistogram()
+                .register(registry);
+    }
+}
@@ -0,0 +1,185 @@
+package com.spa.util;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.CallableStatement;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * DataSource wrapper that times every JDBC statement execution. Statements slower than the
+ * threshold are logged with their bound parameters and the originating controller method;
+ * every execution is counted against the current request's SQL budget (see SqlRequestContext).
+ * Fast statements cost two nanoTime calls and a counter increment.
+ */
+public class ProfilingDataSource extends DelegatingDataSource {
+
+    private static final Logger logger = LoggerFactory.getLogger(ProfilingDataSource.class);
+    
+    private static final int MAX_PARAMETER_LENGTH = 100;
+    
+    private final long slowThresholdNanos;
+    private final ObjectProvider<MeterRegistry> registry;
+    private volatile Counter slowCounter;
+    
+    public ProfilingDataSource(DataSource target, long slowThresholdMillis, ObjectProvider<MeterRegistry> registry) {
+        super(target);
+        this.slowThresholdNanos = TimeUnit.MILLISECONDS.toNanos(slowThresholdMillis);
+        this.registry = registry;
+    }
+    
+    @Override
+    public Connection getConnection() throws SQLException {
+        return wrapConnection(super.getConnection());
+    }
+    
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        return wrapConnection(super.getConnection(username, password));
+    }
+    
+    private Connection wrapConnection(Connection connection) {
+        return (Connection) Proxy.newProxyInstance(Connection.class.getClassLoader(),
+                new Class<?>[] {Connection.class}, new ConnectionHandler(connection));
+    }
+    
+    private void afterExecute(String sql, Object[] parameters, int parameterCount, long elapsedNanos) {
+        SqlRequestContext.current().statementExecuted();
+        if (elapsedNanos < slowThresholdNanos) {
+            return;
+        }
+        getSlowCounter().increment();
+        logger.warn("Slow SQL ({} ms) from {}: {} params={}",
+                TimeUnit.NANOSECONDS.toMillis(elapsedNanos),
+                SqlRequestContext.current().describeOrigin(),
+                sql,
+                formatParameters(parameters, parameterCount));
+    }
+    
+    private Counter getSlowCounter() {
+        Counter counter = slowCounter;
+        if (counter == null) {
+            counter = Counter.builder("spa.sql.slow").register(registry.getObject());
+            slowCounter = counter;
+        }
+        return counter;
+    }
+    
+    private static String formatParameters(Object[] parameters, int parameterCount) {
+        if (parameters == null) {
+            return "[]";
+        }
+        StringBuilder result = new StringBuilder("[");
+        for (int i = 1; i <= parameterCount; i++) {
+            if (i > 1) {
+                result.append(", ");
+            }
+            Object value = parameters[i];
+            if (value instanceof byte[] bytes) {
+                result.append('<').append(bytes.length).append(" bytes>");
+            } else if (value instanceof CharSequence text) {
+                String string = text.toString();
+                result.append('\'')
+                        .append(string.length() > MAX_PARAMETER_LENGTH ? string.substring(0, MAX_PARAMETER_LENGTH) + "..." : string)
+                        .append('\'');
+            } else {
+                result.append(value);
+            }
+        }
+        return result.append(']').toString();
+    }
+    
+    private static Object invoke(Object target, Method method, Object[] args) throws Throwable {
+        try {
+            return method.invoke(target, args);
+        } catch (InvocationTargetException e) {
+            throw e.getCause();
+        }
+    }
+    
+    // Wraps the statements a connection creates; everything else is passed through
+    private class ConnectionHandler implements InvocationHandler {
+        
+        private final Connection target;
+        
+        ConnectionHandler(Connection target) {
+            this.target = target;
+        }
+        
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            Object result = ProfilingDataSource.invoke(target, method, args);
+            if (result instanceof Statement statement) {
+                String sql = args != null && args.length > 0 && args[0] instanceof String s ? s : null;
+                Class<?> type = result instanceof CallableStatement ? CallableStatement.class
+                        : result instanceof PreparedStatement ? PreparedStatement.class : Statement.class;
+                return Proxy.newProxyInstance(Statement.class.getClassLoader(),
+                        new Class<?>[] {type}, new StatementHandler(statement, sql));
+            }
+            return result;
+        }
+    }
+    
+    // Times execute* calls and keeps the bound parameters of prepared statements
+    private class StatementHandler implements InvocationHandler {
+        
+        private final Statement target;
+        private final String sql;
+        // 1-based like JDBC; index 0 is unused
+        private Object[] parameters;
+        private int parameterCount;
+        
+        StatementHandler(Statement target, String sql) {
+            this.target = target;
+            this.sql = sql;
+        }
+        
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            String name = method.getName();
+            if (name.startsWith("execute")) {
+                String statementSql = args != null && args.length > 0 && args[0] instanceof String s ? s : sql;
+                long start = System.nanoTime();
+                try {
+                    return ProfilingDataSource.invoke(target, method, args);
+                } finally {
+                    afterExecute(statementSql, parameters, parameterCount, System.nanoTime() - start);
+                }
+            }
+            if (name.startsWith("set") && args != null && args.length >= 2 && args[0] instanceof Integer index) {
+                setParameter(index, name.equals("setNull") ? null : args[1]);
+            } else if (name.equals("clearParameters")) {
+                parameters = null;
+                parameterCount = 0;
+            }
+            return ProfilingDataSource.invoke(target, method, args);
+        }
+        
+        private void setParameter(int index, Object value) {
+            if (index < 1) {
+                return;
+            }
+            if (parameters == null) {
+                parameters = new Object[Math.max(index + 1, 8)];
+            } else if (index >= parameters.length) {
+                parameters = Arrays.copyOf(parameters, Math.max(index + 1, parameters.length * 2));
+            }
+            parameters[index] = value;
+            parameterCount = Math.max(parameterCount, index);
+        }
+    }
+}
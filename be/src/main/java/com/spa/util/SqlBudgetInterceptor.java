@@ -0,0 +1,77 @@
+package com.spa.util;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.HandlerInterceptor;
+
+import java.lang.reflect.Method;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Counts the SQL statements each controller method executes per request and flags requests
+ * over the budget, which is usually an N+1 query pattern. Records spa.sql.statements per
+ * endpoint and counts budget violations in spa.sql.budget.exceeded.
+ */
+@Component
+public class SqlBudgetInterceptor implements HandlerInterceptor {
+
+    private static final Logger logger = LoggerFactory.getLogger(SqlBudgetInterceptor.class);
+    
+    @Autowired
+    private MeterRegistry registry;
+    
+    @Value("${sql.request-statement-budget:20}")
+    private int statementBudget;
+    
+    private final ConcurrentHashMap<Method, DistributionSummary> statementSummaries = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<Method, Counter> exceededCounters = new ConcurrentHashMap<>();
+    
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        if (handler instanceof HandlerMethod handlerMethod) {
+            SqlRequestContext.current().begin(handlerMethod);
+        }
+        return true;
+    }
+    
+    @Override
+    public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler, Exception ex) {
+        SqlRequestContext context = SqlRequestContext.current();
+        if (!context.isActive() || !(handler instanceof HandlerMethod handlerMethod)) {
+            return;
+        }
+        int statements = context.getStatements();
+        Method method = handlerMethod.getMethod();
+        
+        DistributionSummary summary = statementSummaries.get(method);
+        if (summary == null) {
+            summary = statementSummaries.computeIfAbsent(method, m -> DistributionSummary.builder("spa.sql.statements")
+                    .tag("endpoint", endpointName(handlerMethod))
+                    .publishPercentiles(0.5, 0.95, 0.99)
+                    .register(registry));
+        }
+        summary.record(statements);
+        
+        if (statements > statementBudget) {
+            exceededCounters.computeIfAbsent(method, m -> Counter.builder("spa.sql.budget.exceeded")
+                    .tag("endpoint", endpointName(handlerMethod))
+                    .register(registry)).increment();
+            logger.warn("SQL budget exceeded by {} {}: {} statements (budget {}), possible N+1 queries",
+                    endpointName(handlerMethod), request.getRequestURI(), statements, statementBudget);
+        }
+        context.end();
+    }
+    
+    private static String endpointName(HandlerMethod handlerMethod) {
+        return handlerMethod.getBeanType().getSimpleName() + "." + handlerMethod.getMethod().getName();
+    }
+}
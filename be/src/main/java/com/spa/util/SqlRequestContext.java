@@ -0,0 +1,61 @@
+package com.spa.util;
+
+import org.springframework.web.method.HandlerMethod;
+
+/**
+ * Per-thread SQL bookkeeping for the HTTP request being handled: the controller method
+ * that issued the statements and how many were executed. One mutable instance is reused
+ * per thread, so tracking a request does not allocate.
+ */
+public final class SqlRequestContext {
+
+    private static final ThreadLocal<SqlRequestContext> CURRENT = ThreadLocal.withInitial(SqlRequestContext::new);
+    
+    private HandlerMethod handler;
+    private int statements;
+    private boolean active;
+    
+    private SqlRequestContext() {
+    }
+    
+    public static SqlRequestContext current() {
+        return CURRENT.get();
+    }
+    
+    public void begin(HandlerMethod handler) {
+        this.handler = handler;
+        this.statements = 0;
+        this.active = true;
+    }
+    
+    public void end() {
+        this.handler = null;
+        this.active = false;
+    }
+    
+    public void statementExecuted() {
+        if (active) {
+            statements++;
+        }
+    }
+    
+    public boolean isActive() {
+        return active;
+    }
+    
+    public int getStatements() {
+        return statements;
+    }
+    
+    public HandlerMethod getHandler() {
+        return handler;
+    }
+    
+    // "Controller.method" of the current request, or "-" outside a request
+    public String describeOrigin() {
+        if (!active || handler == null) {
+            return "-";
+        }
+        return handler.getBeanType().getSimpleName() + "." + handler.getMethod().getName();
+    }
+}
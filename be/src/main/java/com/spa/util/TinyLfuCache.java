@@ -0,0 +1,206 @@
+
+package com.spa.util;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.BooleanSupplier;
+
+/**
+ * Size-bounded LRU cache guarded by a TinyLFU admission filter: when the cache is full a new
+ * entry only replaces the LRU victim if it has been requested more often recently, so a burst
+ * of one-off keys cannot flush out popular entries. Access frequencies are kept in a 4-bit
+ * count-min sketch that is halved periodically to age out old popularity.
+ */
+public class TinyLfuCache<K, V> {
+
+    private final int maximumSize;
+    private final LinkedHashMap<K, V> entries;
+    private final FrequencySketch sketch;
+    
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+    private final LongAdder rejections = new LongAdder();
+    
+    public TinyLfuCache(int maximumSize) {
+        if (maximumSize <= 0) {
+            throw new IllegalArgumentException("maximumSize must be positive");
+        }
+        this.maximumSize = maximumSize;
+        this.entries = new LinkedHashMap<>(16, 0.75f, true);
+        this.sketch = new FrequencySketch(maximumSize);
+    }
+    
+    public synchronized V get(K key) {
+        sketch.increment(key);
+        V value = entries.get(key);
+        if (value == null) {
+            misses.increment();
+        } else {
+            hits.increment();
+        }
+        return value;
+    }
+    
+    // Insert a value, subject to the admission filter when the cache is full
+    public synchronized void put(K key, V value) {
+        admit(key, value);
+    }
+    
+    // Insert a value only if the condition still holds. It is checked under the cache lock, so
+    // an invalidate() that follows whatever makes it false cannot run between check and insert.
+    public synchronized void putIf(K key, V value, BooleanSupplier condition) {
+        if (condition.getAsBoolean()) {
+            admit(key, value);
+        }
+    }
+    
+    private void admit(K key, V value) {
+        if (entries.containsKey(key) || entries.size() < maximumSize) {
+            entries.put(key, value);
+            return;
+        }
+        Iterator<Map.Entry<K, V>> lru = entries.entrySet().iterator();
+        K victim = lru.next().getKey();
+        if (sketch.frequency(key) > sketch.frequency(victim)) {
+            lru.remove();
+            evictions.increment();
+            entries.put(key, value);
+        } else {
+            rejections.increment();
+        }
+    }
+    
+    public synchronized void invalidate(K key) {
+        entries.remove(key);
+    }
+    
+    public synchronized void invalidateAll() {
+        entries.clear();
+    }
+    
+    public synchronized int size() {
+        return entries.size();
+    }
+    
+    public Map<String, Object> stats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("size", size());
+        stats.put("maximumSize", maximumSize);
+        stats.put("hits", hits.sum());
+        stats.put("misses", misses.sum());
+        stats.put("hitRatio", hitRatio());
+        stats.put("evictions", evictions.sum());
+        stats.put("admissionRejections", rejections.sum());
+        return stats;
+    }
+    
+    public double hitRatio() {
+        long hitCount = hits.sum();
+        long requests = hitCount + misses.sum();
+        return requests == 0 ? 0.0 : (double) hitCount / requests;
+    }
+    
+    // Export size, hit ratio and the request, eviction and rejection counts, tagged with the cache name
+    public void bindTo(MeterRegistry registry, String name) {
+        Gauge.builder("spa.cache.size", this, TinyLfuCache::size).tag("cache", name).register(registry);
+        Gauge.builder("spa.cache.hit.ratio", this, TinyLfuCache::hitRatio).tag("cache", name).register(registry);
+        FunctionCounter.builder("spa.cache.requests", hits, LongAdder::sum).tags("cache", name, "result", "hit")
+                .register(registry);
+        FunctionCounter.builder("spa.cache.requests", misses, LongAdder::sum).tags("cache", name, "result", "miss")
+                .register(registry);
+        FunctionCounter.builder("spa.cache.evictions", evictions, LongAdder::sum).tag("cache", name).register(registry);
+        FunctionCounter.builder("spa.cache.admission.rejections", rejections, LongAdder::sum).tag("cache", name)
+                .register(registry);
+    }
+    
+    // Count-min sketch with four 4-bit counters per key, packed sixteen to a long
+    private static final class FrequencySketch {
+        private static final long RESET_MASK = 0x7777777777777777L;
+        private static final long[] SEEDS = {
+                0xc3a5c85c97cb3127L, 0xb492b66fbe98f273L, 0x9ae16a3b2f90404fL, 0xcbf29ce484222325L};
+        
+        private final long[] table;
+        private final int tableMask;
+        private final int sampleSize;
+        private final int randomSeed = ThreadLocalRandom.current().nextInt() | 1;
+        private int additions;
+        
+        FrequencySketch(int maximumSize) {
+            int length = Integer.highestOneBit(Math.max(maximumSize, 16) - 1) << 1;
+            this.table = new long[length];
+            this.tableMask = length - 1;
+            this.sampleSize = 10 * Math.max(maximumSize, 16);
+        }
+        
+        int frequency(Object key) {
+            int hash = spread(key.hashCode());
+            int frequency = Integer.MAX_VALUE;
+            for (int i = 0; i < 4; i++) {
+                frequency = Math.min(frequency, counter(hash, i));
+            }
+            return frequency;
+        }
+        
+        void increment(Object key) {
+            int hash = spread(key.hashCode());
+            boolean added = false;
+            for (int i = 0; i < 4; i++) {
+                added |= incrementAt(hash, i);
+            }
+            if (added && ++additions >= sampleSize) {
+                reset();
+            }
+        }
+        
+        private int counter(int hash, int depth) {
+            int index = indexOf(hash, depth);
+            int offset = counterOffset(hash, depth);
+            return (int) ((table[index] >>> offset) & 0xfL);
+        }
+        
+        private boolean incrementAt(int hash, int depth) {
+            int index = indexOf(hash, depth);
+            int offset = counterOffset(hash, depth);
+            long mask = 0xfL << offset;
+            if ((table[index] & mask) != mask) {
+                table[index] += 1L << offset;
+                return true;
+            }
+            return false;
+        }
+        
+        // Halve every counter so that old popularity decays
+        private void reset() {
+            for (int i = 0; i < table.length; i++) {
+                table[i] = (table[i] >>> 1) & RESET_MASK;
+            }
+            additions /= 2;
+        }
+        
+        private int indexOf(int hash, int depth) {
+            long h = (hash + SEEDS[depth]) * SEEDS[depth];
+            h += h >>> 32;
+            return ((int) h) & tableMask;
+        }
+        
+        private int counterOffset(int hash, int depth) {
+            return (((hash >>> (depth << 3)) & 3) << 2) + (depth << 4);
+        }
+        
+        private int spread(int hash) {
+            int h = hash * randomSeed;
+            h ^= h >>> 17;
+            h *= 0xed5ad4bb;
+            h ^= h >>> 11;
+            return h;
+        }
+    }
+}
@@ -0,0 +1,5 @@
+-- Homepage featured-service weighting (Service.featuredWeight, Service.featuredPinned);
+-- NULL means the default weight and not pinned.
+
+ALTER TABLE services ADD COLUMN featured_weight float;
+ALTER TABLE services ADD COLUMN featured_pinned boolean;
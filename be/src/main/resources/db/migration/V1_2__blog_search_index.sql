@@ -0,0 +1,30 @@
+-- Full-text index over blog post title, excerpt and content (BlogSearchRepository): an FTS5
+-- external-content table keyed by the blog post id, kept in sync with blog_posts by
+-- triggers so the index changes in the same transaction as the post.
+
+CREATE VIRTUAL TABLE blog_posts_fts USING fts5(
+    title, excerpt, content,
+    content = 'blog_posts', content_rowid = 'id',
+    tokenize = 'unicode61 remove_diacritics 2'
+);
+
+CREATE TRIGGER blog_posts_fts_insert AFTER INSERT ON blog_posts BEGIN
+    INSERT INTO blog_posts_fts (rowid, title, excerpt, content)
+    VALUES (new.id, new.title, new.excerpt, new.content);
+END;
+
+-- External-content tables need the previously indexed values to remove a row
+CREATE TRIGGER blog_posts_fts_delete AFTER DELETE ON blog_posts BEGIN
+    INSERT INTO blog_posts_fts (blog_posts_fts, rowid, title, excerpt, content)
+    VALUES ('delete', old.id, old.title, old.excerpt, old.content);
+END;
+
+CREATE TRIGGER blog_posts_fts_update AFTER UPDATE OF title, excerpt, content ON blog_posts BEGIN
+    INSERT INTO blog_posts_fts (blog_posts_fts, rowid, title, excerpt, content)
+    VALUES ('delete', old.id, old.title, old.excerpt, old.content);
+    INSERT INTO blog_posts_fts (rowid, title, excerpt, content)
+    VALUES (new.id, new.title, new.excerpt, new.content);
+END;
+
+-- Index the posts that already exist
+INSERT INTO blog_posts_fts (blog_posts_fts) VALUES ('rebuild');
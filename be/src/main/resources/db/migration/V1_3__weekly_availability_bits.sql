@@ -0,0 +1,6 @@
+-- Quarter-hour bitsets replacing the string collection tables specialist_availability and
+-- schedule_time_slots. The rows are copied over by V1_4 (AvailabilityMigration), which keeps the
+-- rows it cannot parse in specialist_availability_legacy and schedule_time_slots_legacy.
+
+ALTER TABLE specialists ADD COLUMN availability_bits blob;
+ALTER TABLE schedules ADD COLUMN time_slot_bits blob;
@@ -0,0 +1,18 @@
+-- Content-addressed uploaded images and the columns referencing them by content hash
+
+CREATE TABLE image_assets (
+    id varchar(64) not null,
+    height integer,
+    width integer,
+    created_at timestamp,
+    size bigint not null,
+    content_type varchar(255) not null,
+    extension varchar(255) not null,
+    original_filename varchar(255),
+    variants varchar(255),
+    primary key (id)
+);
+
+ALTER TABLE services ADD COLUMN image_id varchar(64);
+ALTER TABLE service_categories ADD COLUMN image_id varchar(64);
+ALTER TABLE blog_posts ADD COLUMN featured_image_id varchar(64);
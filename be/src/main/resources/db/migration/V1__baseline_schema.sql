@@ -0,0 +1,116 @@
+-- Schema as previously created by Hibernate ddl-auto=update. Existing databases are
+-- baselined at this version (spring.flyway.baseline-on-migrate) and skip this script.
+
+CREATE TABLE blog_categories (
+    id integer,
+    is_active boolean not null,
+    description TEXT,
+    name varchar(255) not null unique,
+    slug varchar(255) not null unique,
+    primary key (id)
+);
+
+CREATE TABLE blog_posts (
+    id integer,
+    is_active boolean not null,
+    category_id bigint,
+    published_at timestamp,
+    author varchar(255) not null,
+    content TEXT,
+    excerpt varchar(255),
+    featured_image varchar(255),
+    slug varchar(255) not null unique,
+    title varchar(255) not null,
+    primary key (id)
+);
+
+CREATE TABLE bookings (
+    id integer,
+    booking_date date,
+    booking_time time(6),
+    created_at timestamp,
+    customer_id bigint not null,
+    service_id bigint not null,
+    specialist_id bigint not null,
+    updated_at timestamp,
+    note TEXT,
+    status varchar(255) check (status in ('PENDING','CONFIRMED','COMPLETED','CANCELLED')),
+    primary key (id)
+);
+
+CREATE TABLE schedule_time_slots (
+    schedule_id bigint not null,
+    time_slot varchar(255)
+);
+
+CREATE TABLE schedules (
+    id integer,
+    date date,
+    specialist_id bigint not null,
+    status varchar(255) check (status in ('AVAILABLE','BOOKED','OFF')),
+    primary key (id)
+);
+
+CREATE TABLE service_categories (
+    id integer,
+    description TEXT,
+    image varchar(255),
+    name varchar(255),
+    primary key (id)
+);
+
+CREATE TABLE services (
+    id integer,
+    active boolean not null,
+    duration integer,
+    price float not null,
+    category_id bigint,
+    description TEXT,
+    image varchar(255),
+    name varchar(255),
+    primary key (id)
+);
+
+CREATE TABLE specialist_availability (
+    specialist_id bigint not null,
+    availability varchar(255)
+);
+
+CREATE TABLE specialists (
+    id integer,
+    rating float,
+    user_id bigint not null unique,
+    bio TEXT,
+    experience varchar(255),
+    role varchar(255),
+    specialties varchar(255),
+    primary key (id)
+);
+
+CREATE TABLE transactions (
+    id integer,
+    amount float,
+    booking_id bigint unique,
+    transaction_date timestamp,
+    note TEXT,
+    payment_method varchar(255),
+    reference_number varchar(255),
+    status varchar(255) check (status in ('PENDING','COMPLETED','FAILED','REFUNDED')),
+    primary key (id)
+);
+
+CREATE TABLE users (
+    id integer,
+    active boolean not null,
+    created_at timestamp,
+    updated_at timestamp,
+    address varchar(255),
+    email varchar(255) unique,
+    full_name varchar(255),
+    password varchar(255),
+    phone varchar(255),
+    profile_image varchar(255),
+    role varchar(255) check (role in ('ROLE_ADMIN','ROLE_STAFF','ROLE_CUSTOMER')),
+    username varchar(255) unique,
+    primary key (id)
+);
@@ -0,0 +1,24 @@
+-- Indexes for the hot repository queries, which previously scanned whole tables.
+-- Their query plans are checked by QueryPlanTest.
+
+-- Date-range reports and calendars (findByBookingDateBetween), ordered by time within a day
+CREATE INDEX IF NOT EXISTS idx_bookings_booking_date ON bookings (booking_date, booking_time);
+
+-- A customer's bookings by date
+CREATE INDEX IF NOT EXISTS idx_bookings_customer_date ON bookings (customer_id, booking_date);
+
+-- Status filters and status-by-date sweeps (findByStatusAndBookingDateGreaterThanEqual)
+CREATE INDEX IF NOT EXISTS idx_bookings_status_date ON bookings (status, booking_date);
+
+-- Revenue reports by transaction date
+CREATE INDEX IF NOT EXISTS idx_transactions_date ON transactions (transaction_date);
+
+-- Blog listings (findByIsActiveOrderByPublishedAtDesc, findLatestPosts, summaries):
+-- the index order matches the ORDER BY, so pages are read without a sort
+CREATE INDEX IF NOT EXISTS idx_blog_posts_active_published ON blog_posts (is_active, published_at DESC);
+
+-- Category listings; also covers countByCategoryId
+CREATE INDEX IF NOT EXISTS idx_blog_posts_category_active_published ON blog_posts (category_id, is_active, published_at DESC);
+
+-- Services per category (findByCategoryId, countByCategoryId), covering for the count
+CREATE INDEX IF NOT EXISTS idx_services_category ON services (category_id);
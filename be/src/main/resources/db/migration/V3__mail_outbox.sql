@@ -0,0 +1,20 @@
+-- Transactional outbox for booking emails, drained by OutboxDispatcher
+
+CREATE TABLE mail_outbox (
+    id integer,
+    recipient varchar(255) not null,
+    subject varchar(255) not null,
+    body TEXT not null,
+    type varchar(255) not null,
+    booking_id bigint,
+    status varchar(255) not null check (status in ('PENDING','SENT','FAILED')),
+    attempts integer not null,
+    next_attempt_at timestamp not null,
+    last_error varchar(1000),
+    created_at timestamp,
+    sent_at timestamp,
+    primary key (id)
+);
+
+-- The dispatcher polls for due pending messages in id order
+CREATE INDEX idx_mail_outbox_status_due ON mail_outbox (status, next_attempt_at);
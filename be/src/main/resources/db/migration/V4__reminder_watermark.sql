@@ -0,0 +1,8 @@
+-- Time (epoch millis) up to which appointment reminders have been handed to the senders;
+-- a single row, advanced by ReminderScheduler in the same transaction as the sends
+
+CREATE TABLE reminder_watermark (
+    id integer,
+    sent_until bigint not null,
+    primary key (id)
+);
@@ -0,0 +1,24 @@
+-- Customers waiting for a slot with a specialist (or any specialist, specialist_id null)
+-- within a date window; WaitlistService offers them slots freed by cancellations
+
+CREATE TABLE waitlist_entries (
+    id integer,
+    customer_id bigint not null,
+    service_id bigint not null,
+    specialist_id bigint,
+    date_from date not null,
+    date_to date not null,
+    status varchar(255) not null check (status in ('WAITING','OFFERED','BOOKED','EXPIRED','CANCELLED')),
+    offer_specialist_id bigint,
+    offer_date date,
+    offer_time time(6),
+    offer_expires_at timestamp,
+    booking_id bigint,
+    created_at timestamp,
+    primary key (id)
+);
+
+-- Startup load of open entries, and the daily purge of past windows
+CREATE INDEX idx_waitlist_status_date_to ON waitlist_entries (status, date_to);
+-- A customer's own entries
+CREATE INDEX idx_waitlist_customer ON waitlist_entries (customer_id);
@@ -0,0 +1,29 @@
+-- Adds NO_SHOW to the booking statuses. SQLite cannot alter a CHECK constraint, so the
+-- table is rebuilt with the same columns and its indexes are recreated.
+
+CREATE TABLE bookings_new (
+    id integer,
+    booking_date date,
+    booking_time time(6),
+    created_at timestamp,
+    customer_id bigint not null,
+    service_id bigint not null,
+    specialist_id bigint not null,
+    updated_at timestamp,
+    note TEXT,
+    status varchar(255) check (status in ('PENDING','CONFIRMED','COMPLETED','CANCELLED','NO_SHOW')),
+    primary key (id)
+);
+
+INSERT INTO bookings_new (id, booking_date, booking_time, created_at, customer_id, service_id,
+                          specialist_id, updated_at, note, status)
+SELECT id, booking_date, booking_time, created_at, customer_id, service_id,
+       specialist_id, updated_at, note, status
+FROM bookings;
+
+DROP TABLE bookings;
+ALTER TABLE bookings_new RENAME TO bookings;
+
+CREATE INDEX idx_bookings_booking_date ON bookings (booking_date, booking_time);
+CREATE INDEX idx_bookings_customer_date ON bookings (customer_id, booking_date);
+CREATE INDEX idx_bookings_status_date ON bookings (status, booking_date);
@@ -0,0 +1,16 @@
+-- Responses of requests sent with an Idempotency-Key header, replayed to retries until
+-- expires_at; written and purged by IdempotencyStore
+
+CREATE TABLE idempotency_keys (
+    key_hash varchar(64) not null,
+    request_hash varchar(64) not null,
+    status_code integer not null,
+    content_type varchar(255),
+    response_body TEXT,
+    created_at timestamp not null,
+    expires_at timestamp not null,
+    primary key (key_hash)
+);
+
+-- The periodic purge of expired keys
+CREATE INDEX idx_idempotency_keys_expires ON idempotency_keys (expires_at);
@@ -0,0 +1,3 @@
+-- Uploaded profile images, referenced by content hash like the other image columns
+
+ALTER TABLE users ADD COLUMN profile_image_id varchar(64);
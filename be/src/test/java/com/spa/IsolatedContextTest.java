@@ -0,0 +1,25 @@
+package com.spa;
+
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import java.nio.file.Files;
+
+/**
+ * Base for tests that start a Spring context: each context gets a SQLite database and an
+ * upload directory of its own, and runs with the test profile, which turns the background
+ * jobs off. Test classes with the same configuration share one cached context, and so one
+ * database; subclasses add only the properties they change.
+ */
+@ActiveProfiles("test")
+public abstract class IsolatedContextTest {
+
+    @DynamicPropertySource
+    static void isolatedStorage(DynamicPropertyRegistry registry) throws Exception {
+        String url = "jdbc:sqlite:" + Files.createTempFile("spa-test", ".db");
+        registry.add("spring.datasource.url", () -> url);
+        String uploads = Files.createTempDirectory("uploads").toString();
+        registry.add("file.upload-dir", () -> uploads);
+    }
+}
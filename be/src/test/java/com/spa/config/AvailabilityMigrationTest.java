@@ -0,0 +1,108 @@
+package com.spa.config;
+
+import com.spa.model.DaySlots;
+import com.spa.model.WeeklyAvailability;
+import org.flywaydb.core.Flyway;
+import org.flywaydb.core.api.configuration.FluentConfiguration;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class AvailabilityMigrationTest {
+
+    @TempDir
+    Path tempDir;
+    
+    private String url;
+    
+    @BeforeEach
+    void createLegacyDatabase() throws SQLException {
+        url = "jdbc:sqlite:" + tempDir.resolve("legacy.db");
+        flyway().target("1.3").load().migrate();
+        execute("INSERT INTO specialists (id, user_id) VALUES (1, 1), (2, 2), (3, 3)");
+        execute("INSERT INTO specialist_availability VALUES "
+                + "(1, 'Monday: 9:00-17:00'), (1, 'Wednesday: 10:00-14:30'), "
+                + "(2, 'weekends by appointment'), (2, 'Friday: 9:00-12:00'), "
+                + "(3, 'ask at reception')");
+        execute("INSERT INTO schedules (id, specialist_id) VALUES (1, 1), (2, 1)");
+        execute("INSERT INTO schedule_time_slots VALUES (1, '9:00'), (1, '9:15'), (1, '10:30'), (2, 'morning')");
+    }
+    
+    @Test
+    void copiesParseableRowsAndKeepsTheRest() throws SQLException {
+        flyway().load().migrate();
+        
+        assertThat(availability(1).toStrings()).containsExactly("Monday: 9:00-17:00", "Wednesday: 10:00-14:30");
+        assertThat(availability(2).toStrings()).containsExactly("Friday: 9:00-12:00");
+        assertThat(availability(3)).isEqualTo(WeeklyAvailability.NONE);
+        assertThat(DaySlots.fromBytes(bytes("SELECT time_slot_bits FROM schedules WHERE id = 1")).toStrings())
+                .containsExactly("9:00-9:30", "10:30-10:45");
+        assertThat(bytes("SELECT time_slot_bits FROM schedules WHERE id = 2")).isNull();
+        assertThat(tableExists("specialist_availability")).isFalse();
+        assertThat(tableExists("schedule_time_slots")).isFalse();
+        
+        // Only the rows that did not parse are left, for re-entry
+        assertThat(rows("SELECT specialist_id || ': ' || availability FROM specialist_availability_legacy ORDER BY rowid"))
+                .containsExactly("2: weekends by appointment", "3: ask at reception");
+        assertThat(rows("SELECT schedule_id || ': ' || time_slot FROM schedule_time_slots_legacy"))
+                .containsExactly("2: morning");
+    }
+    
+    private FluentConfiguration flyway() {
+        return Flyway.configure().dataSource(url, null, null).javaMigrations(new AvailabilityMigration());
+    }
+    
+    private WeeklyAvailability availability(long specialistId) throws SQLException {
+        return WeeklyAvailability.fromBytes(bytes("SELECT availability_bits FROM specialists WHERE id = " + specialistId));
+    }
+    
+    private byte[] bytes(String sql) throws SQLException {
+        try (Connection connection = DriverManager.getConnection(url);
+             Statement statement = connection.createStatement();
+             ResultSet rs = statement.executeQuery(sql)) {
+            return rs.next() ? rs.getBytes(1) : null;
+        }
+    }
+    
+    private List<String> rows(String sql) throws SQLException {
+        List<String> rows = new ArrayList<>();
+        try (Connection connection = DriverManager.getConnection(url);
+             Statement statement = connection.createStatement();
+             ResultSet rs = statement.executeQuery(sql)) {
+            while (rs.next()) {
+                rows.add(rs.getString(1));
+            }
+        }
+        return rows;
+    }
+    
+    private boolean tableExists(String table) throws SQLException {
+        try (Connection connection = DriverManager.getConnection(url);
+             PreparedStatement statement = connection.prepareStatement(
+                     "SELECT COUNT(*) FROM sqlite_master WHERE type = 'table' AND name = ?")) {
+            statement.setString(1, table);
+            try (ResultSet rs = statement.executeQuery()) {
+                return rs.next() && rs.getInt(1) > 0;
+            }
+        }
+    }
+    
+    private void execute(String sql) throws SQLException {
+        try (Connection connection = DriverManager.getConnection(url);
+             Statement statement = connection.createStatement()) {
+            statement.execute(sql);
+        }
+    }
+}
@@ -0,0 +1,110 @@
+package com.spa.controller;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.spa.dto.BlogPostSummaryDTO;
+import com.spa.exception.BadRequestException;
+import com.spa.service.BlogService;
+import com.spa.util.ConditionalResponseCache;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Drives GET /blogs and /blogs/featured against the real ConditionalResponseCache: every page
+ * is served as requested but only the standard ones are cached, and a scan of one-off keys
+ * neither grows the cache past its bound nor evicts a popular body.
+ */
+class BlogControllerTest {
+
+    private static final int MAX_ENTRIES = 8;
+    
+    private final MeterRegistry registry = new SimpleMeterRegistry();
+    private final RecordingBlogService blogService = new RecordingBlogService();
+    private BlogController controller;
+    
+    @BeforeEach
+    void setUp() {
+        ConditionalResponseCache responseCache = new ConditionalResponseCache();
+        ReflectionTestUtils.setField(responseCache, "objectMapper", new ObjectMapper());
+        ReflectionTestUtils.setField(responseCache, "registry", registry);
+        ReflectionTestUtils.setField(responseCache, "maximumSize", MAX_ENTRIES);
+        responseCache.init();
+        controller = new BlogController();
+        ReflectionTestUtils.setField(controller, "blogService", blogService);
+        ReflectionTestUtils.setField(controller, "responseCache", responseCache);
+    }
+    
+    @Test
+    void requestedPageIsServedExactlyAndOnlyStandardPagesAreCached() {
+        for (int i = 0; i < 2; i++) {
+            controller.getAllBlogs(null, 0, 10, new MockHttpServletRequest());
+            controller.getAllBlogs(null, 0, 15, new MockHttpServletRequest());
+            controller.getAllBlogs(null, 0, 100_000, new MockHttpServletRequest());
+            controller.getAllBlogs(null, 501, 10, new MockHttpServletRequest());
+        }
+        
+        // Only page 0 with 10 posts is answered from the cache the second time
+        assertThat(blogService.calls).containsExactly("0x10", "0x15", "0x100000", "501x10", "0x15", "0x100000", "501x10");
+        assertThat(registry.get("spa.cache.size").tag("cache", "response-bodies").gauge().value()).isEqualTo(1);
+    }
+    
+    @Test
+    void invalidPageParametersAreRejected() {
+        assertThatThrownBy(() -> controller.getAllBlogs(null, -1, 10, new MockHttpServletRequest()))
+                .isInstanceOf(BadRequestException.class);
+        assertThatThrownBy(() -> controller.getAllBlogs(null, 0, 0, new MockHttpServletRequest()))
+                .isInstanceOf(BadRequestException.class);
+        assertThat(blogService.calls).isEmpty();
+    }
+    
+    @Test
+    void oneOffKeysDoNotGrowTheCacheOrEvictPopularBodies() {
+        // A new category listing per request, with the featured posts still requested regularly
+        for (long categoryId = 1; categoryId <= 1000; categoryId++) {
+            controller.getAllBlogs(categoryId, 0, 10, new MockHttpServletRequest());
+            if (categoryId % 10 == 0) {
+                controller.getFeaturedBlogs(new MockHttpServletRequest());
+            }
+            // By now the featured body has been requested often enough to be admitted
+            if (categoryId == 100) {
+                assertThat(blogService.calls).contains("featured");
+                blogService.calls.clear();
+            }
+        }
+        
+        assertThat(blogService.calls).doesNotContain("featured");
+        assertThat(registry.get("spa.cache.size").tag("cache", "response-bodies").gauge().value())
+                .isLessThanOrEqualTo(MAX_ENTRIES);
+    }
+    
+    // Records each query that reaches the service; the posts version never changes
+    private static final class RecordingBlogService extends BlogService {
+        final List<String> calls = new ArrayList<>();
+        
+        @Override
+        public long getPostsVersion() {
+            return 1;
+        }
+        
+        @Override
+        public List<BlogPostSummaryDTO> getAllBlogs(Long categoryId, int page, int size) {
+            calls.add(page + "x" + size);
+            return List.of();
+        }
+        
+        @Override
+        public List<BlogPostSummaryDTO> getFeaturedBlogs() {
+            calls.add("featured");
+            return List.of();
+        }
+    }
+}
@@ -0,0 +1,88 @@
+package com.spa.controller;
+
+import com.spa.IsolatedContextTest;
+import com.spa.repository.BookingRepository;
+import com.spa.repository.ServiceRepository;
+import com.spa.repository.SpecialistRepository;
+import com.spa.repository.UserRepository;
+import com.spa.util.IdempotencyFilter;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+
+import java.time.LocalDate;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Sends a booking POST twice with the same Idempotency-Key through the full filter chain to
+ * the real BookingController mapping (/api/bookings inside the /api context path).
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+class BookingIdempotencyTest extends IsolatedContextTest {
+
+    private static final String CONTEXT_PATH = "/api";
+    
+    @Autowired
+    private MockMvc mockMvc;
+    
+    @Autowired
+    private BookingRepository bookingRepository;
+    
+    @Autowired
+    private UserRepository userRepository;
+    
+    @Autowired
+    private ServiceRepository serviceRepository;
+    
+    @Autowired
+    private SpecialistRepository specialistRepository;
+    
+    @Test
+    @WithMockUser(username = "user@example.com", roles = "CUSTOMER")
+    void retryWithSameKeyReplaysTheFirstBooking() throws Exception {
+        String body = """
+                {"customerId": %d, "serviceId": %d, "specialistId": %d, "bookingDate": "%s", "bookingTime": "10:00"}
+                """.formatted(
+                userRepository.findByUsername("user@example.com").orElseThrow().getId(),
+                serviceRepository.findAll().get(0).getId(),
+                specialistRepository.findAll().get(0).getId(),
+                LocalDate.now().plusDays(30));
+        long before = bookingRepository.count();
+        
+        String first = mockMvc.perform(createBooking(body, "retry-1"))
+                .andExpect(status().isCreated())
+                .andExpect(header().doesNotExist(IdempotencyFilter.REPLAYED_HEADER))
+                .andReturn().getResponse().getContentAsString();
+        
+        mockMvc.perform(createBooking(body, "retry-1"))
+                .andExpect(status().isCreated())
+                .andExpect(header().string(IdempotencyFilter.REPLAYED_HEADER, "true"))
+                .andExpect(content().json(first, true));
+        
+        assertThat(bookingRepository.count()).isEqualTo(before + 1);
+        
+        // The same key with a different body is rejected rather than replayed
+        mockMvc.perform(createBooking(body.replace("10:00", "11:00"), "retry-1"))
+                .andExpect(status().isUnprocessableEntity());
+        assertThat(bookingRepository.count()).isEqualTo(before + 1);
+    }
+    
+    private static MockHttpServletRequestBuilder createBooking(String body, String key) {
+        return post(CONTEXT_PATH + "/api/bookings")
+                .contextPath(CONTEXT_PATH)
+                .contentType(MediaType.APPLICATION_JSON)
+                .header(IdempotencyFilter.HEADER, key)
+                .content(body);
+    }
+}
@@ -0,0 +1,142 @@
+package com.spa.controller;
+
+import com.spa.IsolatedContextTest;
+import com.spa.repository.BookingRepository;
+import com.spa.repository.ServiceRepository;
+import com.spa.repository.SpecialistRepository;
+import com.spa.repository.UserRepository;
+import com.spa.util.IdempotencyFilter;
+import jakarta.servlet.Filter;
+import jakarta.servlet.http.HttpServletRequest;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.security.SecurityProperties;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.http.MediaType;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.time.LocalDate;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.user;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+
+/**
+ * Two booking POSTs with the same Idempotency-Key under the default connection gate (one write
+ * permit): the retry arrives while the first request still holds the permit, and waits for
+ * its result past the gate's queue timeout instead of being rejected with 503.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+class IdempotencyGateTest extends IsolatedContextTest {
+
+    private static final String CONTEXT_PATH = "/api";
+    private static final String USERNAME = "user@example.com";
+    
+    @Autowired
+    private MockMvc mockMvc;
+    
+    @Autowired
+    private FirstBookingHold hold;
+    
+    @Autowired
+    private BookingRepository bookingRepository;
+    
+    @Autowired
+    private UserRepository userRepository;
+    
+    @Autowired
+    private ServiceRepository serviceRepository;
+    
+    @Autowired
+    private SpecialistRepository specialistRepository;
+    
+    @Value("${connection-gate.queue-timeout-ms}")
+    private long gateTimeoutMillis;
+    
+    @Test
+    void retryWaitsForTheRequestHoldingTheWritePermit() throws Exception {
+        String body = """
+                {"customerId": %d, "serviceId": %d, "specialistId": %d, "bookingDate": "%s", "bookingTime": "14:00"}
+                """.formatted(
+                userRepository.findByUsername(USERNAME).orElseThrow().getId(),
+                serviceRepository.findAll().get(0).getId(),
+                specialistRepository.findAll().get(0).getId(),
+                LocalDate.now().plusDays(31));
+        long before = bookingRepository.count();
+        
+        CompletableFuture<MockHttpServletResponse> first = CompletableFuture.supplyAsync(() -> createBooking(body));
+        assertThat(hold.entered.await(10, TimeUnit.SECONDS)).isTrue();
+        CompletableFuture<MockHttpServletResponse> retry = CompletableFuture.supplyAsync(() -> createBooking(body));
+        // Keep the first request inside the write lane for longer than the gate lets anyone queue
+        Thread.sleep(gateTimeoutMillis + 500);
+        assertThat(retry).isNotDone();
+        hold.release.countDown();
+        
+        MockHttpServletResponse firstResponse = first.get(20, TimeUnit.SECONDS);
+        MockHttpServletResponse retryResponse = retry.get(20, TimeUnit.SECONDS);
+        assertThat(firstResponse.getStatus()).isEqualTo(201);
+        assertThat(retryResponse.getStatus()).isEqualTo(201);
+        assertThat(retryResponse.getHeader(IdempotencyFilter.REPLAYED_HEADER)).isEqualTo("true");
+        assertThat(retryResponse.getContentAsString()).isEqualTo(firstResponse.getContentAsString());
+        assertThat(bookingRepository.count()).isEqualTo(before + 1);
+    }
+    
+    private MockHttpServletResponse createBooking(String body) {
+        try {
+            return mockMvc.perform(post(CONTEXT_PATH + "/api/bookings")
+                            .contextPath(CONTEXT_PATH)
+                            .with(user(USERNAME).roles("CUSTOMER"))
+                            .contentType(MediaType.APPLICATION_JSON)
+                            .header(IdempotencyFilter.HEADER, "gate-1")
+                            .content(body))
+                    .andReturn().getResponse();
+        } catch (Exception e) {
+            throw new IllegalStateException(e);
+        }
+    }
+    
+    // Holds the first booking POST just behind the idempotency filter, i.e. with the write permit taken
+    static class FirstBookingHold {
+        final CountDownLatch entered = new CountDownLatch(1);
+        final CountDownLatch release = new CountDownLatch(1);
+        final AtomicBoolean first = new AtomicBoolean(true);
+    }
+    
+    @TestConfiguration
+    static class HoldConfig {
+
+        @Bean
+        FirstBookingHold firstBookingHold() {
+            return new FirstBookingHold();
+        }
+        
+        @Bean
+        FilterRegistrationBean<Filter> firstBookingHoldFilter(FirstBookingHold hold) {
+            Filter filter = (request, response, chain) -> {
+                if ("POST".equals(((HttpServletRequest) request).getMethod()) && hold.first.getAndSet(false)) {
+                    hold.entered.countDown();
+                    try {
+                        hold.release.await(30, TimeUnit.SECONDS);
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                }
+                chain.doFilter(request, response);
+            };
+            FilterRegistrationBean<Filter> registration = new FilterRegistrationBean<>(filter);
+            registration.setOrder(SecurityProperties.DEFAULT_FILTER_ORDER + 2);
+            return registration;
+        }
+    }
+}
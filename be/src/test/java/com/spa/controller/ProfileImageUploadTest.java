@@ -0,0 +1,90 @@
+package com.spa.controller;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.spa.IsolatedContextTest;
+import com.spa.model.User;
+import com.spa.repository.UserRepository;
+import com.spa.service.ImageStorageService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.mock.web.MockMultipartFile;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.web.servlet.MockMvc;
+
+import javax.imageio.ImageIO;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayOutputStream;
+import java.nio.file.Files;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.multipart;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Uploads a profile image through the full filter chain and checks that it goes through the
+ * content-addressed store: the user references the image by its hash, and a second upload of
+ * the same bytes reuses the stored asset.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+class ProfileImageUploadTest extends IsolatedContextTest {
+
+    private static final String CONTEXT_PATH = "/api";
+    private static final String USERNAME = "user@example.com";
+    
+    @Autowired
+    private MockMvc mockMvc;
+    
+    @Autowired
+    private ObjectMapper objectMapper;
+    
+    @Autowired
+    private UserRepository userRepository;
+    
+    @Autowired
+    private ImageStorageService imageStorageService;
+    
+    @Test
+    @WithMockUser(username = USERNAME, roles = "CUSTOMER")
+    void profileImageIsStoredByContentHash() throws Exception {
+        byte[] png = png();
+        
+        JsonNode first = upload(png, "me.png");
+        String id = first.get("id").asText();
+        assertThat(ImageStorageService.isImageId(id)).isTrue();
+        assertThat(Files.exists(imageStorageService.getPath(id, "png", 0))).isTrue();
+        
+        User user = userRepository.findByUsername(USERNAME).orElseThrow();
+        assertThat(user.getProfileImageId()).isEqualTo(id);
+        assertThat(user.getProfileImage()).isEqualTo(first.get("url").asText());
+        
+        // Same bytes under another name: the stored asset is reused
+        JsonNode second = upload(png, "copy.png");
+        assertThat(second.get("id").asText()).isEqualTo(id);
+        assertThat(second.get("originalFilename").asText()).isEqualTo("me.png");
+    }
+    
+    private JsonNode upload(byte[] content, String fileName) throws Exception {
+        String body = mockMvc.perform(multipart(CONTEXT_PATH + "/api/users/me/profile-image")
+                        .file(new MockMultipartFile("file", fileName, "image/png", content))
+                        .contextPath(CONTEXT_PATH))
+                .andExpect(status().isCreated())
+                .andReturn().getResponse().getContentAsString();
+        return objectMapper.readTree(body);
+    }
+    
+    private static byte[] png() throws Exception {
+        BufferedImage image = new BufferedImage(64, 48, BufferedImage.TYPE_INT_RGB);
+        for (int x = 0; x < image.getWidth(); x++) {
+            for (int y = 0; y < image.getHeight(); y++) {
+                image.setRGB(x, y, x * 4 << 16 | y * 5 << 8);
+            }
+        }
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        ImageIO.write(image, "png", out);
+        return out.toByteArray();
+    }
+}
@@ -0,0 +1,33 @@
+package com.spa.model;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class DaySlotsTest {
+
+    @Test
+    void singleSlotsAndRangesRoundTrip() {
+        DaySlots slots = DaySlots.fromStrings(List.of("9:00", "9:15", "10:30-11:30"));
+        
+        assertThat(slots.toStrings()).containsExactly("9:00-9:30", "10:30-11:30");
+        assertThat(DaySlots.fromBytes(slots.toBytes())).isEqualTo(slots);
+        assertThat(slots.toBytes()).hasSize(16);
+    }
+    
+    @Test
+    void rangesRoundTripUnchanged() {
+        List<String> ranges = List.of("8:00-12:00", "13:00-17:00");
+        
+        assertThat(DaySlots.fromStrings(ranges).toStrings()).containsExactlyElementsOf(ranges);
+    }
+    
+    @Test
+    void orMergesSlots() {
+        DaySlots merged = DaySlots.fromStrings(List.of("9:00")).or(DaySlots.fromStrings(List.of("9:15-10:00")));
+        
+        assertThat(merged.toStrings()).containsExactly("9:00-10:00");
+    }
+}
@@ -0,0 +1,92 @@
+package com.spa.model;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.spa.dto.SpecialistDTO;
+import org.junit.jupiter.api.Test;
+
+import java.time.DayOfWeek;
+import java.time.LocalTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class WeeklyAvailabilityTest {
+
+    // The strings the seed data and the admin UI store
+    private static final List<String> SEEDED = List.of(
+            "Monday: 9:00-17:00",
+            "Tuesday: 9:00-17:00",
+            "Wednesday: 9:00-17:00",
+            "Thursday: 9:00-17:00",
+            "Friday: 9:00-17:00");
+    
+    @Test
+    void canonicalStringsRoundTripUnchanged() {
+        WeeklyAvailability availability = WeeklyAvailability.fromStrings(SEEDED);
+        
+        assertThat(availability.toStrings()).containsExactlyElementsOf(SEEDED);
+    }
+    
+    @Test
+    void bytesRoundTrip() {
+        WeeklyAvailability availability = WeeklyAvailability.fromStrings(
+                List.of("Monday: 9:00-12:00, 13:00-17:30", "Sunday: 0:00-24:00"));
+        
+        byte[] bytes = availability.toBytes();
+        
+        assertThat(bytes).hasSize(88);
+        assertThat(WeeklyAvailability.fromBytes(bytes)).isEqualTo(availability);
+        assertThat(WeeklyAvailability.fromBytes(bytes).toStrings())
+                .containsExactly("Monday: 9:00-12:00, 13:00-17:30", "Sunday: 0:00-24:00");
+    }
+    
+    @Test
+    void emptyAvailabilityIsStoredAsNone() {
+        assertThat(WeeklyAvailability.fromStrings(List.of())).isSameAs(WeeklyAvailability.NONE);
+        assertThat(WeeklyAvailability.fromBytes(null)).isSameAs(WeeklyAvailability.NONE);
+        assertThat(WeeklyAvailability.NONE.toStrings()).isEmpty();
+    }
+    
+    @Test
+    void abbreviatedDaysAndPartialSlotsAreNormalized() {
+        WeeklyAvailability availability = WeeklyAvailability.fromStrings(List.of("tue 9:10-12:00", "Mon: 8:00-9:00"));
+        
+        // Only quarter hours fully inside a range count, so 9:10 starts at 9:15
+        assertThat(availability.toStrings()).containsExactly("Monday: 8:00-9:00", "Tuesday: 9:15-12:00");
+    }
+    
+    @Test
+    void freeFormStringsAreRejected() {
+        assertThatThrownBy(() -> WeeklyAvailability.fromStrings(List.of("weekends by appointment")))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> WeeklyAvailability.fromStrings(List.of("Monday: 17:00-9:00")))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+    
+    @Test
+    void windowChecks() {
+        WeeklyAvailability availability = WeeklyAvailability.fromStrings(SEEDED);
+        
+        assertThat(availability.isFree(DayOfWeek.TUESDAY, LocalTime.of(14, 0), LocalTime.of(15, 30))).isTrue();
+        assertThat(availability.isFree(DayOfWeek.TUESDAY, LocalTime.of(16, 30), LocalTime.of(17, 15))).isFalse();
+        assertThat(availability.isFree(DayOfWeek.SATURDAY, LocalTime.of(10, 0), LocalTime.of(11, 0))).isFalse();
+    }
+    
+    @Test
+    void specialistJsonKeepsTheStringForm() throws Exception {
+        WeeklyAvailability availability = WeeklyAvailability.fromBytes(WeeklyAvailability.fromStrings(SEEDED).toBytes());
+        SpecialistDTO dto = new SpecialistDTO();
+        dto.setAvailability(availability.toStrings());
+        dto.setAvailabilitySlots(availability);
+        
+        JsonNode json = new ObjectMapper().valueToTree(dto);
+        
+        assertThat(json.get("availability")).hasSize(SEEDED.size());
+        for (int i = 0; i < SEEDED.size(); i++) {
+            assertThat(json.get("availability").get(i).asText()).isEqualTo(SEEDED.get(i));
+        }
+        assertThat(json.has("availabilitySlots")).isFalse();
+    }
+}
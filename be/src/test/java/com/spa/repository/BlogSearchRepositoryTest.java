@@ -0,0 +1,86 @@
+package com.spa.repository;
+
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.SingleConnectionDataSource;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Runs blog search against a database built by the migrations: the FTS table is kept in sync
+ * by the V1_2 triggers, and highlights and snippets come back as escaped HTML.
+ */
+class BlogSearchRepositoryTest {
+
+    @TempDir
+    Path tempDir;
+    
+    private SingleConnectionDataSource dataSource;
+    private JdbcTemplate jdbcTemplate;
+    private BlogSearchRepository repository;
+    
+    @BeforeEach
+    void setUp() {
+        String url = "jdbc:sqlite:" + tempDir.resolve("search.db");
+        Flyway.configure().dataSource(url, null, null).load().migrate();
+        dataSource = new SingleConnectionDataSource(url, true);
+        jdbcTemplate = new JdbcTemplate(dataSource);
+        repository = new BlogSearchRepository();
+        ReflectionTestUtils.setField(repository, "jdbcTemplate", jdbcTemplate);
+    }
+    
+    @AfterEach
+    void tearDown() {
+        dataSource.destroy();
+    }
+    
+    @Test
+    void triggersKeepTheIndexInSync() {
+        insertPost(1, true, "Hot stone massage", "<p>Warm basalt stones</p>");
+        insertPost(2, false, "Hidden massage", "<p>Not published</p>");
+        assertThat(repository.count("\"massage\"")).isEqualTo(1);
+        
+        jdbcTemplate.update("UPDATE blog_posts SET title = 'Hot stone therapy' WHERE id = 1");
+        assertThat(repository.count("\"massage\"")).isZero();
+        assertThat(repository.count("\"therapy\"")).isEqualTo(1);
+        
+        jdbcTemplate.update("DELETE FROM blog_posts WHERE id = 1");
+        assertThat(repository.count("\"therapy\"")).isZero();
+        // Fails with SQLITE_CORRUPT_VTAB if the index has drifted from blog_posts
+        jdbcTemplate.update("INSERT INTO blog_posts_fts(blog_posts_fts) VALUES ('integrity-check')");
+    }
+    
+    @Test
+    void highlightsEscapePostText() {
+        insertPost(1, true, "Massage <img src=x onerror=alert(1)>", "<p>Oil &amp; <b>massage</b> &lt;tips&gt;</p>");
+        
+        List<BlogSearchRepository.SearchHit> hits = repository.search("\"massage\"", 10, 0);
+        
+        assertThat(hits).singleElement().satisfies(hit -> {
+            assertThat(hit.getPostId()).isEqualTo(1L);
+            assertThat(hit.getTitleHighlight()).isEqualTo("<mark>Massage</mark> &lt;img src=x onerror=alert(1)&gt;");
+            assertThat(hit.getSnippet()).isEqualTo("Oil &amp; <mark>massage</mark> &lt;tips&gt;");
+        });
+    }
+    
+    @Test
+    void snippetsDropCutOffTags() {
+        assertThat(BlogSearchRepository.textOf("ef=\"/x\">deep <em>tissue</em> massage</p><p cla"))
+                .isEqualTo("deep tissue massage");
+        assertThat(BlogSearchRepository.toHtml("a \u0002b\u0003 \u0003c\u0002 d"))
+                .isEqualTo("a <mark>b</mark> c<mark> d</mark>");
+    }
+    
+    private void insertPost(long id, boolean active, String title, String content) {
+        jdbcTemplate.update("INSERT INTO blog_posts (id, is_active, published_at, author, title, slug, excerpt, content) "
+                + "VALUES (?, ?, CURRENT_TIMESTAMP, 'Author', ?, ?, '', ?)", id, active, title, "post-" + id, content);
+    }
+}
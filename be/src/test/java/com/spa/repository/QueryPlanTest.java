@@ -0,0 +1,179 @@
+package com.spa.repository;
+
+import com.spa.IsolatedContextTest;
+import com.spa.model.Booking;
+import org.hibernate.cfg.AvailableSettings;
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.data.domain.PageRequest;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Calls the hot repository queries against a database built by the migrations, records the SQL
+ * Hibernate issues for each, and fails if any statement scans a whole table instead of
+ * searching the index added for it.
+ */
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+class QueryPlanTest extends IsolatedContextTest {
+
+    private static final LocalDate DATE = LocalDate.of(2024, 6, 1);
+    private static final LocalTime TIME = LocalTime.of(10, 0);
+    
+    @Autowired
+    private DataSource dataSource;
+    
+    @Autowired
+    private RecordingInspector inspector;
+    
+    @Autowired
+    private BookingRepository bookingRepository;
+    
+    @Autowired
+    private TransactionRepository transactionRepository;
+    
+    @Autowired
+    private BlogPostRepository blogPostRepository;
+    
+    @Autowired
+    private ServiceRepository serviceRepository;
+    
+    @Test
+    void hotQueriesSearchAnIndex() throws Exception {
+        List<String> failures = new ArrayList<>();
+        for (Map.Entry<String, HotQuery> query : hotQueries().entrySet()) {
+            inspector.statements.clear();
+            query.getValue().call().run();
+            if (inspector.statements.isEmpty()) {
+                failures.add(query.getKey() + ": no SQL issued");
+            }
+            for (String sql : inspector.statements) {
+                List<String> steps = plan(sql);
+                // "SCAN t" reads every row; "SCAN t USING COVERING INDEX i" still reads the whole index
+                boolean scans = steps.stream().anyMatch(step -> step.startsWith("SCAN "));
+                boolean searchesIndex = steps.stream().anyMatch(step -> step.startsWith("SEARCH ")
+                        && step.contains(" INDEX " + query.getValue().index() + " "));
+                if (scans || !searchesIndex) {
+                    failures.add(query.getKey() + ": " + sql + " -> " + steps);
+                }
+            }
+        }
+        assertThat(failures).isEmpty();
+    }
+    
+    // Repository query -> the index it is meant to search
+    private Map<String, HotQuery> hotQueries() {
+        PageRequest page = PageRequest.of(0, 10);
+        Map<String, HotQuery> queries = new LinkedHashMap<>();
+        queries.put("BookingRepository.findByBookingDateBetween", new HotQuery(
+                () -> bookingRepository.findByBookingDateBetween(DATE, DATE.plusDays(7)),
+                "idx_bookings_booking_date"));
+        queries.put("BookingRepository.findByCustomerId", new HotQuery(
+                () -> bookingRepository.findByCustomerId(1L),
+                "idx_bookings_customer_date"));
+        queries.put("BookingRepository.findByStatus", new HotQuery(
+                () -> bookingRepository.findByStatus(Booking.BookingStatus.CONFIRMED),
+                "idx_bookings_status_date"));
+        queries.put("BookingRepository.findByStatusAndBookingDateGreaterThanEqual", new HotQuery(
+                () -> bookingRepository.findByStatusAndBookingDateGreaterThanEqual(Booking.BookingStatus.CONFIRMED, DATE),
+                "idx_bookings_status_date"));
+        queries.put("BookingRepository.existsBySpecialistIdAndBookingDateAndBookingTimeAndStatusIn", new HotQuery(
+                () -> bookingRepository.existsBySpecialistIdAndBookingDateAndBookingTimeAndStatusIn(1L, DATE, TIME,
+                        List.of(Booking.BookingStatus.PENDING, Booking.BookingStatus.CONFIRMED)),
+                "idx_bookings_booking_date"));
+        queries.put("BookingRepository.findStartedBefore", new HotQuery(
+                () -> bookingRepository.findStartedBefore(Booking.BookingStatus.CONFIRMED, DATE, TIME, 0L,
+                        PageRequest.of(0, 200)),
+                "idx_bookings_status_date"));
+        queries.put("BookingRepository.findStale", new HotQuery(
+                () -> bookingRepository.findStale(Booking.BookingStatus.PENDING, LocalDateTime.of(DATE, TIME), DATE, TIME,
+                        0L, PageRequest.of(0, 200)),
+                "idx_bookings_status_date"));
+        queries.put("TransactionRepository.findByTransactionDateBetween", new HotQuery(
+                () -> transactionRepository.findByTransactionDateBetween(DATE.atStartOfDay(), DATE.plusDays(7).atStartOfDay()),
+                "idx_transactions_date"));
+        queries.put("BlogPostRepository.findByIsActiveOrderByPublishedAtDesc", new HotQuery(
+                () -> blogPostRepository.findByIsActiveOrderByPublishedAtDesc(true, page),
+                "idx_blog_posts_active_published"));
+        queries.put("BlogPostRepository.findActiveSummaries", new HotQuery(
+                () -> blogPostRepository.findActiveSummaries(page),
+                "idx_blog_posts_active_published"));
+        queries.put("BlogPostRepository.findByCategoryIdAndIsActiveOrderByPublishedAtDesc", new HotQuery(
+                () -> blogPostRepository.findByCategoryIdAndIsActiveOrderByPublishedAtDesc(1L, true, page),
+                "idx_blog_posts_category_active_published"));
+        queries.put("BlogPostRepository.countByCategoryId", new HotQuery(
+                () -> blogPostRepository.countByCategoryId(1L),
+                "idx_blog_posts_category_active_published"));
+        queries.put("ServiceRepository.countByCategoryId", new HotQuery(
+                () -> serviceRepository.countByCategoryId(1L),
+                "idx_services_category"));
+        return queries;
+    }
+    
+    // Parameters are bound as 1; the plan does not depend on their values
+    private List<String> plan(String sql) throws Exception {
+        List<String> steps = new ArrayList<>();
+        try (Connection connection = dataSource.getConnection();
+             PreparedStatement statement = connection.prepareStatement("EXPLAIN QUERY PLAN " + sql)) {
+            int parameters = statement.getParameterMetaData().getParameterCount();
+            for (int i = 1; i <= parameters; i++) {
+                statement.setInt(i, 1);
+            }
+            try (ResultSet rs = statement.executeQuery()) {
+                while (rs.next()) {
+                    steps.add(rs.getString("detail"));
+                }
+            }
+        }
+        return steps;
+    }
+    
+    private record HotQuery(Runnable call, String index) {
+    }
+    
+    // Records every SQL statement Hibernate prepares
+    static class RecordingInspector implements StatementInspector {
+
+        final List<String> statements = new CopyOnWriteArrayList<>();
+        
+        @Override
+        public String inspect(String sql) {
+            statements.add(sql);
+            return sql;
+        }
+    }
+    
+    @TestConfiguration
+    static class InspectorConfig {
+
+        @Bean
+        RecordingInspector recordingInspector() {
+            return new RecordingInspector();
+        }
+        
+        @Bean
+        HibernatePropertiesCustomizer statementInspector(RecordingInspector inspector) {
+            return properties -> properties.put(AvailableSettings.STATEMENT_INSPECTOR, inspector);
+        }
+    }
+}
@@ -0,0 +1,61 @@
+package com.spa.security;
+
+import com.spa.IsolatedContextTest;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.actuate.observability.AutoConfigureObservability;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Only the health endpoint is public; metrics, including the Prometheus scrape, need the
+ * ADMIN role.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+// Metrics exporters, and with them the Prometheus endpoint, are off in tests by default
+@AutoConfigureObservability(tracing = false)
+class ActuatorSecurityTest extends IsolatedContextTest {
+
+    private static final String CONTEXT_PATH = "/api";
+    
+    @DynamicPropertySource
+    static void mailHealth(DynamicPropertyRegistry registry) {
+        // No SMTP server here; health would report DOWN
+        registry.add("management.health.mail.enabled", () -> "false");
+    }
+    
+    @Autowired
+    private MockMvc mockMvc;
+    
+    @Test
+    void anonymousCallerOnlySeesHealth() throws Exception {
+        mockMvc.perform(actuator("/health")).andExpect(status().isOk());
+        mockMvc.perform(actuator("/prometheus")).andExpect(status().isForbidden());
+        mockMvc.perform(actuator("/metrics")).andExpect(status().isForbidden());
+    }
+    
+    @Test
+    @WithMockUser(username = "user@example.com", roles = "CUSTOMER")
+    void customerCannotScrapeMetrics() throws Exception {
+        mockMvc.perform(actuator("/prometheus")).andExpect(status().isForbidden());
+    }
+    
+    @Test
+    @WithMockUser(username = "admin@example.com", roles = "ADMIN")
+    void adminCanScrapeMetrics() throws Exception {
+        mockMvc.perform(actuator("/prometheus")).andExpect(status().isOk());
+    }
+    
+    private static MockHttpServletRequestBuilder actuator(String endpoint) {
+        return get(CONTEXT_PATH + "/actuator" + endpoint).contextPath(CONTEXT_PATH);
+    }
+}
@@ -0,0 +1,275 @@
+package com.spa.service;
+
+import com.spa.IsolatedContextTest;
+import com.spa.exception.BadRequestException;
+import com.spa.model.Booking;
+import com.spa.model.Transaction;
+import com.spa.repository.BookingRepository;
+import com.spa.repository.ServiceRepository;
+import com.spa.repository.SpecialistRepository;
+import com.spa.repository.TransactionRepository;
+import com.spa.repository.UserRepository;
+import com.spa.util.DomainEvent;
+import com.spa.util.DomainEventListener;
+import org.hibernate.cfg.AvailableSettings;
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.util.AopTestUtils;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import java.util.stream.LongStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Runs the lifecycle sweep and the admin bulk update with a chunk size of 3 and checks that
+ * every chunk is changed with one UPDATE per target status, and that each changed booking
+ * still gets its domain event.
+ */
+@SpringBootTest
+class BookingLifecycleServiceTest extends IsolatedContextTest {
+
+    private static final int CHUNK_SIZE = 3;
+    
+    @DynamicPropertySource
+    static void lifecycle(DynamicPropertyRegistry registry) {
+        registry.add("booking-lifecycle.enabled", () -> "true");
+        // Runs are started by the tests only
+        registry.add("booking-lifecycle.cron", () -> "-");
+        registry.add("booking-lifecycle.chunk-size", () -> CHUNK_SIZE);
+        registry.add("booking-lifecycle.chunk-pause-ms", () -> "0");
+        registry.add("booking-lifecycle.max-bulk-size", () -> "20");
+    }
+    
+    @Autowired
+    private BookingLifecycleService lifecycleService;
+    
+    @Autowired
+    private BookingRepository bookingRepository;
+    
+    @Autowired
+    private TransactionRepository transactionRepository;
+    
+    @Autowired
+    private UserRepository userRepository;
+    
+    @Autowired
+    private ServiceRepository serviceRepository;
+    
+    @Autowired
+    private SpecialistRepository specialistRepository;
+    
+    @Autowired
+    private RecordingInspector inspector;
+    
+    @Autowired
+    private RecordingListener listener;
+    
+    @BeforeEach
+    void setUp() {
+        inspector.statements.clear();
+    }
+    
+    @AfterEach
+    void tearDown() {
+        setNoShowWithoutPayment(false);
+    }
+    
+    @Test
+    void runChangesEachChunkWithOneUpdate() throws Exception {
+        List<Booking> finished = bookings(7, Booking.BookingStatus.CONFIRMED, LocalDate.now().minusDays(2));
+        List<Booking> upcoming = bookings(2, Booking.BookingStatus.CONFIRMED, LocalDate.now().plusDays(2));
+        List<Booking> stale = bookings(4, Booking.BookingStatus.PENDING, LocalDate.now().minusDays(1));
+        
+        lifecycleService.run();
+        
+        assertThat(statuses(finished)).containsOnly(Booking.BookingStatus.COMPLETED);
+        assertThat(statuses(upcoming)).containsOnly(Booking.BookingStatus.CONFIRMED);
+        assertThat(statuses(stale)).containsOnly(Booking.BookingStatus.CANCELLED);
+        // 7 finished in chunks of 3, 3, 1 and 4 stale in chunks of 3, 1
+        assertThat(bookingUpdates()).isEqualTo(5);
+        awaitEvents(finished, Booking.BookingStatus.COMPLETED);
+        awaitEvents(stale, Booking.BookingStatus.CANCELLED);
+        
+        // Nothing left to change
+        inspector.statements.clear();
+        lifecycleService.run();
+        assertThat(bookingUpdates()).isZero();
+    }
+    
+    @Test
+    void unpaidFinishedBookingsBecomeNoShows() throws Exception {
+        setNoShowWithoutPayment(true);
+        List<Booking> finished = bookings(4, Booking.BookingStatus.CONFIRMED, LocalDate.now().minusDays(3));
+        pay(finished.get(0));
+        
+        lifecycleService.run();
+        
+        assertThat(status(finished.get(0))).isEqualTo(Booking.BookingStatus.COMPLETED);
+        assertThat(statuses(finished.subList(1, 4))).containsOnly(Booking.BookingStatus.NO_SHOW);
+        // First chunk: one UPDATE to COMPLETED and one to NO_SHOW; second chunk: one to NO_SHOW
+        assertThat(bookingUpdates()).isEqualTo(3);
+        awaitEvents(finished.subList(1, 4), Booking.BookingStatus.NO_SHOW);
+    }
+    
+    @Test
+    void bulkUpdateIsChunkedAndSkipsUnchangedRows() throws Exception {
+        List<Booking> pending = bookings(7, Booking.BookingStatus.PENDING, LocalDate.now().plusDays(5));
+        Booking confirmed = bookings(1, Booking.BookingStatus.CONFIRMED, LocalDate.now().plusDays(5)).get(0);
+        List<Long> ids = new ArrayList<>(pending.stream().map(Booking::getId).toList());
+        ids.add(confirmed.getId());
+        ids.add(Long.MAX_VALUE);
+        // Duplicates count once
+        ids.add(pending.get(0).getId());
+        
+        int changed = lifecycleService.updateStatuses(ids, "confirmed");
+        
+        assertThat(changed).isEqualTo(7);
+        assertThat(statuses(pending)).containsOnly(Booking.BookingStatus.CONFIRMED);
+        // 9 distinct ids in chunks of 3
+        assertThat(bookingUpdates()).isEqualTo(3);
+        awaitEvents(pending, Booking.BookingStatus.CONFIRMED);
+        assertThat(eventsFor(confirmed)).isEmpty();
+    }
+    
+    @Test
+    void bulkUpdateRejectsUnknownStatusAndOversizedRequests() {
+        assertThatThrownBy(() -> lifecycleService.updateStatuses(List.of(1L), "done"))
+                .isInstanceOf(BadRequestException.class);
+        List<Long> tooMany = LongStream.rangeClosed(1, 21).boxed().toList();
+        assertThatThrownBy(() -> lifecycleService.updateStatuses(tooMany, "confirmed"))
+                .isInstanceOf(BadRequestException.class);
+        assertThat(bookingUpdates()).isZero();
+    }
+    
+    private List<Booking> bookings(int count, Booking.BookingStatus status, LocalDate date) {
+        List<Booking> bookings = IntStream.range(0, count).mapToObj(i -> {
+            Booking booking = new Booking();
+            booking.setCustomer(userRepository.findByUsername("user@example.com").orElseThrow());
+            booking.setService(serviceRepository.findAll().get(0));
+            booking.setSpecialist(specialistRepository.findAll().get(0));
+            booking.setBookingDate(date);
+            booking.setBookingTime(LocalTime.of(9, 0).plusMinutes(10L * i));
+            booking.setStatus(status);
+            return booking;
+        }).toList();
+        List<Booking> saved = bookingRepository.saveAll(bookings);
+        inspector.statements.clear();
+        return saved;
+    }
+    
+    private void pay(Booking booking) {
+        Transaction transaction = new Transaction();
+        transaction.setBooking(booking);
+        transaction.setAmount(50.0);
+        transaction.setPaymentMethod("card");
+        transaction.setStatus(Transaction.TransactionStatus.COMPLETED);
+        transaction.setTransactionDate(LocalDateTime.now());
+        transactionRepository.save(transaction);
+        inspector.statements.clear();
+    }
+    
+    private Booking.BookingStatus status(Booking booking) {
+        return bookingRepository.findById(booking.getId()).orElseThrow().getStatus();
+    }
+    
+    private List<Booking.BookingStatus> statuses(List<Booking> bookings) {
+        return bookings.stream().map(this::status).collect(Collectors.toList());
+    }
+    
+    private long bookingUpdates() {
+        return inspector.statements.stream()
+                .filter(sql -> sql.toLowerCase().startsWith("update bookings "))
+                .count();
+    }
+    
+    private List<DomainEvent> eventsFor(Booking booking) {
+        return listener.events.stream().filter(event -> event.entityId().equals(booking.getId())).toList();
+    }
+    
+    // One BOOKING_STATUS_CHANGED event per booking, carrying the new status
+    private void awaitEvents(List<Booking> bookings, Booking.BookingStatus status) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(30);
+        while (!bookings.stream().allMatch(booking -> !eventsFor(booking).isEmpty())) {
+            assertThat(System.nanoTime()).as("events not delivered within 30 s").isLessThan(deadline);
+            Thread.sleep(20);
+        }
+        for (Booking booking : bookings) {
+            assertThat(eventsFor(booking)).singleElement().satisfies(event -> {
+                assertThat(event.type()).isEqualTo(DomainEvent.Type.BOOKING_STATUS_CHANGED);
+                assertThat(event.detail()).isEqualTo(status.name());
+            });
+        }
+    }
+    
+    private void setNoShowWithoutPayment(boolean noShow) {
+        Object target = AopTestUtils.getUltimateTargetObject(lifecycleService);
+        ReflectionTestUtils.setField(target, "noShowWithoutPayment", noShow);
+    }
+    
+    // Records every SQL statement Hibernate prepares
+    static class RecordingInspector implements StatementInspector {
+
+        final List<String> statements = new CopyOnWriteArrayList<>();
+        
+        @Override
+        public String inspect(String sql) {
+            statements.add(sql);
+            return sql;
+        }
+    }
+    
+    // Records the booking events published by the service
+    static class RecordingListener implements DomainEventListener {
+
+        final List<DomainEvent> events = new CopyOnWriteArrayList<>();
+        
+        @Override
+        public String getName() {
+            return "lifecycle-test";
+        }
+        
+        @Override
+        public void onEvents(List<DomainEvent> batch) {
+            batch.stream().filter(event -> event.type() == DomainEvent.Type.BOOKING_STATUS_CHANGED).forEach(events::add);
+        }
+    }
+    
+    @TestConfiguration
+    static class RecordingConfig {
+
+        @Bean
+        RecordingInspector recordingInspector() {
+            return new RecordingInspector();
+        }
+        
+        @Bean
+        HibernatePropertiesCustomizer statementInspector(RecordingInspector inspector) {
+            return properties -> properties.put(AvailableSettings.STATEMENT_INSPECTOR, inspector);
+        }
+        
+        @Bean
+        RecordingListener recordingListener() {
+            return new RecordingListener();
+        }
+    }
+}
@@ -0,0 +1,71 @@
+package com.spa.service;
+
+import com.spa.IsolatedContextTest;
+import com.spa.dto.ServiceDTO;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Admin writes rebuild the catalog snapshot only once their transaction has committed: the
+ * snapshot never shows uncommitted or rolled back changes.
+ */
+@SpringBootTest
+class CatalogRefreshTest extends IsolatedContextTest {
+
+    @Autowired
+    private ServiceService serviceService;
+    
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+    
+    @Test
+    void snapshotIsRebuiltAfterCommit() {
+        long version = serviceService.getServicesVersion();
+        
+        ServiceDTO created = new TransactionTemplate(transactionManager).execute(status -> {
+            ServiceDTO service = serviceService.createService(service("Committed massage"));
+            // Still inside the write transaction
+            assertThat(serviceService.getServicesVersion()).isEqualTo(version);
+            assertThat(names()).doesNotContain("Committed massage");
+            return service;
+        });
+        
+        assertThat(serviceService.getServicesVersion()).isGreaterThan(version);
+        assertThat(names()).contains("Committed massage");
+        assertThat(serviceService.getServiceById(created.getId()).getName()).isEqualTo("Committed massage");
+    }
+    
+    @Test
+    void rolledBackWriteLeavesSnapshotUntouched() {
+        long version = serviceService.getServicesVersion();
+        
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            serviceService.createService(service("Rolled back massage"));
+            status.setRollbackOnly();
+        });
+        
+        assertThat(serviceService.getServicesVersion()).isEqualTo(version);
+        assertThat(names()).doesNotContain("Rolled back massage");
+    }
+    
+    private List<String> names() {
+        return serviceService.getAllServices().stream().map(ServiceDTO::getName).toList();
+    }
+    
+    private static ServiceDTO service(String name) {
+        ServiceDTO dto = new ServiceDTO();
+        dto.setName(name);
+        dto.setDescription(name);
+        dto.setPrice(50.0);
+        dto.setDuration(60);
+        dto.setActive(true);
+        return dto;
+    }
+}
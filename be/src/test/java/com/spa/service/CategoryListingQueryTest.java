@@ -0,0 +1,130 @@
+package com.spa.service;
+
+import com.spa.IsolatedContextTest;
+import com.spa.dto.BlogCategoryDTO;
+import com.spa.model.BlogCategory;
+import com.spa.model.ServiceCategory;
+import com.spa.repository.BlogCategoryRepository;
+import com.spa.repository.BlogPostRepository;
+import com.spa.repository.ServiceCategoryRepository;
+import com.spa.repository.ServiceRepository;
+import org.hibernate.cfg.AvailableSettings;
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * The category listings come with their service and post counts from one aggregate
+ * statement, however many categories there are, and categories without any items are
+ * listed with a count of zero.
+ */
+@SpringBootTest
+class CategoryListingQueryTest extends IsolatedContextTest {
+
+    @Autowired
+    private BlogService blogService;
+    
+    @Autowired
+    private ServiceCategoryRepository serviceCategoryRepository;
+    
+    @Autowired
+    private BlogCategoryRepository blogCategoryRepository;
+    
+    @Autowired
+    private ServiceRepository serviceRepository;
+    
+    @Autowired
+    private BlogPostRepository blogPostRepository;
+    
+    @Autowired
+    private RecordingInspector inspector;
+    
+    @BeforeEach
+    void setUp() {
+        if (!serviceCategoryRepository.findAll().stream().anyMatch(category -> "Empty".equals(category.getName()))) {
+            ServiceCategory category = new ServiceCategory();
+            category.setName("Empty");
+            serviceCategoryRepository.save(category);
+            BlogCategory blogCategory = new BlogCategory();
+            blogCategory.setName("Empty");
+            blogCategory.setSlug("empty");
+            blogCategoryRepository.save(blogCategory);
+        }
+        inspector.statements.clear();
+    }
+    
+    @Test
+    void serviceCategoriesWithCountsInOneStatement() {
+        List<Object[]> rows = serviceCategoryRepository.findAllWithServiceCount();
+        
+        assertThat(inspector.statements).hasSize(1);
+        assertThat(rows).hasSize((int) serviceCategoryRepository.count());
+        for (Object[] row : rows) {
+            ServiceCategory category = (ServiceCategory) row[0];
+            assertThat(((Number) row[1]).longValue()).as(category.getName())
+                    .isEqualTo(serviceRepository.countByCategoryId(category.getId()));
+        }
+        assertThat(rows).hasSizeGreaterThan(2).anyMatch(row -> ((Number) row[1]).longValue() > 1);
+        assertThat(rows).anyMatch(row -> ((Number) row[1]).longValue() == 0);
+    }
+    
+    @Test
+    void blogCategoriesWithCountsInOneStatement() {
+        List<BlogCategoryDTO> categories = blogService.getAllCategoriesWithStats();
+        
+        assertThat(inspector.statements).hasSize(1);
+        assertThat(categories).hasSize((int) blogCategoryRepository.count());
+        for (BlogCategoryDTO category : categories) {
+            assertThat((long) category.getPostsCount()).as(category.getName())
+                    .isEqualTo(blogPostRepository.countByCategoryId(category.getId()));
+        }
+        assertThat(categories).hasSizeGreaterThan(2).anyMatch(category -> category.getPostsCount() > 0);
+        assertThat(categories).anyMatch(category -> category.getPostsCount() == 0);
+    }
+    
+    @Test
+    void activeBlogCategoriesForTheCatalogInOneStatement() {
+        blogService.refreshCatalog();
+        
+        assertThat(inspector.statements).hasSize(1);
+        List<BlogCategoryDTO> categories = blogService.getAllCategories();
+        assertThat(categories).isNotEmpty().allMatch(BlogCategoryDTO::isActive);
+        assertThat(categories).hasSize(blogCategoryRepository.findByIsActiveWithPostCount(true).size());
+    }
+    
+    // Records every SQL statement Hibernate prepares
+    static class RecordingInspector implements StatementInspector {
+
+        final List<String> statements = new CopyOnWriteArrayList<>();
+        
+        @Override
+        public String inspect(String sql) {
+            statements.add(sql);
+            return sql;
+        }
+    }
+    
+    @TestConfiguration
+    static class InspectorConfig {
+
+        @Bean
+        RecordingInspector recordingInspector() {
+            return new RecordingInspector();
+        }
+        
+        @Bean
+        HibernatePropertiesCustomizer statementInspector(RecordingInspector inspector) {
+            return properties -> properties.put(AvailableSettings.STATEMENT_INSPECTOR, inspector);
+        }
+    }
+}
@@ -0,0 +1,203 @@
+package com.spa.service;
+
+import com.spa.IsolatedContextTest;
+import com.spa.model.OutboxMessage;
+import com.spa.repository.OutboxMessageRepository;
+import com.spa.util.LocalSmtpServer;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.mail.javamail.JavaMailSenderImpl;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.net.ServerSocket;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Drains a real outbox table into LocalSmtpServer: a batch goes out in a single send, a
+ * rejected recipient fails only its own message, and failures are retried with backoff
+ * until mail.outbox.max-attempts.
+ */
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+class OutboxDispatcherTest extends IsolatedContextTest {
+
+    private static final long BACKOFF_INITIAL_MILLIS = 60_000;
+    
+    @Autowired
+    private OutboxMessageRepository outboxMessageRepository;
+    
+    private final MeterRegistry registry = new SimpleMeterRegistry();
+    private LocalSmtpServer smtpServer;
+    private OutboxDispatcher dispatcher;
+    
+    @BeforeEach
+    void setUp() throws Exception {
+        int port = freePort();
+        smtpServer = new LocalSmtpServer();
+        ReflectionTestUtils.setField(smtpServer, "port", port);
+        smtpServer.start();
+        
+        dispatcher = new OutboxDispatcher();
+        ReflectionTestUtils.setField(dispatcher, "outboxMessageRepository", outboxMessageRepository);
+        ReflectionTestUtils.setField(dispatcher, "mailSender", mailSender(port));
+        ReflectionTestUtils.setField(dispatcher, "registry", registry);
+        ReflectionTestUtils.setField(dispatcher, "from", "no-reply@spa.example.com");
+        ReflectionTestUtils.setField(dispatcher, "batchSize", 50);
+        ReflectionTestUtils.setField(dispatcher, "maxAttempts", 3);
+        ReflectionTestUtils.setField(dispatcher, "backoffInitialMillis", BACKOFF_INITIAL_MILLIS);
+        ReflectionTestUtils.setField(dispatcher, "backoffMaxMillis", 3_600_000L);
+        dispatcher.registerMeters();
+    }
+    
+    @AfterEach
+    void tearDown() throws Exception {
+        smtpServer.stop();
+    }
+    
+    @Test
+    void batchIsSentInOneGo() {
+        List<OutboxMessage> messages = IntStream.range(0, 5)
+                .mapToObj(i -> enqueue("guest" + i + "@example.com"))
+                .toList();
+        
+        dispatcher.dispatch();
+        
+        assertThat(smtpServer.getReceived()).extracting(received -> received.recipients().get(0))
+                .containsExactly("guest0@example.com", "guest1@example.com", "guest2@example.com",
+                        "guest3@example.com", "guest4@example.com");
+        for (OutboxMessage message : reload(messages)) {
+            assertThat(message.getStatus()).isEqualTo(OutboxMessage.Status.SENT);
+            assertThat(message.getAttempts()).isEqualTo(1);
+            assertThat(message.getSentAt()).isNotNull();
+        }
+        assertThat(registry.timer("spa.mail.batch").count()).isEqualTo(1);
+        assertThat(registry.counter("spa.mail.sent").count()).isEqualTo(5);
+        assertThat(outboxMessageRepository.countByStatus(OutboxMessage.Status.PENDING)).isZero();
+    }
+    
+    @Test
+    void rejectedRecipientFailsOnlyItsOwnMessage() {
+        OutboxMessage first = enqueue("first@example.com");
+        OutboxMessage rejected = enqueue("nobody@spa.invalid");
+        OutboxMessage last = enqueue("last@example.com");
+        LocalDateTime before = LocalDateTime.now();
+        
+        dispatcher.dispatch();
+        
+        assertThat(smtpServer.getReceived()).extracting(received -> received.recipients().get(0))
+                .containsExactly("first@example.com", "last@example.com");
+        assertThat(reload(first).getStatus()).isEqualTo(OutboxMessage.Status.SENT);
+        assertThat(reload(last).getStatus()).isEqualTo(OutboxMessage.Status.SENT);
+        
+        OutboxMessage retry = reload(rejected);
+        assertThat(retry.getStatus()).isEqualTo(OutboxMessage.Status.PENDING);
+        assertThat(retry.getAttempts()).isEqualTo(1);
+        assertThat(retry.getLastError()).isNotBlank();
+        // First retry is jittered over [initial / 2, initial]
+        assertThat(retry.getNextAttemptAt())
+                .isAfterOrEqualTo(before.plusNanos(BACKOFF_INITIAL_MILLIS / 2 * 1_000_000))
+                .isBefore(LocalDateTime.now().plusNanos(BACKOFF_INITIAL_MILLIS * 1_000_000));
+        assertThat(registry.counter("spa.mail.retried").count()).isEqualTo(1);
+    }
+    
+    @Test
+    void retriesBackOffUntilMaxAttemptsThenFail() {
+        OutboxMessage message = enqueue("nobody@spa.invalid");
+        
+        dispatcher.dispatch();
+        // Not due yet: nothing is sent
+        dispatcher.dispatch();
+        assertThat(reload(message).getAttempts()).isEqualTo(1);
+        
+        makeDue(message);
+        LocalDateTime before = LocalDateTime.now();
+        dispatcher.dispatch();
+        OutboxMessage second = reload(message);
+        assertThat(second.getAttempts()).isEqualTo(2);
+        assertThat(second.getStatus()).isEqualTo(OutboxMessage.Status.PENDING);
+        // The delay doubles per attempt: [initial, 2 * initial] after the second failure
+        assertThat(second.getNextAttemptAt())
+                .isAfterOrEqualTo(before.plusNanos(BACKOFF_INITIAL_MILLIS * 1_000_000))
+                .isBefore(LocalDateTime.now().plusNanos(2 * BACKOFF_INITIAL_MILLIS * 1_000_000));
+        
+        makeDue(message);
+        dispatcher.dispatch();
+        OutboxMessage failed = reload(message);
+        assertThat(failed.getAttempts()).isEqualTo(3);
+        assertThat(failed.getStatus()).isEqualTo(OutboxMessage.Status.FAILED);
+        assertThat(registry.counter("spa.mail.failed").count()).isEqualTo(1);
+        
+        // A FAILED message is never picked up again
+        makeDue(message);
+        dispatcher.dispatch();
+        assertThat(reload(message).getAttempts()).isEqualTo(3);
+        assertThat(smtpServer.getReceived()).isEmpty();
+    }
+    
+    @Test
+    void unreachableServerRetriesTheWholeBatch() throws Exception {
+        OutboxMessage first = enqueue("first@example.com");
+        OutboxMessage second = enqueue("second@example.com");
+        // Nothing listens on this port
+        ReflectionTestUtils.setField(dispatcher, "mailSender", mailSender(freePort()));
+        
+        dispatcher.dispatch();
+        
+        for (OutboxMessage message : reload(List.of(first, second))) {
+            assertThat(message.getStatus()).isEqualTo(OutboxMessage.Status.PENDING);
+            assertThat(message.getAttempts()).isEqualTo(1);
+            assertThat(message.getNextAttemptAt()).isAfter(LocalDateTime.now());
+        }
+        assertThat(registry.counter("spa.mail.retried").count()).isEqualTo(2);
+    }
+    
+    private static JavaMailSenderImpl mailSender(int port) {
+        JavaMailSenderImpl mailSender = new JavaMailSenderImpl();
+        mailSender.setHost("localhost");
+        mailSender.setPort(port);
+        mailSender.getJavaMailProperties().put("mail.smtp.connectiontimeout", "5000");
+        mailSender.getJavaMailProperties().put("mail.smtp.timeout", "5000");
+        return mailSender;
+    }
+    
+    private static int freePort() throws Exception {
+        try (ServerSocket socket = new ServerSocket(0)) {
+            return socket.getLocalPort();
+        }
+    }
+    
+    private OutboxMessage enqueue(String recipient) {
+        OutboxMessage message = new OutboxMessage();
+        message.setRecipient(recipient);
+        message.setSubject("Booking confirmed");
+        message.setBody("See you soon");
+        message.setType("BOOKING_CONFIRMED");
+        message.setNextAttemptAt(LocalDateTime.now().minusSeconds(1));
+        message.setCreatedAt(LocalDateTime.now());
+        return outboxMessageRepository.save(message);
+    }
+    
+    private void makeDue(OutboxMessage message) {
+        OutboxMessage current = reload(message);
+        current.setNextAttemptAt(LocalDateTime.now().minusSeconds(1));
+        outboxMessageRepository.save(current);
+    }
+    
+    private OutboxMessage reload(OutboxMessage message) {
+        return outboxMessageRepository.findById(message.getId()).orElseThrow();
+    }
+    
+    private List<OutboxMessage> reload(List<OutboxMessage> messages) {
+        return messages.stream().map(this::reload).toList();
+    }
+}
@@ -0,0 +1,190 @@
+package com.spa.service;
+
+import com.spa.IsolatedContextTest;
+import com.spa.dto.BookingDTO;
+import com.spa.dto.WaitlistEntryDTO;
+import com.spa.model.User;
+import com.spa.model.WaitlistEntry;
+import com.spa.repository.ServiceRepository;
+import com.spa.repository.SpecialistRepository;
+import com.spa.repository.UserRepository;
+import com.spa.repository.WaitlistEntryRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.util.AopTestUtils;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BooleanSupplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * A cancelled booking frees its slot through the event bus; the slot is offered to the
+ * longest-waiting customer and cascades down the waitlist on decline, leave and expiry,
+ * skipping the customer who freed it and never offering an entry the same slot twice.
+ */
+@SpringBootTest
+class WaitlistCascadeTest extends IsolatedContextTest {
+
+    private static final Duration OFFER_TTL = Duration.ofMinutes(30);
+    private static final AtomicInteger USERS = new AtomicInteger();
+    private static final AtomicInteger SLOTS = new AtomicInteger();
+    
+    @Autowired
+    private WaitlistService waitlistService;
+    
+    @Autowired
+    private BookingService bookingService;
+    
+    @Autowired
+    private WaitlistEntryRepository waitlistEntryRepository;
+    
+    @Autowired
+    private UserRepository userRepository;
+    
+    @Autowired
+    private ServiceRepository serviceRepository;
+    
+    @Autowired
+    private SpecialistRepository specialistRepository;
+    
+    private long serviceId;
+    private long specialistId;
+    private LocalDate date;
+    private LocalTime time;
+    
+    @BeforeEach
+    void setUp() {
+        serviceId = serviceRepository.findAll().get(0).getId();
+        specialistId = specialistRepository.findAll().get(0).getId();
+        // A slot of its own for every test
+        date = LocalDate.now().plusDays(20 + SLOTS.incrementAndGet());
+        time = LocalTime.of(15, 0);
+    }
+    
+    @AfterEach
+    void tearDown() {
+        setOfferTtl(OFFER_TTL);
+    }
+    
+    @Test
+    void slotCascadesInWaitingOrderOnDeclineAndLeave() throws Exception {
+        User freer = customer();
+        User first = customer();
+        User second = customer();
+        User third = customer();
+        BookingDTO booking = book(freer);
+        // The customer who frees the slot waits too, longest of all, but is skipped
+        WaitlistEntryDTO freerEntry = join(freer);
+        WaitlistEntryDTO firstEntry = join(first);
+        WaitlistEntryDTO secondEntry = join(second);
+        WaitlistEntryDTO thirdEntry = join(third);
+        
+        bookingService.cancelBooking(booking.getId());
+        awaitStatus(firstEntry, WaitlistEntry.WaitlistStatus.OFFERED);
+        assertThat(status(freerEntry)).isEqualTo(WaitlistEntry.WaitlistStatus.WAITING);
+        assertThat(status(secondEntry)).isEqualTo(WaitlistEntry.WaitlistStatus.WAITING);
+        
+        waitlistService.decline(firstEntry.getId(), first.getUsername(), false);
+        assertThat(status(firstEntry)).isEqualTo(WaitlistEntry.WaitlistStatus.WAITING);
+        assertThat(status(secondEntry)).isEqualTo(WaitlistEntry.WaitlistStatus.OFFERED);
+        
+        waitlistService.leave(secondEntry.getId(), second.getUsername(), false);
+        assertThat(status(secondEntry)).isEqualTo(WaitlistEntry.WaitlistStatus.CANCELLED);
+        // The entry that declined is not offered the same slot again
+        assertThat(status(firstEntry)).isEqualTo(WaitlistEntry.WaitlistStatus.WAITING);
+        assertThat(status(thirdEntry)).isEqualTo(WaitlistEntry.WaitlistStatus.OFFERED);
+        
+        BookingDTO rebooked = waitlistService.accept(thirdEntry.getId(), third.getUsername(), false);
+        assertThat(rebooked.getCustomerId()).isEqualTo(third.getId());
+        assertThat(rebooked.getBookingDate()).isEqualTo(date);
+        assertThat(rebooked.getBookingTime()).isEqualTo(time);
+        WaitlistEntry booked = waitlistEntryRepository.findById(thirdEntry.getId()).orElseThrow();
+        assertThat(booked.getStatus()).isEqualTo(WaitlistEntry.WaitlistStatus.BOOKED);
+        assertThat(booked.getBookingId()).isEqualTo(rebooked.getId());
+        
+        // The others keep waiting for other slots
+        assertThat(status(freerEntry)).isEqualTo(WaitlistEntry.WaitlistStatus.WAITING);
+        assertThat(status(firstEntry)).isEqualTo(WaitlistEntry.WaitlistStatus.WAITING);
+    }
+    
+    @Test
+    void expiredOfferClosesTheEntryAndPassesTheSlotOn() throws Exception {
+        setOfferTtl(Duration.ofMillis(500));
+        User freer = customer();
+        User first = customer();
+        User second = customer();
+        BookingDTO booking = book(freer);
+        WaitlistEntryDTO firstEntry = join(first);
+        WaitlistEntryDTO secondEntry = join(second);
+        
+        bookingService.cancelBooking(booking.getId());
+        awaitStatus(firstEntry, WaitlistEntry.WaitlistStatus.OFFERED);
+        
+        awaitStatus(firstEntry, WaitlistEntry.WaitlistStatus.EXPIRED);
+        awaitStatus(secondEntry, WaitlistEntry.WaitlistStatus.OFFERED);
+        
+        // Nobody is left once the second offer expires as well
+        awaitStatus(secondEntry, WaitlistEntry.WaitlistStatus.EXPIRED);
+        assertThat(status(firstEntry)).isEqualTo(WaitlistEntry.WaitlistStatus.EXPIRED);
+    }
+    
+    private User customer() {
+        int n = USERS.incrementAndGet();
+        User user = new User();
+        user.setUsername("waiter" + n + "@example.com");
+        user.setEmail("waiter" + n + "@example.com");
+        user.setPassword("not-used");
+        user.setFullName("Waiter " + n);
+        user.setRole(User.Role.ROLE_CUSTOMER);
+        return userRepository.save(user);
+    }
+    
+    private BookingDTO book(User customer) {
+        BookingDTO request = new BookingDTO();
+        request.setCustomerId(customer.getId());
+        request.setServiceId(serviceId);
+        request.setSpecialistId(specialistId);
+        request.setBookingDate(date);
+        request.setBookingTime(time);
+        return bookingService.createBooking(request);
+    }
+    
+    private WaitlistEntryDTO join(User customer) {
+        WaitlistEntryDTO request = new WaitlistEntryDTO();
+        request.setServiceId(serviceId);
+        request.setSpecialistId(specialistId);
+        request.setDateFrom(date);
+        request.setDateTo(date);
+        return waitlistService.join(customer.getUsername(), request);
+    }
+    
+    private WaitlistEntry.WaitlistStatus status(WaitlistEntryDTO entry) {
+        return waitlistEntryRepository.findById(entry.getId()).orElseThrow().getStatus();
+    }
+    
+    private void awaitStatus(WaitlistEntryDTO entry, WaitlistEntry.WaitlistStatus status) throws InterruptedException {
+        await(() -> status(entry) == status);
+    }
+    
+    private void setOfferTtl(Duration ttl) {
+        Object target = AopTestUtils.getUltimateTargetObject(waitlistService);
+        ReflectionTestUtils.setField(target, "offerTtl", ttl);
+    }
+    
+    private static void await(BooleanSupplier condition) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(30);
+        while (!condition.getAsBoolean()) {
+            assertThat(System.nanoTime()).as("condition not met within 30 s").isLessThan(deadline);
+            Thread.sleep(20);
+        }
+    }
+}
@@ -0,0 +1,99 @@
+package com.spa.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Claim order of the waitlist index: the longest-waiting eligible entry wins, across the
+ * slot's specialist and the any-specialist entries, and a claimed entry leaves the index.
+ */
+class WaitlistIndexTest {
+
+    private static final long SPECIALIST = 7;
+    private static final long OTHER_SPECIALIST = 8;
+    private static final long SERVICE = 3;
+    private static final LocalDate DAY = LocalDate.of(2024, 6, 10);
+    
+    private final WaitlistIndex index = new WaitlistIndex();
+    
+    @Test
+    void longestWaitingEntryIsClaimedFirstAcrossSpecificAndAnySpecialist() {
+        index.add(waiter(12, 102, SPECIALIST));
+        index.add(waiter(10, 100, null));
+        index.add(waiter(11, 101, SPECIALIST));
+        
+        assertThat(claim(null, Set.of())).extracting(WaitlistIndex.Waiter::entryId).isEqualTo(10L);
+        assertThat(claim(null, Set.of())).extracting(WaitlistIndex.Waiter::entryId).isEqualTo(11L);
+        assertThat(claim(null, Set.of())).extracting(WaitlistIndex.Waiter::entryId).isEqualTo(12L);
+        assertThat(claim(null, Set.of())).isNull();
+        assertThat(index.size()).isZero();
+    }
+    
+    @Test
+    void onlyEntriesMatchingServiceSpecialistAndDayAreEligible() {
+        index.add(new WaitlistIndex.Waiter(1, 100, SERVICE + 1, SPECIALIST, DAY, DAY));
+        index.add(waiter(2, 101, OTHER_SPECIALIST));
+        index.add(new WaitlistIndex.Waiter(3, 102, SERVICE, SPECIALIST, DAY.plusDays(1), DAY.plusDays(5)));
+        index.add(new WaitlistIndex.Waiter(4, 103, SERVICE, null, DAY.minusDays(3), DAY));
+        
+        assertThat(claim(null, Set.of())).extracting(WaitlistIndex.Waiter::entryId).isEqualTo(4L);
+        assertThat(claim(null, Set.of())).isNull();
+        assertThat(index.size()).isEqualTo(3);
+    }
+    
+    @Test
+    void customerWhoFreedTheSlotAndEntriesAlreadyOfferedAreSkipped() {
+        index.add(waiter(1, 100, SPECIALIST));
+        index.add(waiter(2, 101, null));
+        index.add(waiter(3, 102, SPECIALIST));
+        
+        // Customer 100 freed the slot, entry 2 already declined it
+        assertThat(claim(100L, Set.of(2L))).extracting(WaitlistIndex.Waiter::entryId).isEqualTo(3L);
+        assertThat(claim(100L, Set.of(2L))).isNull();
+        assertThat(index.size()).isEqualTo(2);
+    }
+    
+    @Test
+    void claimedEntryLeavesEveryDayOfItsWindow() {
+        index.add(new WaitlistIndex.Waiter(1, 100, SERVICE, SPECIALIST, DAY, DAY.plusDays(2)));
+        
+        assertThat(claim(null, Set.of())).isNotNull();
+        assertThat(index.claim(SPECIALIST, SERVICE, DAY.plusDays(1), null, Set.of())).isNull();
+        assertThat(index.claim(SPECIALIST, SERVICE, DAY.plusDays(2), null, Set.of())).isNull();
+    }
+    
+    @Test
+    void reAddedEntryKeepsItsPlaceByEntryId() {
+        index.add(waiter(1, 100, SPECIALIST));
+        index.add(waiter(2, 101, SPECIALIST));
+        WaitlistIndex.Waiter first = claim(null, Set.of());
+        // Declined: the entry goes back ahead of the later ones
+        index.add(first);
+        
+        assertThat(claim(null, Set.of())).isEqualTo(first);
+    }
+    
+    @Test
+    void pastDaysAreDropped() {
+        index.add(new WaitlistIndex.Waiter(1, 100, SERVICE, SPECIALIST, DAY.minusDays(2), DAY.minusDays(1)));
+        index.add(new WaitlistIndex.Waiter(2, 101, SERVICE, SPECIALIST, DAY.minusDays(2), DAY));
+        
+        index.removeDaysBefore(DAY);
+        
+        assertThat(index.size()).isEqualTo(1);
+        assertThat(index.claim(SPECIALIST, SERVICE, DAY.minusDays(1), null, Set.of())).isNull();
+        assertThat(claim(null, Set.of())).extracting(WaitlistIndex.Waiter::entryId).isEqualTo(2L);
+    }
+    
+    private WaitlistIndex.Waiter claim(Long freedBy, Set<Long> offered) {
+        return index.claim(SPECIALIST, SERVICE, DAY, freedBy, offered);
+    }
+    
+    private static WaitlistIndex.Waiter waiter(long entryId, long customerId, Long specialistId) {
+        return new WaitlistIndex.Waiter(entryId, customerId, SERVICE, specialistId, DAY, DAY);
+    }
+}
@@ -0,0 +1,78 @@
+package com.spa.util;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.http.Part;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * A multipart upload whose body is still arriving must not hold the single write permit:
+ * another write passes the gate meanwhile, and the upload is admitted once its body is in.
+ */
+class ConnectionGateFilterTest {
+
+    private final ConnectionGateFilter gate = new ConnectionGateFilter(8, 1, 10, 200, Set.of(),
+            request -> false, new ObjectMapper(), new SimpleMeterRegistry());
+    private final AtomicInteger executed = new AtomicInteger();
+    private final FilterChain chain = (request, response) -> executed.incrementAndGet();
+    
+    @Test
+    void slowUploadDoesNotBlockOtherWrites() throws Exception {
+        SlowUpload upload = new SlowUpload();
+        CompletableFuture<MockHttpServletResponse> uploading = CompletableFuture.supplyAsync(() -> filter(upload));
+        assertThat(upload.receiving.await(10, TimeUnit.SECONDS)).isTrue();
+        
+        MockHttpServletResponse write = filter(new MockHttpServletRequest("POST", "/api/bookings"));
+        assertThat(write.getStatus()).isEqualTo(200);
+        assertThat(executed).hasValue(1);
+        
+        upload.received.countDown();
+        assertThat(uploading.get(10, TimeUnit.SECONDS).getStatus()).isEqualTo(200);
+        assertThat(executed).hasValue(2);
+    }
+    
+    private MockHttpServletResponse filter(MockHttpServletRequest request) {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        try {
+            gate.doFilter(request, response, chain);
+        } catch (Exception e) {
+            throw new IllegalStateException(e);
+        }
+        return response;
+    }
+    
+    // Multipart request whose parts are only available once the test says the body has arrived
+    private static final class SlowUpload extends MockHttpServletRequest {
+        final CountDownLatch receiving = new CountDownLatch(1);
+        final CountDownLatch received = new CountDownLatch(1);
+        
+        SlowUpload() {
+            super("POST", "/api/admin/images");
+            setContentType("multipart/form-data; boundary=x");
+        }
+        
+        @Override
+        public Collection<Part> getParts() {
+            receiving.countDown();
+            try {
+                received.await(10, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            return List.of();
+        }
+    }
+}
@@ -0,0 +1,286 @@
+package com.spa.util;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.support.StaticListableBeanFactory;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BooleanSupplier;
+import java.util.stream.LongStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Runs the ring buffer with real listener threads: listeners that catch up within the publish
+ * timeout keep every event, stuck listeners are overrun without affecting the others, and under
+ * concurrent publishers every listener sees each event once, in order, with any gap announced
+ * through onOverflow().
+ */
+class DomainEventBusTest {
+
+    private final MeterRegistry registry = new SimpleMeterRegistry();
+    private DomainEventBus bus;
+    
+    @AfterEach
+    void tearDown() throws InterruptedException {
+        if (bus != null) {
+            bus.stop();
+        }
+    }
+    
+    @Test
+    void listenerThatCatchesUpWithinTimeoutIsNotOverrun() throws Exception {
+        RecordingListener slow = new RecordingListener("slow");
+        slow.block();
+        slow.pauseMillis = 2;
+        // One event per batch, so the listener frees the ring one slot at a time
+        start(8, 1, 5000, slow);
+        
+        publish(0);
+        slow.awaitBlocked();
+        Thread releaser = new Thread(() -> {
+            sleep(100);
+            slow.release();
+        });
+        releaser.start();
+        // Event 9 needs the slot of event 1, which the listener only reads after the release
+        for (long id = 1; id < 16; id++) {
+            publish(id);
+        }
+        releaser.join();
+        
+        await(() -> slow.ids.contains(15L));
+        assertThat(slow.ids).containsExactlyElementsOf(range(0, 16));
+        assertThat(slow.overflows).hasValue(0);
+        assertThat(overruns("slow")).isZero();
+    }
+    
+    @Test
+    void stuckListenerIsOverrunAndOthersKeepEveryEvent() throws Exception {
+        RecordingListener stuck = new RecordingListener("stuck");
+        RecordingListener fast = new RecordingListener("fast");
+        stuck.block();
+        start(8, 256, 200, stuck, fast);
+        
+        publish(0);
+        stuck.awaitBlocked();
+        long started = System.nanoTime();
+        for (long id = 1; id < 20; id++) {
+            publish(id);
+        }
+        // Each overrun frees half the ring, so publishers wait about once per 4 events
+        assertThat(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - started)).isLessThan(10_000);
+        
+        await(() -> fast.ids.contains(19L));
+        assertThat(fast.ids).containsExactlyElementsOf(range(0, 20));
+        assertThat(fast.overflows).hasValue(0);
+        assertThat(overruns("fast")).isZero();
+        
+        stuck.release();
+        await(() -> stuck.ids.contains(19L));
+        assertThat(stuck.overflows.get()).isPositive();
+        assertThat(overruns("stuck")).isPositive();
+        assertThat(stuck.ids).first().isEqualTo(0L);
+        assertThat(stuck.ids).isSorted().doesNotHaveDuplicates().hasSizeLessThan(20);
+    }
+    
+    @Test
+    void concurrentPublishersDeliverEveryEventOnceInOrder() throws Exception {
+        int publishers = 4;
+        int perPublisher = 5000;
+        List<RecordingListener> listeners = List.of(
+                new RecordingListener("a"), new RecordingListener("b"), new RecordingListener("c"));
+        start(64, 16, 10_000, listeners.toArray(new RecordingListener[0]));
+        listeners.get(1).jitter = true;
+        
+        List<Thread> threads = new ArrayList<>();
+        for (int p = 0; p < publishers; p++) {
+            long base = p * 1_000_000L;
+            Thread thread = new Thread(() -> {
+                for (long i = 0; i < perPublisher; i++) {
+                    bus.publish(event(base + i));
+                }
+            });
+            threads.add(thread);
+            thread.start();
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        
+        for (RecordingListener listener : listeners) {
+            await(() -> LongStream.range(0, publishers).allMatch(p -> listener.ids.contains(p * 1_000_000L + perPublisher - 1)));
+            assertThat(listener.overflows).hasValue(0);
+            // Within one publisher, events arrive in publication order
+            for (int p = 0; p < publishers; p++) {
+                long base = p * 1_000_000L;
+                assertThat(listener.ids.stream().filter(id -> id >= base && id < base + 1_000_000L))
+                        .containsExactlyElementsOf(range(base, base + perPublisher));
+            }
+        }
+    }
+    
+    @Test
+    void gapsAreAlwaysAnnouncedByOnOverflow() throws Exception {
+        RecordingListener stalling = new RecordingListener("stalling");
+        stalling.stalls = true;
+        RecordingListener steady = new RecordingListener("steady");
+        start(16, 4, 2, stalling, steady);
+        
+        int count = 3000;
+        for (long id = 0; id < count; id++) {
+            publish(id);
+        }
+        
+        // The last event always arrives: an overrun never skips past the newest event
+        await(() -> steady.ids.contains(count - 1L) && stalling.ids.contains(count - 1L));
+        assertThat(stalling.overflows.get()).isPositive();
+        // Every jump in the ids a listener receives follows an onOverflow() call
+        for (RecordingListener listener : List.of(stalling, steady)) {
+            long previous = -1;
+            boolean announced = false;
+            for (Long entry : listener.log) {
+                if (entry == RecordingListener.OVERFLOW) {
+                    announced = true;
+                    continue;
+                }
+                assertThat(entry).isGreaterThan(previous);
+                if (entry != previous + 1) {
+                    assertThat(announced).as("%s jumped from %d to %d without onOverflow", listener.getName(), previous, entry)
+                            .isTrue();
+                }
+                announced = false;
+                previous = entry;
+            }
+        }
+    }
+    
+    private void start(int bufferSize, int maxBatch, long publishTimeoutMillis, RecordingListener... listeners) {
+        Map<String, Object> beans = new LinkedHashMap<>();
+        for (RecordingListener listener : listeners) {
+            beans.put(listener.getName(), listener);
+        }
+        bus = new DomainEventBus();
+        ReflectionTestUtils.setField(bus, "listeners", new StaticListableBeanFactory(beans).getBeanProvider(DomainEventListener.class));
+        ReflectionTestUtils.setField(bus, "registry", registry);
+        ReflectionTestUtils.setField(bus, "bufferSize", bufferSize);
+        ReflectionTestUtils.setField(bus, "maxBatch", maxBatch);
+        ReflectionTestUtils.setField(bus, "publishTimeoutMillis", publishTimeoutMillis);
+        bus.init();
+        bus.start();
+    }
+    
+    private void publish(long id) {
+        bus.publish(event(id));
+    }
+    
+    private double overruns(String listener) {
+        return registry.counter("spa.events.overruns", "listener", listener).count();
+    }
+    
+    private static DomainEvent event(long id) {
+        return DomainEvent.of(DomainEvent.Type.BOOKING_CREATED, id);
+    }
+    
+    private static List<Long> range(long from, long to) {
+        return LongStream.range(from, to).boxed().toList();
+    }
+    
+    private static void await(BooleanSupplier condition) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(30);
+        while (!condition.getAsBoolean()) {
+            assertThat(System.nanoTime()).as("condition not met within 30 s").isLessThan(deadline);
+            Thread.sleep(5);
+        }
+    }
+    
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+    
+    // Records event ids and overflow calls; can block on its first batch, pause after each batch,
+    // or stall at random
+    private static final class RecordingListener implements DomainEventListener {
+        static final long OVERFLOW = -1;
+        
+        final String name;
+        final List<Long> ids = new CopyOnWriteArrayList<>();
+        // ids and OVERFLOW markers in the order the bus delivered them
+        final List<Long> log = new CopyOnWriteArrayList<>();
+        final AtomicInteger overflows = new AtomicInteger();
+        volatile CountDownLatch gate;
+        final CountDownLatch blocked = new CountDownLatch(1);
+        volatile long pauseMillis;
+        volatile boolean jitter;
+        volatile boolean stalls;
+        
+        RecordingListener(String name) {
+            this.name = name;
+        }
+        
+        void block() {
+            gate = new CountDownLatch(1);
+        }
+        
+        void release() {
+            gate.countDown();
+        }
+        
+        void awaitBlocked() throws InterruptedException {
+            assertThat(blocked.await(10, TimeUnit.SECONDS)).isTrue();
+        }
+        
+        @Override
+        public String getName() {
+            return name;
+        }
+        
+        @Override
+        public void onEvents(List<DomainEvent> events) {
+            for (DomainEvent event : events) {
+                ids.add(event.entityId());
+                log.add(event.entityId());
+            }
+            CountDownLatch current = gate;
+            if (current != null && current.getCount() > 0) {
+                blocked.countDown();
+                try {
+                    current.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+            if (pauseMillis > 0) {
+                sleep(pauseMillis);
+            }
+            ThreadLocalRandom random = ThreadLocalRandom.current();
+            if (jitter && random.nextInt(50) == 0) {
+                Thread.yield();
+            }
+            if (stalls && random.nextInt(20) == 0) {
+                sleep(5 + random.nextInt(10));
+            }
+        }
+        
+        @Override
+        public void onOverflow() {
+            overflows.incrementAndGet();
+            log.add(OVERFLOW);
+        }
+    }
+}
@@ -0,0 +1,110 @@
+package com.spa.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Entries fire exactly once, never before their deadline and no later than the first advance
+ * past it, on every level of the wheel; cancelled entries never fire.
+ */
+class HierarchicalTimingWheelTest {
+
+    @Test
+    void entryFiresOnceAndNeverBeforeItsDeadline() {
+        HierarchicalTimingWheel<String> wheel = new HierarchicalTimingWheel<>(10, 1000);
+        wheel.add(1015, "a");
+        List<String> fired = new ArrayList<>();
+        
+        // The deadline is rounded up to the next tick boundary, 1020
+        wheel.advanceTo(1019, entry -> fired.add(entry.getPayload()));
+        assertThat(fired).isEmpty();
+        wheel.advanceTo(1020, entry -> fired.add(entry.getPayload()));
+        assertThat(fired).containsExactly("a");
+        wheel.advanceTo(5000, entry -> fired.add(entry.getPayload()));
+        assertThat(fired).containsExactly("a");
+        assertThat(wheel.size()).isZero();
+    }
+    
+    @Test
+    void deadlineAlreadyBehindTheWheelIsNotScheduled() {
+        HierarchicalTimingWheel<String> wheel = new HierarchicalTimingWheel<>(10, 1000);
+        wheel.advanceTo(2000, entry -> { });
+        
+        assertThat(wheel.add(1500, "past")).isNull();
+        assertThat(wheel.add(2000, "now")).isNull();
+        assertThat(wheel.add(2001, "next tick")).isNotNull();
+        assertThat(wheel.size()).isEqualTo(1);
+    }
+    
+    @Test
+    void randomDeadlinesOnEveryLevelFireOnTime() {
+        Random random = new Random(42);
+        HierarchicalTimingWheel<Integer> wheel = new HierarchicalTimingWheel<>(1, 0);
+        Map<Integer, Long> deadlines = new HashMap<>();
+        // Up to 64^4 ticks ahead, so entries start on levels 0 to 3 and cascade down
+        for (int id = 0; id < 5000; id++) {
+            long deadline = 1 + (long) Math.pow(random.nextDouble(), 4) * (1L << 24);
+            deadlines.put(id, deadline);
+            wheel.add(deadline, id);
+        }
+        
+        Set<Integer> fired = new HashSet<>();
+        long previous = 0;
+        long now = 0;
+        while (now < 1L << 24) {
+            now += 1 + random.nextInt(5000);
+            long from = previous;
+            long to = now;
+            wheel.advanceTo(now, entry -> {
+                long deadline = deadlines.get(entry.getPayload());
+                assertThat(deadline).as("entry %d", entry.getPayload()).isGreaterThan(from).isLessThanOrEqualTo(to);
+                assertThat(entry.getDeadlineMillis()).isEqualTo(deadline);
+                assertThat(fired.add(entry.getPayload())).as("entry %d fired twice", entry.getPayload()).isTrue();
+            });
+            previous = now;
+        }
+        
+        assertThat(fired).hasSize(deadlines.size());
+        assertThat(wheel.size()).isZero();
+    }
+    
+    @Test
+    void cancelledEntriesNeverFire() {
+        HierarchicalTimingWheel<Integer> wheel = new HierarchicalTimingWheel<>(1, 0);
+        List<HierarchicalTimingWheel.Entry<Integer>> entries = new ArrayList<>();
+        // Spread over levels 0 to 2
+        for (int id = 0; id < 300; id++) {
+            entries.add(wheel.add(1 + id * 97L, id));
+        }
+        // Cancel every third entry, some before and some after they cascade to a lower level
+        for (int id = 0; id < 150; id += 3) {
+            wheel.cancel(entries.get(id));
+        }
+        wheel.advanceTo(10_000, entry -> { });
+        for (int id = 150; id < 300; id += 3) {
+            wheel.cancel(entries.get(id));
+        }
+        // Cancelling twice, or an entry that already fired, changes nothing
+        wheel.cancel(entries.get(0));
+        wheel.cancel(entries.get(1));
+        wheel.cancel(null);
+        
+        List<Integer> fired = new ArrayList<>();
+        wheel.advanceTo(100_000, entry -> fired.add(entry.getPayload()));
+        
+        assertThat(fired).allMatch(id -> id % 3 != 0).doesNotHaveDuplicates();
+        assertThat(fired).containsExactlyElementsOf(
+                IntStream.range(0, 300).filter(id -> id % 3 != 0 && 1 + id * 97L > 10_000).boxed().toList());
+        assertThat(wheel.size()).isZero();
+    }
+}
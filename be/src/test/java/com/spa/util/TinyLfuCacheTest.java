@@ -0,0 +1,81 @@
+package com.spa.util;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Conditional inserts against a concurrent writer, and the Micrometer view of the cache stats.
+ */
+class TinyLfuCacheTest {
+
+    private final TinyLfuCache<String, String> cache = new TinyLfuCache<>(16);
+    private final AtomicLong version = new AtomicLong();
+    
+    @Test
+    void putIfSkipsInsertOnceTheVersionMoved() {
+        long read = version.get();
+        // A writer commits between the reader's load and its insert
+        writerCommits("post");
+        cache.putIf("post", "stale", () -> version.get() == read);
+        
+        assertThat(cache.get("post")).isNull();
+    }
+    
+    @Test
+    void invalidationCannotSlipBetweenCheckAndInsert() throws Exception {
+        long read = version.get();
+        Thread writer = new Thread(() -> writerCommits("post"));
+        cache.putIf("post", "stale", () -> {
+            // The writer bumps the version but then waits for the lock to invalidate
+            writer.start();
+            awaitVersion(read + 1);
+            return true;
+        });
+        writer.join();
+        
+        assertThat(cache.get("post")).isNull();
+    }
+    
+    @Test
+    void putIfInsertsWhileTheVersionHolds() {
+        long read = version.get();
+        cache.putIf("post", "fresh", () -> version.get() == read);
+        
+        assertThat(cache.get("post")).isEqualTo("fresh");
+    }
+    
+    @Test
+    void statsAreExportedAsMeters() {
+        MeterRegistry registry = new SimpleMeterRegistry();
+        cache.bindTo(registry, "posts");
+        cache.put("a", "1");
+        cache.get("a");
+        cache.get("a");
+        cache.get("a");
+        cache.get("b");
+        
+        assertThat(registry.get("spa.cache.size").tag("cache", "posts").gauge().value()).isEqualTo(1);
+        assertThat(registry.get("spa.cache.hit.ratio").tag("cache", "posts").gauge().value()).isEqualTo(0.75);
+        assertThat(registry.get("spa.cache.requests").tags("cache", "posts", "result", "hit").functionCounter().count())
+                .isEqualTo(3);
+        assertThat(registry.get("spa.cache.requests").tags("cache", "posts", "result", "miss").functionCounter().count())
+                .isEqualTo(1);
+    }
+    
+    // What BlogService.postsChanged does after commit
+    private void writerCommits(String slug) {
+        version.incrementAndGet();
+        cache.invalidate(slug);
+    }
+    
+    private void awaitVersion(long expected) {
+        while (version.get() < expected) {
+            Thread.onSpinWait();
+        }
+    }
+}
@@ -43,6 +43,8 @@ export const BookingDetailsDialog = ({
         return <Badge className="bg-blue-500">Hoàn thành</Badge>;
       case BOOKING_STATUSES.CANCELLED:
         return <Badge className="bg-red-500">Đã hủy</Badge>;
+      case BOOKING_STATUSES.NO_SHOW:
+        return <Badge className="bg-gray-500">Không đến</Badge>;
       default:
         return <Badge>Không xác định</Badge>;
     }
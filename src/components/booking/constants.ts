@@ -10,7 +10,8 @@ export const BOOKING_STATUSES = {
   PENDING: "PENDING",
   CONFIRMED: "CONFIRMED",
   COMPLETED: "COMPLETED",
-  CANCELLED: "CANCELLED"
+  CANCELLED: "CANCELLED",
+  NO_SHOW: "NO_SHOW"
 };
 
 export const PAYMENT_STATUSES = {
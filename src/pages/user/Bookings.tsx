@@ -118,6 +118,8 @@ const UserBookings = () => {
         return <Badge className="bg-green-500">Hoàn thành</Badge>;
       case BOOKING_STATUSES.CANCELLED:
         return <Badge className="bg-red-500">Đã hủy</Badge>;
+      case BOOKING_STATUSES.NO_SHOW:
+        return <Badge className="bg-gray-500">Không đến</Badge>;
       case BOOKING_STATUSES.PENDING:
         return <Badge className="bg-yellow-500">Đang chờ</Badge>;
       default: